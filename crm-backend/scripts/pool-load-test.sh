@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Local load test for the connection pool settings.
+#
+# Fires REQUESTS GETs at URL with CONCURRENCY in flight and prints the latency percentiles, the status
+# code mix and the pool statistics afterwards. Compare two runs against a local MySQL:
+#
+#   old behaviour:  ./mvnw spring-boot:run -Dspring-boot.run.arguments="--crm.datasource.pool.adaptive.enabled=false \
+#                       --spring.datasource.hikari.connection-timeout=60000 --crm.datasource.pool.max-pending=100000"
+#   new behaviour:  ./mvnw spring-boot:run
+#
+#   scripts/pool-load-test.sh [URL] [REQUESTS] [CONCURRENCY]
+#
+# With the old settings the tail latency climbs towards the 60 s connection timeout as requests queue
+# on five connections; with the new ones the pool grows, and the excess is shed early with 503s.
+set -euo pipefail
+
+URL=${1:-http://localhost:8080/api/tasks?page=0&size=20}
+REQUESTS=${2:-2000}
+CONCURRENCY=${3:-200}
+BASE=${URL%%/api/*}
+OUT=$(mktemp)
+trap 'rm -f "$OUT"' EXIT
+
+echo "GET $URL x $REQUESTS, $CONCURRENCY concurrent"
+start=$(date +%s.%N)
+# Set AUTHORIZATION="Bearer <token>" when the endpoint requires a login
+HEADERS=()
+if [[ -n "${AUTHORIZATION:-}" ]]; then
+    HEADERS=(-H "Authorization: $AUTHORIZATION")
+fi
+seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+    curl -s -o /dev/null "${HEADERS[@]}" -w '%{http_code} %{time_total}\n' "$URL" >> "$OUT"
+elapsed=$(echo "$(date +%s.%N) - $start" | bc)
+
+echo "Completed in ${elapsed}s"
+echo "Status codes:"
+cut -d' ' -f1 "$OUT" | sort | uniq -c
+echo "Latency (s) of 2xx responses:"
+grep '^2' "$OUT" | cut -d' ' -f2 | sort -n | awk '
+    { v[NR] = $1 }
+    END {
+        if (NR == 0) { print "  none"; exit }
+        printf "  p50 %.3f  p95 %.3f  p99 %.3f  max %.3f\n", v[int(NR * 0.50) + 1], v[int(NR * 0.95) + 1 > NR ? NR : int(NR * 0.95) + 1], v[int(NR * 0.99) + 1 > NR ? NR : int(NR * 0.99) + 1], v[NR]
+    }'
+echo "Pools:"
+curl -s "$BASE/api/system/connection-pools"
+echo
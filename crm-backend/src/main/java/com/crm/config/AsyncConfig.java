@@ -20,6 +20,8 @@ public class AsyncConfig {
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("SaleService-");
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // @Async work keeps the replica routing and endpoint label of the request that submitted it
+        executor.setTaskDecorator(task -> PrimaryReads.propagate(RequestEndpoint.propagate(task)));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
         executor.initialize();
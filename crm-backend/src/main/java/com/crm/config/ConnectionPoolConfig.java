@@ -0,0 +1,61 @@
+package com.crm.config;
+
+import com.crm.service.ConnectionPoolMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires connection pool instrumentation: every Hikari pool reports to the {@link ConnectionPoolMonitor},
+ * API requests are shed when the pools are saturated, and connection hold time is labelled by route.
+ */
+@Configuration
+public class ConnectionPoolConfig implements WebMvcConfigurer {
+
+    /**
+     * Hikari only accepts a metrics tracker before its pool starts, which happens on the first connection
+     * request after the DataSource bean is initialized
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<MetricsTrackerFactory> metricsTrackerFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory(metricsTrackerFactory.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ConnectionPoolFilter connectionPoolFilter(ConnectionPoolMonitor connectionPoolMonitor,
+                                                     @Value("${crm.datasource.pool.max-pending:20}") int maxPending) {
+        return new ConnectionPoolFilter(connectionPoolMonitor, maxPending);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    RequestEndpoint.resolve(request.getMethod() + " " + pattern);
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.crm.config;
+
+import com.crm.service.ConnectionPoolMonitor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds API requests with 503 while too many threads already queue for a database connection, so
+ * clients back off within milliseconds instead of waiting out the connection timeout. Requests that
+ * get through are labelled with their endpoint for connection hold time accounting.
+ */
+class ConnectionPoolFilter extends OncePerRequestFilter {
+
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final int maxPending;
+
+    ConnectionPoolFilter(ConnectionPoolMonitor connectionPoolMonitor, int maxPending) {
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isAsyncDispatch(request) && isSheddable(request) && connectionPoolMonitor.getMaxPending() >= maxPending) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":503,"
+                    + "\"error\":\"Service Unavailable\",\"message\":\"The database is busy; retry shortly\"}");
+            return;
+        }
+
+        // Refined to the matched route once the handler is known, see ConnectionPoolConfig
+        RequestEndpoint.start(request.getMethod() + " (unmatched)");
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestEndpoint.clear();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * API calls other than open streams and the pool statistics themselves
+     */
+    private static boolean isSheddable(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/api/") && !path.startsWith("/api/stream/") && !path.startsWith("/api/system/");
+    }
+}
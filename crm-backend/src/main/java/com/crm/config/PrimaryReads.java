@@ -0,0 +1,45 @@
+package com.crm.config;
+
+/**
+ * Marks the current thread's work as needing to read from the primary, because the client it serves
+ * has just written and the replica may not have caught up yet. The mark follows work handed to the
+ * task executor, so {@code @Async} reads keep the routing of the request that started them.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {}
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    static void pin(boolean pinned) {
+        PINNED.set(pinned);
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+
+    /**
+     * Task decorator carrying the submitting thread's mark into the task
+     */
+    public static Runnable propagate(Runnable task) {
+        boolean pinned = isPinned();
+        return () -> {
+            Boolean previous = PINNED.get();
+            PINNED.set(pinned);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    PINNED.remove();
+                } else {
+                    PINNED.set(previous);
+                }
+            }
+        };
+    }
+}
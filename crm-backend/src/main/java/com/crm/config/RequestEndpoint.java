@@ -0,0 +1,64 @@
+package com.crm.config;
+
+/**
+ * Label of the endpoint the current thread is working for, such as {@code GET /api/customers/{id}},
+ * used to attribute connection hold time. The label is a shared holder so work handed to the task
+ * executor before the handler is resolved still reports the final label.
+ */
+public final class RequestEndpoint {
+
+    private static final ThreadLocal<Label> CURRENT = new ThreadLocal<>();
+
+    private RequestEndpoint() {}
+
+    /**
+     * Current label, or null outside request processing (schedulers, startup)
+     */
+    public static String current() {
+        Label label = CURRENT.get();
+        return label != null ? label.value : null;
+    }
+
+    static void start(String initial) {
+        CURRENT.set(new Label(initial));
+    }
+
+    static void resolve(String value) {
+        Label label = CURRENT.get();
+        if (label != null) {
+            label.value = value;
+        }
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Task decorator carrying the submitting thread's label into the task
+     */
+    public static Runnable propagate(Runnable task) {
+        Label label = CURRENT.get();
+        return () -> {
+            Label previous = CURRENT.get();
+            CURRENT.set(label);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    private static final class Label {
+        volatile String value;
+
+        Label(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.crm.controller;
+
+import com.crm.dto.ConnectionPoolStats;
+import com.crm.dto.EndpointConnectionUsage;
+import com.crm.service.ConnectionPoolMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/system/connection-pools")
+@Tag(name = "System", description = "Runtime diagnostics")
+public class ConnectionPoolController {
+
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+
+    public ConnectionPoolController(ConnectionPoolMonitor connectionPoolMonitor) {
+        this.connectionPoolMonitor = connectionPoolMonitor;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get the state of each database connection pool and its connection wait histogram")
+    public ResponseEntity<List<ConnectionPoolStats>> getPools() {
+        return ResponseEntity.ok(connectionPoolMonitor.getPoolStats());
+    }
+
+    @GetMapping("/endpoints")
+    @Operation(summary = "Get database connection hold times per endpoint, largest total first")
+    public ResponseEntity<List<EndpointConnectionUsage>> getEndpointUsage() {
+        return ResponseEntity.ok(connectionPoolMonitor.getEndpointUsage());
+    }
+}
@@ -1,7 +1,16 @@
 package com.crm.controller;
 
+import com.crm.dto.CustomerOverview;
+import com.crm.dto.CustomerUpsertRequest;
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
 import com.crm.model.Customer;
+import com.crm.model.SerializedJson;
+import com.crm.service.CustomerBulkService;
+import com.crm.service.CustomerOverviewService;
 import com.crm.service.CustomerService;
+import com.crm.service.JsonResponseCache;
+import com.crm.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +19,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -25,26 +39,52 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerOverviewService customerOverviewService;
+
+    @Autowired
+    private CustomerBulkService customerBulkService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
     @Operation(
             summary = "Get all customers",
-            description = "Retrieves a list of all customers in the system"
+            description = "Retrieves a list of all customers in the system. Send the ETag back as If-None-Match "
+                    + "to get 304 while no customer has changed. The body is serialized once per version and sent "
+                    + "gzip-compressed to clients that accept it"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved all customers",
                     content = @Content(schema = @Schema(implementation = Customer.class, type = "array"))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Customers unchanged since the given ETag",
+                    content = @Content
             )
     })
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
     @GetMapping
-    public List<Customer> getAllCustomers() {
-        return customerService.findAll();
+    public ResponseEntity<byte[]> getAllCustomers(@Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+        String version = resourceVersionService.getCollectionVersion(VersionedResource.CUSTOMERS).getTag();
+        String eTag = EntityTags.ofCollection(version);
+        if (EntityTags.isNotModified(headers, eTag, null)) {
+            return EntityTags.notModified(eTag, null);
+        }
+        SerializedJson body = jsonResponseCache.get(VersionedResource.CUSTOMERS, eTag, () -> customerService.findAll(version));
+        return SerializedBodies.write(EntityTags.ok(eTag, null), body, headers);
     }
 
     @Operation(
             summary = "Get customer by ID",
-            description = "Retrieves a specific customer by their unique identifier"
+            description = "Retrieves a specific customer by their unique identifier. Honors If-None-Match and "
+                    + "If-Modified-Since without loading the customer"
     )
     @ApiResponses({
             @ApiResponse(
@@ -52,6 +92,11 @@ public class CustomerController {
                     description = "Customer found successfully",
                     content = @Content(schema = @Schema(implementation = Customer.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Customer unchanged since the given ETag or date",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Customer not found",
@@ -62,9 +107,19 @@ public class CustomerController {
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(
             @Parameter(description = "Customer ID", example = "1", required = true)
-            @PathVariable Long id) {
-        Optional<Customer> customer = customerService.findById(id);
-        return customer.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+            @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+        Optional<ResourceVersion> version = resourceVersionService.getRecordVersion(VersionedResource.CUSTOMERS, id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = EntityTags.of(Long.valueOf(version.get().getTag()));
+        if (EntityTags.isNotModified(headers, eTag, version.get().getLastModified())) {
+            return EntityTags.notModified(eTag, version.get().getLastModified());
+        }
+        return customerService.findById(id)
+                .map(customer -> EntityTags.ok(EntityTags.of(customer.getVersion()), customer.getUpdatedDate()).body(customer))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(
@@ -154,4 +209,75 @@ public class CustomerController {
         }
         return ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Bulk upsert customers",
+            description = "Reads a JSON array of customers and inserts or updates each one, matching on the normalized email, "
+                    + "or company and name when there is no email. Rows are written in chunked batches and one NDJSON result "
+                    + "line per row is streamed back as each chunk commits, followed by a summary line. "
+                    + "Clients should read the response while still sending the request."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Per-row results streamed as NDJSON",
+                    content = @Content(mediaType = "application/x-ndjson")
+            )
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Customers to upsert", required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = CustomerUpsertRequest.class, type = "array")))
+    @PostMapping(path = "/bulk-upsert", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkUpsertCustomers(HttpServletRequest request) {
+        // The body is parsed row by row while results stream out, so 200k customers are never held in memory
+        StreamingResponseBody body = out -> customerBulkService.upsert(request.getInputStream(), out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Get customer overview",
+            description = "Returns the customer with their originating lead, sales totals, recent sales and related tasks. "
+                    + "Sections are loaded in parallel under one deadline; late sections are listed in incompleteSections"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Overview assembled",
+                    content = @Content(schema = @Schema(implementation = CustomerOverview.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Customer not found",
+                    content = @Content
+            )
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{id}/overview")
+    public CompletableFuture<ResponseEntity<CustomerOverview>> getCustomerOverview(
+            @Parameter(description = "Customer ID", example = "1", required = true)
+            @PathVariable Long id) {
+        return customerOverviewService.getOverview(id)
+                .thenApply(overview -> overview.map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(
+            summary = "Get customer cache statistics",
+            description = "Size, hit, miss and eviction counts of the customer lookup caches"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = Object.class))
+            )
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/cache/statistics")
+    public Map<String, Object> getCacheStatistics() {
+        return customerService.getCacheStatistics();
+    }
+}
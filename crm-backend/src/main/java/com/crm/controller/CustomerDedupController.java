@@ -0,0 +1,45 @@
+package com.crm.controller;
+
+import com.crm.dto.CustomerDedupReport;
+import com.crm.dto.CustomerMergeRequest;
+import com.crm.dto.CustomerMergeResult;
+import com.crm.service.CustomerDedupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/customers")
+@Tag(name = "Customer Deduplication", description = "Duplicate customer detection and merging")
+public class CustomerDedupController {
+
+    private final CustomerDedupService customerDedupService;
+
+    public CustomerDedupController(CustomerDedupService customerDedupService) {
+        this.customerDedupService = customerDedupService;
+    }
+
+    @GetMapping("/dedup")
+    @Operation(summary = "Get the duplicate candidates found by the latest scan")
+    public ResponseEntity<CustomerDedupReport> getReport() {
+        return ResponseEntity.ok(customerDedupService.getReport());
+    }
+
+    @PostMapping("/dedup/scan")
+    @Operation(summary = "Start a duplicate scan in the background; does nothing if one is already running")
+    public ResponseEntity<CustomerDedupReport> startScan() {
+        return ResponseEntity.accepted().body(customerDedupService.startScan());
+    }
+
+    @PostMapping("/{id}/merge")
+    @Operation(summary = "Merge duplicate customers into this one, moving their sales and converted leads")
+    public ResponseEntity<CustomerMergeResult> merge(
+            @Parameter(description = "Customer ID that survives the merge") @PathVariable Long id,
+            @Valid @RequestBody CustomerMergeRequest request) {
+
+        return ResponseEntity.ok(customerDedupService.merge(id, request.getDuplicateIds()));
+    }
+}
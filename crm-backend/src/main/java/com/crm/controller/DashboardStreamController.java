@@ -0,0 +1,56 @@
+package com.crm.controller;
+
+import com.crm.model.User;
+import com.crm.service.DashboardStreamService;
+import com.crm.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/stream")
+@Tag(name = "Streams", description = "Server-Sent Events push channels")
+public class DashboardStreamController {
+
+    private final DashboardStreamService dashboardStreamService;
+    private final UserService userService;
+
+    public DashboardStreamController(DashboardStreamService dashboardStreamService, UserService userService) {
+        this.dashboardStreamService = dashboardStreamService;
+        this.userService = userService;
+    }
+
+    @GetMapping(path = "/dashboard", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard deltas",
+            description = "Pushes a 'delta' event for each task, lead or sale change once it commits. "
+                    + "Each event carries the outbox ID as its SSE id, the event type, the record ID and a payload "
+                    + "with fields such as status, previousStatus and assignedToId. Admins and managers get every "
+                    + "payload; other users get payloads of their own records only. EventSource cannot send headers, "
+                    + "so browsers pass the JWT as the access_token query parameter.")
+    public ResponseEntity<SseEmitter> streamDashboard() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Optional<User> user = userService.findByEmail(authentication.getName()).join();
+        return user.map(found -> ResponseEntity.ok(dashboardStreamService.subscribe(found)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    @GetMapping("/dashboard/subscribers")
+    @Operation(summary = "Number of open dashboard streams")
+    public Map<String, Integer> getSubscriberCount() {
+        return Map.of("subscribers", dashboardStreamService.getSubscriberCount());
+    }
+}
@@ -0,0 +1,110 @@
+package com.crm.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maps record versions to HTTP entity tags and back, and evaluates conditional GETs
+ */
+final class EntityTags {
+
+    private EntityTags() {}
+
+    /**
+     * Strong ETag for a record version
+     */
+    static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Weak ETag for a collection fingerprint; list bodies are equivalent, not byte-for-byte identical
+     */
+    static String ofCollection(String fingerprint) {
+        return "W/\"" + fingerprint + "\"";
+    }
+
+    /**
+     * Version required by an If-Match header, or null when the header is absent or "*"
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    /**
+     * Whether the client's copy is current. If-None-Match is compared weakly and, when present,
+     * decides alone; otherwise If-Modified-Since is compared at the one-second precision of HTTP dates.
+     */
+    static boolean isNotModified(HttpHeaders request, String eTag, LocalDateTime lastModified) {
+        List<String> ifNoneMatch = request.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String current = opaque(eTag);
+            return ifNoneMatch.stream().anyMatch(tag -> tag.trim().equals("*") || opaque(tag).equals(current));
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            // An unparseable date is ignored, as if the header were absent
+            return false;
+        }
+        return ifModifiedSince >= 0 && epochMillis(lastModified.truncatedTo(ChronoUnit.SECONDS)) <= ifModifiedSince;
+    }
+
+    /**
+     * 304 response carrying the validators, without a body
+     */
+    static <T> ResponseEntity<T> notModified(String eTag, LocalDateTime lastModified) {
+        return validated(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag, lastModified).build();
+    }
+
+    /**
+     * 200 response builder carrying the validators. Caches must revalidate before every reuse, so a
+     * heuristic freshness lifetime derived from Last-Modified never serves a stale copy.
+     */
+    static ResponseEntity.BodyBuilder ok(String eTag, LocalDateTime lastModified) {
+        return validated(ResponseEntity.ok(), eTag, lastModified);
+    }
+
+    private static ResponseEntity.BodyBuilder validated(ResponseEntity.BodyBuilder builder, String eTag,
+                                                        LocalDateTime lastModified) {
+        builder.eTag(eTag).cacheControl(CacheControl.noCache());
+        if (lastModified != null) {
+            builder.lastModified(epochMillis(lastModified));
+        }
+        return builder;
+    }
+
+    private static String opaque(String tag) {
+        String value = tag.trim();
+        return value.startsWith("W/") ? value.substring(2) : value;
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
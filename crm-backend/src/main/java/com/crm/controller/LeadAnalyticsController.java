@@ -0,0 +1,56 @@
+package com.crm.controller;
+
+import com.crm.dto.LeadConversionRate;
+import com.crm.dto.LeadFunnelReport;
+import com.crm.service.LeadFunnelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leads/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Lead Analytics", description = "Lead funnel and conversion analytics served from daily rollups")
+public class LeadAnalyticsController {
+
+    private final LeadFunnelService leadFunnelService;
+
+    public LeadAnalyticsController(LeadFunnelService leadFunnelService) {
+        this.leadFunnelService = leadFunnelService;
+    }
+
+    @GetMapping("/funnel")
+    @Operation(summary = "Get the lead funnel for a date range")
+    public ResponseEntity<LeadFunnelReport> getFunnel(
+            @Parameter(description = "First day included (yyyy-MM-dd), defaults to 30 days ago")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Last day included (yyyy-MM-dd), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Filter by lead source") @RequestParam(required = false) String source,
+            @Parameter(description = "Filter by sales representative ID") @RequestParam(required = false) Long salesRepId) {
+
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate : to.minusDays(30);
+        return ResponseEntity.ok(leadFunnelService.getFunnel(from, to, source, salesRepId));
+    }
+
+    @GetMapping("/conversion-rates")
+    @Operation(summary = "Get lead conversion rates grouped by source, sales representative or day")
+    public ResponseEntity<List<LeadConversionRate>> getConversionRates(
+            @Parameter(description = "First day included (yyyy-MM-dd), defaults to 30 days ago")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Last day included (yyyy-MM-dd), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Grouping: source, salesRep or day") @RequestParam(defaultValue = "source") String groupBy) {
+
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate : to.minusDays(30);
+        return ResponseEntity.ok(leadFunnelService.getConversionRates(from, to, groupBy));
+    }
+}
@@ -1,15 +1,36 @@
 package com.crm.controller;
 
+import com.crm.dto.BulkLeadConvertRequest;
+import com.crm.dto.BulkLeadFilterUpdateRequest;
+import com.crm.dto.BulkLeadReassignRequest;
+import com.crm.dto.BulkLeadStatusRequest;
+import com.crm.dto.BulkOperationResult;
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
+import com.crm.model.Customer;
 import com.crm.model.Lead;
+import com.crm.model.SerializedJson;
 import com.crm.enums.LeadStatus;
+import com.crm.service.JsonResponseCache;
+import com.crm.service.LeadBulkService;
+import com.crm.service.LeadConversionService;
 import com.crm.service.LeadService;
+import com.crm.service.ResourceVersionService;
 
 import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/leads")
@@ -18,22 +39,65 @@ import java.util.List;
 public class LeadController {
 
     private final LeadService leadService;
+    private final LeadBulkService leadBulkService;
+    private final LeadConversionService leadConversionService;
+    private final ResourceVersionService resourceVersionService;
+    private final JsonResponseCache jsonResponseCache;
 
-    public LeadController(LeadService leadService) {
+    public LeadController(LeadService leadService, LeadBulkService leadBulkService,
+                          LeadConversionService leadConversionService, ResourceVersionService resourceVersionService,
+                          JsonResponseCache jsonResponseCache) {
         this.leadService = leadService;
+        this.leadBulkService = leadBulkService;
+        this.leadConversionService = leadConversionService;
+        this.resourceVersionService = resourceVersionService;
+        this.jsonResponseCache = jsonResponseCache;
     }
 
     @GetMapping
-    @Operation(summary = "Get all leads")
-    public ResponseEntity<List<Lead>> getAllLeads() {
-        return ResponseEntity.ok(leadService.findAll());
+    @Operation(summary = "Get all leads; send the ETag back as If-None-Match to get 304 while no lead has changed")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Lead.class))))
+    public ResponseEntity<byte[]> getAllLeads(@Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+        String eTag = EntityTags.ofCollection(resourceVersionService.getCollectionVersion(VersionedResource.LEADS).getTag());
+        if (EntityTags.isNotModified(headers, eTag, null)) {
+            return EntityTags.notModified(eTag, null);
+        }
+        SerializedJson body = jsonResponseCache.get(VersionedResource.LEADS, eTag, leadService::findAll);
+        return SerializedBodies.write(EntityTags.ok(eTag, null), body, headers);
+    }
+
+    @GetMapping("/prioritized")
+    @Operation(summary = "Get the highest scoring open leads")
+    public ResponseEntity<List<Lead>> getPrioritizedLeads(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long salesRepId) {
+
+        return ResponseEntity.ok(leadService.findPrioritized(Math.min(limit, 200), salesRepId));
+    }
+
+    @GetMapping("/follow-up")
+    @Operation(summary = "Get the follow-up work queue, oldest update first")
+    public ResponseEntity<Page<Lead>> getFollowUpQueue(
+            @RequestParam(required = false) Long salesRepId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(leadService.findFollowUpQueue(salesRepId, PageRequest.of(page, Math.min(size, 200))));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get lead by ID")
-    public ResponseEntity<Lead> getLeadById(@PathVariable Long id) {
+    @Operation(summary = "Get lead by ID; honors If-None-Match and If-Modified-Since without loading the lead")
+    public ResponseEntity<Lead> getLeadById(@PathVariable Long id,
+                                            @Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+        Optional<ResourceVersion> version = resourceVersionService.getRecordVersion(VersionedResource.LEADS, id);
+        if (version.isPresent()) {
+            String eTag = EntityTags.of(Long.valueOf(version.get().getTag()));
+            if (EntityTags.isNotModified(headers, eTag, version.get().getLastModified())) {
+                return EntityTags.notModified(eTag, version.get().getLastModified());
+            }
+        }
         return leadService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(this::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -44,24 +108,26 @@ public class LeadController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update lead")
+    @Operation(summary = "Update lead; send the ETag from GET as If-Match to reject stale writes with 412")
     public ResponseEntity<Lead> updateLead(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody Lead leadDetails) {
 
-        return leadService.updateLead(id, leadDetails)
-                .map(ResponseEntity::ok)
+        return leadService.updateLead(id, leadDetails, EntityTags.expectedVersion(ifMatch))
+                .map(this::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update lead status")
+    @Operation(summary = "Update lead status; with If-Match the change is a single conditional UPDATE")
     public ResponseEntity<Lead> updateLeadStatus(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestParam LeadStatus status) {
 
-        return leadService.updateStatus(id, status)
-                .map(ResponseEntity::ok)
+        return leadService.updateStatus(id, status, EntityTags.expectedVersion(ifMatch))
+                .map(this::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,4 +148,48 @@ public class LeadController {
 
         return ResponseEntity.ok(leadService.findByStatus(status));
     }
+
+    @PostMapping("/bulk/status")
+    @Operation(summary = "Change the status of many leads at once")
+    public ResponseEntity<BulkOperationResult> bulkUpdateStatus(
+            @Valid @RequestBody BulkLeadStatusRequest request) {
+
+        return ResponseEntity.ok(leadBulkService.changeStatus(request));
+    }
+
+    @PostMapping("/bulk/reassign")
+    @Operation(summary = "Move every lead of a sales representative to another")
+    public ResponseEntity<BulkOperationResult> bulkReassign(
+            @Valid @RequestBody BulkLeadReassignRequest request) {
+
+        return ResponseEntity.ok(leadBulkService.reassign(request));
+    }
+
+    @PostMapping("/bulk/update")
+    @Operation(summary = "Update status and/or sales representative of all leads matching a filter")
+    public ResponseEntity<BulkOperationResult> bulkUpdateByFilter(
+            @RequestBody BulkLeadFilterUpdateRequest request) {
+
+        return ResponseEntity.ok(leadBulkService.updateByFilter(request));
+    }
+
+    @PostMapping("/{id}/convert")
+    @Operation(summary = "Convert lead to customer")
+    public ResponseEntity<Customer> convertLead(@PathVariable Long id) {
+        return leadConversionService.convert(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/convert")
+    @Operation(summary = "Convert many leads to customers at once")
+    public ResponseEntity<BulkOperationResult> convertLeads(
+            @Valid @RequestBody BulkLeadConvertRequest request) {
+
+        return ResponseEntity.ok(leadConversionService.convertAll(request.getLeadIds()));
+    }
+
+    private ResponseEntity<Lead> withETag(Lead lead) {
+        return EntityTags.ok(EntityTags.of(lead.getVersion()), lead.getUpdatedDate()).body(lead);
+    }
 }
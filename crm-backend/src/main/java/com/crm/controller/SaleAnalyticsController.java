@@ -0,0 +1,52 @@
+package com.crm.controller;
+
+import com.crm.dto.SaleAnalyticsResult;
+import com.crm.enums.SaleStatus;
+import com.crm.model.Money;
+import com.crm.service.SaleAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sales/analytics")
+@Tag(name = "Sales Analytics", description = "Ad-hoc sales queries answered from a periodically refreshed in-memory snapshot")
+public class SaleAnalyticsController {
+
+    private final SaleAnalyticsService saleAnalyticsService;
+
+    public SaleAnalyticsController(SaleAnalyticsService saleAnalyticsService) {
+        this.saleAnalyticsService = saleAnalyticsService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Filter, group and sum sales from the in-memory snapshot")
+    public ResponseEntity<SaleAnalyticsResult> query(
+            @Parameter(description = "First sale date included (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Last sale date included (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Statuses to include, all when omitted") @RequestParam(required = false) List<SaleStatus> status,
+            @Parameter(description = "Filter by sales representative ID") @RequestParam(required = false) Long salesRepId,
+            @Parameter(description = "Filter by customer ID") @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Currency of the amounts to sum") @RequestParam(defaultValue = Money.DEFAULT_CURRENCY) String currency,
+            @Parameter(description = "Grouping: none, status, salesRep, customer, day or month") @RequestParam(defaultValue = "none") String groupBy) {
+
+        return ResponseEntity.ok(saleAnalyticsService.query(fromDate, toDate, status, salesRepId, customerId, currency, groupBy));
+    }
+
+    @PostMapping("/refresh")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Reload the in-memory snapshot from the sales table")
+    public ResponseEntity<Void> refresh() {
+        saleAnalyticsService.refresh();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,16 +1,33 @@
 package com.crm.controller;
 
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.SaleStatus;
+import com.crm.enums.VersionedResource;
 import com.crm.exceptionhandler.ResourceNotFoundException;
 import com.crm.model.Sale;
 import com.crm.model.User;
+import com.crm.repository.UserRepository;
+import com.crm.service.ResourceVersionService;
 import com.crm.service.SaleService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -18,54 +35,141 @@ import java.util.concurrent.CompletableFuture;
 @Tag(name = "Sales Controller", description = "Handles Sale CRUD operations in multi-threaded mode")
 public class SaleController {
 
+    /**
+     * Sortable request fields and the entity properties they map to; each is covered by a sales index
+     */
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "date", "date",
+            "amount", "amount",
+            "status", "status");
+
     private final SaleService saleService;
+    private final ResourceVersionService resourceVersionService;
+    private final UserRepository userRepository;
 
-    public SaleController(SaleService saleService) {
+    public SaleController(SaleService saleService, ResourceVersionService resourceVersionService,
+                          UserRepository userRepository) {
         this.saleService = saleService;
+        this.resourceVersionService = resourceVersionService;
+        this.userRepository = userRepository;
     }
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public CompletableFuture<ResponseEntity<Sale>> createSale(
             @RequestBody @Valid Sale sale,
-            @AuthenticationPrincipal User user) {
-        return saleService.createSale(sale, user)
+            @Parameter(hidden = true) Authentication authentication) {
+        Optional<User> user = currentUser(authentication);
+        if (user.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        return saleService.createSale(sale, user.get())
                 .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping
-    public CompletableFuture<ResponseEntity<List<Sale>>> getAllSales(
-            @AuthenticationPrincipal User user) {
+    public CompletableFuture<ResponseEntity<Page<Sale>>> getAllSales(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort by field: date, amount or status") @RequestParam(defaultValue = "date") String sortBy,
+            @Parameter(description = "Sort direction: ASC or DESC") @RequestParam(defaultValue = "DESC") String direction,
+            @Parameter(description = "Filter by sales representative ID") @RequestParam(required = false) Long salesRepId,
+            @Parameter(description = "Only sales assigned to the current user") @RequestParam(defaultValue = "false") boolean mine,
+            @Parameter(description = "Filter by customer ID") @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Filter by status") @RequestParam(required = false) SaleStatus status,
+            @Parameter(description = "Filter by sale date from (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Filter by sale date to (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers,
+            @Parameter(hidden = true) Authentication authentication) {
 
-        return saleService.getAllSales(user)
-                .thenApply(ResponseEntity::ok);
+        Sort sort = sortOf(sortBy, direction);
+        Optional<User> user = currentUser(authentication);
+        if (mine && user.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        // Checked before the page query runs, so an unchanged list costs two indexed aggregates
+        String eTag = EntityTags.ofCollection(resourceVersionService.getCollectionVersion(VersionedResource.SALES).getTag());
+        if (EntityTags.isNotModified(headers, eTag, null)) {
+            return CompletableFuture.completedFuture(EntityTags.notModified(eTag, null));
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.min(size, 200), sort);
+        Long repFilter = mine ? user.get().getId() : salesRepId;
+
+        return saleService.getAllSales(pageable, repFilter, customerId, status, fromDate, toDate, user.orElse(null))
+                .thenApply(sales -> EntityTags.ok(eTag, null).body(sales));
     }
 
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<Sale>> getSaleById(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) throws ResourceNotFoundException {
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers,
+            @Parameter(hidden = true) Authentication authentication) throws ResourceNotFoundException {
 
-        return saleService.getSaleById(id, user)
-                .thenApply(ResponseEntity::ok);
+        Optional<ResourceVersion> version = resourceVersionService.getRecordVersion(VersionedResource.SALES, id);
+        if (version.isPresent()) {
+            String eTag = EntityTags.of(Long.valueOf(version.get().getTag()));
+            if (EntityTags.isNotModified(headers, eTag, version.get().getLastModified())) {
+                return CompletableFuture.completedFuture(EntityTags.notModified(eTag, version.get().getLastModified()));
+            }
+        }
+        Optional<User> user = currentUser(authentication);
+        if (user.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        return saleService.getSaleById(id, user.get())
+                .thenApply(this::withETag);
     }
 
     @PutMapping("/{id}")
     public CompletableFuture<ResponseEntity<Sale>> updateSale(
             @PathVariable Long id,
+            @Parameter(description = "ETag of the version being updated; a stale value is rejected with 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid Sale sale,
-            @AuthenticationPrincipal User user) {
+            @Parameter(hidden = true) Authentication authentication) {
 
-        return saleService.updateSale(id, sale, user)
-                .thenApply(ResponseEntity::ok);
+        return saleService.updateSale(id, sale, EntityTags.expectedVersion(ifMatch), currentUser(authentication).orElse(null))
+                .thenApply(this::withETag);
     }
 
     @DeleteMapping("/{id}")
     public CompletableFuture<ResponseEntity<String>> deleteSale(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
+            @Parameter(hidden = true) Authentication authentication) {
 
-        return saleService.deleteSale(id, user)
+        return saleService.deleteSale(id, currentUser(authentication).orElse(null))
                 .thenApply(v -> ResponseEntity.ok("Sale deleted successfully"));
     }
+
+    /**
+     * The calling user. The security context holds the UserDetails built from the JWT, not the
+     * User entity, so the user is looked up by the email it was authenticated with.
+     */
+    private Optional<User> currentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null) {
+            return Optional.empty();
+        }
+        return userRepository.findByEmail(authentication.getName());
+    }
+
+    /**
+     * Sort from request parameters; unknown fields or directions are rejected with 400
+     */
+    private static Sort sortOf(String sortBy, String direction) {
+        String property = SORT_FIELDS.get(sortBy);
+        if (property == null) {
+            throw new IllegalArgumentException("Invalid sortBy '" + sortBy + "', expected one of date, amount, status");
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction.toUpperCase(Locale.ROOT))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid direction '" + direction + "', expected ASC or DESC"));
+        return Sort.by(sortDirection, property);
+    }
+
+    private ResponseEntity<Sale> withETag(Sale sale) {
+        return EntityTags.ok(EntityTags.of(sale.getVersion()), sale.getUpdatedDate()).body(sale);
+    }
 }
@@ -0,0 +1,49 @@
+package com.crm.controller;
+
+import com.crm.enums.SaleStatus;
+import com.crm.service.SaleExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sales/export")
+@Tag(name = "Sales Export", description = "Streams sales to file formats for finance")
+public class SaleExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    private final SaleExportService saleExportService;
+
+    public SaleExportController(SaleExportService saleExportService) {
+        this.saleExportService = saleExportService;
+    }
+
+    @GetMapping(produces = "text/csv")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Download sales as CSV, streamed row by row from the database")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @Parameter(description = "First sale date included (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Last sale date included (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Statuses to include, all when omitted") @RequestParam(required = false) List<SaleStatus> status) {
+
+        String fileName = "sales" + (fromDate != null ? "-" + fromDate : "") + (toDate != null ? "-" + toDate : "") + ".csv";
+        StreamingResponseBody body = out -> saleExportService.exportCsv(fromDate, toDate, status, out);
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com.crm.controller;
+
+import com.crm.dto.SalesForecast;
+import com.crm.model.Money;
+import com.crm.service.SaleForecastService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sales/forecast")
+@Tag(name = "Sales Forecast", description = "Open pipeline weighted by stage probability and expected close date")
+public class SaleForecastController {
+
+    private final SaleForecastService saleForecastService;
+
+    public SaleForecastController(SaleForecastService saleForecastService) {
+        this.saleForecastService = saleForecastService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get the weighted forecast of open sales per sales representative and close month")
+    public ResponseEntity<SalesForecast> getForecast(
+            @Parameter(description = "Currency of the sales to include") @RequestParam(defaultValue = Money.DEFAULT_CURRENCY) String currency,
+            @Parameter(description = "Months after the current one to include") @RequestParam(defaultValue = "3") int horizonMonths) {
+
+        return ResponseEntity.ok(saleForecastService.getForecast(currency, horizonMonths));
+    }
+}
@@ -0,0 +1,82 @@
+package com.crm.controller;
+
+import com.crm.dto.RevenueTotal;
+import com.crm.enums.BucketGranularity;
+import com.crm.enums.SaleStatus;
+import com.crm.service.SaleRevenueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sales/revenue")
+@Tag(name = "Sales Revenue", description = "Revenue analytics served from pre-aggregated time buckets")
+public class SaleRevenueController {
+
+    private final SaleRevenueService saleRevenueService;
+
+    public SaleRevenueController(SaleRevenueService saleRevenueService) {
+        this.saleRevenueService = saleRevenueService;
+    }
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get sale count and amount per day, week or month")
+    public ResponseEntity<List<RevenueTotal>> getTimeSeries(
+            @Parameter(description = "Bucket size") @RequestParam(defaultValue = "MONTH") BucketGranularity granularity,
+            @Parameter(description = "Range start (yyyy-MM-dd), defaults to one year ago")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Range end (yyyy-MM-dd), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Filter by sales representative ID") @RequestParam(required = false) Long salesRepId,
+            @Parameter(description = "Filter by customer ID") @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Filter by sale status") @RequestParam(required = false) SaleStatus status) {
+
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate : to.minusYears(1);
+        return ResponseEntity.ok(saleRevenueService.getTimeSeries(granularity, from, to, salesRepId, customerId, status));
+    }
+
+    @GetMapping("/top-reps")
+    @Operation(summary = "Get the sales representatives with the highest completed revenue")
+    public ResponseEntity<List<RevenueTotal>> getTopSalesReps(
+            @Parameter(description = "Bucket size used to resolve the range") @RequestParam(defaultValue = "MONTH") BucketGranularity granularity,
+            @Parameter(description = "Range start (yyyy-MM-dd), defaults to one year ago")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Range end (yyyy-MM-dd), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Number of representatives") @RequestParam(defaultValue = "10") int limit) {
+
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate : to.minusYears(1);
+        return ResponseEntity.ok(saleRevenueService.getTopSalesReps(granularity, from, to, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/pipeline")
+    @Operation(summary = "Get the count and value of open sales per status")
+    public ResponseEntity<List<RevenueTotal>> getPipelineValue(
+            @Parameter(description = "Filter by sales representative ID") @RequestParam(required = false) Long salesRepId) {
+
+        return ResponseEntity.ok(saleRevenueService.getPipelineValue(salesRepId));
+    }
+
+    @GetMapping("/total")
+    @Operation(summary = "Get the exact sale count and amount per currency, computed from individual sales")
+    public ResponseEntity<List<RevenueTotal>> getExactTotals(
+            @Parameter(description = "Range start (yyyy-MM-dd), defaults to the start of the current quarter")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Range end (yyyy-MM-dd), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Filter by sale status") @RequestParam(required = false) SaleStatus status) {
+
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate
+                : to.withMonth((to.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+        return ResponseEntity.ok(saleRevenueService.getExactTotals(from, to, status));
+    }
+}
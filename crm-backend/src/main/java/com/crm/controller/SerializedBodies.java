@@ -0,0 +1,64 @@
+package com.crm.controller;
+
+import com.crm.model.SerializedJson;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+
+/**
+ * Writes pre-serialized JSON bodies, choosing the gzip copy when the client accepts it. A body that
+ * already carries Content-Encoding is passed through by the container without compressing it again.
+ */
+final class SerializedBodies {
+
+    private SerializedBodies() {}
+
+    static ResponseEntity<byte[]> write(ResponseEntity.BodyBuilder builder, SerializedJson body, HttpHeaders request) {
+        builder.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzip() != null && acceptsGzip(request.get(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return builder.body(body.json());
+    }
+
+    /**
+     * Whether Accept-Encoding accepts gzip: a gzip (or x-gzip) entry decides by its quality value,
+     * and only without one does a * entry
+     */
+    private static boolean acceptsGzip(Iterable<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean named = name.equals("gzip") || name.equals("x-gzip");
+                if (!named && !name.equals("*")) {
+                    continue;
+                }
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            accepted = false;
+                        }
+                    }
+                }
+                if (named) {
+                    gzip = Boolean.TRUE.equals(gzip) || accepted;
+                } else {
+                    any = accepted;
+                }
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+}
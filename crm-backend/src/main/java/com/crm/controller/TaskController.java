@@ -5,6 +5,11 @@ import com.crm.model.Task;
 import com.crm.dto.TaskCreateRequest;
 import com.crm.dto.TaskUpdateRequest;
 import com.crm.dto.TaskStatusUpdateRequest;
+import com.crm.dto.TaskInbox;
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
+import com.crm.service.ResourceVersionService;
+import com.crm.service.TaskInboxService;
 import com.crm.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,11 +25,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -36,15 +44,27 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskInboxService taskInboxService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @Operation(
             summary = "Get all tasks",
-            description = "Retrieves a paginated list of all tasks with optional filtering and sorting"
+            description = "Retrieves a paginated list of all tasks with optional filtering and sorting. Send the ETag "
+                    + "back as If-None-Match to get 304 while no task or related lead has changed"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved tasks",
                     content = @Content(schema = @Schema(implementation = Task.class, type = "array"))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Tasks unchanged since the given ETag",
+                    content = @Content
             )
     })
     @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
@@ -60,18 +80,25 @@ public class TaskController {
             @Parameter(description = "Filter by due date from (yyyy-MM-dd)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @Parameter(description = "Filter by due date to (yyyy-MM-dd)")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+
+        String eTag = EntityTags.ofCollection(resourceVersionService.getCollectionVersion(VersionedResource.TASKS).getTag());
+        if (EntityTags.isNotModified(headers, eTag, null)) {
+            return CompletableFuture.completedFuture(EntityTags.notModified(eTag, null));
+        }
 
         Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
         return taskService.findAllTasks(pageable, status, priority, assignedTo, fromDate, toDate)
-                .thenApply(ResponseEntity::ok);
+                .thenApply(tasks -> EntityTags.ok(eTag, null).body(tasks));
     }
 
     @Operation(
             summary = "Get task by ID",
-            description = "Retrieves a specific task by its unique identifier"
+            description = "Retrieves a specific task by its unique identifier. Honors If-None-Match and "
+                    + "If-Modified-Since without loading the task"
     )
     @ApiResponses({
             @ApiResponse(
@@ -79,6 +106,11 @@ public class TaskController {
                     description = "Task found successfully",
                     content = @Content(schema = @Schema(implementation = Task.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Task unchanged since the given ETag or date",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Task not found",
@@ -89,9 +121,18 @@ public class TaskController {
     @GetMapping("/{id}")
     public CompletableFuture<ResponseEntity<Task>> getTaskById(
             @Parameter(description = "Task ID", example = "1", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers) {
+        Optional<ResourceVersion> version = resourceVersionService.getRecordVersion(VersionedResource.TASKS, id);
+        if (version.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        String eTag = EntityTags.of(Long.valueOf(version.get().getTag()));
+        if (EntityTags.isNotModified(headers, eTag, version.get().getLastModified())) {
+            return CompletableFuture.completedFuture(EntityTags.notModified(eTag, version.get().getLastModified()));
+        }
         return taskService.findById(id)
-                .thenApply(task -> task.map(ResponseEntity::ok)
+                .thenApply(task -> task.map(this::withETag)
                         .orElse(ResponseEntity.notFound().build()));
     }
 
@@ -146,10 +187,12 @@ public class TaskController {
     public CompletableFuture<ResponseEntity<Task>> updateTask(
             @Parameter(description = "Task ID", example = "1", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the version being updated; a stale value is rejected with 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated task data", required = true)
             @Valid @RequestBody TaskUpdateRequest request) {
-        return taskService.updateTask(id, request)
-                .thenApply(ResponseEntity::ok);
+        return taskService.updateTask(id, request, EntityTags.expectedVersion(ifMatch))
+                .thenApply(this::withETag);
     }
 
     @Operation(
@@ -173,10 +216,12 @@ public class TaskController {
     public CompletableFuture<ResponseEntity<Task>> updateTaskStatus(
             @Parameter(description = "Task ID", example = "1", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the version being updated; a stale value is rejected with 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "New status for the task", required = true)
             @Valid @RequestBody TaskStatusUpdateRequest request) {
-        return taskService.updateTaskStatus(id, request.getStatus())
-                .thenApply(ResponseEntity::ok);
+        return taskService.updateTaskStatus(id, request.getStatus(), EntityTags.expectedVersion(ifMatch))
+                .thenApply(this::withETag);
     }
 
     @Operation(
@@ -224,6 +269,37 @@ public class TaskController {
                 .thenApply(ResponseEntity::ok);
     }
 
+    @Operation(
+            summary = "Get a user's task inbox",
+            description = "Returns the user's open and recently closed tasks from memory. Pass the cursor of the "
+                    + "previous response as 'since' to receive only changes; with waitSeconds the request is held "
+                    + "until something changes or the wait ends"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Inbox or changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TaskInbox.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content
+            )
+    })
+    @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/inbox/{userId}")
+    public CompletableFuture<ResponseEntity<TaskInbox>> getTaskInbox(
+            @Parameter(description = "User ID", example = "1", required = true)
+            @PathVariable Long userId,
+            @Parameter(description = "Cursor from the previous response; omit to get the whole inbox")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Seconds to wait for a change when there is none yet")
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+        return taskInboxService.getInbox(userId, since, waitSeconds * 1000L)
+                .thenApply(inbox -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(inbox));
+    }
+
     @Operation(
             summary = "Get overdue tasks",
             description = "Retrieves all tasks that are overdue"
@@ -277,4 +353,8 @@ public class TaskController {
         return taskService.getTaskStatistics()
                 .thenApply(ResponseEntity::ok);
     }
+
+    private ResponseEntity<Task> withETag(Task task) {
+        return EntityTags.ok(EntityTags.of(task.getVersion()), task.getUpdatedDate()).body(task);
+    }
 }
@@ -0,0 +1,25 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "DTO for converting many leads into customers at once")
+public class BulkLeadConvertRequest {
+
+    @NotEmpty(message = "Lead IDs are required")
+    @Schema(description = "IDs of the leads to convert", example = "[1, 2, 3]", required = true)
+    private List<Long> leadIds;
+
+    // Constructors
+    public BulkLeadConvertRequest() {}
+
+    public BulkLeadConvertRequest(List<Long> leadIds) {
+        this.leadIds = leadIds;
+    }
+
+    // Getters and setters
+    public List<Long> getLeadIds() { return leadIds; }
+    public void setLeadIds(List<Long> leadIds) { this.leadIds = leadIds; }
+}
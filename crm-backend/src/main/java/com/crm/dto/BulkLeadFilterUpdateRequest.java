@@ -0,0 +1,38 @@
+package com.crm.dto;
+
+import com.crm.enums.LeadStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO for updating every lead matching a filter")
+public class BulkLeadFilterUpdateRequest {
+
+    @Schema(description = "Only match leads in this status", example = "NEW")
+    private LeadStatus status;
+
+    @Schema(description = "Only match leads from this source", example = "Website Form")
+    private String source;
+
+    @Schema(description = "Only match leads assigned to this sales representative", example = "4")
+    private Long salesRepId;
+
+    @Schema(description = "New status to set on matching leads", example = "LOST")
+    private LeadStatus newStatus;
+
+    @Schema(description = "ID of the sales representative to assign matching leads to", example = "7")
+    private Long newSalesRepId;
+
+    // Constructors
+    public BulkLeadFilterUpdateRequest() {}
+
+    // Getters and setters
+    public LeadStatus getStatus() { return status; }
+    public void setStatus(LeadStatus status) { this.status = status; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public Long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(Long salesRepId) { this.salesRepId = salesRepId; }
+    public LeadStatus getNewStatus() { return newStatus; }
+    public void setNewStatus(LeadStatus newStatus) { this.newStatus = newStatus; }
+    public Long getNewSalesRepId() { return newSalesRepId; }
+    public void setNewSalesRepId(Long newSalesRepId) { this.newSalesRepId = newSalesRepId; }
+}
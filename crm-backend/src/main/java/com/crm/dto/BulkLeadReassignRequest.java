@@ -0,0 +1,30 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "DTO for moving every lead of one sales representative to another")
+public class BulkLeadReassignRequest {
+
+    @NotNull(message = "Current sales representative ID is required")
+    @Schema(description = "ID of the sales representative whose leads are moved", example = "4", required = true)
+    private Long fromSalesRepId;
+
+    @NotNull(message = "New sales representative ID is required")
+    @Schema(description = "ID of the sales representative receiving the leads", example = "7", required = true)
+    private Long toSalesRepId;
+
+    // Constructors
+    public BulkLeadReassignRequest() {}
+
+    public BulkLeadReassignRequest(Long fromSalesRepId, Long toSalesRepId) {
+        this.fromSalesRepId = fromSalesRepId;
+        this.toSalesRepId = toSalesRepId;
+    }
+
+    // Getters and setters
+    public Long getFromSalesRepId() { return fromSalesRepId; }
+    public void setFromSalesRepId(Long fromSalesRepId) { this.fromSalesRepId = fromSalesRepId; }
+    public Long getToSalesRepId() { return toSalesRepId; }
+    public void setToSalesRepId(Long toSalesRepId) { this.toSalesRepId = toSalesRepId; }
+}
@@ -0,0 +1,40 @@
+package com.crm.dto;
+
+import com.crm.enums.LeadStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "DTO for changing the status of many leads at once")
+public class BulkLeadStatusRequest {
+
+    @NotEmpty(message = "Lead IDs are required")
+    @Schema(description = "IDs of the leads to update", example = "[1, 2, 3]", required = true)
+    private List<Long> leadIds;
+
+    @NotNull(message = "Status is required")
+    @Schema(description = "New status for the leads", example = "CONTACTED", required = true)
+    private LeadStatus status;
+
+    @Schema(description = "Only update leads currently in this status", example = "NEW")
+    private LeadStatus expectedStatus;
+
+    // Constructors
+    public BulkLeadStatusRequest() {}
+
+    public BulkLeadStatusRequest(List<Long> leadIds, LeadStatus status, LeadStatus expectedStatus) {
+        this.leadIds = leadIds;
+        this.status = status;
+        this.expectedStatus = expectedStatus;
+    }
+
+    // Getters and setters
+    public List<Long> getLeadIds() { return leadIds; }
+    public void setLeadIds(List<Long> leadIds) { this.leadIds = leadIds; }
+    public LeadStatus getStatus() { return status; }
+    public void setStatus(LeadStatus status) { this.status = status; }
+    public LeadStatus getExpectedStatus() { return expectedStatus; }
+    public void setExpectedStatus(LeadStatus expectedStatus) { this.expectedStatus = expectedStatus; }
+}
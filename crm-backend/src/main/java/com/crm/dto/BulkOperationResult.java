@@ -0,0 +1,62 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a bulk operation")
+public class BulkOperationResult {
+
+    @Schema(description = "Bulk operation that was executed", example = "STATUS_CHANGE")
+    private String operation;
+
+    @Schema(description = "Number of rows matched by the operation", example = "1200")
+    private long matched;
+
+    @Schema(description = "Number of rows actually updated", example = "1180")
+    private long updated;
+
+    @Schema(description = "Number of matched rows skipped because they changed concurrently or were not eligible", example = "20")
+    private long skipped;
+
+    @Schema(description = "Number of chunks (transactions) used", example = "3")
+    private int chunks;
+
+    @Schema(description = "Wall clock duration in milliseconds", example = "420")
+    private long durationMillis;
+
+    @Schema(description = "Measured throughput in rows per second", example = "2857.1")
+    private double rowsPerSecond;
+
+    @Schema(description = "ID of the audit record written for this operation", example = "12")
+    private Long auditId;
+
+    public BulkOperationResult() {}
+
+    public BulkOperationResult(String operation, long matched, long updated, int chunks, long durationMillis, Long auditId) {
+        this.operation = operation;
+        this.matched = matched;
+        this.updated = updated;
+        this.skipped = matched - updated;
+        this.chunks = chunks;
+        this.durationMillis = durationMillis;
+        this.rowsPerSecond = durationMillis > 0 ? updated * 1000.0 / durationMillis : updated;
+        this.auditId = auditId;
+    }
+
+    // Getters and setters
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+    public long getMatched() { return matched; }
+    public void setMatched(long matched) { this.matched = matched; }
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+    public Long getAuditId() { return auditId; }
+    public void setAuditId(Long auditId) { this.auditId = auditId; }
+}
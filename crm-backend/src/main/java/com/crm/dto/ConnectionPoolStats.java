@@ -0,0 +1,102 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Live state of one database connection pool and how long callers waited for its connections")
+public class ConnectionPoolStats {
+
+    @Schema(description = "Pool name", example = "primary")
+    private String name;
+
+    @Schema(description = "Connections currently lent out", example = "4")
+    private int active;
+
+    @Schema(description = "Open connections waiting to be lent", example = "1")
+    private int idle;
+
+    @Schema(description = "Threads waiting for a connection", example = "0")
+    private int pending;
+
+    @Schema(description = "Open connections", example = "5")
+    private int total;
+
+    @Schema(description = "Current maximum pool size, as set by the adaptive sizer", example = "8")
+    private int maxSize;
+
+    @Schema(description = "Requests for a connection that gave up after the connection timeout", example = "0")
+    private long timeouts;
+
+    @Schema(description = "Connections handed out since startup", example = "120431")
+    private long acquired;
+
+    @Schema(description = "Median wait for a connection in ms", example = "0.1")
+    private double acquireP50Ms;
+
+    @Schema(description = "95th percentile wait for a connection in ms", example = "2.0")
+    private double acquireP95Ms;
+
+    @Schema(description = "99th percentile wait for a connection in ms", example = "20.0")
+    private double acquireP99Ms;
+
+    @Schema(description = "Longest wait for a connection in ms", example = "412.7")
+    private double acquireMaxMs;
+
+    @Schema(description = "Connection waits per bucket, keyed by the bucket's upper bound in ms")
+    private Map<String, Long> acquireHistogram;
+
+    @Schema(description = "95th percentile time a connection was held before being returned, in ms", example = "10.0")
+    private double holdP95Ms;
+
+    public ConnectionPoolStats() {}
+
+    public ConnectionPoolStats(String name, int active, int idle, int pending, int total, int maxSize, long timeouts,
+                               long acquired, double acquireP50Ms, double acquireP95Ms, double acquireP99Ms,
+                               double acquireMaxMs, Map<String, Long> acquireHistogram, double holdP95Ms) {
+        this.name = name;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.timeouts = timeouts;
+        this.acquired = acquired;
+        this.acquireP50Ms = acquireP50Ms;
+        this.acquireP95Ms = acquireP95Ms;
+        this.acquireP99Ms = acquireP99Ms;
+        this.acquireMaxMs = acquireMaxMs;
+        this.acquireHistogram = acquireHistogram;
+        this.holdP95Ms = holdP95Ms;
+    }
+
+    // Getters and setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getActive() { return active; }
+    public void setActive(int active) { this.active = active; }
+    public int getIdle() { return idle; }
+    public void setIdle(int idle) { this.idle = idle; }
+    public int getPending() { return pending; }
+    public void setPending(int pending) { this.pending = pending; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    public long getTimeouts() { return timeouts; }
+    public void setTimeouts(long timeouts) { this.timeouts = timeouts; }
+    public long getAcquired() { return acquired; }
+    public void setAcquired(long acquired) { this.acquired = acquired; }
+    public double getAcquireP50Ms() { return acquireP50Ms; }
+    public void setAcquireP50Ms(double acquireP50Ms) { this.acquireP50Ms = acquireP50Ms; }
+    public double getAcquireP95Ms() { return acquireP95Ms; }
+    public void setAcquireP95Ms(double acquireP95Ms) { this.acquireP95Ms = acquireP95Ms; }
+    public double getAcquireP99Ms() { return acquireP99Ms; }
+    public void setAcquireP99Ms(double acquireP99Ms) { this.acquireP99Ms = acquireP99Ms; }
+    public double getAcquireMaxMs() { return acquireMaxMs; }
+    public void setAcquireMaxMs(double acquireMaxMs) { this.acquireMaxMs = acquireMaxMs; }
+    public Map<String, Long> getAcquireHistogram() { return acquireHistogram; }
+    public void setAcquireHistogram(Map<String, Long> acquireHistogram) { this.acquireHistogram = acquireHistogram; }
+    public double getHoldP95Ms() { return holdP95Ms; }
+    public void setHoldP95Ms(double holdP95Ms) { this.holdP95Ms = holdP95Ms; }
+}
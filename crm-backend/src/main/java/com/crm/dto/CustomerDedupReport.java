@@ -0,0 +1,79 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Progress and findings of the latest customer dedup scan")
+public class CustomerDedupReport {
+
+    @Schema(description = "IDLE, RUNNING, COMPLETED or FAILED", example = "COMPLETED")
+    private String status;
+
+    @Schema(description = "When the scan started")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When the scan finished")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Customers read", example = "1250000")
+    private long customersScanned;
+
+    @Schema(description = "Blocks with at least two customers that were compared", example = "310442")
+    private long blocksCompared;
+
+    @Schema(description = "Blocks skipped for exceeding the maximum block size", example = "12")
+    private long oversizedBlocksSkipped;
+
+    @Schema(description = "Customer pairs compared", example = "4211876")
+    private long comparisons;
+
+    @Schema(description = "Pairs scoring at or above the threshold", example = "5320")
+    private long candidateCount;
+
+    @Schema(description = "Highest scoring candidates, up to the report limit")
+    private List<CustomerDuplicateCandidate> candidates;
+
+    @Schema(description = "Why the scan failed")
+    private String error;
+
+    public CustomerDedupReport() {}
+
+    public CustomerDedupReport(String status, LocalDateTime startedAt, LocalDateTime finishedAt, long customersScanned,
+                               long blocksCompared, long oversizedBlocksSkipped, long comparisons, long candidateCount,
+                               List<CustomerDuplicateCandidate> candidates, String error) {
+        this.status = status;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.customersScanned = customersScanned;
+        this.blocksCompared = blocksCompared;
+        this.oversizedBlocksSkipped = oversizedBlocksSkipped;
+        this.comparisons = comparisons;
+        this.candidateCount = candidateCount;
+        this.candidates = candidates;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public long getCustomersScanned() { return customersScanned; }
+    public void setCustomersScanned(long customersScanned) { this.customersScanned = customersScanned; }
+    public long getBlocksCompared() { return blocksCompared; }
+    public void setBlocksCompared(long blocksCompared) { this.blocksCompared = blocksCompared; }
+    public long getOversizedBlocksSkipped() { return oversizedBlocksSkipped; }
+    public void setOversizedBlocksSkipped(long oversizedBlocksSkipped) { this.oversizedBlocksSkipped = oversizedBlocksSkipped; }
+    public long getComparisons() { return comparisons; }
+    public void setComparisons(long comparisons) { this.comparisons = comparisons; }
+    public long getCandidateCount() { return candidateCount; }
+    public void setCandidateCount(long candidateCount) { this.candidateCount = candidateCount; }
+    public List<CustomerDuplicateCandidate> getCandidates() { return candidates; }
+    public void setCandidates(List<CustomerDuplicateCandidate> candidates) { this.candidates = candidates; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,40 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Two customers the dedup job considers likely to be the same")
+public class CustomerDuplicateCandidate {
+
+    @Schema(description = "Customer with the lower ID, the suggested survivor", example = "14")
+    private long customerId;
+
+    @Schema(description = "Customer suggested to be merged into customerId", example = "391")
+    private long duplicateId;
+
+    @Schema(description = "Match score between 0 and 1", example = "0.85")
+    private double score;
+
+    @Schema(description = "Evidence behind the score", example = "[\"same phone\", \"same company\"]")
+    private List<String> reasons;
+
+    public CustomerDuplicateCandidate() {}
+
+    public CustomerDuplicateCandidate(long customerId, long duplicateId, double score, List<String> reasons) {
+        this.customerId = customerId;
+        this.duplicateId = duplicateId;
+        this.score = score;
+        this.reasons = reasons;
+    }
+
+    // Getters and setters
+    public long getCustomerId() { return customerId; }
+    public void setCustomerId(long customerId) { this.customerId = customerId; }
+    public long getDuplicateId() { return duplicateId; }
+    public void setDuplicateId(long duplicateId) { this.duplicateId = duplicateId; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public List<String> getReasons() { return reasons; }
+    public void setReasons(List<String> reasons) { this.reasons = reasons; }
+}
@@ -0,0 +1,20 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Customers to merge into a surviving customer")
+public class CustomerMergeRequest {
+
+    @NotEmpty(message = "At least one duplicate ID is required")
+    @Schema(description = "IDs of the duplicate customers; they are deleted after their references are moved", example = "[391, 1022]", required = true)
+    private List<Long> duplicateIds;
+
+    public CustomerMergeRequest() {}
+
+    // Getters and setters
+    public List<Long> getDuplicateIds() { return duplicateIds; }
+    public void setDuplicateIds(List<Long> duplicateIds) { this.duplicateIds = duplicateIds; }
+}
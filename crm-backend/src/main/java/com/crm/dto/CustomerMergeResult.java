@@ -0,0 +1,41 @@
+package com.crm.dto;
+
+import com.crm.model.Customer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of merging duplicate customers into a survivor")
+public class CustomerMergeResult {
+
+    @Schema(description = "The surviving customer, with empty fields filled in from the duplicates")
+    private Customer survivor;
+
+    @Schema(description = "IDs of the customers merged and deleted", example = "[391, 1022]")
+    private List<Long> mergedIds;
+
+    @Schema(description = "Sales moved to the survivor", example = "7")
+    private int salesRepointed;
+
+    @Schema(description = "Converted leads moved to the survivor", example = "2")
+    private int leadsRepointed;
+
+    public CustomerMergeResult() {}
+
+    public CustomerMergeResult(Customer survivor, List<Long> mergedIds, int salesRepointed, int leadsRepointed) {
+        this.survivor = survivor;
+        this.mergedIds = mergedIds;
+        this.salesRepointed = salesRepointed;
+        this.leadsRepointed = leadsRepointed;
+    }
+
+    // Getters and setters
+    public Customer getSurvivor() { return survivor; }
+    public void setSurvivor(Customer survivor) { this.survivor = survivor; }
+    public List<Long> getMergedIds() { return mergedIds; }
+    public void setMergedIds(List<Long> mergedIds) { this.mergedIds = mergedIds; }
+    public int getSalesRepointed() { return salesRepointed; }
+    public void setSalesRepointed(int salesRepointed) { this.salesRepointed = salesRepointed; }
+    public int getLeadsRepointed() { return leadsRepointed; }
+    public void setLeadsRepointed(int leadsRepointed) { this.leadsRepointed = leadsRepointed; }
+}
@@ -0,0 +1,61 @@
+package com.crm.dto;
+
+import com.crm.model.Customer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Customer with their originating lead, sales and related tasks in one document")
+public class CustomerOverview {
+
+    @Schema(description = "The customer")
+    private Customer customer;
+
+    @Schema(description = "Lead the customer was converted from; null when created directly")
+    private CustomerOverviewLead originatingLead;
+
+    @Schema(description = "Sale count and total amount per currency over all of the customer's sales")
+    private List<RevenueTotal> salesTotals;
+
+    @Schema(description = "Most recent sales, newest first, up to the section limit")
+    private List<CustomerOverviewSale> recentSales;
+
+    @Schema(description = "Tasks on the leads converted into this customer, open first, up to the section limit")
+    private List<CustomerOverviewTask> tasks;
+
+    @Schema(description = "Sections that missed the deadline and are left empty", example = "[\"tasks\"]")
+    private List<String> incompleteSections;
+
+    @Schema(description = "Time taken to assemble the overview", example = "38")
+    private long elapsedMillis;
+
+    public CustomerOverview() {}
+
+    public CustomerOverview(Customer customer, CustomerOverviewLead originatingLead, List<RevenueTotal> salesTotals,
+                            List<CustomerOverviewSale> recentSales, List<CustomerOverviewTask> tasks,
+                            List<String> incompleteSections, long elapsedMillis) {
+        this.customer = customer;
+        this.originatingLead = originatingLead;
+        this.salesTotals = salesTotals;
+        this.recentSales = recentSales;
+        this.tasks = tasks;
+        this.incompleteSections = incompleteSections;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and setters
+    public Customer getCustomer() { return customer; }
+    public void setCustomer(Customer customer) { this.customer = customer; }
+    public CustomerOverviewLead getOriginatingLead() { return originatingLead; }
+    public void setOriginatingLead(CustomerOverviewLead originatingLead) { this.originatingLead = originatingLead; }
+    public List<RevenueTotal> getSalesTotals() { return salesTotals; }
+    public void setSalesTotals(List<RevenueTotal> salesTotals) { this.salesTotals = salesTotals; }
+    public List<CustomerOverviewSale> getRecentSales() { return recentSales; }
+    public void setRecentSales(List<CustomerOverviewSale> recentSales) { this.recentSales = recentSales; }
+    public List<CustomerOverviewTask> getTasks() { return tasks; }
+    public void setTasks(List<CustomerOverviewTask> tasks) { this.tasks = tasks; }
+    public List<String> getIncompleteSections() { return incompleteSections; }
+    public void setIncompleteSections(List<String> incompleteSections) { this.incompleteSections = incompleteSections; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
@@ -0,0 +1,54 @@
+package com.crm.dto;
+
+import com.crm.enums.LeadStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Lead a customer was converted from, as shown in a customer overview")
+public class CustomerOverviewLead {
+
+    @Schema(description = "Lead ID", example = "7")
+    private Long id;
+
+    @Schema(description = "Name of the lead", example = "Jane Smith")
+    private String name;
+
+    @Schema(description = "Source of the lead", example = "Website")
+    private String source;
+
+    @Schema(description = "Status of the lead", example = "CONVERTED")
+    private LeadStatus status;
+
+    @Schema(description = "When the lead was created")
+    private LocalDateTime createdDate;
+
+    @Schema(description = "Assigned sales representative ID", example = "5")
+    private Long salesRepId;
+
+    public CustomerOverviewLead() {}
+
+    public CustomerOverviewLead(Long id, String name, String source, LeadStatus status,
+                                LocalDateTime createdDate, Long salesRepId) {
+        this.id = id;
+        this.name = name;
+        this.source = source;
+        this.status = status;
+        this.createdDate = createdDate;
+        this.salesRepId = salesRepId;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public LeadStatus getStatus() { return status; }
+    public void setStatus(LeadStatus status) { this.status = status; }
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+    public Long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(Long salesRepId) { this.salesRepId = salesRepId; }
+}
@@ -0,0 +1,62 @@
+package com.crm.dto;
+
+import com.crm.enums.SaleStatus;
+import com.crm.model.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Sale as listed in a customer overview")
+public class CustomerOverviewSale {
+
+    @Schema(description = "Sale ID", example = "31")
+    private Long id;
+
+    @Schema(description = "Current status of the sale", example = "APPROVED")
+    private SaleStatus status;
+
+    @Schema(description = "Amount of the sale", example = "4999.99")
+    private BigDecimal amount;
+
+    @Schema(description = "ISO 4217 currency code of the amount", example = "USD")
+    private String currency;
+
+    @Schema(description = "Date of the sale", example = "2024-01-15")
+    private LocalDate date;
+
+    @Schema(description = "Date the sale is expected to close", example = "2024-03-31")
+    private LocalDate expectedCloseDate;
+
+    @Schema(description = "Assigned sales representative ID", example = "5")
+    private Long salesRepId;
+
+    public CustomerOverviewSale() {}
+
+    public CustomerOverviewSale(Long id, SaleStatus status, Money amount, String currency, LocalDate date,
+                                LocalDate expectedCloseDate, Long salesRepId) {
+        this.id = id;
+        this.status = status;
+        this.amount = amount != null ? amount.toDecimal() : null;
+        this.currency = currency;
+        this.date = date;
+        this.expectedCloseDate = expectedCloseDate;
+        this.salesRepId = salesRepId;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public SaleStatus getStatus() { return status; }
+    public void setStatus(SaleStatus status) { this.status = status; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public LocalDate getExpectedCloseDate() { return expectedCloseDate; }
+    public void setExpectedCloseDate(LocalDate expectedCloseDate) { this.expectedCloseDate = expectedCloseDate; }
+    public Long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(Long salesRepId) { this.salesRepId = salesRepId; }
+}
@@ -0,0 +1,60 @@
+package com.crm.dto;
+
+import com.crm.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Task as listed in a customer overview")
+public class CustomerOverviewTask {
+
+    @Schema(description = "Task ID", example = "12")
+    private Long id;
+
+    @Schema(description = "Title of the task", example = "Follow up with client")
+    private String title;
+
+    @Schema(description = "Current status of the task", example = "PENDING")
+    private TaskStatus status;
+
+    @Schema(description = "Priority level of the task", example = "HIGH")
+    private String priority;
+
+    @Schema(description = "Due date for the task", example = "2024-12-31")
+    private LocalDate dueDate;
+
+    @Schema(description = "Assigned user ID", example = "3")
+    private Long assignedToId;
+
+    @Schema(description = "Lead the task belongs to", example = "7")
+    private Long leadId;
+
+    public CustomerOverviewTask() {}
+
+    public CustomerOverviewTask(Long id, String title, TaskStatus status, String priority, LocalDate dueDate,
+                                Long assignedToId, Long leadId) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.assignedToId = assignedToId;
+        this.leadId = leadId;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status; }
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public Long getAssignedToId() { return assignedToId; }
+    public void setAssignedToId(Long assignedToId) { this.assignedToId = assignedToId; }
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
+}
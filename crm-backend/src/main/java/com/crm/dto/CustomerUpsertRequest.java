@@ -0,0 +1,42 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "One customer in a bulk upsert; matched to an existing customer by its normalized email, "
+        + "or by company and name when there is no email. All fields replace the stored values.")
+public class CustomerUpsertRequest {
+
+    @Schema(description = "Full name of the customer", example = "John Doe", required = true)
+    private String name;
+
+    @Schema(description = "Email address of the customer", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "Phone number of the customer", example = "+1234567890")
+    private String phone;
+
+    @Schema(description = "Company name of the customer", example = "Acme Corporation")
+    private String company;
+
+    @Schema(description = "Physical address of the customer", example = "123 Main St, City, Country")
+    private String address;
+
+    @Schema(description = "Additional notes about the customer", example = "Synced from ERP")
+    private String notes;
+
+    public CustomerUpsertRequest() {}
+
+    // Getters and setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public String getCompany() { return company; }
+    public void setCompany(String company) { this.company = company; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
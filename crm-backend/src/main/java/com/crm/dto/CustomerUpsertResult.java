@@ -0,0 +1,45 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of one row of a bulk customer upsert, streamed as one NDJSON line")
+public class CustomerUpsertResult {
+
+    @Schema(description = "Zero-based position of the row in the request", example = "0")
+    private long row;
+
+    @Schema(description = "INSERTED, UPDATED, UNCHANGED (matched with identical values, not written), "
+            + "SUPERSEDED (a later row in the same chunk has the same key) or FAILED", example = "UPDATED")
+    private String status;
+
+    @Schema(description = "ID of the inserted or matched customer", example = "42")
+    private Long customerId;
+
+    @Schema(description = "Normalized key the row was matched on", example = "email:john.doe@example.com")
+    private String naturalKey;
+
+    @Schema(description = "Why the row failed", example = "Name is required")
+    private String error;
+
+    public CustomerUpsertResult() {}
+
+    public CustomerUpsertResult(long row, String status, Long customerId, String naturalKey, String error) {
+        this.row = row;
+        this.status = status;
+        this.customerId = customerId;
+        this.naturalKey = naturalKey;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public long getRow() { return row; }
+    public void setRow(long row) { this.row = row; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getNaturalKey() { return naturalKey; }
+    public void setNaturalKey(String naturalKey) { this.naturalKey = naturalKey; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,44 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "How long work for one endpoint held database connections")
+public class EndpointConnectionUsage {
+
+    @Schema(description = "HTTP method and route, or 'background' for scheduled and startup work", example = "GET /api/customers/{id}")
+    private String endpoint;
+
+    @Schema(description = "Connections borrowed and returned", example = "5230")
+    private long connections;
+
+    @Schema(description = "Mean hold time in ms", example = "3.4")
+    private double meanHoldMs;
+
+    @Schema(description = "95th percentile hold time in ms", example = "10.0")
+    private double p95HoldMs;
+
+    @Schema(description = "Longest hold time in ms", example = "220.0")
+    private double maxHoldMs;
+
+    public EndpointConnectionUsage() {}
+
+    public EndpointConnectionUsage(String endpoint, long connections, double meanHoldMs, double p95HoldMs, double maxHoldMs) {
+        this.endpoint = endpoint;
+        this.connections = connections;
+        this.meanHoldMs = meanHoldMs;
+        this.p95HoldMs = p95HoldMs;
+        this.maxHoldMs = maxHoldMs;
+    }
+
+    // Getters and setters
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+    public long getConnections() { return connections; }
+    public void setConnections(long connections) { this.connections = connections; }
+    public double getMeanHoldMs() { return meanHoldMs; }
+    public void setMeanHoldMs(double meanHoldMs) { this.meanHoldMs = meanHoldMs; }
+    public double getP95HoldMs() { return p95HoldMs; }
+    public void setP95HoldMs(double p95HoldMs) { this.p95HoldMs = p95HoldMs; }
+    public double getMaxHoldMs() { return maxHoldMs; }
+    public void setMaxHoldMs(double maxHoldMs) { this.maxHoldMs = maxHoldMs; }
+}
@@ -0,0 +1,45 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Lead conversion figures for one source, sales representative or day")
+public class LeadConversionRate {
+
+    @Schema(description = "Group key: source name, sales representative ID or ISO date", example = "Website Form")
+    private String key;
+
+    @Schema(description = "Leads that entered the funnel (NEW)", example = "240")
+    private long created;
+
+    @Schema(description = "Leads contacted", example = "130")
+    private long contacted;
+
+    @Schema(description = "Leads converted", example = "30")
+    private long converted;
+
+    @Schema(description = "Leads lost", example = "55")
+    private long lost;
+
+    @Schema(description = "Converted leads as a percentage of created leads", example = "12.5")
+    private double conversionRate;
+
+    public LeadConversionRate() {}
+
+    public LeadConversionRate(String key) {
+        this.key = key;
+    }
+
+    // Getters and setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public long getCreated() { return created; }
+    public void setCreated(long created) { this.created = created; }
+    public long getContacted() { return contacted; }
+    public void setContacted(long contacted) { this.contacted = contacted; }
+    public long getConverted() { return converted; }
+    public void setConverted(long converted) { this.converted = converted; }
+    public long getLost() { return lost; }
+    public void setLost(long lost) { this.lost = lost; }
+    public double getConversionRate() { return conversionRate; }
+    public void setConversionRate(double conversionRate) { this.conversionRate = conversionRate; }
+}
@@ -0,0 +1,42 @@
+package com.crm.dto;
+
+import com.crm.enums.LeadStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(description = "Lead funnel for a date range, read from the daily rollups")
+public class LeadFunnelReport {
+
+    @Schema(description = "First day included", example = "2024-01-01")
+    private LocalDate fromDate;
+
+    @Schema(description = "Last day included", example = "2024-01-31")
+    private LocalDate toDate;
+
+    @Schema(description = "Number of leads entering each status in the range")
+    private Map<LeadStatus, Long> stageCounts;
+
+    @Schema(description = "Converted leads as a percentage of new leads", example = "12.5")
+    private double conversionRate;
+
+    public LeadFunnelReport() {}
+
+    public LeadFunnelReport(LocalDate fromDate, LocalDate toDate, Map<LeadStatus, Long> stageCounts, double conversionRate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.stageCounts = stageCounts;
+        this.conversionRate = conversionRate;
+    }
+
+    // Getters and setters
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+    public Map<LeadStatus, Long> getStageCounts() { return stageCounts; }
+    public void setStageCounts(Map<LeadStatus, Long> stageCounts) { this.stageCounts = stageCounts; }
+    public double getConversionRate() { return conversionRate; }
+    public void setConversionRate(double conversionRate) { this.conversionRate = conversionRate; }
+}
@@ -0,0 +1,28 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Validators of a record or collection, read without loading the entities")
+public class ResourceVersion {
+
+    @Schema(description = "Opaque entity tag value without quotes: the record version, or a fingerprint of the collection", example = "3")
+    private String tag;
+
+    @Schema(description = "Latest change to the record; null for collections and records never stamped")
+    private LocalDateTime lastModified;
+
+    public ResourceVersion() {}
+
+    public ResourceVersion(String tag, LocalDateTime lastModified) {
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and setters
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+    public LocalDateTime getLastModified() { return lastModified; }
+    public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
+}
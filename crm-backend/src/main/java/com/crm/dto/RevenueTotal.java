@@ -0,0 +1,40 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Sale count and amount for one bucket, sales representative or status")
+public class RevenueTotal {
+
+    @Schema(description = "Group key: bucket start date, sales representative ID or sale status", example = "2024-01-01")
+    private String key;
+
+    @Schema(description = "ISO 4217 currency code of the amount", example = "USD")
+    private String currency;
+
+    @Schema(description = "Number of sales", example = "8")
+    private long saleCount;
+
+    @Schema(description = "Sum of sale amounts", example = "15999.92")
+    private BigDecimal amount;
+
+    public RevenueTotal() {}
+
+    public RevenueTotal(String key, String currency, long saleCount, BigDecimal amount) {
+        this.key = key;
+        this.currency = currency;
+        this.saleCount = saleCount;
+        this.amount = amount;
+    }
+
+    // Getters and setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
@@ -0,0 +1,54 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Result of an ad-hoc query over the in-memory sales snapshot")
+public class SaleAnalyticsResult {
+
+    @Schema(description = "When the snapshot answering the query was loaded", example = "2024-01-15T10:30:00")
+    private LocalDateTime snapshotTakenAt;
+
+    @Schema(description = "Number of sales in the snapshot", example = "1250000")
+    private long totalRows;
+
+    @Schema(description = "Number of sales matching the filters", example = "48211")
+    private long matchedRows;
+
+    @Schema(description = "Time spent scanning the snapshot, in milliseconds", example = "3.4")
+    private double scanMillis;
+
+    @Schema(description = "Grouping applied: none, status, salesRep, customer, day or month", example = "month")
+    private String groupBy;
+
+    @Schema(description = "Sale count and amount per group, in group key order")
+    private List<RevenueTotal> groups;
+
+    public SaleAnalyticsResult() {}
+
+    public SaleAnalyticsResult(LocalDateTime snapshotTakenAt, long totalRows, long matchedRows, double scanMillis,
+                               String groupBy, List<RevenueTotal> groups) {
+        this.snapshotTakenAt = snapshotTakenAt;
+        this.totalRows = totalRows;
+        this.matchedRows = matchedRows;
+        this.scanMillis = scanMillis;
+        this.groupBy = groupBy;
+        this.groups = groups;
+    }
+
+    // Getters and setters
+    public LocalDateTime getSnapshotTakenAt() { return snapshotTakenAt; }
+    public void setSnapshotTakenAt(LocalDateTime snapshotTakenAt) { this.snapshotTakenAt = snapshotTakenAt; }
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+    public long getMatchedRows() { return matchedRows; }
+    public void setMatchedRows(long matchedRows) { this.matchedRows = matchedRows; }
+    public double getScanMillis() { return scanMillis; }
+    public void setScanMillis(double scanMillis) { this.scanMillis = scanMillis; }
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+    public List<RevenueTotal> getGroups() { return groups; }
+    public void setGroups(List<RevenueTotal> groups) { this.groups = groups; }
+}
@@ -0,0 +1,62 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Probability-weighted forecast of open sales, per sales representative and close month")
+public class SalesForecast {
+
+    @Schema(description = "When the forecast was computed", example = "2024-01-15T10:30:00")
+    private LocalDateTime generatedAt;
+
+    @Schema(description = "ISO 4217 currency code of the amounts", example = "USD")
+    private String currency;
+
+    @Schema(description = "First day of the current month; overdue sales are forecast in it", example = "2024-01-01")
+    private LocalDate fromMonth;
+
+    @Schema(description = "First day of the last month included", example = "2024-03-01")
+    private LocalDate toMonth;
+
+    @Schema(description = "Unweighted amount of all open sales in the horizon", example = "250000.00")
+    private BigDecimal pipelineAmount;
+
+    @Schema(description = "Weighted amount of all open sales in the horizon", example = "112500.00")
+    private BigDecimal weightedAmount;
+
+    @Schema(description = "Forecast per sales representative and close month, ordered by representative then month")
+    private List<SalesForecastEntry> entries;
+
+    public SalesForecast() {}
+
+    public SalesForecast(LocalDateTime generatedAt, String currency, LocalDate fromMonth, LocalDate toMonth,
+                         BigDecimal pipelineAmount, BigDecimal weightedAmount, List<SalesForecastEntry> entries) {
+        this.generatedAt = generatedAt;
+        this.currency = currency;
+        this.fromMonth = fromMonth;
+        this.toMonth = toMonth;
+        this.pipelineAmount = pipelineAmount;
+        this.weightedAmount = weightedAmount;
+        this.entries = entries;
+    }
+
+    // Getters and setters
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public LocalDate getFromMonth() { return fromMonth; }
+    public void setFromMonth(LocalDate fromMonth) { this.fromMonth = fromMonth; }
+    public LocalDate getToMonth() { return toMonth; }
+    public void setToMonth(LocalDate toMonth) { this.toMonth = toMonth; }
+    public BigDecimal getPipelineAmount() { return pipelineAmount; }
+    public void setPipelineAmount(BigDecimal pipelineAmount) { this.pipelineAmount = pipelineAmount; }
+    public BigDecimal getWeightedAmount() { return weightedAmount; }
+    public void setWeightedAmount(BigDecimal weightedAmount) { this.weightedAmount = weightedAmount; }
+    public List<SalesForecastEntry> getEntries() { return entries; }
+    public void setEntries(List<SalesForecastEntry> entries) { this.entries = entries; }
+}
@@ -0,0 +1,48 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Open pipeline and probability-weighted forecast of one sales representative for one close month")
+public class SalesForecastEntry {
+
+    @Schema(description = "Sales representative ID, 0 for unassigned sales", example = "5")
+    private long salesRepId;
+
+    @Schema(description = "First day of the expected close month", example = "2024-03-01")
+    private LocalDate closeMonth;
+
+    @Schema(description = "Number of open sales", example = "4")
+    private long openCount;
+
+    @Schema(description = "Unweighted amount of the open sales", example = "48000.00")
+    private BigDecimal pipelineAmount;
+
+    @Schema(description = "Amount weighted by stage probability", example = "21600.00")
+    private BigDecimal weightedAmount;
+
+    public SalesForecastEntry() {}
+
+    public SalesForecastEntry(long salesRepId, LocalDate closeMonth, long openCount,
+                              BigDecimal pipelineAmount, BigDecimal weightedAmount) {
+        this.salesRepId = salesRepId;
+        this.closeMonth = closeMonth;
+        this.openCount = openCount;
+        this.pipelineAmount = pipelineAmount;
+        this.weightedAmount = weightedAmount;
+    }
+
+    // Getters and setters
+    public long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(long salesRepId) { this.salesRepId = salesRepId; }
+    public LocalDate getCloseMonth() { return closeMonth; }
+    public void setCloseMonth(LocalDate closeMonth) { this.closeMonth = closeMonth; }
+    public long getOpenCount() { return openCount; }
+    public void setOpenCount(long openCount) { this.openCount = openCount; }
+    public BigDecimal getPipelineAmount() { return pipelineAmount; }
+    public void setPipelineAmount(BigDecimal pipelineAmount) { this.pipelineAmount = pipelineAmount; }
+    public BigDecimal getWeightedAmount() { return weightedAmount; }
+    public void setWeightedAmount(BigDecimal weightedAmount) { this.weightedAmount = weightedAmount; }
+}
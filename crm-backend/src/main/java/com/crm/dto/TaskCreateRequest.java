@@ -30,6 +30,9 @@ public class TaskCreateRequest {
     @Schema(description = "Status of the task", example = "PENDING")
     private TaskStatus status;
 
+    @Schema(description = "ID of the lead this task relates to", example = "3")
+    private Long leadId;
+
     // Constructors
     public TaskCreateRequest() {}
 
@@ -55,4 +58,6 @@ public class TaskCreateRequest {
     public void setAssignedToId(Long assignedToId) { this.assignedToId = assignedToId; }
     public TaskStatus getStatus() { return status; }
     public void setStatus(TaskStatus status) { this.status = status; }
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
 }
@@ -0,0 +1,47 @@
+package com.crm.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Open and recently closed tasks of one user, or the changes to them since a cursor")
+public class TaskInbox {
+
+    @Schema(description = "User the inbox belongs to", example = "3")
+    private Long userId;
+
+    @Schema(description = "Cursor to send as 'since' on the next request", example = "1718000000415")
+    private long cursor;
+
+    @Schema(description = "True when 'items' is the whole inbox and the client should replace its copy, "
+            + "false when it only holds changes since the requested cursor")
+    private boolean full;
+
+    @Schema(description = "Tasks added or changed since the requested cursor, or the whole inbox when 'full' is true")
+    private List<TaskInboxItem> items;
+
+    @Schema(description = "Tasks that left the inbox since the requested cursor (deleted, reassigned or evicted)")
+    private List<Long> removedTaskIds;
+
+    public TaskInbox() {}
+
+    public TaskInbox(Long userId, long cursor, boolean full, List<TaskInboxItem> items, List<Long> removedTaskIds) {
+        this.userId = userId;
+        this.cursor = cursor;
+        this.full = full;
+        this.items = items;
+        this.removedTaskIds = removedTaskIds;
+    }
+
+    // Getters and setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+    public List<TaskInboxItem> getItems() { return items; }
+    public void setItems(List<TaskInboxItem> items) { this.items = items; }
+    public List<Long> getRemovedTaskIds() { return removedTaskIds; }
+    public void setRemovedTaskIds(List<Long> removedTaskIds) { this.removedTaskIds = removedTaskIds; }
+}
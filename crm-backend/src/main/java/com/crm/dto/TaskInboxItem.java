@@ -0,0 +1,82 @@
+package com.crm.dto;
+
+import com.crm.enums.TaskStatus;
+import com.crm.model.Task;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Task as held in a user's inbox")
+public class TaskInboxItem {
+
+    @Schema(description = "Task ID", example = "12")
+    private Long taskId;
+
+    @Schema(description = "Title of the task", example = "Follow up with client")
+    private String title;
+
+    @Schema(description = "Current status of the task", example = "IN_PROGRESS")
+    private TaskStatus status;
+
+    @Schema(description = "Priority level of the task", example = "HIGH")
+    private String priority;
+
+    @Schema(description = "Due date for the task", example = "2024-12-31")
+    private LocalDate dueDate;
+
+    @Schema(description = "Lead the task relates to, if any", example = "7")
+    private Long leadId;
+
+    @Schema(description = "Version of the task record, usable as If-Match when updating it", example = "3")
+    private Long version;
+
+    @Schema(description = "Inbox cursor at which this task last changed", example = "1718000000412")
+    private long cursor;
+
+    public TaskInboxItem() {}
+
+    public TaskInboxItem(Long taskId, String title, TaskStatus status, String priority, LocalDate dueDate,
+                         Long leadId, Long version, long cursor) {
+        this.taskId = taskId;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.leadId = leadId;
+        this.version = version;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Copy the inbox fields of a task; the cursor is assigned when the item enters an inbox
+     */
+    public static TaskInboxItem of(Task task) {
+        return new TaskInboxItem(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getDueDate(),
+                task.getLead() != null ? task.getLead().getId() : null, task.getVersion(), 0);
+    }
+
+    /**
+     * Same item stamped with a new cursor
+     */
+    public TaskInboxItem withCursor(long cursor) {
+        return new TaskInboxItem(taskId, title, status, priority, dueDate, leadId, version, cursor);
+    }
+
+    // Getters and setters
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status; }
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+}
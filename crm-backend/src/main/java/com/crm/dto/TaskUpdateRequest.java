@@ -27,6 +27,9 @@ public class TaskUpdateRequest {
     @Schema(description = "Status of the task", example = "IN_PROGRESS")
     private TaskStatus status;
 
+    @Schema(description = "ID of the lead this task relates to", example = "3")
+    private Long leadId;
+
     // Constructors
     public TaskUpdateRequest() {}
 
@@ -43,4 +46,6 @@ public class TaskUpdateRequest {
     public void setAssignedToId(Long assignedToId) { this.assignedToId = assignedToId; }
     public TaskStatus getStatus() { return status; }
     public void setStatus(TaskStatus status) { this.status = status; }
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
 }
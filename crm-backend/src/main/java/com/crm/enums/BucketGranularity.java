@@ -0,0 +1,31 @@
+package com.crm.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+@Schema(description = "Time bucket sizes used by the revenue analytics")
+public enum BucketGranularity {
+
+    @Schema(description = "One bucket per calendar day")
+    DAY,
+
+    @Schema(description = "One bucket per ISO week, starting on Monday")
+    WEEK,
+
+    @Schema(description = "One bucket per calendar month")
+    MONTH;
+
+    /**
+     * First day of the bucket containing the given date
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,5 @@
+package com.crm.enums;
+
+public enum BulkOperationOutcome {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,35 @@
+package com.crm.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Kinds of domain events written to the outbox")
+public enum DomainEventType {
+
+    SALE_CREATED("SALE"),
+    SALE_UPDATED("SALE"),
+    SALE_DELETED("SALE"),
+
+    LEAD_CREATED("LEAD"),
+    LEAD_UPDATED("LEAD"),
+    LEAD_STATUS_CHANGED("LEAD"),
+    LEAD_CONVERTED("LEAD"),
+    LEAD_DELETED("LEAD"),
+
+    TASK_CREATED("TASK"),
+    TASK_UPDATED("TASK"),
+    TASK_STATUS_CHANGED("TASK"),
+    TASK_DELETED("TASK");
+
+    private final String aggregateType;
+
+    DomainEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    /**
+     * Kind of record the event is about: SALE, LEAD or TASK
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,38 @@
+package com.crm.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Long free-text attributes stored compressed in the entity_texts side table instead of their entity's row")
+public enum LargeTextField {
+
+    @Schema(description = "Customer.notes")
+    CUSTOMER_NOTES("customers", "notes"),
+
+    @Schema(description = "Sale.notes")
+    SALE_NOTES("sales", "notes"),
+
+    @Schema(description = "Task.description")
+    TASK_DESCRIPTION("tasks", "description");
+
+    private final String legacyTable;
+    private final String legacyColumn;
+
+    LargeTextField(String legacyTable, String legacyColumn) {
+        this.legacyTable = legacyTable;
+        this.legacyColumn = legacyColumn;
+    }
+
+    /**
+     * Table whose row held the text before it moved to entity_texts
+     */
+    public String getLegacyTable() {
+        return legacyTable;
+    }
+
+    /**
+     * Column that held the text before it moved to entity_texts
+     */
+    public String getLegacyColumn() {
+        return legacyColumn;
+    }
+}
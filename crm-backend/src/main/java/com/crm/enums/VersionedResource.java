@@ -0,0 +1,22 @@
+package com.crm.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resources served with ETag and Last-Modified validators, with their backing table")
+public enum VersionedResource {
+
+    CUSTOMERS("customers"),
+    LEADS("leads"),
+    SALES("sales"),
+    TASKS("tasks");
+
+    private final String table;
+
+    VersionedResource(String table) {
+        this.table = table;
+    }
+
+    public String getTable() {
+        return table;
+    }
+}
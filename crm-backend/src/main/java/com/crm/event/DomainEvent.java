@@ -0,0 +1,69 @@
+package com.crm.event;
+
+import com.crm.enums.DomainEventType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable domain event as delivered by the {@link DomainEventBus}
+ */
+@Schema(description = "Change to a sale, lead or task, delivered after its transaction committed")
+public final class DomainEvent {
+
+    @Schema(description = "Outbox ID of the event; increases with each event written", example = "1042")
+    private final long id;
+
+    @Schema(description = "Kind of event", example = "LEAD_STATUS_CHANGED")
+    private final DomainEventType type;
+
+    @Schema(description = "ID of the sale, lead or task", example = "42")
+    private final long aggregateId;
+
+    @Schema(description = "Event details, e.g. status and previousStatus")
+    private final Map<String, Object> payload;
+
+    @Schema(description = "When the change was made")
+    private final LocalDateTime occurredAt;
+
+    public DomainEvent(long id, DomainEventType type, long aggregateId, Map<String, Object> payload, LocalDateTime occurredAt) {
+        this.id = id;
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getId() { return id; }
+    public DomainEventType getType() { return type; }
+    public String getAggregateType() { return type.getAggregateType(); }
+    public long getAggregateId() { return aggregateId; }
+    public Map<String, Object> getPayload() { return payload; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    /**
+     * Payload value as a Long, or null when absent
+     */
+    public Long getLong(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Payload value as a String, or null when absent
+     */
+    public String getString(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "DomainEvent{" +
+                "id=" + id +
+                ", type=" + type +
+                ", aggregateId=" + aggregateId +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.crm.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process fan-out of relayed domain events to every {@link DomainEventSink} bean.
+ * A failing sink does not stop delivery to the others, but once every sink has run the failure is
+ * rethrown as a {@link DomainEventDeliveryException} so the relay leaves the events unpublished.
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final List<DomainEventSink> sinks;
+
+    public DomainEventBus(List<DomainEventSink> sinks) {
+        this.sinks = sinks;
+        logger.info("Domain event bus started with {} sink(s)", sinks.size());
+    }
+
+    /**
+     * Deliver a batch to every sink
+     *
+     * @throws DomainEventDeliveryException if any sink failed; sinks that succeeded will see the batch again on retry
+     */
+    public void publish(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        DomainEventDeliveryException failure = null;
+        for (DomainEventSink sink : sinks) {
+            try {
+                sink.onEvents(events);
+            } catch (RuntimeException e) {
+                logger.error("Domain event sink {} failed on {} event(s): {}",
+                        sink.getClass().getSimpleName(), events.size(), e.getMessage(), e);
+                if (failure == null) {
+                    failure = new DomainEventDeliveryException("Domain event sink "
+                            + sink.getClass().getSimpleName() + " failed: " + e.getMessage(), e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.crm.event;
+
+/**
+ * Thrown by the {@link DomainEventBus} when one or more sinks failed on a batch; later sink failures are attached as suppressed
+ */
+public class DomainEventDeliveryException extends RuntimeException {
+    public DomainEventDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.crm.event;
+
+import java.util.List;
+
+/**
+ * Receives relayed domain events. Implementations are discovered as Spring beans and called
+ * in outbox order from the relay thread, so they should hand off slow work instead of blocking.
+ * Delivery is at-least-once: a batch may be delivered again if the relay fails before marking it,
+ * or if another sink threw on it. Throwing keeps the events pending so the relay retries them.
+ */
+public interface DomainEventSink {
+
+    /**
+     * Handle one batch of events, oldest first
+     */
+    void onEvents(List<DomainEvent> events);
+}
@@ -0,0 +1,15 @@
+package com.crm.exceptionhandler;
+
+/**
+ * Thrown when a conditional write (If-Match) targets a version of a record that is no longer current
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public static PreconditionFailedException staleVersion(String entity, Long id, Long expectedVersion, Long currentVersion) {
+        return new PreconditionFailedException(entity + " " + id + " has been modified: expected version "
+                + expectedVersion + " but current version is " + currentVersion);
+    }
+}
@@ -0,0 +1,27 @@
+package com.crm.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "collection_versions")
+@Schema(description = "Change counter of one table, read into the ETags of the list responses that show its rows")
+public class CollectionVersion {
+
+    @Id
+    @Column(name = "table_name", length = 64)
+    @Schema(description = "Table the counter belongs to", example = "sales")
+    private String tableName;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of committed transactions that changed the table", example = "1042")
+    private long changes;
+
+    public CollectionVersion() {}
+
+    // Getters and Setters
+    public String getTableName() { return tableName; }
+    public void setTableName(String tableName) { this.tableName = tableName; }
+    public long getChanges() { return changes; }
+    public void setChanges(long changes) { this.changes = changes; }
+}
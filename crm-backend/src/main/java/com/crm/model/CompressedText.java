@@ -0,0 +1,53 @@
+package com.crm.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stored form of a long text: UTF-8 bytes, gzip-compressed only when that makes them smaller.
+ * Short texts rarely shrink enough to pay for the gzip header, so they are not attempted.
+ */
+public record CompressedText(byte[] content, boolean compressed, int originalLength) {
+
+    private static final int MIN_COMPRESSIBLE_BYTES = 128;
+
+    public static CompressedText of(String text) {
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        if (plain.length >= MIN_COMPRESSIBLE_BYTES) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(plain.length / 2);
+            try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(plain);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (buffer.size() < plain.length) {
+                return new CompressedText(buffer.toByteArray(), true, plain.length);
+            }
+        }
+        return new CompressedText(plain, false, plain.length);
+    }
+
+    /**
+     * Decode stored bytes back into text
+     */
+    public static String decode(byte[] content, boolean compressed) {
+        if (content == null) {
+            return null;
+        }
+        if (!compressed) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
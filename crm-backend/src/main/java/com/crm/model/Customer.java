@@ -2,14 +2,30 @@ package com.crm.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+
 @Entity
-@Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+@Table(name = "customers", indexes = {
+        @Index(name = "idx_customers_updated", columnList = "updated_date")
+})
 @Schema(description = "Customer entity representing a client in the CRM system")
 public class Customer {
 
+    private static final int NATURAL_KEY_LENGTH = 320;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Unique identifier of the customer", example = "1")
@@ -32,9 +48,36 @@ public class Customer {
     @Schema(description = "Physical address of the customer", example = "123 Main St, City, Country")
     private String address;
 
-    @Schema(description = "Additional notes about the customer", example = "Important client, prefers email communication")
+    @Transient
+    @Schema(description = "Additional notes about the customer; stored in entity_texts and only returned when a single customer is read",
+            example = "Important client, prefers email communication")
     private String notes;
 
+    @Column(name = "source_lead_id", unique = true)
+    @Schema(description = "ID of the lead this customer was converted from", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long sourceLeadId;
+
+    @Column(name = "natural_key", unique = true, length = NATURAL_KEY_LENGTH)
+    @Schema(description = "Normalized matching key used by bulk upserts: the lower-cased email, or company and name when there is no email",
+            example = "email:john.doe@example.com", accessMode = Schema.AccessMode.READ_ONLY)
+    private String naturalKey;
+
+    /**
+     * Natural key the loaded email, company and name map to. An edit recomputes the stored key only
+     * when that changes, so a legacy duplicate left unkeyed by the migration stays editable.
+     */
+    @Transient
+    private String keyAtLoad;
+
+    @Column(name = "updated_date")
+    @Schema(description = "Date and time the customer last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedDate;
+
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     // Constructors
     public Customer() {}
 
@@ -101,7 +144,8 @@ public class Customer {
         this.address = address;
     }
 
-    @Schema(description = "Additional notes about the customer", example = "Important client, prefers email communication")
+    @Schema(description = "Additional notes about the customer; stored in entity_texts and only returned when a single customer is read",
+            example = "Important client, prefers email communication")
     public String getNotes() {
         return notes;
     }
@@ -110,6 +154,111 @@ public class Customer {
         this.notes = notes;
     }
 
+    @Schema(description = "ID of the lead this customer was converted from", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getSourceLeadId() {
+        return sourceLeadId;
+    }
+
+    public void setSourceLeadId(Long sourceLeadId) {
+        this.sourceLeadId = sourceLeadId;
+    }
+
+    @Schema(description = "Normalized matching key used by bulk upserts: the lower-cased email, or company and name when there is no email",
+            example = "email:john.doe@example.com", accessMode = Schema.AccessMode.READ_ONLY)
+    public String getNaturalKey() {
+        return naturalKey;
+    }
+
+    public void setNaturalKey(String naturalKey) {
+        this.naturalKey = naturalKey;
+    }
+
+    @Schema(description = "Date and time the customer last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    public LocalDateTime getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public void setUpdatedDate(LocalDateTime updatedDate) {
+        this.updatedDate = updatedDate;
+    }
+
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PostLoad
+    void onLoad() {
+        this.keyAtLoad = naturalKeyOf(email, company, name);
+    }
+
+    @PrePersist
+    void onCreate() {
+        this.naturalKey = naturalKeyOf(email, company, name);
+        this.updatedDate = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        String key = naturalKeyOf(email, company, name);
+        if (!Objects.equals(key, keyAtLoad)) {
+            this.naturalKey = key;
+            this.keyAtLoad = key;
+        }
+        this.updatedDate = LocalDateTime.now();
+    }
+
+    /**
+     * Matching key for a customer: the trimmed, lower-cased email when present, otherwise the
+     * normalized company and name. Null when there is nothing to match on.
+     */
+    public static String naturalKeyOf(String email, String company, String name) {
+        String normalizedEmail = normalize(email);
+        if (normalizedEmail != null) {
+            return "email:" + normalizedEmail;
+        }
+        String normalizedCompany = normalize(company);
+        String normalizedName = normalize(name);
+        if (normalizedCompany == null || normalizedName == null) {
+            return null;
+        }
+        String key = "company:" + normalizedCompany + "/" + normalizedName;
+        if (key.length() <= NATURAL_KEY_LENGTH) {
+            return key;
+        }
+        // Too long for the indexed column: keep it unique by hashing instead of truncating
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "company-sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Detached field-by-field copy, so callers can modify it without touching a cached instance
+     */
+    public Customer copy() {
+        Customer copy = new Customer(name, email, phone, company, address, notes);
+        copy.setId(id);
+        copy.setSourceLeadId(sourceLeadId);
+        copy.setNaturalKey(naturalKey);
+        copy.setUpdatedDate(updatedDate);
+        copy.setVersion(version);
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "Customer{" +
@@ -120,6 +269,8 @@ public class Customer {
                 ", company='" + company + '\'' +
                 ", address='" + address + '\'' +
                 ", notes='" + notes + '\'' +
+                ", sourceLeadId=" + sourceLeadId +
+                ", naturalKey='" + naturalKey + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.crm.model;
+
+import com.crm.enums.LargeTextField;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+/**
+ * Long text of one entity attribute, kept out of the entity's own table so list queries read narrow
+ * rows. Rows are read and written with JDBC by LargeTextService; the entity exists to define the table.
+ */
+@Entity
+@Table(name = "entity_texts",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_entity_text", columnNames = {"field", "owner_id"})
+        })
+@Schema(description = "Compressed long text of one entity attribute")
+public class EntityText {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the text", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    @Schema(description = "Entity attribute the text belongs to", example = "SALE_NOTES")
+    private LargeTextField field;
+
+    @Column(name = "owner_id", nullable = false)
+    @Schema(description = "ID of the customer, sale or task owning the text", example = "12")
+    private Long ownerId;
+
+    @Column(nullable = false)
+    @Schema(description = "Whether the content is gzip-compressed or plain UTF-8", example = "true")
+    private boolean compressed;
+
+    @Column(name = "original_length", nullable = false)
+    @Schema(description = "Length of the text in UTF-8 bytes before compression", example = "2048")
+    private int originalLength;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    @Schema(description = "Stored bytes of the text")
+    private byte[] content;
+
+    public EntityText() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LargeTextField getField() { return field; }
+    public void setField(LargeTextField field) { this.field = field; }
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+    public boolean isCompressed() { return compressed; }
+    public void setCompressed(boolean compressed) { this.compressed = compressed; }
+    public int getOriginalLength() { return originalLength; }
+    public void setOriginalLength(int originalLength) { this.originalLength = originalLength; }
+    public byte[] getContent() { return content; }
+    public void setContent(byte[] content) { this.content = content; }
+}
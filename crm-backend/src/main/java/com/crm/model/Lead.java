@@ -1,13 +1,19 @@
 package com.crm.model;
 
 import com.crm.enums.LeadStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leads")
+@Table(name = "leads", indexes = {
+        @Index(name = "idx_leads_score", columnList = "score"),
+        @Index(name = "idx_leads_status_updated", columnList = "status, updated_date"),
+        @Index(name = "idx_leads_rep_status_updated", columnList = "assigned_sales_rep_id, status, updated_date"),
+        @Index(name = "idx_leads_updated", columnList = "updated_date")
+})
 @Schema(description = "Lead entity representing a potential customer in the CRM system")
 public class Lead {
 
@@ -43,6 +49,19 @@ public class Lead {
     @Schema(description = "Date when the lead was last updated")
     private LocalDateTime updatedDate;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "converted_customer_id")
+    private Customer convertedCustomer;
+
+    @Column(nullable = false)
+    @Schema(description = "Priority score of the lead, maintained by the lead scoring engine", example = "65", accessMode = Schema.AccessMode.READ_ONLY)
+    private int score;
+
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     // Constructors
     public Lead() {}
 
@@ -82,4 +101,13 @@ public class Lead {
     public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
     public LocalDateTime getUpdatedDate() { return updatedDate; }
     public void setUpdatedDate(LocalDateTime updatedDate) { this.updatedDate = updatedDate; }
+    @JsonIgnore
+    public Customer getConvertedCustomer() { return convertedCustomer; }
+    public void setConvertedCustomer(Customer convertedCustomer) { this.convertedCustomer = convertedCustomer; }
+    @Schema(description = "ID of the customer created when this lead was converted", example = "5", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getConvertedCustomerId() { return convertedCustomer != null ? convertedCustomer.getId() : null; }
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.crm.model;
+
+import com.crm.enums.BulkOperationOutcome;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "lead_batch_audits")
+@Schema(description = "Audit record of a bulk lead operation, written when it starts and updated as each chunk commits")
+public class LeadBatchAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the audit record", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    @Schema(description = "Bulk operation that was executed", example = "STATUS_CHANGE")
+    private String operation;
+
+    @Column(length = 1000)
+    @Schema(description = "Criteria and target values of the operation", example = "status=LOST")
+    private String criteria;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Schema(description = "Whether the operation is still running, completed or failed part way", example = "COMPLETED")
+    private BulkOperationOutcome outcome = BulkOperationOutcome.RUNNING;
+
+    @Schema(description = "Number of leads matched by the committed chunks", example = "1200")
+    private long matchedCount;
+
+    @Schema(description = "Number of leads actually updated by the committed chunks", example = "1180")
+    private long updatedCount;
+
+    @Schema(description = "Number of chunks committed", example = "3")
+    private int chunkCount;
+
+    @Schema(description = "Wall clock duration of the operation in milliseconds", example = "420")
+    private long durationMillis;
+
+    @Schema(description = "User who performed the operation", example = "admin@example.com")
+    private String performedBy;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Date and time when the operation started", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime performedAt;
+
+    @Schema(description = "Date and time when the operation completed or failed; null while running", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime finishedAt;
+
+    public LeadBatchAudit() {}
+
+    public LeadBatchAudit(String operation, String criteria, String performedBy) {
+        this.operation = operation;
+        this.criteria = criteria;
+        this.performedBy = performedBy;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        performedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+    public String getCriteria() { return criteria; }
+    public void setCriteria(String criteria) { this.criteria = criteria; }
+    public BulkOperationOutcome getOutcome() { return outcome; }
+    public void setOutcome(BulkOperationOutcome outcome) { this.outcome = outcome; }
+    public long getMatchedCount() { return matchedCount; }
+    public void setMatchedCount(long matchedCount) { this.matchedCount = matchedCount; }
+    public long getUpdatedCount() { return updatedCount; }
+    public void setUpdatedCount(long updatedCount) { this.updatedCount = updatedCount; }
+    public int getChunkCount() { return chunkCount; }
+    public void setChunkCount(int chunkCount) { this.chunkCount = chunkCount; }
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+    public String getPerformedBy() { return performedBy; }
+    public void setPerformedBy(String performedBy) { this.performedBy = performedBy; }
+    public LocalDateTime getPerformedAt() { return performedAt; }
+    public void setPerformedAt(LocalDateTime performedAt) { this.performedAt = performedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
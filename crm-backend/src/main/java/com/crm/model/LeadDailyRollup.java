@@ -0,0 +1,82 @@
+package com.crm.model;
+
+import com.crm.enums.LeadStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "lead_daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lead_rollup_day_source_rep_status",
+                columnNames = {"rollup_date", "source", "sales_rep_id", "status"})
+})
+@Schema(description = "Daily count of leads entering a status, per source and sales representative")
+public class LeadDailyRollup {
+
+    /**
+     * Source key used for leads without a source
+     */
+    public static final String UNKNOWN_SOURCE = "";
+
+    /**
+     * Sales representative key used for unassigned leads
+     */
+    public static final long UNASSIGNED = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the rollup row", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    @Schema(description = "Day the transitions happened on", example = "2024-01-15")
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    @Schema(description = "Lead source, empty when unknown", example = "Website Form")
+    private String source;
+
+    @Column(name = "sales_rep_id", nullable = false)
+    @Schema(description = "Assigned sales representative ID, 0 when unassigned", example = "4")
+    private Long salesRepId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Schema(description = "Status the leads entered", example = "CONTACTED")
+    private LeadStatus status;
+
+    @Column(name = "entered_count", nullable = false)
+    @Schema(description = "Number of leads that entered the status on this day", example = "12")
+    private long enteredCount;
+
+    @Column(name = "backfilled_count", nullable = false)
+    @Schema(description = "Part of entered_count added by the startup backfill for leads older than the rollups", example = "0")
+    private long backfilledCount;
+
+    @Column(name = "first_counted_at")
+    @Schema(description = "Earliest lead timestamp counted into this row as it happened, empty when only backfilled",
+            example = "2024-01-15T09:30:00")
+    private LocalDateTime firstCountedAt;
+
+    public LeadDailyRollup() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public Long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(Long salesRepId) { this.salesRepId = salesRepId; }
+    public LeadStatus getStatus() { return status; }
+    public void setStatus(LeadStatus status) { this.status = status; }
+    public long getEnteredCount() { return enteredCount; }
+    public void setEnteredCount(long enteredCount) { this.enteredCount = enteredCount; }
+    public long getBackfilledCount() { return backfilledCount; }
+    public void setBackfilledCount(long backfilledCount) { this.backfilledCount = backfilledCount; }
+    public LocalDateTime getFirstCountedAt() { return firstCountedAt; }
+    public void setFirstCountedAt(LocalDateTime firstCountedAt) { this.firstCountedAt = firstCountedAt; }
+}
@@ -0,0 +1,119 @@
+package com.crm.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Exact monetary amount stored as a whole number of minor units (cents for USD) plus an ISO 4217 currency code.
+ * Serialized to JSON as a plain decimal number, e.g. 999.99.
+ */
+@Schema(description = "Monetary amount", type = "number", example = "999.99")
+public final class Money implements Comparable<Money> {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, normalizeCurrency(currency));
+    }
+
+    /**
+     * Create an amount from a decimal value; rejects values with more decimals than the currency allows
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        String code = normalizeCurrency(currency);
+        int fractionDigits = fractionDigits(code);
+        try {
+            BigDecimal scaled = amount.setScale(fractionDigits, RoundingMode.UNNECESSARY);
+            return new Money(scaled.movePointRight(fractionDigits).longValueExact(), code);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount " + amount.toPlainString() + " for currency " + code);
+        }
+    }
+
+    @JsonCreator
+    public static Money fromJson(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Same minor units labelled with another currency
+     */
+    public Money withCurrency(String otherCurrency) {
+        String code = normalizeCurrency(otherCurrency);
+        return code.equals(currency) ? this : new Money(minorUnits, code);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    public static int fractionDigits(String currency) {
+        int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        return Math.max(digits, 0);
+    }
+
+    private static String normalizeCurrency(String currency) {
+        return currency != null ? currency.trim().toUpperCase() : DEFAULT_CURRENCY;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money money)) return false;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString() + " " + currency;
+    }
+}
@@ -0,0 +1,22 @@
+package com.crm.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persists {@link Money} as a BIGINT of minor units. The currency lives in its own column on the
+ * owning entity, which re-labels the loaded value (see {@link Sale#getAmount()}).
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.getMinorUnits() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits != null ? Money.ofMinor(minorUnits, Money.DEFAULT_CURRENCY) : null;
+    }
+}
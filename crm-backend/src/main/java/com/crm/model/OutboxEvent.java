@@ -0,0 +1,94 @@
+package com.crm.model;
+
+import com.crm.enums.DomainEventType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_published_id", columnList = "published_at, id")
+})
+@Schema(description = "Domain event written in the same transaction as the change it describes, relayed to the event bus afterwards")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the event, increasing in commit order per writer", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    @Schema(description = "Kind of event", example = "SALE_CREATED")
+    private DomainEventType eventType;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    @Schema(description = "Kind of record the event is about", example = "SALE")
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    @Schema(description = "ID of the record the event is about", example = "42")
+    private Long aggregateId;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    @Schema(description = "Event details as a JSON object", example = "{\"status\":\"COMPLETED\"}")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Schema(description = "When the event was written", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    @Schema(description = "When the event was handed to the event bus; null while pending", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime publishedAt;
+
+    @Column(name = "failed_at")
+    @Schema(description = "When the relay gave up on the event because its payload could not be read or delivery kept failing; null otherwise", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime failedAt;
+
+    @Column(nullable = false)
+    @Schema(description = "Failed delivery attempts so far", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private int attempts;
+
+    @Column(length = 500)
+    @Schema(description = "Why the relay gave up on the event", accessMode = Schema.AccessMode.READ_ONLY)
+    private String failure;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(DomainEventType eventType, Long aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateType = eventType.getAggregateType();
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public DomainEventType getEventType() { return eventType; }
+    public void setEventType(DomainEventType eventType) { this.eventType = eventType; }
+    public String getAggregateType() { return aggregateType; }
+    public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getFailure() { return failure; }
+    public void setFailure(String failure) { this.failure = failure; }
+}
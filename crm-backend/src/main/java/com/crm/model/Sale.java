@@ -5,9 +5,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_currency_date", columnList = "currency, date, amount_minor"),
+        @Index(name = "idx_sales_rep_status_date", columnList = "assigned_sales_rep_id, status, date"),
+        @Index(name = "idx_sales_customer_date", columnList = "customer_id, date"),
+        @Index(name = "idx_sales_status_date", columnList = "status, date"),
+        @Index(name = "idx_sales_updated", columnList = "updated_date"),
+        @Index(name = "idx_sales_date", columnList = "date")
+})
 @Schema(description = "Sale entity representing a transaction in the CRM system")
 public class Sale {
 
@@ -21,13 +29,19 @@ public class Sale {
     @Schema(description = "Customer associated with this sale")
     private Customer customer;
 
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "amount_minor")
     @Schema(
             description = "Sale amount",
             example = "999.99",
             minimum = "0.01",
             required = true
     )
-    private Double amount;
+    private Money amount;
+
+    @Column(length = 3, nullable = false)
+    @Schema(description = "ISO 4217 currency code of the amount", example = "USD")
+    private String currency = Money.DEFAULT_CURRENCY;
 
     @Enumerated(EnumType.STRING)
     @Schema(
@@ -45,6 +59,10 @@ public class Sale {
     )
     private LocalDate date;
 
+    @Column(name = "expected_close_date")
+    @Schema(description = "Date the sale is expected to close; the sale date is used when not set", example = "2024-03-31")
+    private LocalDate expectedCloseDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_sales_rep_id")
     @Schema(description = "Sales representative assigned to this sale")
@@ -54,20 +72,31 @@ public class Sale {
     @Schema(description = "User ID who created the sale", example = "101")
     private Long createdBy;
 
-    @Column(length = 1000)
-    @Schema(description = "Optional notes about the sale", example = "Followed up with customer")
+    @Transient
+    @Schema(description = "Optional notes about the sale; stored in entity_texts and only returned when a single sale is read",
+            example = "Followed up with customer")
     private String notes;
 
+    @Column(name = "updated_date")
+    @Schema(description = "Date and time the sale last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedDate;
+
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
     // Constructors
     public Sale() {}
 
-    public Sale(Long id, Customer customer, Double amount, SaleStatus status, LocalDate date,
+    public Sale(Long id, Customer customer, Money amount, SaleStatus status, LocalDate date,
                 User assignedSalesRep, Long createdBy, String notes) {
         this.id = id;
         this.customer = customer;
+        this.currency = amount != null ? amount.getCurrency() : Money.DEFAULT_CURRENCY;
         this.amount = amount;
         this.status = status;
         this.date = date;
@@ -92,8 +121,26 @@ public class Sale {
             minimum = "0.01",
             required = true
     )
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount != null ? amount.withCurrency(currency) : null; }
+
+    /**
+     * Amounts are always held in the sale's currency; a value in another currency is re-read in it
+     */
+    public void setAmount(Money amount) {
+        this.amount = amount == null || amount.getCurrency().equals(currency)
+                ? amount : Money.of(amount.toDecimal(), currency);
+    }
+
+    @Schema(description = "ISO 4217 currency code of the amount", example = "USD")
+    public String getCurrency() { return currency; }
+
+    public void setCurrency(String currency) {
+        Money current = getAmount();
+        this.currency = currency != null ? currency.trim().toUpperCase() : Money.DEFAULT_CURRENCY;
+        if (current != null && !current.getCurrency().equals(this.currency)) {
+            this.amount = Money.of(current.toDecimal(), this.currency);
+        }
+    }
 
     @Schema(
             description = "Current status of the sale",
@@ -112,6 +159,10 @@ public class Sale {
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
 
+    @Schema(description = "Date the sale is expected to close; the sale date is used when not set", example = "2024-03-31")
+    public LocalDate getExpectedCloseDate() { return expectedCloseDate; }
+    public void setExpectedCloseDate(LocalDate expectedCloseDate) { this.expectedCloseDate = expectedCloseDate; }
+
     @Schema(description = "Sales representative assigned to this sale")
     public User getAssignedSalesRep() { return assignedSalesRep; }
     public void setAssignedSalesRep(User assignedSalesRep) { this.assignedSalesRep = assignedSalesRep; }
@@ -124,14 +175,29 @@ public class Sale {
         this.createdBy = createdBy;
     }
 
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Schema(description = "Date and time the sale last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    public LocalDateTime getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(LocalDateTime updatedDate) { this.updatedDate = updatedDate; }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedDate = LocalDateTime.now();
+    }
+
     @Override
     public String toString() {
         return "Sale{" +
                 "id=" + id +
                 ", customer=" + (customer != null ? customer.getId() : "null") +
-                ", amount=" + amount +
+                ", amount=" + getAmount() +
                 ", status=" + status +
                 ", date=" + date +
+                ", expectedCloseDate=" + expectedCloseDate +
                 ", assignedSalesRep=" + (assignedSalesRep != null ? assignedSalesRep.getId() : "null") +
                 '}';
     }
@@ -0,0 +1,88 @@
+package com.crm.model;
+
+import com.crm.enums.BucketGranularity;
+import com.crm.enums.SaleStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "sale_revenue_buckets",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_revenue_bucket",
+                        columnNames = {"granularity", "bucket_start", "sales_rep_id", "customer_id", "status", "currency"})
+        },
+        indexes = {
+                @Index(name = "idx_revenue_bucket_rep", columnList = "granularity, sales_rep_id, bucket_start"),
+                @Index(name = "idx_revenue_bucket_customer", columnList = "granularity, customer_id, bucket_start")
+        })
+@Schema(description = "Pre-aggregated sale count and amount per time bucket, sales rep, customer and status")
+public class SaleRevenueBucket {
+
+    /**
+     * Key used for sales without a sales representative or customer
+     */
+    public static final long NONE = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Unique identifier of the bucket", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Schema(description = "Bucket size", example = "MONTH")
+    private BucketGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    @Schema(description = "First day of the bucket", example = "2024-01-01")
+    private LocalDate bucketStart;
+
+    @Column(name = "sales_rep_id", nullable = false)
+    @Schema(description = "Assigned sales representative ID, 0 when unassigned", example = "4")
+    private Long salesRepId;
+
+    @Column(name = "customer_id", nullable = false)
+    @Schema(description = "Customer ID, 0 when none", example = "12")
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Schema(description = "Sale status", example = "COMPLETED")
+    private SaleStatus status;
+
+    @Column(nullable = false, length = 3)
+    @Schema(description = "ISO 4217 currency code of the amounts", example = "USD")
+    private String currency;
+
+    @Column(name = "sale_count", nullable = false)
+    @Schema(description = "Number of sales in the bucket", example = "8")
+    private long saleCount;
+
+    @Column(name = "amount_minor", nullable = false)
+    @Schema(description = "Sum of sale amounts in the bucket, in minor units of the currency", example = "1599992")
+    private long amountMinor;
+
+    public SaleRevenueBucket() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public BucketGranularity getGranularity() { return granularity; }
+    public void setGranularity(BucketGranularity granularity) { this.granularity = granularity; }
+    public LocalDate getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDate bucketStart) { this.bucketStart = bucketStart; }
+    public Long getSalesRepId() { return salesRepId; }
+    public void setSalesRepId(Long salesRepId) { this.salesRepId = salesRepId; }
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public SaleStatus getStatus() { return status; }
+    public void setStatus(SaleStatus status) { this.status = status; }
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public long getAmountMinor() { return amountMinor; }
+    public void setAmountMinor(long amountMinor) { this.amountMinor = amountMinor; }
+}
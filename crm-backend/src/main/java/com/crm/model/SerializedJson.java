@@ -0,0 +1,8 @@
+package com.crm.model;
+
+/**
+ * A response body serialized once for one version of a resource: the JSON bytes and, when the
+ * body is large enough to be worth compressing, the same bytes gzip-compressed (otherwise null).
+ */
+public record SerializedJson(String tag, byte[] json, byte[] gzip) {
+}
@@ -7,9 +7,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_updated", columnList = "updated_date")
+})
 @Schema(description = "Task entity representing a task in the CRM system")
 public class Task {
 
@@ -23,7 +26,9 @@ public class Task {
     @Schema(description = "Title of the task", example = "Follow up with client", required = true)
     private String title;
 
-    @Schema(description = "Detailed description of the task", example = "Call the client to discuss project requirements")
+    @Transient
+    @Schema(description = "Detailed description of the task; stored in entity_texts and only returned when a single task is read",
+            example = "Call the client to discuss project requirements")
     private String description;
 
     @Schema(description = "Due date for the task", example = "2024-12-31")
@@ -45,6 +50,20 @@ public class Task {
             implementation = TaskStatus.class)
     private TaskStatus status;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lead_id")
+    @Schema(description = "Lead this task relates to, if any")
+    private Lead lead;
+
+    @Column(name = "updated_date")
+    @Schema(description = "Date and time the task last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedDate;
+
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     // Constructors
     public Task() {}
 
@@ -66,7 +85,8 @@ public class Task {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
-    @Schema(description = "Detailed description of the task", example = "Call the client to discuss project requirements")
+    @Schema(description = "Detailed description of the task; stored in entity_texts and only returned when a single task is read",
+            example = "Call the client to discuss project requirements")
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -90,6 +110,24 @@ public class Task {
     public TaskStatus getStatus() { return status; }
     public void setStatus(TaskStatus status) { this.status = status; }
 
+    @Schema(description = "Lead this task relates to, if any")
+    public Lead getLead() { return lead; }
+    public void setLead(Lead lead) { this.lead = lead; }
+
+    @Schema(description = "Version of the record, incremented on every change and sent as the ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Schema(description = "Date and time the task last changed, sent as Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    public LocalDateTime getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(LocalDateTime updatedDate) { this.updatedDate = updatedDate; }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedDate = LocalDateTime.now();
+    }
+
     @Override
     public String toString() {
         return "Task{" +
@@ -100,6 +138,7 @@ public class Task {
                 ", priority='" + priority + '\'' +
                 ", assignedTo=" + (assignedTo != null ? assignedTo.getId() : "null") +
                 ", status=" + status +
+                ", lead=" + (lead != null ? lead.getId() : "null") +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.crm.repository;
+
+import com.crm.model.CollectionVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, String> {
+
+    /**
+     * Count one change to a table, creating its counter on first use.
+     * Declares the table it touches so Hibernate does not clear the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "collection_versions"))
+    @Query(value = "INSERT INTO collection_versions (table_name, changes) VALUES (:tableName, 1) " +
+            "ON DUPLICATE KEY UPDATE changes = changes + 1",
+            nativeQuery = true)
+    int increment(@Param("tableName") String tableName);
+}
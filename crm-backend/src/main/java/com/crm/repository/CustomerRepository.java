@@ -3,6 +3,21 @@ package com.crm.repository;
 
 import com.crm.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * Find the customer created from a lead
+     */
+    Optional<Customer> findBySourceLeadId(Long sourceLeadId);
+
+    /**
+     * Read the current version of a customer straight from the table, bypassing the second-level cache
+     */
+    @Query("SELECT c.version FROM Customer c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,39 @@
+package com.crm.repository;
+
+import com.crm.enums.BulkOperationOutcome;
+import com.crm.model.LeadBatchAudit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LeadBatchAuditRepository extends JpaRepository<LeadBatchAudit, Long> {
+
+    /**
+     * Record the running totals of a bulk operation; called in each chunk's transaction so the audit
+     * always matches what has been committed
+     */
+    @Modifying
+    @Query("UPDATE LeadBatchAudit a SET a.matchedCount = :matched, a.updatedCount = :updated, " +
+            "a.chunkCount = :chunks, a.durationMillis = :durationMillis WHERE a.id = :id")
+    int recordProgress(@Param("id") Long id,
+                       @Param("matched") long matched,
+                       @Param("updated") long updated,
+                       @Param("chunks") int chunks,
+                       @Param("durationMillis") long durationMillis);
+
+    /**
+     * Close the audit of a bulk operation that completed or failed
+     */
+    @Modifying
+    @Query("UPDATE LeadBatchAudit a SET a.outcome = :outcome, a.durationMillis = :durationMillis, " +
+            "a.finishedAt = :now WHERE a.id = :id")
+    int finish(@Param("id") Long id,
+               @Param("outcome") BulkOperationOutcome outcome,
+               @Param("durationMillis") long durationMillis,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,73 @@
+package com.crm.repository;
+
+import com.crm.model.LeadDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LeadDailyRollupRepository extends JpaRepository<LeadDailyRollup, Long> {
+
+    /**
+     * Add to the number of leads entering a status, creating the rollup row on first use, and keep
+     * the earliest lead timestamp counted into the row.
+     * Declares the table it touches so Hibernate does not clear the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lead_daily_rollups"))
+    @Query(value = "INSERT INTO lead_daily_rollups " +
+            "(rollup_date, source, sales_rep_id, status, entered_count, backfilled_count, first_counted_at) " +
+            "VALUES (:rollupDate, :source, :salesRepId, :status, :delta, 0, :countedAt) " +
+            "ON DUPLICATE KEY UPDATE entered_count = entered_count + VALUES(entered_count), " +
+            "first_counted_at = LEAST(COALESCE(first_counted_at, VALUES(first_counted_at)), VALUES(first_counted_at))",
+            nativeQuery = true)
+    int increment(@Param("rollupDate") LocalDate rollupDate,
+                  @Param("source") String source,
+                  @Param("salesRepId") Long salesRepId,
+                  @Param("status") String status,
+                  @Param("delta") long delta,
+                  @Param("countedAt") LocalDateTime countedAt);
+
+    /**
+     * Total transitions per status in a date range, optionally restricted to a source and/or sales rep
+     */
+    @Query("SELECT r.status, SUM(r.enteredCount) FROM LeadDailyRollup r " +
+            "WHERE r.rollupDate BETWEEN :fromDate AND :toDate " +
+            "AND (:source IS NULL OR r.source = :source) " +
+            "AND (:salesRepId IS NULL OR r.salesRepId = :salesRepId) " +
+            "GROUP BY r.status")
+    List<Object[]> sumByStatus(@Param("fromDate") LocalDate fromDate,
+                               @Param("toDate") LocalDate toDate,
+                               @Param("source") String source,
+                               @Param("salesRepId") Long salesRepId);
+
+    /**
+     * Total transitions per source and status in a date range
+     */
+    @Query("SELECT r.source, r.status, SUM(r.enteredCount) FROM LeadDailyRollup r " +
+            "WHERE r.rollupDate BETWEEN :fromDate AND :toDate GROUP BY r.source, r.status")
+    List<Object[]> sumBySourceAndStatus(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Total transitions per sales representative and status in a date range
+     */
+    @Query("SELECT r.salesRepId, r.status, SUM(r.enteredCount) FROM LeadDailyRollup r " +
+            "WHERE r.rollupDate BETWEEN :fromDate AND :toDate GROUP BY r.salesRepId, r.status")
+    List<Object[]> sumBySalesRepAndStatus(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Total transitions per day and status in a date range
+     */
+    @Query("SELECT r.rollupDate, r.status, SUM(r.enteredCount) FROM LeadDailyRollup r " +
+            "WHERE r.rollupDate BETWEEN :fromDate AND :toDate GROUP BY r.rollupDate, r.status")
+    List<Object[]> sumByDayAndStatus(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+}
@@ -1,13 +1,20 @@
 package com.crm.repository;
 
+import com.crm.dto.CustomerOverviewLead;
 import com.crm.model.Lead;
+import com.crm.model.User;
 import com.crm.enums.LeadStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LeadRepository extends JpaRepository<Lead, Long> {
@@ -52,13 +59,40 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
      */
     List<Lead> findByStatusIn(List<LeadStatus> statuses);
 
+    /**
+     * Statuses of leads that still need follow-up
+     */
+    List<LeadStatus> FOLLOW_UP_STATUSES = List.of(LeadStatus.NEW, LeadStatus.CONTACTED);
+
     /**
      * Find leads needing follow-up (NEW or CONTACTED status)
      */
     default List<Lead> findLeadsNeedingFollowUp() {
-        return findByStatusIn(List.of(LeadStatus.NEW, LeadStatus.CONTACTED));
+        return findByStatusIn(FOLLOW_UP_STATUSES);
+    }
+
+    /**
+     * Count leads with any of the given statuses
+     */
+    long countByStatusIn(List<LeadStatus> statuses);
+
+    /**
+     * Count leads needing follow-up without loading them
+     */
+    default long countLeadsNeedingFollowUp() {
+        return countByStatusIn(FOLLOW_UP_STATUSES);
     }
 
+    /**
+     * Page through leads with the given statuses, least recently updated first
+     */
+    Page<Lead> findByStatusInOrderByUpdatedDateAsc(List<LeadStatus> statuses, Pageable pageable);
+
+    /**
+     * Page through a sales representative's leads with the given statuses, least recently updated first
+     */
+    Page<Lead> findByAssignedSalesRepIdAndStatusInOrderByUpdatedDateAsc(Long assignedSalesRepId, List<LeadStatus> statuses, Pageable pageable);
+
     /**
      * Count leads by sales representative and status
      */
@@ -69,4 +103,160 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
      * Find leads by sales representative and status
      */
     List<Lead> findByAssignedSalesRepIdAndStatus(Long assignedSalesRepId, LeadStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Find the highest scoring leads among the given statuses (served by the score index)
+     */
+    List<Lead> findByStatusInOrderByScoreDesc(List<LeadStatus> statuses, Pageable pageable);
+
+    /**
+     * Find the highest scoring leads of a sales representative among the given statuses
+     */
+    List<Lead> findByAssignedSalesRepIdAndStatusInOrderByScoreDesc(Long assignedSalesRepId, List<LeadStatus> statuses, Pageable pageable);
+
+    /**
+     * Find the next chunk of leads with the given statuses, keyset-paged by ID
+     */
+    @Query("SELECT l FROM Lead l WHERE l.id > :afterId AND l.status IN :statuses ORDER BY l.id")
+    List<Lead> findByStatusInAfter(@Param("afterId") Long afterId,
+                                   @Param("statuses") List<LeadStatus> statuses,
+                                   Pageable pageable);
+
+    /**
+     * Set a lead's score only if it is still at the expected version. Neither the version nor the
+     * updated date changes: a recomputed score is not an edit, so ETags, If-Match tags and the
+     * oldest-first follow-up order stay as they were.
+     * @return 1 when updated, 0 when the lead changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE Lead l SET l.score = :score WHERE l.id = :id AND l.version = :version")
+    int updateScoreIfVersion(@Param("id") Long id,
+                             @Param("score") int score,
+                             @Param("version") Long version);
+
+    /**
+     * Find the next chunk of lead IDs matching optional filters, keyset-paged by ID
+     */
+    @Query("SELECT l.id FROM Lead l WHERE l.id > :afterId " +
+            "AND (:status IS NULL OR l.status = :status) " +
+            "AND (:source IS NULL OR l.source = :source) " +
+            "AND (:salesRepId IS NULL OR l.assignedSalesRep.id = :salesRepId) " +
+            "ORDER BY l.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId,
+                            @Param("status") LeadStatus status,
+                            @Param("source") String source,
+                            @Param("salesRepId") Long salesRepId,
+                            Pageable pageable);
+
+    /**
+     * Move open leads from one status to another open status, shifting the score by the status delta.
+     * Only rows still in the expected status are touched.
+     */
+    @Modifying
+    @Query("UPDATE Lead l SET l.status = :toStatus, l.score = l.score + :scoreDelta, l.updatedDate = :now, " +
+            "l.version = l.version + 1 " +
+            "WHERE l.id IN :ids AND l.status = :fromStatus")
+    int bulkTransition(@Param("ids") List<Long> ids,
+                       @Param("fromStatus") LeadStatus fromStatus,
+                       @Param("toStatus") LeadStatus toStatus,
+                       @Param("scoreDelta") int scoreDelta,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Close open leads (CONVERTED or LOST), dropping them out of the scored queue.
+     * Only rows still in one of the expected statuses are touched.
+     */
+    @Modifying
+    @Query("UPDATE Lead l SET l.status = :toStatus, l.score = 0, l.updatedDate = :now, l.version = l.version + 1 " +
+            "WHERE l.id IN :ids AND l.status IN :fromStatuses")
+    int bulkClose(@Param("ids") List<Long> ids,
+                  @Param("fromStatuses") List<LeadStatus> fromStatuses,
+                  @Param("toStatus") LeadStatus toStatus,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Assign leads to another sales representative.
+     * When a current representative is given, only leads still assigned to them are touched.
+     */
+    @Modifying
+    @Query("UPDATE Lead l SET l.assignedSalesRep = :toSalesRep, l.updatedDate = :now, l.version = l.version + 1 " +
+            "WHERE l.id IN :ids AND (:fromSalesRepId IS NULL OR l.assignedSalesRep.id = :fromSalesRepId)")
+    int bulkReassign(@Param("ids") List<Long> ids,
+                     @Param("fromSalesRepId") Long fromSalesRepId,
+                     @Param("toSalesRep") User toSalesRep,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Lock leads and read their id, status and sales representative ID without loading the entities,
+     * so the rows a following bulk statement changed can be told apart afterwards
+     */
+    @Query(value = "SELECT id, status, assigned_sales_rep_id FROM leads WHERE id IN (:ids) FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockStates(@Param("ids") List<Long> ids);
+
+    /**
+     * Find the ID of the customer a lead is linked to without loading the entity
+     */
+    @Query("SELECT l.convertedCustomer.id FROM Lead l WHERE l.id = :id")
+    Optional<Long> findConvertedCustomerIdById(@Param("id") Long id);
+
+    /**
+     * Find the status of a lead without loading the entity
+     */
+    @Query("SELECT l.status FROM Lead l WHERE l.id = :id")
+    Optional<LeadStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * Move a lead to another open status only if it is still at the expected version, shifting the score
+     * by the status delta and bumping the version in the same statement
+     * @return 1 when updated, 0 when the lead does not exist, has a different version or already has the status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lead l SET l.status = :status, l.score = l.score + :scoreDelta, l.updatedDate = :now, " +
+            "l.version = l.version + 1 " +
+            "WHERE l.id = :id AND l.version = :version AND l.status <> :status")
+    int transitionIfVersion(@Param("id") Long id,
+                            @Param("status") LeadStatus status,
+                            @Param("scoreDelta") int scoreDelta,
+                            @Param("version") Long version,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Close a lead (CONVERTED or LOST) only if it is still at the expected version, dropping its score
+     * to zero and bumping the version in the same statement
+     * @return 1 when updated, 0 when the lead does not exist, has a different version or already has the status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lead l SET l.status = :status, l.score = 0, l.updatedDate = :now, l.version = l.version + 1 " +
+            "WHERE l.id = :id AND l.version = :version AND l.status <> :status")
+    int closeIfVersion(@Param("id") Long id,
+                       @Param("status") LeadStatus status,
+                       @Param("version") Long version,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Load the fields needed to convert leads into customers, skipping leads already linked to a customer.
+     * Leads marked CONVERTED by a status change alone have no customer yet and are included.
+     */
+    @Query("SELECT l.id, l.name, l.contactInfo, l.source FROM Lead l " +
+            "WHERE l.id IN :ids AND (l.status <> com.crm.enums.LeadStatus.CONVERTED OR l.convertedCustomer IS NULL)")
+    List<Object[]> findConvertibleRows(@Param("ids") List<Long> ids);
+
+    /**
+     * Count leads just moved into a status by a bulk statement, grouped by source and sales rep.
+     * Rows are identified by the exact updated_date the statement stamped on them.
+     */
+    @Query("SELECT l.source, r.id, COUNT(l) FROM Lead l LEFT JOIN l.assignedSalesRep r " +
+            "WHERE l.id IN :ids AND l.status = :status AND l.updatedDate = :updatedDate " +
+            "GROUP BY l.source, r.id")
+    List<Object[]> countTransitionedBySourceAndSalesRep(@Param("ids") List<Long> ids,
+                                                        @Param("status") LeadStatus status,
+                                                        @Param("updatedDate") LocalDateTime updatedDate);
+
+    /**
+     * Overview row of a single lead, without loading its sales representative or customer
+     */
+    @Query("SELECT new com.crm.dto.CustomerOverviewLead(l.id, l.name, l.source, l.status, l.createdDate, l.assignedSalesRep.id) " +
+           "FROM Lead l WHERE l.id = :id")
+    Optional<CustomerOverviewLead> findOverviewById(@Param("id") Long id);
+}
@@ -0,0 +1,82 @@
+package com.crm.repository;
+
+import com.crm.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest unpublished events that have not failed; rows locked by another relay instance are skipped
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL AND failed_at IS NULL " +
+            "ORDER BY id LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+    /**
+     * Lock one event if it is still pending and not locked by another relay instance
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id AND published_at IS NULL AND failed_at IS NULL " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OutboxEvent> lockPending(@Param("id") Long id);
+
+    /**
+     * Mark events as handed to the event bus
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :now WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Set an event aside as undeliverable so the relay moves past it; it stays in the table for inspection
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = :now, e.failure = :failure WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("failure") String failure, @Param("now") LocalDateTime now);
+
+    /**
+     * Count a failed delivery; the event is set aside as failed once it reaches the attempt limit.
+     * failedAt is assigned before attempts because MySQL evaluates the SET list left to right.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET " +
+            "e.failedAt = CASE WHEN e.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END, " +
+            "e.failure = :failure, e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int recordFailedAttempt(@Param("id") Long id, @Param("failure") String failure,
+                            @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete published events older than the retention cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt IS NOT NULL AND e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Count events not yet relayed and not failed
+     */
+    long countByPublishedAtIsNullAndFailedAtIsNull();
+
+    /**
+     * Highest event id written so far, or 0 when the outbox is empty
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    /**
+     * Events about one kind of aggregate written after an id, published or not, oldest first
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId AND e.aggregateType = :aggregateType ORDER BY e.id")
+    List<OutboxEvent> findByAggregateTypeAfter(@Param("afterId") long afterId,
+                                               @Param("aggregateType") String aggregateType, Pageable pageable);
+}
@@ -1,22 +1,64 @@
 package com.crm.repository;
 
-
-import com.crm.model.Sale;
-import org.springframework.data.jpa.repository.JpaRepository;
-import com.crm.model.Sale;
+import com.crm.dto.CustomerOverviewSale;
 import com.crm.enums.SaleStatus;
+import com.crm.model.Sale;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long> {
-    List<Sale> findByAssignedSalesRep(String email);
+public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale> {
+
+    /**
+     * Find a page of sales matching a filter, fetching the customer and sales representative in the same query
+     */
+    @Override
+    @EntityGraph(attributePaths = {"customer", "assignedSalesRep"})
+    Page<Sale> findAll(Specification<Sale> spec, Pageable pageable);
+
+    /**
+     * Find sales assigned to a sales representative
+     */
+    List<Sale> findByAssignedSalesRepId(Long salesRepId);
+
     List<Sale> findByStatus(SaleStatus status);
-    List<Sale> findByCustomer(String customer);
+
+    /**
+     * Find sales of a customer
+     */
+    List<Sale> findByCustomerId(Long customerId);
+
     List<Sale> findByDateBetween(LocalDate startDate, LocalDate endDate);
-    List<Sale> findByAssignedSalesRepAndStatus(String email, SaleStatus status);
+
+    /**
+     * Find sales assigned to a sales representative with a given status
+     */
+    List<Sale> findByAssignedSalesRepIdAndStatus(Long salesRepId, SaleStatus status);
+
     long countByStatus(SaleStatus status);
-}
 
+    /**
+     * Most recent sales of a customer as overview rows, without loading the customer or sales representative
+     */
+    @Query("SELECT new com.crm.dto.CustomerOverviewSale(s.id, s.status, s.amount, s.currency, s.date, " +
+           "s.expectedCloseDate, s.assignedSalesRep.id) FROM Sale s WHERE s.customer.id = :customerId " +
+           "ORDER BY s.date DESC, s.id DESC")
+    List<CustomerOverviewSale> findOverviewByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    /**
+     * Sale count and amount in minor units per currency for one customer: [currency, count, sumMinor]
+     */
+    @Query(value = "SELECT currency, COUNT(*), COALESCE(SUM(amount_minor), 0) FROM sales " +
+            "WHERE customer_id = :customerId GROUP BY currency ORDER BY currency", nativeQuery = true)
+    List<Object[]> sumByCurrencyForCustomer(@Param("customerId") Long customerId);
+}
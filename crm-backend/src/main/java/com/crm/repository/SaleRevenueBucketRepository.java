@@ -0,0 +1,81 @@
+package com.crm.repository;
+
+import com.crm.enums.BucketGranularity;
+import com.crm.enums.SaleStatus;
+import com.crm.model.SaleRevenueBucket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SaleRevenueBucketRepository extends JpaRepository<SaleRevenueBucket, Long> {
+
+    /**
+     * Add to (or subtract from) a bucket, creating it on first use.
+     * Declares the table it touches so Hibernate does not clear the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sale_revenue_buckets"))
+    @Query(value = "INSERT INTO sale_revenue_buckets " +
+            "(granularity, bucket_start, sales_rep_id, customer_id, status, currency, sale_count, amount_minor) " +
+            "VALUES (:granularity, :bucketStart, :salesRepId, :customerId, :status, :currency, :countDelta, :amountDelta) " +
+            "ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count), " +
+            "amount_minor = amount_minor + VALUES(amount_minor)",
+            nativeQuery = true)
+    int increment(@Param("granularity") String granularity,
+                  @Param("bucketStart") LocalDate bucketStart,
+                  @Param("salesRepId") Long salesRepId,
+                  @Param("customerId") Long customerId,
+                  @Param("status") String status,
+                  @Param("currency") String currency,
+                  @Param("countDelta") long countDelta,
+                  @Param("amountDelta") long amountDelta);
+
+    /**
+     * Sale count and amount per bucket in a range, with optional rep, customer and status filters
+     */
+    @Query("SELECT b.bucketStart, b.currency, SUM(b.saleCount), SUM(b.amountMinor) FROM SaleRevenueBucket b " +
+            "WHERE b.granularity = :granularity AND b.bucketStart BETWEEN :fromDate AND :toDate " +
+            "AND (:salesRepId IS NULL OR b.salesRepId = :salesRepId) " +
+            "AND (:customerId IS NULL OR b.customerId = :customerId) " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "GROUP BY b.bucketStart, b.currency ORDER BY b.bucketStart")
+    List<Object[]> sumByBucket(@Param("granularity") BucketGranularity granularity,
+                               @Param("fromDate") LocalDate fromDate,
+                               @Param("toDate") LocalDate toDate,
+                               @Param("salesRepId") Long salesRepId,
+                               @Param("customerId") Long customerId,
+                               @Param("status") SaleStatus status);
+
+    /**
+     * Sales representatives ranked by amount in a range for the given statuses
+     */
+    @Query("SELECT b.salesRepId, b.currency, SUM(b.saleCount), SUM(b.amountMinor) FROM SaleRevenueBucket b " +
+            "WHERE b.granularity = :granularity AND b.bucketStart BETWEEN :fromDate AND :toDate " +
+            "AND b.status IN :statuses " +
+            "GROUP BY b.salesRepId, b.currency ORDER BY SUM(b.amountMinor) DESC")
+    List<Object[]> topSalesReps(@Param("granularity") BucketGranularity granularity,
+                                @Param("fromDate") LocalDate fromDate,
+                                @Param("toDate") LocalDate toDate,
+                                @Param("statuses") List<SaleStatus> statuses,
+                                Pageable pageable);
+
+    /**
+     * Sale count and amount per status over all time, optionally for one sales representative
+     */
+    @Query("SELECT b.status, b.currency, SUM(b.saleCount), SUM(b.amountMinor) FROM SaleRevenueBucket b " +
+            "WHERE b.granularity = com.crm.enums.BucketGranularity.MONTH AND b.status IN :statuses " +
+            "AND (:salesRepId IS NULL OR b.salesRepId = :salesRepId) " +
+            "GROUP BY b.status, b.currency")
+    List<Object[]> sumByStatus(@Param("statuses") List<SaleStatus> statuses,
+                               @Param("salesRepId") Long salesRepId);
+}
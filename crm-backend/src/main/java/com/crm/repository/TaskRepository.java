@@ -5,14 +5,20 @@ import com.crm.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import com.crm.model.Task;
+import org.springframework.data.domain.Pageable;
 import com.crm.enums.TaskStatus;
+import com.crm.dto.CustomerOverviewTask;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
@@ -74,4 +80,61 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
      */
     @Query("SELECT t FROM Task t WHERE t.priority = 'HIGH' AND t.status != com.crm.enums.TaskStatus.COMPLETED ORDER BY t.dueDate ASC")
     List<Task> findHighPriorityPendingTasks();
+
+    /**
+     * Count tasks for a lead with the given status
+     */
+    Long countByLeadIdAndStatus(Long leadId, TaskStatus status);
+
+    /**
+     * Count tasks for a lead that are still open (not completed or cancelled)
+     */
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.lead.id = :leadId AND t.status NOT IN (com.crm.enums.TaskStatus.COMPLETED, com.crm.enums.TaskStatus.CANCELLED)")
+    Long countOpenTasksByLeadId(@Param("leadId") Long leadId);
+
+    /**
+     * Completed and open task counts per lead, for leads that have tasks
+     * @return rows of lead ID, completed count, open count
+     */
+    @Query("SELECT t.lead.id, " +
+            "SUM(CASE WHEN t.status = com.crm.enums.TaskStatus.COMPLETED THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status NOT IN (com.crm.enums.TaskStatus.COMPLETED, com.crm.enums.TaskStatus.CANCELLED) THEN 1 ELSE 0 END) " +
+            "FROM Task t WHERE t.lead.id IN :leadIds GROUP BY t.lead.id")
+    List<Object[]> countTasksByLeadIds(@Param("leadIds") List<Long> leadIds);
+
+    /**
+     * Lock a task row and read its status without loading the entity, so a following guarded UPDATE
+     * knows the status it replaces
+     */
+    @Query(value = "SELECT status FROM tasks WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> lockStatus(@Param("id") Long id);
+
+    /**
+     * Change the status of a task only if it is still at the expected version, bumping the version in the same statement
+     * @return 1 when updated, 0 when the task does not exist or has a different version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.updatedDate = :now, t.version = t.version + 1 " +
+            "WHERE t.id = :id AND t.version = :version")
+    int updateStatusIfVersion(@Param("id") Long id,
+                              @Param("status") TaskStatus status,
+                              @Param("version") Long version,
+                              @Param("now") LocalDateTime now);
+
+    /**
+     * Tasks assigned to a user, open ones first, newest first within each group
+     */
+    @Query("SELECT t FROM Task t WHERE t.assignedTo.id = :userId " +
+           "ORDER BY CASE WHEN t.status IN (com.crm.enums.TaskStatus.COMPLETED, com.crm.enums.TaskStatus.CANCELLED) THEN 1 ELSE 0 END, t.id DESC")
+    List<Task> findInboxTasks(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Tasks on the leads converted into a customer as overview rows, open ones first, then by due date
+     */
+    @Query("SELECT new com.crm.dto.CustomerOverviewTask(t.id, t.title, t.status, t.priority, t.dueDate, a.id, l.id) " +
+           "FROM Task t JOIN t.lead l LEFT JOIN t.assignedTo a WHERE l.convertedCustomer.id = :customerId " +
+           "ORDER BY CASE WHEN t.status IN (com.crm.enums.TaskStatus.COMPLETED, com.crm.enums.TaskStatus.CANCELLED) THEN 1 ELSE 0 END, " +
+           "t.dueDate ASC NULLS LAST, t.id DESC")
+    List<CustomerOverviewTask> findOverviewByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
 }
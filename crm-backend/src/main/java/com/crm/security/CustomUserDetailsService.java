@@ -42,7 +42,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
         System.out.println("User from DB - Email: " + user.getEmail() + ", Role: " + user.getRole());
         String role = String.valueOf(user.getRole());
-        String authority = role.startsWith("ROLE") ? role : "ROLE" + role;
+        // hasRole("ADMIN") checks for the authority ROLE_ADMIN
+        String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
         List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(authority));
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
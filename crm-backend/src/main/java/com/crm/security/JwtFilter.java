@@ -19,6 +19,9 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/stream/";
+    private static final String STREAM_TOKEN_PARAMETER = "access_token";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -37,6 +40,10 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             email = jwtUtil.getEmailFromToken(jwt);
+        } else if (request.getRequestURI().startsWith(STREAM_PATH) && request.getParameter(STREAM_TOKEN_PARAMETER) != null) {
+            // EventSource cannot set request headers, so SSE streams carry the token in the query string
+            jwt = request.getParameter(STREAM_TOKEN_PARAMETER);
+            email = jwtUtil.getEmailFromToken(jwt);
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -0,0 +1,82 @@
+package com.crm.service;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resizes each Hikari pool between a floor and a ceiling. A pool grows as soon as threads queue for a
+ * connection or waits exceed the target, by as many connections as there are waiters; it shrinks by
+ * one after a run of quiet intervals in which at most half its connections were in use. Hikari fills
+ * a grown pool on demand and retires surplus idle connections after its idle timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.datasource.pool.adaptive.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptivePoolSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    // Only touched by the scheduler thread
+    private final Map<String, Integer> quietIntervals = new HashMap<>();
+
+    @Value("${crm.datasource.pool.adaptive.min-size:5}")
+    private int minSize;
+
+    @Value("${crm.datasource.pool.adaptive.max-size:20}")
+    private int maxSize;
+
+    @Value("${crm.datasource.pool.adaptive.shrink-after-intervals:30}")
+    private int shrinkAfterIntervals;
+
+    public AdaptivePoolSizer(ObjectProvider<HikariDataSource> dataSources, ConnectionPoolMonitor connectionPoolMonitor) {
+        this.dataSources = dataSources;
+        this.connectionPoolMonitor = connectionPoolMonitor;
+    }
+
+    @Scheduled(fixedDelayString = "${crm.datasource.pool.adaptive.interval-ms:1000}")
+    public void resize() {
+        dataSources.orderedStream().forEach(this::resize);
+    }
+
+    private void resize(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            // Pool not started yet
+            return;
+        }
+        String name = dataSource.getPoolName();
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int size = config.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+        long slowAcquires = connectionPoolMonitor.drainSlowAcquires(name);
+
+        if ((pending > 0 || slowAcquires > 0) && size < maxSize) {
+            int grown = Math.min(maxSize, size + Math.max(1, pending));
+            config.setMaximumPoolSize(grown);
+            quietIntervals.remove(name);
+            logger.info("Grew connection pool {} from {} to {} ({} waiting, {} slow acquires)",
+                    name, size, grown, pending, slowAcquires);
+        } else if (pending == 0 && slowAcquires == 0 && pool.getActiveConnections() <= size / 2 && size > minSize) {
+            int quiet = quietIntervals.merge(name, 1, Integer::sum);
+            if (quiet >= shrinkAfterIntervals) {
+                config.setMaximumPoolSize(size - 1);
+                quietIntervals.remove(name);
+                logger.info("Shrank connection pool {} from {} to {}", name, size, size - 1);
+            }
+        } else {
+            quietIntervals.remove(name);
+        }
+    }
+}
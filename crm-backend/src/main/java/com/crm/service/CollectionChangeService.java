@@ -0,0 +1,20 @@
+package com.crm.service;
+
+/**
+ * Per-table change counters behind the collection ETags, so a list validator is a few primary-key
+ * lookups instead of a COUNT(*) over each table. Every write path that changes rows shown in a list
+ * response records the table here, in the transaction that makes the change.
+ */
+public interface CollectionChangeService {
+
+    /**
+     * Table of the users embedded in lead, sale and task responses; it has no validators of its own
+     */
+    String USERS = "users";
+
+    /**
+     * Count a change to the table. Inside a transaction the counter is bumped once per table right
+     * before commit, so its row lock is held only for the commit; outside one it is bumped at once.
+     */
+    void recordChange(String table);
+}
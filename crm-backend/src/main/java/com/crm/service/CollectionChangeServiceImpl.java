@@ -0,0 +1,51 @@
+package com.crm.service;
+
+import com.crm.repository.CollectionVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Collects the tables a transaction changed and bumps their counters in table-name order just before
+ * it commits, so two transactions changing the same tables cannot deadlock on the counter rows and a
+ * reader never sees a new counter before the change it stands for.
+ */
+@Service
+public class CollectionChangeServiceImpl implements CollectionChangeService {
+
+    private final CollectionVersionRepository collectionVersionRepository;
+
+    public CollectionChangeServiceImpl(CollectionVersionRepository collectionVersionRepository) {
+        this.collectionVersionRepository = collectionVersionRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordChange(String table) {
+        // Looked up among the current transaction's synchronizations, which a REQUIRES_NEW one suspends
+        TableChanges changes = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(TableChanges.class::isInstance)
+                .map(TableChanges.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (changes == null) {
+            changes = new TableChanges();
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.tables.add(table);
+    }
+
+    private class TableChanges implements TransactionSynchronization {
+
+        private final Set<String> tables = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            tables.forEach(collectionVersionRepository::increment);
+        }
+    }
+}
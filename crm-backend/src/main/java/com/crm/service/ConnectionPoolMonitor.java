@@ -0,0 +1,29 @@
+package com.crm.service;
+
+import com.crm.dto.ConnectionPoolStats;
+import com.crm.dto.EndpointConnectionUsage;
+
+import java.util.List;
+
+/**
+ * Connection pool instrumentation fed by Hikari: pool state, connection wait times and per-endpoint hold times
+ */
+public interface ConnectionPoolMonitor {
+
+    List<ConnectionPoolStats> getPoolStats();
+
+    /**
+     * Hold times per endpoint, longest total hold time first
+     */
+    List<EndpointConnectionUsage> getEndpointUsage();
+
+    /**
+     * Most threads waiting for a connection on any one pool, as of Hikari's last refresh (at most a second old)
+     */
+    int getMaxPending();
+
+    /**
+     * Connection waits longer than the target wait since the previous call for the same pool
+     */
+    long drainSlowAcquires(String poolName);
+}
@@ -0,0 +1,122 @@
+package com.crm.service;
+
+import com.crm.config.RequestEndpoint;
+import com.crm.dto.ConnectionPoolStats;
+import com.crm.dto.EndpointConnectionUsage;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Installed as the metrics tracker factory of every Hikari pool, so Hikari reports each connection
+ * wait, each hold and each timeout here. Hold times are attributed to the endpoint of the thread
+ * returning the connection.
+ */
+@Service
+public class ConnectionPoolMonitorImpl implements ConnectionPoolMonitor, MetricsTrackerFactory {
+
+    private static final String BACKGROUND = "background";
+
+    private final long slowAcquireNanos;
+    private final Map<String, PoolTracker> pools = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> endpoints = new ConcurrentHashMap<>();
+
+    public ConnectionPoolMonitorImpl(@Value("${crm.datasource.pool.adaptive.target-wait-ms:50}") long targetWaitMs) {
+        this.slowAcquireNanos = targetWaitMs * 1_000_000;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker(poolName, poolStats);
+        pools.put(poolName, tracker);
+        return tracker;
+    }
+
+    @Override
+    public List<ConnectionPoolStats> getPoolStats() {
+        return pools.values().stream()
+                .sorted(Comparator.comparing(tracker -> tracker.name))
+                .map(PoolTracker::toStats)
+                .toList();
+    }
+
+    @Override
+    public List<EndpointConnectionUsage> getEndpointUsage() {
+        return endpoints.entrySet().stream()
+                .map(entry -> {
+                    LatencyHistogram hold = entry.getValue();
+                    return new EndpointConnectionUsage(entry.getKey(), hold.count(), hold.meanMillis(),
+                            hold.percentileMillis(95), hold.maxMillis());
+                })
+                .sorted(Comparator.comparingDouble(
+                        (EndpointConnectionUsage usage) -> usage.getMeanHoldMs() * usage.getConnections()).reversed())
+                .toList();
+    }
+
+    @Override
+    public int getMaxPending() {
+        int pending = 0;
+        for (PoolTracker tracker : pools.values()) {
+            pending = Math.max(pending, tracker.stats.getPendingThreads());
+        }
+        return pending;
+    }
+
+    @Override
+    public long drainSlowAcquires(String poolName) {
+        PoolTracker tracker = pools.get(poolName);
+        return tracker != null ? tracker.slowAcquires.getAndSet(0) : 0;
+    }
+
+    private final class PoolTracker implements IMetricsTracker {
+
+        private final String name;
+        private final PoolStats stats;
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram hold = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+        private final AtomicLong slowAcquires = new AtomicLong();
+
+        PoolTracker(String name, PoolStats stats) {
+            this.name = name;
+            this.stats = stats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.record(elapsedAcquiredNanos / 1000);
+            if (elapsedAcquiredNanos > slowAcquireNanos) {
+                slowAcquires.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            long micros = elapsedBorrowedMillis * 1000;
+            hold.record(micros);
+            String endpoint = RequestEndpoint.current();
+            endpoints.computeIfAbsent(endpoint != null ? endpoint : BACKGROUND, key -> new LatencyHistogram()).record(micros);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        ConnectionPoolStats toStats() {
+            return new ConnectionPoolStats(name, stats.getActiveConnections(), stats.getIdleConnections(),
+                    stats.getPendingThreads(), stats.getTotalConnections(), stats.getMaxConnections(), timeouts.sum(),
+                    acquire.count(), acquire.percentileMillis(50), acquire.percentileMillis(95),
+                    acquire.percentileMillis(99), acquire.maxMillis(), acquire.buckets(), hold.percentileMillis(95));
+        }
+    }
+}
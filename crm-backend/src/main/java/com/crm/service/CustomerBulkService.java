@@ -0,0 +1,21 @@
+package com.crm.service;
+
+import com.crm.dto.BulkOperationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Bulk customer synchronisation for external systems such as the ERP
+ */
+public interface CustomerBulkService {
+
+    /**
+     * Insert or update customers read from a JSON array, matching on the normalized natural key.
+     * Rows are processed in chunks, one transaction each; a result line per row, then a summary line,
+     * is written to {@code ndjson} as each chunk completes.
+     * @return the summary also written as the last line
+     */
+    BulkOperationResult upsert(InputStream json, OutputStream ndjson) throws IOException;
+}
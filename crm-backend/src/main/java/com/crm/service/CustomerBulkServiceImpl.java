@@ -0,0 +1,258 @@
+package com.crm.service;
+
+import com.crm.dto.BulkOperationResult;
+import com.crm.dto.CustomerUpsertRequest;
+import com.crm.dto.CustomerUpsertResult;
+import com.crm.enums.LargeTextField;
+import com.crm.model.Customer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Upserts customers chunk by chunk. Each chunk reads the existing rows for its keys with one
+ * indexed query, skips rows whose values are unchanged, writes the rest with one batched
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} and looks up the IDs of inserted rows with a second
+ * query. Notes are compared and written through the entity_texts side table. A nightly sync where
+ * most customers are unchanged therefore costs two reads per chunk.
+ */
+@Service
+public class CustomerBulkServiceImpl implements CustomerBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerBulkServiceImpl.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader ROW_READER = MAPPER.readerFor(CustomerUpsertRequest.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final byte[] NEWLINE = {'\n'};
+
+    private static final String SELECT_EXISTING =
+            "SELECT id, natural_key, name, email, phone, company, address FROM customers WHERE natural_key IN (:keys)";
+
+    private static final String SELECT_IDS =
+            "SELECT natural_key, id FROM customers WHERE natural_key IN (:keys)";
+
+    private static final String UPSERT =
+            "INSERT INTO customers (name, email, phone, company, address, natural_key, updated_date, version) " +
+            "VALUES (:name, :email, :phone, :company, :address, :naturalKey, :now, 0) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email), phone = VALUES(phone), " +
+            "company = VALUES(company), address = VALUES(address), updated_date = VALUES(updated_date), " +
+            "version = version + 1";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerService customerService;
+    private final LargeTextService largeTextService;
+    private final int chunkSize;
+
+    public CustomerBulkServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   CustomerService customerService,
+                                   LargeTextService largeTextService,
+                                   @Value("${crm.customers.bulk.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customerService = customerService;
+        this.largeTextService = largeTextService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkOperationResult upsert(InputStream json, OutputStream ndjson) throws IOException {
+        long start = System.nanoTime();
+        OutputStream out = new BufferedOutputStream(ndjson, 64 * 1024);
+        long rows = 0;
+        long written = 0;
+        int chunks = 0;
+
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<CustomerUpsertRequest> requests = ROW_READER.readValues(json)) {
+            boolean more = true;
+            while (more) {
+                String readError = null;
+                try {
+                    while (chunk.size() < chunkSize && requests.hasNextValue()) {
+                        chunk.add(new PendingRow(rows++, requests.nextValue()));
+                    }
+                    more = chunk.size() == chunkSize;
+                } catch (IOException | RuntimeException e) {
+                    // Malformed input part-way: earlier chunks stay committed, the client sees where it stopped
+                    readError = "Unreadable input: " + e.getMessage();
+                    more = false;
+                }
+                if (!chunk.isEmpty()) {
+                    written += processChunk(chunk, out);
+                    chunks++;
+                    chunk.clear();
+                }
+                if (readError != null) {
+                    write(out, new CustomerUpsertResult(rows, "FAILED", null, null, readError));
+                    logger.warn("Customer upsert stopped at row {}: {}", rows, readError);
+                }
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkOperationResult summary = new BulkOperationResult("CUSTOMER_UPSERT", rows, written, chunks, durationMillis, null);
+        write(out, summary);
+        out.flush();
+        logger.info("Upserted {} customers ({} written) in {} chunks, {} ms", rows, written, chunks, durationMillis);
+        return summary;
+    }
+
+    /**
+     * Upsert one chunk in a single transaction and write its result lines
+     * @return number of customers inserted or updated
+     */
+    private long processChunk(List<PendingRow> chunk, OutputStream out) throws IOException {
+        Map<String, PendingRow> byKey = new LinkedHashMap<>();
+        for (PendingRow pending : chunk) {
+            CustomerUpsertRequest request = pending.request;
+            if (request == null || request.getName() == null || request.getName().isBlank()) {
+                pending.fail("Name is required");
+            } else if (request.getEmail() != null && !request.getEmail().isBlank() && !request.getEmail().contains("@")) {
+                pending.fail("Email should be valid");
+            } else if (pending.naturalKey == null) {
+                pending.fail("Email, or company and name, is required to match the customer");
+            } else {
+                PendingRow earlier = byKey.put(pending.naturalKey, pending);
+                if (earlier != null) {
+                    earlier.status = "SUPERSEDED";
+                }
+            }
+        }
+
+        long written = 0;
+        if (!byKey.isEmpty()) {
+            try {
+                Long count = transactionTemplate.execute(tx -> upsertRows(byKey));
+                written = count != null ? count : 0;
+            } catch (RuntimeException e) {
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                byKey.values().forEach(pending -> pending.fail(message));
+                logger.warn("Customer upsert chunk of {} rows failed: {}", byKey.size(), message);
+            }
+            if (written > 0) {
+                customerService.invalidateAll();
+            }
+        }
+
+        for (PendingRow pending : chunk) {
+            write(out, new CustomerUpsertResult(pending.row, pending.status, pending.customerId, pending.naturalKey, pending.error));
+        }
+        out.flush();
+        return written;
+    }
+
+    private long upsertRows(Map<String, PendingRow> byKey) {
+        Map<String, Object[]> existing = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXISTING, new MapSqlParameterSource("keys", byKey.keySet()), rs -> {
+            existing.put(rs.getString(2), new Object[]{rs.getLong(1), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6), rs.getString(7)});
+        });
+        Map<Long, String> existingNotes = largeTextService.loadAll(LargeTextField.CUSTOMER_NOTES,
+                existing.values().stream().map(current -> (Long) current[0]).toList());
+
+        List<SqlParameterSource> writes = new ArrayList<>();
+        List<String> insertedKeys = new ArrayList<>();
+        List<PendingRow> writtenRows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingRow pending : byKey.values()) {
+            Object[] current = existing.get(pending.naturalKey);
+            CustomerUpsertRequest request = pending.request;
+            if (current == null) {
+                pending.status = "INSERTED";
+                insertedKeys.add(pending.naturalKey);
+            } else {
+                pending.customerId = (Long) current[0];
+                boolean unchanged = Objects.equals(current[1], request.getName())
+                        && Objects.equals(current[2], request.getEmail())
+                        && Objects.equals(current[3], request.getPhone())
+                        && Objects.equals(current[4], request.getCompany())
+                        && Objects.equals(current[5], request.getAddress())
+                        && Objects.equals(existingNotes.get(pending.customerId), request.getNotes());
+                pending.status = unchanged ? "UNCHANGED" : "UPDATED";
+                if (unchanged) {
+                    continue;
+                }
+            }
+            writes.add(new MapSqlParameterSource()
+                    .addValue("name", request.getName())
+                    .addValue("email", request.getEmail())
+                    .addValue("phone", request.getPhone())
+                    .addValue("company", request.getCompany())
+                    .addValue("address", request.getAddress())
+                    .addValue("naturalKey", pending.naturalKey)
+                    .addValue("now", now));
+            writtenRows.add(pending);
+        }
+
+        if (!writes.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, writes.toArray(SqlParameterSource[]::new));
+        }
+        if (!insertedKeys.isEmpty()) {
+            jdbcTemplate.query(SELECT_IDS, new MapSqlParameterSource("keys", insertedKeys),
+                    rs -> { byKey.get(rs.getString(1)).customerId = rs.getLong(2); });
+        }
+        if (!writtenRows.isEmpty()) {
+            Map<Long, String> notes = new HashMap<>();
+            writtenRows.forEach(pending -> notes.put(pending.customerId, pending.request.getNotes()));
+            largeTextService.storeAll(LargeTextField.CUSTOMER_NOTES, notes);
+        }
+        return writes.size();
+    }
+
+    private static void write(OutputStream out, Object line) throws IOException {
+        out.write(MAPPER.writeValueAsBytes(line));
+        out.write(NEWLINE);
+    }
+
+    /**
+     * One request row and the outcome being built for it
+     */
+    private static final class PendingRow {
+
+        private final long row;
+        private final CustomerUpsertRequest request;
+        private final String naturalKey;
+        private String status;
+        private Long customerId;
+        private String error;
+
+        PendingRow(long row, CustomerUpsertRequest request) {
+            this.row = row;
+            this.request = request;
+            this.naturalKey = request != null
+                    ? Customer.naturalKeyOf(request.getEmail(), request.getCompany(), request.getName())
+                    : null;
+        }
+
+        void fail(String message) {
+            this.status = "FAILED";
+            this.error = message;
+        }
+    }
+}
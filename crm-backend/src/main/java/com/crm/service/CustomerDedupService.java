@@ -0,0 +1,29 @@
+package com.crm.service;
+
+import com.crm.dto.CustomerDedupReport;
+import com.crm.dto.CustomerMergeResult;
+
+import java.util.List;
+
+/**
+ * Finds likely duplicate customers and merges them
+ */
+public interface CustomerDedupService {
+
+    /**
+     * Start a dedup scan in the background unless one is already running
+     * @return the report of the running scan
+     */
+    CustomerDedupReport startScan();
+
+    /**
+     * Report of the running or most recent scan
+     */
+    CustomerDedupReport getReport();
+
+    /**
+     * Move the sales, converted leads and revenue buckets of the duplicates to the survivor, fill the
+     * survivor's empty fields from the duplicates and delete them, all in one transaction
+     */
+    CustomerMergeResult merge(Long survivorId, List<Long> duplicateIds);
+}
@@ -0,0 +1,536 @@
+package com.crm.service;
+
+import com.crm.dto.CustomerDedupReport;
+import com.crm.dto.CustomerDuplicateCandidate;
+import com.crm.dto.CustomerMergeResult;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LargeTextField;
+import com.crm.model.Customer;
+import com.crm.model.Lead;
+import com.crm.model.Sale;
+import com.crm.repository.CustomerRepository;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds duplicate customers without comparing every pair. The scan streams all customers once into
+ * compact rows and groups them by four blocking keys: exact email, email domain (free-mail domains
+ * excluded), the last ten phone digits and the Soundex codes of the first two company words. Pairs are
+ * only compared inside a block, blocks are compared in parallel on the common fork-join pool, and a pair
+ * sharing several keys is compared only in the first block type they share whose block was not skipped
+ * as oversized.
+ */
+@Service
+public class CustomerDedupServiceImpl implements CustomerDedupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerDedupServiceImpl.class);
+
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    static final int EMAIL = 0;
+    static final int DOMAIN = 1;
+    static final int PHONE = 2;
+    static final int COMPANY_SOUNDEX = 3;
+    static final int KEY_TYPES = 4;
+
+    private static final Set<String> FREE_MAIL_DOMAINS = Set.of(
+            "gmail.com", "googlemail.com", "yahoo.com", "hotmail.com", "outlook.com", "live.com", "msn.com",
+            "icloud.com", "me.com", "aol.com", "proton.me", "protonmail.com", "gmx.com", "gmx.de", "mail.com",
+            "yandex.com", "yandex.ru", "zoho.com");
+
+    private static final Set<String> COMPANY_NOISE = Set.of(
+            "the", "inc", "incorporated", "llc", "ltd", "limited", "corp", "corporation", "co", "company",
+            "gmbh", "plc", "sa", "ag", "bv", "group");
+
+    private static final String SELECT_CUSTOMERS = "SELECT id, name, email, phone, company FROM customers";
+
+    private static final String LOCK_SALES_TO_REPOINT =
+            "SELECT id FROM sales WHERE customer_id IN (:duplicateIds) FOR UPDATE";
+
+    private static final String LOCK_LEADS_TO_REPOINT =
+            "SELECT id FROM leads WHERE converted_customer_id IN (:duplicateIds) FOR UPDATE";
+
+    private static final String REPOINT_SALES =
+            "UPDATE sales SET customer_id = :survivorId, updated_date = :now, version = version + 1 " +
+            "WHERE customer_id IN (:duplicateIds)";
+
+    private static final String REPOINT_LEADS =
+            "UPDATE leads SET converted_customer_id = :survivorId, updated_date = :now, version = version + 1 " +
+            "WHERE converted_customer_id IN (:duplicateIds)";
+
+    private static final String MOVE_REVENUE_BUCKETS =
+            "INSERT INTO sale_revenue_buckets " +
+            "(granularity, bucket_start, sales_rep_id, customer_id, status, currency, sale_count, amount_minor) " +
+            "SELECT m.granularity, m.bucket_start, m.sales_rep_id, :survivorId, m.status, m.currency, m.moved_count, m.moved_amount " +
+            "FROM (SELECT granularity, bucket_start, sales_rep_id, status, currency, " +
+            "SUM(sale_count) AS moved_count, SUM(amount_minor) AS moved_amount " +
+            "FROM sale_revenue_buckets WHERE customer_id IN (:duplicateIds) " +
+            "GROUP BY granularity, bucket_start, sales_rep_id, status, currency) m " +
+            "ON DUPLICATE KEY UPDATE sale_count = sale_revenue_buckets.sale_count + m.moved_count, " +
+            "amount_minor = sale_revenue_buckets.amount_minor + m.moved_amount";
+
+    private static final String DELETE_REVENUE_BUCKETS =
+            "DELETE FROM sale_revenue_buckets WHERE customer_id IN (:duplicateIds)";
+
+    private final CustomerRepository customerRepository;
+    private final SaleRepository saleRepository;
+    private final LeadRepository leadRepository;
+    private final OutboxService outboxService;
+    private final CustomerService customerService;
+    private final LargeTextService largeTextService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile CustomerDedupReport report =
+            new CustomerDedupReport("IDLE", null, null, 0, 0, 0, 0, 0, List.of(), null);
+
+    @Value("${crm.customers.dedup.max-block-size:1000}")
+    private int maxBlockSize;
+
+    @Value("${crm.customers.dedup.min-score:0.6}")
+    private double minScore;
+
+    @Value("${crm.customers.dedup.max-candidates:1000}")
+    private int maxCandidates;
+
+    public CustomerDedupServiceImpl(CustomerRepository customerRepository, SaleRepository saleRepository,
+                                    LeadRepository leadRepository, OutboxService outboxService, CustomerService customerService,
+                                    LargeTextService largeTextService, NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("taskExecutor") Executor executor) {
+        this.customerRepository = customerRepository;
+        this.saleRepository = saleRepository;
+        this.leadRepository = leadRepository;
+        this.outboxService = outboxService;
+        this.customerService = customerService;
+        this.largeTextService = largeTextService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Batches from a server-side cursor; MySQL Connector/J needs useCursorFetch=true on the URL for this
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    @Override
+    public CustomerDedupReport startScan() {
+        if (running.compareAndSet(false, true)) {
+            report = new CustomerDedupReport("RUNNING", LocalDateTime.now(), null, 0, 0, 0, 0, 0, List.of(), null);
+            try {
+                executor.execute(this::scan);
+            } catch (RuntimeException e) {
+                running.set(false);
+                throw e;
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Nightly scan so candidates are ready for review in the morning
+     */
+    @Scheduled(cron = "${crm.customers.dedup.cron:0 30 2 * * *}")
+    public void scheduledScan() {
+        startScan();
+    }
+
+    @Override
+    public CustomerDedupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public CustomerMergeResult merge(Long survivorId, List<Long> duplicateIds) {
+        List<Long> duplicates = duplicateIds.stream().distinct().filter(id -> !id.equals(survivorId)).toList();
+        if (duplicates.isEmpty()) {
+            throw new IllegalArgumentException("At least one duplicate other than the survivor is required");
+        }
+
+        CustomerMergeResult result = transactionTemplate.execute(tx -> {
+            Customer survivor = customerRepository.findById(survivorId)
+                    .orElseThrow(() -> new RuntimeException("Customer not found with id: " + survivorId));
+            List<Customer> merged = customerRepository.findAllById(duplicates).stream()
+                    .sorted(Comparator.comparing(Customer::getId))
+                    .toList();
+            if (merged.size() != duplicates.size()) {
+                Set<Long> found = new HashSet<>();
+                merged.forEach(customer -> found.add(customer.getId()));
+                Long missing = duplicates.stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+                throw new RuntimeException("Customer not found with id: " + missing);
+            }
+
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("survivorId", survivorId)
+                    .addValue("duplicateIds", duplicates)
+                    .addValue("now", LocalDateTime.now());
+            List<Long> involved = new ArrayList<>(duplicates);
+            involved.add(survivorId);
+            Map<Long, String> notes = largeTextService.loadAll(LargeTextField.CUSTOMER_NOTES, involved);
+            survivor.setNotes(notes.get(survivorId));
+            merged.forEach(customer -> customer.setNotes(notes.get(customer.getId())));
+
+            List<Long> saleIds = jdbcTemplate.queryForList(LOCK_SALES_TO_REPOINT, params, Long.class);
+            List<Long> leadIds = jdbcTemplate.queryForList(LOCK_LEADS_TO_REPOINT, params, Long.class);
+            int sales = jdbcTemplate.update(REPOINT_SALES, params);
+            int leads = jdbcTemplate.update(REPOINT_LEADS, params);
+            jdbcTemplate.update(MOVE_REVENUE_BUCKETS, params);
+            jdbcTemplate.update(DELETE_REVENUE_BUCKETS, params);
+
+            // Delete first: the survivor may take over a duplicate's email and with it its unique natural key
+            customerRepository.deleteAllByIdInBatch(duplicates);
+            for (Customer duplicate : merged) {
+                fillBlanks(survivor, duplicate);
+            }
+            Customer saved = customerRepository.saveAndFlush(survivor);
+            largeTextService.store(LargeTextField.CUSTOMER_NOTES, survivorId, survivor.getNotes());
+            largeTextService.delete(LargeTextField.CUSTOMER_NOTES, duplicates);
+            saved.setNotes(survivor.getNotes());
+            // Repointed rows keep their status, so each event carries it as the previous status too
+            for (Sale sale : saleRepository.findAllById(saleIds)) {
+                outboxService.saleChanged(DomainEventType.SALE_UPDATED, sale, sale.getStatus());
+            }
+            for (Lead lead : leadRepository.findAllById(leadIds)) {
+                outboxService.leadChanged(DomainEventType.LEAD_UPDATED, lead, lead.getStatus());
+            }
+            return new CustomerMergeResult(saved.copy(), duplicates, sales, leads);
+        });
+
+        customerService.invalidateAll();
+        dropCandidates(survivorId, duplicates);
+        logger.info("Merged customers {} into {}: {} sales and {} leads repointed",
+                duplicates, survivorId, result.getSalesRepointed(), result.getLeadsRepointed());
+        return result;
+    }
+
+    private static void fillBlanks(Customer survivor, Customer duplicate) {
+        if (isBlank(survivor.getEmail())) survivor.setEmail(duplicate.getEmail());
+        if (isBlank(survivor.getPhone())) survivor.setPhone(duplicate.getPhone());
+        if (isBlank(survivor.getCompany())) survivor.setCompany(duplicate.getCompany());
+        if (isBlank(survivor.getAddress())) survivor.setAddress(duplicate.getAddress());
+        if (isBlank(survivor.getNotes())) survivor.setNotes(duplicate.getNotes());
+        if (survivor.getSourceLeadId() == null) survivor.setSourceLeadId(duplicate.getSourceLeadId());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Remove merged customers from the current report so they are not offered again
+     */
+    private void dropCandidates(Long survivorId, List<Long> duplicates) {
+        CustomerDedupReport current = report;
+        Set<Long> gone = new HashSet<>(duplicates);
+        List<CustomerDuplicateCandidate> remaining = current.getCandidates().stream()
+                .filter(c -> !gone.contains(c.getCustomerId()) && !gone.contains(c.getDuplicateId()))
+                .toList();
+        if (remaining.size() != current.getCandidates().size()) {
+            report = new CustomerDedupReport(current.getStatus(), current.getStartedAt(), current.getFinishedAt(),
+                    current.getCustomersScanned(), current.getBlocksCompared(), current.getOversizedBlocksSkipped(),
+                    current.getComparisons(), current.getCandidateCount(), remaining, current.getError());
+        }
+    }
+
+    private void scan() {
+        LocalDateTime startedAt = report.getStartedAt();
+        long start = System.currentTimeMillis();
+        try {
+            List<CustomerRow> rows = new ArrayList<>();
+            streamingJdbcTemplate.query(SELECT_CUSTOMERS, rs -> {
+                rows.add(CustomerRow.of(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+            });
+
+            List<Map<String, IntList>> index = new ArrayList<>(KEY_TYPES);
+            for (int type = 0; type < KEY_TYPES; type++) {
+                index.add(new HashMap<>());
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                String[] keys = rows.get(i).keys;
+                for (int type = 0; type < KEY_TYPES; type++) {
+                    if (keys[type] != null) {
+                        index.get(type).computeIfAbsent(keys[type], key -> new IntList()).add(i);
+                    }
+                }
+            }
+
+            List<Block> blocks = new ArrayList<>();
+            List<Set<String>> comparedKeys = new ArrayList<>(KEY_TYPES);
+            long oversized = 0;
+            for (int type = 0; type < KEY_TYPES; type++) {
+                Set<String> compared = new HashSet<>();
+                for (Map.Entry<String, IntList> entry : index.get(type).entrySet()) {
+                    IntList members = entry.getValue();
+                    if (members.size < 2) {
+                        continue;
+                    }
+                    if (members.size > maxBlockSize) {
+                        oversized++;
+                    } else {
+                        blocks.add(new Block(type, members.toArray()));
+                        compared.add(entry.getKey());
+                    }
+                }
+                comparedKeys.add(compared);
+            }
+            index.clear();
+
+            LongAdder comparisons = new LongAdder();
+            ConcurrentLinkedQueue<CustomerDuplicateCandidate> found = new ConcurrentLinkedQueue<>();
+            blocks.parallelStream().forEach(block -> compareBlock(block, rows, comparedKeys, comparisons, found));
+
+            List<CustomerDuplicateCandidate> candidates = new ArrayList<>(found);
+            candidates.sort(Comparator.comparingDouble(CustomerDuplicateCandidate::getScore).reversed()
+                    .thenComparingLong(CustomerDuplicateCandidate::getCustomerId));
+            report = new CustomerDedupReport("COMPLETED", startedAt, LocalDateTime.now(), rows.size(), blocks.size(),
+                    oversized, comparisons.sum(), candidates.size(),
+                    List.copyOf(candidates.subList(0, Math.min(maxCandidates, candidates.size()))), null);
+            logger.info("Customer dedup scanned {} customers in {} blocks ({} oversized skipped), {} comparisons, "
+                            + "{} candidates in {} ms", rows.size(), blocks.size(), oversized, comparisons.sum(),
+                    candidates.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Customer dedup scan failed: {}", e.getMessage(), e);
+            report = new CustomerDedupReport("FAILED", startedAt, LocalDateTime.now(), 0, 0, 0, 0, 0, List.of(), e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void compareBlock(Block block, List<CustomerRow> rows, List<Set<String>> comparedKeys,
+                              LongAdder comparisons, ConcurrentLinkedQueue<CustomerDuplicateCandidate> found) {
+        int[] members = block.members;
+        long compared = 0;
+        for (int i = 0; i < members.length; i++) {
+            CustomerRow a = rows.get(members[i]);
+            for (int j = i + 1; j < members.length; j++) {
+                CustomerRow b = rows.get(members[j]);
+                if (sharesEarlierKey(a, b, block.type, comparedKeys)) {
+                    continue;
+                }
+                compared++;
+                List<String> reasons = new ArrayList<>(4);
+                double score = score(a, b, reasons);
+                if (score >= minScore) {
+                    CustomerRow first = a.id < b.id ? a : b;
+                    CustomerRow second = a.id < b.id ? b : a;
+                    found.add(new CustomerDuplicateCandidate(first.id, second.id, Math.round(score * 100) / 100.0, reasons));
+                }
+            }
+        }
+        comparisons.add(compared);
+    }
+
+    /**
+     * True when the pair also falls in a compared block of an earlier type, where it is compared instead.
+     * Blocks skipped as oversized do not count, or pairs sharing only such a block would never be compared.
+     */
+    static boolean sharesEarlierKey(CustomerRow a, CustomerRow b, int type, List<Set<String>> comparedKeys) {
+        for (int earlier = 0; earlier < type; earlier++) {
+            if (a.keys[earlier] != null && a.keys[earlier].equals(b.keys[earlier])
+                    && comparedKeys.get(earlier).contains(a.keys[earlier])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double score(CustomerRow a, CustomerRow b, List<String> reasons) {
+        if (a.email != null && a.email.equals(b.email)) {
+            reasons.add("same email");
+            return 1.0;
+        }
+        double score = 0;
+        if (a.phone != null && a.phone.equals(b.phone)) {
+            score += 0.35;
+            reasons.add("same phone");
+        }
+        if (a.company != null && a.company.equals(b.company)) {
+            score += 0.3;
+            reasons.add("same company");
+        } else if (a.keys[COMPANY_SOUNDEX] != null && a.keys[COMPANY_SOUNDEX].equals(b.keys[COMPANY_SOUNDEX])) {
+            score += 0.15;
+            reasons.add("similar company");
+        }
+        double nameSimilarity = jaccard(a.nameTokens, b.nameTokens);
+        if (nameSimilarity > 0) {
+            score += 0.25 * nameSimilarity;
+            reasons.add(nameSimilarity == 1.0 ? "same name" : "similar name");
+        }
+        if (a.keys[DOMAIN] != null && a.keys[DOMAIN].equals(b.keys[DOMAIN])) {
+            score += 0.1;
+            reasons.add("same email domain");
+        }
+        return score;
+    }
+
+    /**
+     * Jaccard similarity of two sorted, distinct token arrays
+     */
+    private static double jaccard(String[] a, String[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = a[i].compareTo(b[j]);
+            if (cmp == 0) {
+                common++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * American Soundex code of a word, or null when it has no letters
+     */
+    static String soundex(String word) {
+        String letters = word.toUpperCase(Locale.ROOT).replaceAll("[^A-Z]", "");
+        if (letters.isEmpty()) {
+            return null;
+        }
+        StringBuilder code = new StringBuilder(4).append(letters.charAt(0));
+        char last = soundexDigit(letters.charAt(0));
+        for (int i = 1; i < letters.length() && code.length() < 4; i++) {
+            char c = letters.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != last) {
+                code.append(digit);
+            }
+            // H and W do not separate letters with the same code
+            if (c != 'H' && c != 'W') {
+                last = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'B', 'F', 'P', 'V' -> '1';
+            case 'C', 'G', 'J', 'K', 'Q', 'S', 'X', 'Z' -> '2';
+            case 'D', 'T' -> '3';
+            case 'L' -> '4';
+            case 'M', 'N' -> '5';
+            case 'R' -> '6';
+            default -> '0';
+        };
+    }
+
+    /**
+     * Normalized fields of one customer and its blocking keys, indexed by key type
+     */
+    static final class CustomerRow {
+
+        private final long id;
+        private final String email;
+        private final String phone;
+        private final String company;
+        private final String[] nameTokens;
+        private final String[] keys = new String[KEY_TYPES];
+
+        private CustomerRow(long id, String email, String phone, String company, String[] nameTokens) {
+            this.id = id;
+            this.email = email;
+            this.phone = phone;
+            this.company = company;
+            this.nameTokens = nameTokens;
+        }
+
+        static CustomerRow of(long id, String name, String email, String phone, String company) {
+            String normalizedEmail = email != null && email.contains("@") ? email.trim().toLowerCase(Locale.ROOT) : null;
+            String digits = phone != null ? phone.replaceAll("\\D", "") : "";
+            String normalizedPhone = digits.length() >= 7 ? digits.substring(Math.max(0, digits.length() - 10)) : null;
+            String[] companyWords = company != null ? words(company, COMPANY_NOISE) : new String[0];
+            String normalizedCompany = companyWords.length > 0 ? String.join(" ", companyWords) : null;
+
+            CustomerRow row = new CustomerRow(id, normalizedEmail, normalizedPhone, normalizedCompany,
+                    name != null ? Arrays.stream(words(name, Set.of())).distinct().sorted().toArray(String[]::new) : new String[0]);
+            row.keys[EMAIL] = normalizedEmail;
+            if (normalizedEmail != null) {
+                String domain = normalizedEmail.substring(normalizedEmail.lastIndexOf('@') + 1);
+                if (!domain.isEmpty() && !FREE_MAIL_DOMAINS.contains(domain)) {
+                    row.keys[DOMAIN] = domain;
+                }
+            }
+            row.keys[PHONE] = normalizedPhone;
+            if (companyWords.length > 0) {
+                String first = soundex(companyWords[0]);
+                String second = companyWords.length > 1 ? soundex(companyWords[1]) : null;
+                row.keys[COMPANY_SOUNDEX] = first == null ? null : second == null ? first : first + second;
+            }
+            return row;
+        }
+
+        private static String[] words(String text, Set<String> ignored) {
+            return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                    .filter(word -> !word.isEmpty() && !ignored.contains(word))
+                    .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Row indexes sharing one blocking key
+     */
+    private record Block(int type, int[] members) {
+    }
+
+    /**
+     * Growable int array; millions of boxed Integers would dominate the scan's memory
+     */
+    private static final class IntList {
+
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
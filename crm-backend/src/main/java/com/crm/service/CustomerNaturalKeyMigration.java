@@ -0,0 +1,130 @@
+package com.crm.service;
+
+import com.crm.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills customers.natural_key for rows written before the bulk upsert introduced it, so those
+ * customers are matched instead of duplicated by the next sync. Runs in batches after startup.
+ * A key already taken by another customer is left unset; such rows are duplicates for the dedup
+ * scan to report and merge, and they stay editable because an edit only rewrites the key when the
+ * email, company or name changes. Their ids are logged so they can be merged deliberately.
+ */
+@Component
+public class CustomerNaturalKeyMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerNaturalKeyMigration.class);
+
+    private static final String SELECT_UNKEYED =
+            "SELECT id, email, company, name FROM customers WHERE natural_key IS NULL AND id > :after " +
+            "ORDER BY id LIMIT :limit FOR UPDATE";
+
+    // Locks the keys, including absent ones, so no concurrent insert can take them before the update
+    private static final String SELECT_TAKEN_KEYS =
+            "SELECT natural_key FROM customers WHERE natural_key IN (:keys) FOR UPDATE";
+
+    private static final String SET_KEY =
+            "UPDATE customers SET natural_key = :key WHERE id = :id AND natural_key IS NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerService customerService;
+
+    @Value("${crm.customers.natural-key.migration.batch-size:1000}")
+    private int batchSize;
+
+    public CustomerNaturalKeyMigration(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       CustomerService customerService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customerService = customerService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long start = System.currentTimeMillis();
+        long after = 0;
+        long keyed = 0;
+        long skipped = 0;
+        Batch batch;
+        do {
+            long from = after;
+            batch = transactionTemplate.execute(tx -> keyBatch(from));
+            if (batch == null) {
+                break;
+            }
+            after = batch.lastId();
+            keyed += batch.keyed();
+            skipped += batch.skipped();
+        } while (batch.scanned() == batchSize);
+
+        if (keyed > 0 || skipped > 0) {
+            customerService.invalidateAll();
+            logger.info("Set natural_key on {} customers in {} ms; {} left unset because another customer has the key",
+                    keyed, System.currentTimeMillis() - start, skipped);
+        }
+    }
+
+    private Batch keyBatch(long after) {
+        Map<Long, String> keys = new LinkedHashMap<>();
+        long[] lastId = {after};
+        int[] scanned = {0};
+        jdbcTemplate.query(SELECT_UNKEYED, new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("limit", batchSize), rs -> {
+            scanned[0]++;
+            lastId[0] = rs.getLong(1);
+            String key = Customer.naturalKeyOf(rs.getString(2), rs.getString(3), rs.getString(4));
+            if (key != null) {
+                keys.put(rs.getLong(1), key);
+            }
+        });
+        if (keys.isEmpty()) {
+            return new Batch(scanned[0], lastId[0], 0, 0);
+        }
+
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(SELECT_TAKEN_KEYS,
+                new MapSqlParameterSource("keys", new ArrayList<>(new HashSet<>(keys.values()))), String.class));
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<Long> duplicates = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : keys.entrySet()) {
+            // The first (oldest) customer of a batch claims a key shared within the batch
+            if (taken.add(entry.getValue())) {
+                updates.add(new MapSqlParameterSource()
+                        .addValue("id", entry.getKey())
+                        .addValue("key", entry.getValue()));
+            } else {
+                duplicates.add(entry.getKey());
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_KEY, updates.toArray(SqlParameterSource[]::new));
+        }
+        if (!duplicates.isEmpty()) {
+            logger.warn("Customers {} share a natural key with another customer; merge them via the dedup report", duplicates);
+        }
+        return new Batch(scanned[0], lastId[0], updates.size(), keys.size() - updates.size());
+    }
+
+    private record Batch(int scanned, long lastId, int keyed, int skipped) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.crm.service;
+
+import com.crm.dto.CustomerOverview;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Assembles the customer page in one call: the customer, their originating lead, sales and related tasks
+ */
+public interface CustomerOverviewService {
+
+    /**
+     * Build the overview of a customer. Sections are fetched concurrently; any section not ready by
+     * the deadline is left empty and listed in {@link CustomerOverview#getIncompleteSections()}.
+     * @return empty when the customer does not exist
+     */
+    CompletableFuture<Optional<CustomerOverview>> getOverview(Long customerId);
+}
@@ -0,0 +1,160 @@
+package com.crm.service;
+
+import com.crm.dto.CustomerOverview;
+import com.crm.dto.CustomerOverviewLead;
+import com.crm.dto.CustomerOverviewSale;
+import com.crm.dto.CustomerOverviewTask;
+import com.crm.dto.RevenueTotal;
+import com.crm.model.Customer;
+import com.crm.model.Money;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.SaleRepository;
+import com.crm.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fetches the overview sections in parallel on the shared task executor. Every section is a
+ * projection query with a row limit, so no entity graphs are loaded. A semaphore caps how many
+ * section queries run at once across all requests, keeping overview traffic from taking every
+ * pooled database connection.
+ */
+@Service
+public class CustomerOverviewServiceImpl implements CustomerOverviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerOverviewServiceImpl.class);
+
+    private final CustomerService customerService;
+    private final SaleRepository saleRepository;
+    private final TaskRepository taskRepository;
+    private final LeadRepository leadRepository;
+    private final Executor executor;
+    private final Semaphore permits;
+
+    @Value("${crm.customers.overview.deadline-ms:2000}")
+    private long deadlineMs;
+
+    @Value("${crm.customers.overview.max-sales:20}")
+    private int maxSales;
+
+    @Value("${crm.customers.overview.max-tasks:20}")
+    private int maxTasks;
+
+    public CustomerOverviewServiceImpl(CustomerService customerService, SaleRepository saleRepository,
+                                       TaskRepository taskRepository, LeadRepository leadRepository,
+                                       @Qualifier("taskExecutor") Executor executor,
+                                       @Value("${crm.customers.overview.max-concurrent-queries:3}") int maxConcurrentQueries) {
+        this.customerService = customerService;
+        this.saleRepository = saleRepository;
+        this.taskRepository = taskRepository;
+        this.leadRepository = leadRepository;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentQueries);
+    }
+
+    @Override
+    public CompletableFuture<Optional<CustomerOverview>> getOverview(Long customerId) {
+        long start = System.nanoTime();
+        // Served from the customer cache; decides 404 before any section query is issued
+        Optional<Customer> found = customerService.findById(customerId);
+        if (found.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        Customer customer = found.get();
+        List<String> incomplete = new ArrayList<>();
+
+        CompletableFuture<CustomerOverviewLead> lead = customer.getSourceLeadId() == null
+                ? CompletableFuture.completedFuture(null)
+                : section("originatingLead", () -> leadRepository.findOverviewById(customer.getSourceLeadId()).orElse(null));
+        CompletableFuture<List<RevenueTotal>> totals = section("salesTotals", () -> salesTotals(customerId));
+        CompletableFuture<List<CustomerOverviewSale>> sales = section("recentSales",
+                () -> saleRepository.findOverviewByCustomerId(customerId, PageRequest.of(0, maxSales)));
+        CompletableFuture<List<CustomerOverviewTask>> tasks = section("tasks",
+                () -> taskRepository.findOverviewByCustomerId(customerId, PageRequest.of(0, maxTasks)));
+
+        // A failed section is reported like a late one, so wait for all of them regardless of outcome
+        return CompletableFuture.allOf(lead, totals, sales, tasks)
+                .handle((ignored, error) -> (Void) null)
+                .completeOnTimeout(null, deadlineMs, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    CustomerOverview overview = new CustomerOverview(customer,
+                            valueOrNull(lead, "originatingLead", incomplete),
+                            valueOrEmpty(totals, "salesTotals", incomplete),
+                            valueOrEmpty(sales, "recentSales", incomplete),
+                            valueOrEmpty(tasks, "tasks", incomplete),
+                            incomplete,
+                            (System.nanoTime() - start) / 1_000_000);
+                    if (!incomplete.isEmpty()) {
+                        logger.warn("Customer {} overview missed the {} ms deadline for {}", customerId, deadlineMs, incomplete);
+                    }
+                    return Optional.of(overview);
+                });
+    }
+
+    private List<RevenueTotal> salesTotals(Long customerId) {
+        List<RevenueTotal> totals = new ArrayList<>();
+        for (Object[] row : saleRepository.sumByCurrencyForCustomer(customerId)) {
+            String currency = (String) row[0];
+            totals.add(new RevenueTotal("customer:" + customerId, currency, ((Number) row[1]).longValue(),
+                    Money.ofMinor(((Number) row[2]).longValue(), currency).toDecimal()));
+        }
+        return totals;
+    }
+
+    /**
+     * Run one section query on the executor once a permit is free. A section still waiting for a
+     * permit when the deadline passes is skipped rather than run for a response already sent.
+     */
+    private <T> CompletableFuture<T> section(String name, Supplier<T> query) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        return CompletableFuture.supplyAsync(() -> {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting to load " + name, e);
+            }
+            if (!acquired) {
+                throw new IllegalStateException("No capacity to load " + name + " before the deadline");
+            }
+            try {
+                return query.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private static <T> T valueOrNull(CompletableFuture<T> section, String name, List<String> incomplete) {
+        if (section.isDone() && !section.isCompletedExceptionally()) {
+            return section.join();
+        }
+        if (section.isCompletedExceptionally()) {
+            section.exceptionally(e -> {
+                logger.warn("Customer overview section {} failed: {}", name, e.getMessage());
+                return null;
+            });
+        }
+        incomplete.add(name);
+        return null;
+    }
+
+    private static <T> List<T> valueOrEmpty(CompletableFuture<List<T>> section, String name, List<String> incomplete) {
+        List<T> value = valueOrNull(section, name, incomplete);
+        return value != null ? value : List.of();
+    }
+}
@@ -1,33 +1,190 @@
 package com.crm.service;
 
 
+import com.crm.enums.LargeTextField;
+import com.crm.enums.VersionedResource;
 import com.crm.model.Customer;
 import com.crm.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Customer lookups are read through bounded, expiring caches. Cached entities are never handed out:
+ * callers get copies, so a controller editing a customer before saving cannot change what other
+ * readers see. Writes evict immediately and again after the surrounding transaction commits.
+ * Evictions only reach this instance, so entries are also checked against the database: a customer
+ * is served from the cache only while its row still has the cached version, and the list is cached
+ * under the collection version it was loaded for. A change made on another instance is therefore
+ * never served here under the new ETag.
+ * Notes live in the entity_texts side table: single lookups carry them, the full list does not.
+ */
 @Service
 public class CustomerService {
 
     @Autowired
     private CustomerRepository customerRepository;
 
-    public List<Customer> findAll() {
-        return customerRepository.findAll();
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LargeTextService largeTextService;
+
+    @Autowired
+    private CollectionChangeService collectionChangeService;
+
+    private final Cache<Long, Customer> customersById;
+    private final Cache<String, List<Customer>> allCustomers;
+
+    public CustomerService(@Value("${crm.customers.cache.max-size:10000}") long maxSize,
+                           @Value("${crm.customers.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.customersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.allCustomers = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * All customers, cached under the collection version the caller read before asking
+     * @param collectionVersion tag from {@link ResourceVersionService#getCollectionVersion}
+     */
+    public List<Customer> findAll(String collectionVersion) {
+        List<Customer> all = allCustomers.get(collectionVersion, key -> List.copyOf(customerRepository.findAll()));
+        return all.stream().map(Customer::copy).toList();
     }
 
     public Optional<Customer> findById(Long id) {
-        return customerRepository.findById(id);
+        // One single-row version read tells whether another instance changed the customer since it was cached
+        Optional<Long> currentVersion = customerRepository.findVersionById(id);
+        if (currentVersion.isEmpty()) {
+            customersById.invalidate(id);
+            return Optional.empty();
+        }
+        Customer cached = customersById.getIfPresent(id);
+        if (cached == null || !currentVersion.get().equals(cached.getVersion())) {
+            // The second-level cache is per instance as well; drop its copy so the row is read again
+            entityManagerFactory.getCache().evict(Customer.class, id);
+            cached = loadWithNotes(id);
+            if (cached == null) {
+                // Absent customers are not cached, so a customer created later is found straight away
+                return Optional.empty();
+            }
+            customersById.put(id, cached);
+        }
+        return Optional.of(cached.copy());
     }
 
+    @Transactional
     public Customer save(Customer customer) {
-        return customerRepository.save(customer);
+        String notes = customer.getNotes();
+        boolean isNew = customer.getId() == null;
+        if (!isNew && largeTextService.store(LargeTextField.CUSTOMER_NOTES, customer.getId(), notes)) {
+            // The notes live outside the customers row; touch the row so its version and ETag change
+            customer.setUpdatedDate(LocalDateTime.now());
+        }
+        Customer saved = customerRepository.save(customer);
+        // A merged update returns a new instance that does not carry the transient notes
+        saved.setNotes(notes);
+        if (isNew) {
+            largeTextService.store(LargeTextField.CUSTOMER_NOTES, saved.getId(), notes);
+        }
+        evict(saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void deleteById(Long id) {
         customerRepository.deleteById(id);
+        largeTextService.delete(LargeTextField.CUSTOMER_NOTES, List.of(id));
+        evict(id);
+    }
+
+    /**
+     * Drop the cached customer list, and count the change, after customers were inserted outside this service
+     */
+    public void invalidateList() {
+        evict(null);
+    }
+
+    /**
+     * Drop every cached customer, including Hibernate's second-level cache, and count the change,
+     * after customers were changed with SQL that bypasses JPA
+     */
+    public void invalidateAll() {
+        collectionChangeService.recordChange(VersionedResource.CUSTOMERS.getTable());
+        customersById.invalidateAll();
+        allCustomers.invalidateAll();
+        entityManagerFactory.getCache().evict(Customer.class);
+    }
+
+    /**
+     * Hit, miss and eviction counts of the customer caches
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byId", describe(customersById.stats(), customersById.estimatedSize()));
+        stats.put("all", describe(allCustomers.stats(), allCustomers.estimatedSize()));
+        return stats;
+    }
+
+    private Customer loadWithNotes(Long id) {
+        Customer customer = customerRepository.findById(id).orElse(null);
+        if (customer != null) {
+            customer.setNotes(largeTextService.load(LargeTextField.CUSTOMER_NOTES, id));
+        }
+        return customer;
+    }
+
+    private void evict(Long id) {
+        collectionChangeService.recordChange(VersionedResource.CUSTOMERS.getTable());
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evict again once the change is visible, in case a reader cached pre-commit data
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id) {
+        if (id != null) {
+            customersById.invalidate(id);
+        }
+        allCustomers.invalidateAll();
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", size);
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictionCount", stats.evictionCount());
+        description.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return description;
     }
 }
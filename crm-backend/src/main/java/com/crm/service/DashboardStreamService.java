@@ -0,0 +1,23 @@
+package com.crm.service;
+
+import com.crm.model.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes dashboard deltas (task assigned, lead status changed, sale created, ...) to connected
+ * browsers over Server-Sent Events, so dashboards no longer poll the statistics endpoints.
+ */
+public interface DashboardStreamService {
+
+    /**
+     * Open a new stream for a user; deltas are pushed to it until the client disconnects or the stream
+     * times out. Admins and managers receive full deltas; other users receive the payload only of
+     * records assigned to them, and just the event type and record ID of the rest.
+     */
+    SseEmitter subscribe(User user);
+
+    /**
+     * Number of currently connected streams
+     */
+    int getSubscriberCount();
+}
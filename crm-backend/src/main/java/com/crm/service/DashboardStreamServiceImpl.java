@@ -0,0 +1,247 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.Role;
+import com.crm.event.DomainEvent;
+import com.crm.event.DomainEventSink;
+import com.crm.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans relayed domain events out to every open dashboard stream. Idle streams hold no thread:
+ * each delta is serialized once into an SSE frame, queued on every subscriber's mailbox, and a
+ * virtual thread drains a mailbox only while it has frames, so a slow client blocks nothing but
+ * its own virtual thread. Subscribers that fall too far behind are closed; the browser reconnects
+ * and reloads its counts.
+ */
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService, DomainEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamServiceImpl.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DELTA_EVENT = "delta";
+
+    /**
+     * Roles that see every delta in full; other users see details of their own records only
+     */
+    private static final Set<Role> FULL_ACCESS_ROLES = EnumSet.of(Role.ADMIN, Role.MANAGER);
+
+    /**
+     * Payload fields naming the user a record is assigned to
+     */
+    private static final List<String> OWNER_FIELDS = List.of("salesRepId", "assignedToId");
+
+    /**
+     * Lead field edits do not change anything the dashboard shows
+     */
+    private static final Set<DomainEventType> DASHBOARD_EVENTS =
+            EnumSet.complementOf(EnumSet.of(DomainEventType.LEAD_UPDATED));
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${crm.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${crm.dashboard.stream.max-pending:256}")
+    private int maxPending;
+
+    @Override
+    public SseEmitter subscribe(User user) {
+        return subscribe(user, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Register an emitter created by the caller as the user's stream
+     */
+    SseEmitter subscribe(User user, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, user.getId(), FULL_ACCESS_ROLES.contains(user.getRole()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Flush headers right away so the browser reports the stream as open
+        subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(5_000).build());
+        logger.debug("Dashboard stream opened, {} subscriber(s)", subscribers.size());
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<Delta> deltas = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            if (DASHBOARD_EVENTS.contains(event.getType())) {
+                deltas.add(new Delta(ownerIds(event), frame(event, true), frame(event, false)));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            subscribers.forEach(subscriber -> deltas.forEach(delta -> subscriber.offer(
+                    subscriber.seesAll || delta.ownerIds().contains(subscriber.userId) ? delta.full() : delta.redacted())));
+        }
+    }
+
+    /**
+     * Keep idle connections from being closed by proxies and detect clients that went away
+     */
+    @Scheduled(fixedDelayString = "${crm.dashboard.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.forEach(subscriber -> subscriber.offer(ping));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(DomainEvent event, boolean withPayload) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(DELTA_EVENT)
+                .data(toJson(event, withPayload), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private static Set<Long> ownerIds(DomainEvent event) {
+        Set<Long> owners = new HashSet<>();
+        if (event.getPayload() != null) {
+            for (String field : OWNER_FIELDS) {
+                if (event.getPayload().get(field) instanceof Number id) {
+                    owners.add(id.longValue());
+                }
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * The redacted form keeps what the counters need (type and record) and drops names, amounts and assignees
+     */
+    private static String toJson(DomainEvent event, boolean withPayload) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("id", event.getId());
+        delta.put("type", event.getType());
+        delta.put("aggregateType", event.getAggregateType());
+        delta.put("aggregateId", event.getAggregateId());
+        delta.put("occurredAt", event.getOccurredAt() != null ? event.getOccurredAt().toString() : null);
+        delta.put("payload", withPayload ? event.getPayload() : Map.of());
+        try {
+            return MAPPER.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard delta " + event.getId(), e);
+        }
+    }
+
+    /**
+     * One relayed event serialized for subscribers allowed to see its details and for everyone else
+     */
+    private record Delta(Set<Long> ownerIds, Set<ResponseBodyEmitter.DataWithMediaType> full,
+                         Set<ResponseBodyEmitter.DataWithMediaType> redacted) {
+    }
+
+    /**
+     * One open stream with its pending frames. At most one sender drains the mailbox at a time,
+     * which keeps frames in order without locking the relay thread.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final boolean seesAll;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long userId, boolean seesAll) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.seesAll = seesAll;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (pending.incrementAndGet() > maxPending) {
+                logger.debug("Closing dashboard stream that fell {} frames behind", maxPending);
+                close();
+                return;
+            }
+            mailbox.add(frame);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while ((frame = mailbox.poll()) != null) {
+                    pending.decrementAndGet();
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the stream already completed
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A frame may have arrived after the last poll but before the flag was cleared
+            if (!mailbox.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.remove(this);
+            mailbox.clear();
+            // complete() waits for a send in progress, so a stuck client must not hold up the relay thread
+            senders.execute(emitter::complete);
+        }
+    }
+}
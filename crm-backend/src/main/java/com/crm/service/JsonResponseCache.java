@@ -0,0 +1,20 @@
+package com.crm.service;
+
+import com.crm.enums.VersionedResource;
+import com.crm.model.SerializedJson;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the serialized, and pre-compressed, list body of each resource for its current collection
+ * version, so unchanged lists are written as cached bytes instead of being loaded and serialized again
+ */
+public interface JsonResponseCache {
+
+    /**
+     * Body for the given collection version, serializing the value from {@code loader} on a miss.
+     * The cache is per instance and trusts the loader, so the loader must read data at least as new as
+     * {@code tag}, never an instance-local copy that may predate it.
+     */
+    SerializedJson get(VersionedResource resource, String tag, Supplier<?> loader);
+}
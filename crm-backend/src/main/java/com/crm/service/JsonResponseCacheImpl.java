@@ -0,0 +1,78 @@
+package com.crm.service;
+
+import com.crm.enums.VersionedResource;
+import com.crm.model.SerializedJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds one body per resource, for the latest version seen; a new version replaces the old body, which
+ * no client can ask for again once its tag stops matching. Bodies are serialized with the application's
+ * JSON mapper so they are byte-for-byte what the message converter would have written.
+ */
+@Service
+public class JsonResponseCacheImpl implements JsonResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonResponseCacheImpl.class);
+
+    private final JsonMapper jsonMapper;
+    private final int minCompressBytes;
+    private final int maxBytes;
+    private final Map<VersionedResource, SerializedJson> latest = new EnumMap<>(VersionedResource.class);
+
+    public JsonResponseCacheImpl(JsonMapper jsonMapper,
+                                 @Value("${crm.responses.json-cache.min-compress-bytes:2048}") int minCompressBytes,
+                                 @Value("${crm.responses.json-cache.max-bytes:33554432}") int maxBytes) {
+        this.jsonMapper = jsonMapper;
+        this.minCompressBytes = minCompressBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public SerializedJson get(VersionedResource resource, String tag, Supplier<?> loader) {
+        synchronized (latest) {
+            SerializedJson cached = latest.get(resource);
+            if (cached != null && cached.tag().equals(tag)) {
+                return cached;
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        byte[] json = jsonMapper.writeValueAsBytes(loader.get());
+        SerializedJson serialized = new SerializedJson(tag, json, json.length >= minCompressBytes ? gzip(json) : null);
+        logger.debug("Serialized {} list version {} to {} bytes ({} gzipped) in {} ms", resource, tag, json.length,
+                serialized.gzip() != null ? serialized.gzip().length : "not", System.currentTimeMillis() - start);
+
+        // Oversized bodies are still served but not kept, so one huge list cannot pin a large buffer
+        if (json.length <= maxBytes) {
+            synchronized (latest) {
+                latest.put(resource, serialized);
+            }
+        }
+        return serialized;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        // Compressed once per version, so spend the extra CPU on the best ratio
+        try (OutputStream gzip = new GZIPOutputStream(buffer, 64 * 1024) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package com.crm.service;
+
+import com.crm.enums.LargeTextField;
+import com.crm.model.CompressedText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves texts still held in the legacy customers.notes, sales.notes and tasks.description columns
+ * into entity_texts after startup. Each batch copies rows with INSERT IGNORE, so text written through
+ * the side table since the switch wins, and clears the copied column values in the same transaction.
+ * Side-table writes clear the legacy value first (see {@link LargeTextServiceImpl}), so a text that was
+ * changed or cleared meanwhile is never copied back. Once every column is empty the legacy columns can
+ * be dropped.
+ */
+@Component
+public class LargeTextMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LargeTextMigration.class);
+
+    private static final String COLUMN_EXISTS =
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = DATABASE() AND table_name = :table AND column_name = :column";
+
+    private static final String INSERT_IF_ABSENT =
+            "INSERT IGNORE INTO entity_texts (field, owner_id, compressed, original_length, content) " +
+            "VALUES (:field, :ownerId, :compressed, :originalLength, :content)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${crm.large-text.migration.batch-size:500}")
+    private int batchSize;
+
+    public LargeTextMigration(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (LargeTextField legacy : LargeTextField.values()) {
+            Integer exists = jdbcTemplate.queryForObject(COLUMN_EXISTS, new MapSqlParameterSource()
+                    .addValue("table", legacy.getLegacyTable())
+                    .addValue("column", legacy.getLegacyColumn()), Integer.class);
+            if (exists == null || exists == 0) {
+                continue;
+            }
+            long start = System.currentTimeMillis();
+            long total = 0;
+            int moved;
+            do {
+                Integer batch = transactionTemplate.execute(tx -> moveBatch(legacy));
+                moved = batch != null ? batch : 0;
+                total += moved;
+            } while (moved == batchSize);
+            if (total > 0) {
+                logger.info("Moved {} {}.{} values into entity_texts in {} ms",
+                        total, legacy.getLegacyTable(), legacy.getLegacyColumn(), System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    private int moveBatch(LargeTextField legacy) {
+        String select = "SELECT id, " + legacy.getLegacyColumn() + " FROM " + legacy.getLegacyTable()
+                + " WHERE " + legacy.getLegacyColumn() + " IS NOT NULL ORDER BY id LIMIT " + batchSize + " FOR UPDATE";
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query(select, new MapSqlParameterSource(), rs -> {
+            CompressedText stored = CompressedText.of(rs.getString(2));
+            ids.add(rs.getLong(1));
+            inserts.add(new MapSqlParameterSource()
+                    .addValue("field", legacy.name())
+                    .addValue("ownerId", rs.getLong(1))
+                    .addValue("compressed", stored.compressed())
+                    .addValue("originalLength", stored.originalLength())
+                    .addValue("content", stored.content()));
+        });
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, inserts.toArray(SqlParameterSource[]::new));
+        jdbcTemplate.update("UPDATE " + legacy.getLegacyTable() + " SET " + legacy.getLegacyColumn()
+                + " = NULL WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+        return ids.size();
+    }
+}
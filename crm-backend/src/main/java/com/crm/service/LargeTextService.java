@@ -0,0 +1,40 @@
+package com.crm.service;
+
+import com.crm.enums.LargeTextField;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads and writes long entity texts kept in the compressed entity_texts side table, so they are
+ * loaded only where a single entity is shown rather than with every list row
+ */
+public interface LargeTextService {
+
+    /**
+     * Text of one entity attribute
+     * @return the text, or null when none is stored
+     */
+    String load(LargeTextField field, Long ownerId);
+
+    /**
+     * Texts of one attribute for many entities, keyed by owner ID; owners without text are absent
+     */
+    Map<Long, String> loadAll(LargeTextField field, Collection<Long> ownerIds);
+
+    /**
+     * Store or, when the text is null, remove the text of one entity attribute
+     * @return whether the stored text changed
+     */
+    boolean store(LargeTextField field, Long ownerId, String text);
+
+    /**
+     * Store many texts of one attribute in batches; null values remove the stored text
+     */
+    void storeAll(LargeTextField field, Map<Long, String> texts);
+
+    /**
+     * Remove the texts of deleted entities
+     */
+    void delete(LargeTextField field, Collection<Long> ownerIds);
+}
@@ -0,0 +1,160 @@
+package com.crm.service;
+
+import com.crm.enums.LargeTextField;
+import com.crm.model.CompressedText;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps long texts in entity_texts, one row per attribute and owner, gzip-compressed when that
+ * saves space. Writes are upserts on the (field, owner_id) key; a null text deletes the row.
+ * While a field's legacy column still exists, every write first clears the owners' legacy values,
+ * locking those rows, so {@link LargeTextMigration} cannot copy an outdated text back afterwards.
+ */
+@Service
+public class LargeTextServiceImpl implements LargeTextService {
+
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final String SELECT_ONE =
+            "SELECT content, compressed FROM entity_texts WHERE field = :field AND owner_id = :ownerId";
+
+    private static final String SELECT_MANY =
+            "SELECT owner_id, content, compressed FROM entity_texts WHERE field = :field AND owner_id IN (:ownerIds)";
+
+    private static final String UPSERT =
+            "INSERT INTO entity_texts (field, owner_id, compressed, original_length, content) " +
+            "VALUES (:field, :ownerId, :compressed, :originalLength, :content) " +
+            "ON DUPLICATE KEY UPDATE compressed = VALUES(compressed), original_length = VALUES(original_length), " +
+            "content = VALUES(content)";
+
+    private static final String DELETE =
+            "DELETE FROM entity_texts WHERE field = :field AND owner_id IN (:ownerIds)";
+
+    private static final String COLUMN_EXISTS =
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = DATABASE() AND table_name = :table AND column_name = :column";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Checked once per field; legacy columns are only dropped while the application is down
+    private final Map<LargeTextField, Boolean> legacyColumns = new ConcurrentHashMap<>();
+
+    public LargeTextServiceImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String load(LargeTextField field, Long ownerId) {
+        if (ownerId == null) {
+            return null;
+        }
+        List<String> texts = jdbcTemplate.query(SELECT_ONE, new MapSqlParameterSource()
+                        .addValue("field", field.name())
+                        .addValue("ownerId", ownerId),
+                (rs, rowNum) -> CompressedText.decode(rs.getBytes(1), rs.getBoolean(2)));
+        return texts.isEmpty() ? null : texts.get(0);
+    }
+
+    @Override
+    public Map<Long, String> loadAll(LargeTextField field, Collection<Long> ownerIds) {
+        Map<Long, String> texts = new HashMap<>();
+        for (List<Long> ids : partition(ownerIds)) {
+            jdbcTemplate.query(SELECT_MANY, new MapSqlParameterSource()
+                            .addValue("field", field.name())
+                            .addValue("ownerIds", ids),
+                    rs -> { texts.put(rs.getLong(1), CompressedText.decode(rs.getBytes(2), rs.getBoolean(3))); });
+        }
+        return texts;
+    }
+
+    @Override
+    public boolean store(LargeTextField field, Long ownerId, String text) {
+        // Also when unchanged: a legacy value not yet migrated would otherwise be copied over this text later
+        clearLegacy(field, List.of(ownerId));
+        if (Objects.equals(load(field, ownerId), text)) {
+            return false;
+        }
+        Map<Long, String> single = new HashMap<>();
+        single.put(ownerId, text);
+        storeAll(field, single);
+        return true;
+    }
+
+    @Override
+    public void storeAll(LargeTextField field, Map<Long, String> texts) {
+        clearLegacy(field, texts.keySet());
+        List<SqlParameterSource> upserts = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        texts.forEach((ownerId, text) -> {
+            if (text == null) {
+                removed.add(ownerId);
+            } else {
+                CompressedText stored = CompressedText.of(text);
+                upserts.add(new MapSqlParameterSource()
+                        .addValue("field", field.name())
+                        .addValue("ownerId", ownerId)
+                        .addValue("compressed", stored.compressed())
+                        .addValue("originalLength", stored.originalLength())
+                        .addValue("content", stored.content()));
+            }
+        });
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, upserts.toArray(SqlParameterSource[]::new));
+        }
+        deleteRows(field, removed);
+    }
+
+    @Override
+    public void delete(LargeTextField field, Collection<Long> ownerIds) {
+        clearLegacy(field, ownerIds);
+        deleteRows(field, ownerIds);
+    }
+
+    private void deleteRows(LargeTextField field, Collection<Long> ownerIds) {
+        for (List<Long> ids : partition(ownerIds)) {
+            jdbcTemplate.update(DELETE, new MapSqlParameterSource()
+                    .addValue("field", field.name())
+                    .addValue("ownerIds", ids));
+        }
+    }
+
+    /**
+     * Null out the legacy column values of the given owners, if the column still exists
+     */
+    private void clearLegacy(LargeTextField field, Collection<Long> ownerIds) {
+        if (ownerIds.isEmpty() || !legacyColumns.computeIfAbsent(field, this::legacyColumnExists)) {
+            return;
+        }
+        String update = "UPDATE " + field.getLegacyTable() + " SET " + field.getLegacyColumn() + " = NULL "
+                + "WHERE id IN (:ids) AND " + field.getLegacyColumn() + " IS NOT NULL";
+        for (List<Long> ids : partition(ownerIds)) {
+            jdbcTemplate.update(update, new MapSqlParameterSource("ids", ids));
+        }
+    }
+
+    private boolean legacyColumnExists(LargeTextField field) {
+        Integer exists = jdbcTemplate.queryForObject(COLUMN_EXISTS, new MapSqlParameterSource()
+                .addValue("table", field.getLegacyTable())
+                .addValue("column", field.getLegacyColumn()), Integer.class);
+        return exists != null && exists > 0;
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<List<Long>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_LIST_SIZE) {
+            parts.add(all.subList(from, Math.min(from + IN_LIST_SIZE, all.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,82 @@
+package com.crm.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram over fixed buckets from 0.1 ms to 60 s. Percentiles are reported as the
+ * upper bound of the bucket they fall in, which is precise enough to tell a 2 ms wait from a 2 s one.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MICROS = {
+            100, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000, 500_000,
+            1_000_000, 2_000_000, 5_000_000, 10_000_000, 30_000_000, 60_000_000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public void record(long micros) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double meanMillis() {
+        long count = count();
+        return count == 0 ? 0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    public double maxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0-100), in ms; the maximum seen when it
+     * falls in the overflow bucket
+     */
+    public double percentileMillis(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BOUNDS_MICROS.length; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(BOUNDS_MICROS[bucket], maxMicros.get()) / 1000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    /**
+     * Count per bucket keyed by its upper bound in ms, ending with "+Inf"
+     */
+    public Map<String, Long> buckets() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < BOUNDS_MICROS.length; bucket++) {
+            buckets.put(String.valueOf(BOUNDS_MICROS[bucket] / 1000.0), counts.get(bucket));
+        }
+        buckets.put("+Inf", counts.get(BOUNDS_MICROS.length));
+        return buckets;
+    }
+}
@@ -0,0 +1,30 @@
+package com.crm.service;
+
+import com.crm.dto.BulkLeadFilterUpdateRequest;
+import com.crm.dto.BulkLeadReassignRequest;
+import com.crm.dto.BulkLeadStatusRequest;
+import com.crm.dto.BulkOperationResult;
+
+public interface LeadBulkService {
+
+    /**
+     * Change the status of the given leads in chunked, set-based updates
+     * @param request the lead IDs and target status
+     * @return the outcome of the operation
+     */
+    BulkOperationResult changeStatus(BulkLeadStatusRequest request);
+
+    /**
+     * Move every lead of one sales representative to another
+     * @param request the current and new sales representative
+     * @return the outcome of the operation
+     */
+    BulkOperationResult reassign(BulkLeadReassignRequest request);
+
+    /**
+     * Update the status and/or sales representative of every lead matching a filter
+     * @param request the filter, which must set at least one of status, source and salesRepId, and the new values
+     * @return the outcome of the operation
+     */
+    BulkOperationResult updateByFilter(BulkLeadFilterUpdateRequest request);
+}
@@ -0,0 +1,303 @@
+package com.crm.service;
+
+import com.crm.dto.BulkLeadFilterUpdateRequest;
+import com.crm.dto.BulkLeadReassignRequest;
+import com.crm.dto.BulkLeadStatusRequest;
+import com.crm.dto.BulkOperationResult;
+import com.crm.enums.BulkOperationOutcome;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Lead;
+import com.crm.model.LeadBatchAudit;
+import com.crm.model.User;
+import com.crm.repository.LeadBatchAuditRepository;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Executes bulk lead changes as set-based UPDATE statements, one transaction per chunk.
+ * Every statement re-checks the state the rows were selected on (status, current sales rep),
+ * so rows changed concurrently by someone else are skipped instead of overwritten. Each chunk
+ * locks its rows first, and every lead it actually changed gets an outbox event in the same transaction.
+ * The audit row is written before the first chunk and its totals are updated in each chunk's
+ * transaction, so an operation that fails part way still leaves an accurate FAILED audit behind.
+ */
+@Service
+public class LeadBulkServiceImpl implements LeadBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadBulkServiceImpl.class);
+
+    private final LeadRepository leadRepository;
+    private final UserRepository userRepository;
+    private final LeadBatchAuditRepository auditRepository;
+    private final LeadFunnelService leadFunnelService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public LeadBulkServiceImpl(LeadRepository leadRepository,
+                               UserRepository userRepository,
+                               LeadBatchAuditRepository auditRepository,
+                               LeadFunnelService leadFunnelService,
+                               OutboxService outboxService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${crm.leads.bulk.chunk-size:500}") int chunkSize) {
+        this.leadRepository = leadRepository;
+        this.userRepository = userRepository;
+        this.auditRepository = auditRepository;
+        this.leadFunnelService = leadFunnelService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkOperationResult changeStatus(BulkLeadStatusRequest request) {
+        long start = System.nanoTime();
+        List<Long> ids = request.getLeadIds().stream().distinct().toList();
+        String criteria = "status=" + request.getStatus()
+                + (request.getExpectedStatus() != null ? ", expectedStatus=" + request.getExpectedStatus() : "");
+        LeadBatchAudit audit = startAudit("STATUS_CHANGE", criteria);
+        long matched = 0;
+        long updated = 0;
+        int chunks = 0;
+        boolean completed = false;
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                long matchedAfter = matched + chunk.size();
+                long updatedBefore = updated;
+                int chunksAfter = chunks + 1;
+                Integer chunkUpdated = transactionTemplate.execute(tx -> {
+                    int count = applyStatusChunk(chunk, request.getExpectedStatus(), request.getStatus());
+                    auditRepository.recordProgress(audit.getId(), matchedAfter, updatedBefore + count, chunksAfter,
+                            elapsedMillis(start));
+                    return count;
+                });
+                matched = matchedAfter;
+                updated += chunkUpdated != null ? chunkUpdated : 0;
+                chunks = chunksAfter;
+            }
+            completed = true;
+        } finally {
+            finishAudit(audit, completed, start);
+        }
+        return result(audit, matched, updated, chunks, start);
+    }
+
+    @Override
+    public BulkOperationResult reassign(BulkLeadReassignRequest request) {
+        BulkLeadFilterUpdateRequest filter = new BulkLeadFilterUpdateRequest();
+        filter.setSalesRepId(request.getFromSalesRepId());
+        filter.setNewSalesRepId(request.getToSalesRepId());
+        return runFiltered("REASSIGN", filter);
+    }
+
+    @Override
+    public BulkOperationResult updateByFilter(BulkLeadFilterUpdateRequest request) {
+        if (request.getNewStatus() == null && request.getNewSalesRepId() == null) {
+            throw new IllegalArgumentException("Either newStatus or newSalesRepId must be provided");
+        }
+        return runFiltered("FILTER_UPDATE", request);
+    }
+
+    /**
+     * Walk the matching leads in ID order, one chunk per transaction. A chunk's reassignment and
+     * status change commit together, so a failure never leaves a chunk half updated.
+     */
+    private BulkOperationResult runFiltered(String operation, BulkLeadFilterUpdateRequest request) {
+        // An empty filter would rewrite every lead in the table
+        if (request.getStatus() == null && request.getSource() == null && request.getSalesRepId() == null) {
+            throw new IllegalArgumentException("At least one of status, source or salesRepId must be provided");
+        }
+        long start = System.nanoTime();
+        User newSalesRep = null;
+        if (request.getNewSalesRepId() != null) {
+            newSalesRep = userRepository.findById(request.getNewSalesRepId())
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + request.getNewSalesRepId()));
+        }
+
+        String criteria = "status=" + request.getStatus() + ", source=" + request.getSource()
+                + ", salesRepId=" + request.getSalesRepId() + " -> newStatus=" + request.getNewStatus()
+                + ", newSalesRepId=" + request.getNewSalesRepId();
+        LeadBatchAudit audit = startAudit(operation, criteria);
+        long matched = 0;
+        long updated = 0;
+        int chunks = 0;
+        boolean completed = false;
+        try {
+            long afterId = 0L;
+            PageRequest firstChunk = PageRequest.of(0, chunkSize);
+            while (true) {
+                List<Long> chunk = leadRepository.findIdsAfter(afterId, request.getStatus(), request.getSource(),
+                        request.getSalesRepId(), firstChunk);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                long matchedAfter = matched + chunk.size();
+                long updatedBefore = updated;
+                int chunksAfter = chunks + 1;
+                afterId = chunk.get(chunk.size() - 1);
+
+                User target = newSalesRep;
+                Integer chunkUpdated = transactionTemplate.execute(tx -> {
+                    Map<Long, LeadState> before = lockStates(chunk);
+                    int reassigned = target != null
+                            ? leadRepository.bulkReassign(chunk, request.getSalesRepId(), target, LocalDateTime.now())
+                            : 0;
+                    int transitioned = request.getNewStatus() != null
+                            ? transitionChunk(chunk, request.getStatus(), request.getNewStatus())
+                            : 0;
+                    if (reassigned + transitioned > 0) {
+                        publishChanges(before);
+                    }
+                    int count = target != null ? reassigned : transitioned;
+                    auditRepository.recordProgress(audit.getId(), matchedAfter, updatedBefore + count, chunksAfter,
+                            elapsedMillis(start));
+                    return count;
+                });
+                matched = matchedAfter;
+                updated += chunkUpdated != null ? chunkUpdated : 0;
+                chunks = chunksAfter;
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            completed = true;
+        } finally {
+            finishAudit(audit, completed, start);
+        }
+        return result(audit, matched, updated, chunks, start);
+    }
+
+    /**
+     * Apply a status transition to one chunk of leads in the caller's transaction
+     */
+    private int applyStatusChunk(List<Long> chunk, LeadStatus expectedStatus, LeadStatus target) {
+        Map<Long, LeadState> before = lockStates(chunk);
+        int count = transitionChunk(chunk, expectedStatus, target);
+        if (count > 0) {
+            publishChanges(before);
+        }
+        return count;
+    }
+
+    /**
+     * Lock the chunk's rows and remember their status and sales representative
+     */
+    private Map<Long, LeadState> lockStates(List<Long> chunk) {
+        Map<Long, LeadState> states = new HashMap<>();
+        for (Object[] row : leadRepository.lockStates(chunk)) {
+            states.put(((Number) row[0]).longValue(), new LeadState(
+                    row[1] != null ? LeadStatus.valueOf((String) row[1]) : null,
+                    row[2] != null ? ((Number) row[2]).longValue() : null));
+        }
+        return states;
+    }
+
+    /**
+     * Write an outbox event for every locked lead whose status or sales representative changed
+     */
+    private void publishChanges(Map<Long, LeadState> before) {
+        for (Lead lead : leadRepository.findAllById(before.keySet())) {
+            LeadState previous = before.get(lead.getId());
+            Long salesRepId = lead.getAssignedSalesRep() != null ? lead.getAssignedSalesRep().getId() : null;
+            if (lead.getStatus() != previous.status()) {
+                outboxService.leadChanged(DomainEventType.LEAD_STATUS_CHANGED, lead, previous.status());
+            } else if (!Objects.equals(salesRepId, previous.salesRepId())) {
+                outboxService.leadChanged(DomainEventType.LEAD_UPDATED, lead, previous.status());
+            }
+        }
+    }
+
+    /**
+     * Apply a status transition to one chunk of leads in the caller's transaction.
+     * Closing is allowed from any open status; moving between open statuses shifts the score
+     * by the status points delta. Closed leads are never reopened in bulk, because their
+     * score has to be recomputed in full via the single-lead endpoint.
+     */
+    private int transitionChunk(List<Long> chunk, LeadStatus expectedStatus, LeadStatus target) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<LeadStatus> fromStatuses = new ArrayList<>(LeadRepository.FOLLOW_UP_STATUSES);
+        if (expectedStatus != null) {
+            fromStatuses.retainAll(List.of(expectedStatus));
+        }
+        fromStatuses.remove(target);
+        if (fromStatuses.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        if (target == LeadStatus.CONVERTED || target == LeadStatus.LOST) {
+            count = leadRepository.bulkClose(chunk, fromStatuses, target, now);
+        } else {
+            for (LeadStatus fromStatus : fromStatuses) {
+                int delta = LeadScoringService.statusPoints(target) - LeadScoringService.statusPoints(fromStatus);
+                count += leadRepository.bulkTransition(chunk, fromStatus, target, delta, now);
+            }
+        }
+        if (count > 0) {
+            leadFunnelService.recordBulkTransition(chunk, target, now);
+        }
+        return count;
+    }
+
+    /**
+     * Write the audit row before any chunk runs, so even a failed operation is on record
+     */
+    private LeadBatchAudit startAudit(String operation, String criteria) {
+        return auditRepository.save(new LeadBatchAudit(operation, criteria, currentUser()));
+    }
+
+    /**
+     * Mark the audit completed, or failed when a chunk threw; its totals are those of the committed chunks
+     */
+    private void finishAudit(LeadBatchAudit audit, boolean completed, long startNanos) {
+        BulkOperationOutcome outcome = completed ? BulkOperationOutcome.COMPLETED : BulkOperationOutcome.FAILED;
+        long durationMillis = elapsedMillis(startNanos);
+        transactionTemplate.executeWithoutResult(tx ->
+                auditRepository.finish(audit.getId(), outcome, durationMillis, LocalDateTime.now()));
+    }
+
+    private BulkOperationResult result(LeadBatchAudit audit, long matched, long updated, int chunks, long startNanos) {
+        BulkOperationResult result = new BulkOperationResult(audit.getOperation(), matched, updated, chunks,
+                elapsedMillis(startNanos), audit.getId());
+        logger.info("Bulk lead {} finished: matched={}, updated={}, chunks={}, {} ms ({} rows/s)",
+                audit.getOperation(), matched, updated, chunks, result.getDurationMillis(),
+                String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    /**
+     * Status and sales representative of a lead before a bulk statement
+     */
+    private record LeadState(LeadStatus status, Long salesRepId) {
+    }
+}
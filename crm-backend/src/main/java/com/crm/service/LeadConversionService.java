@@ -0,0 +1,24 @@
+package com.crm.service;
+
+import com.crm.dto.BulkOperationResult;
+import com.crm.model.Customer;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LeadConversionService {
+
+    /**
+     * Convert a single lead into a customer
+     * @param leadId the lead ID
+     * @return the customer created from (or previously linked to) the lead, empty if the lead does not exist
+     */
+    Optional<Customer> convert(Long leadId);
+
+    /**
+     * Convert many leads into customers in chunked transactions
+     * @param leadIds the lead IDs
+     * @return the outcome of the operation
+     */
+    BulkOperationResult convertAll(List<Long> leadIds);
+}
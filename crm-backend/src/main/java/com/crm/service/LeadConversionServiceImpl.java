@@ -0,0 +1,250 @@
+package com.crm.service;
+
+import com.crm.dto.BulkOperationResult;
+import com.crm.enums.BulkOperationOutcome;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LargeTextField;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Customer;
+import com.crm.model.Lead;
+import com.crm.model.LeadBatchAudit;
+import com.crm.repository.CustomerRepository;
+import com.crm.repository.LeadBatchAuditRepository;
+import com.crm.repository.LeadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Turns leads into customers. Each chunk runs in one transaction: the new customers are
+ * written with a single JDBC batch insert, then the leads are linked and marked CONVERTED
+ * with one batched UPDATE. A lead whose email matches an existing customer's natural key
+ * creates no customer; it is linked to the existing one instead. Every lead converted gets a
+ * LEAD_CONVERTED outbox event in the same transaction. Leads set to CONVERTED by a plain status
+ * change, as before conversions created customers, get their customer the same way.
+ */
+@Service
+public class LeadConversionServiceImpl implements LeadConversionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadConversionServiceImpl.class);
+
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO customers (name, email, phone, source_lead_id, natural_key, updated_date, version) " +
+            "VALUES (:name, :email, :phone, :sourceLeadId, :naturalKey, :now, 0) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SELECT_CUSTOMERS_BY_SOURCE_LEAD =
+            "SELECT id, source_lead_id FROM customers WHERE source_lead_id IN (:ids)";
+
+    private static final String SELECT_CUSTOMERS_BY_NATURAL_KEY =
+            "SELECT id, natural_key FROM customers WHERE natural_key IN (:keys)";
+
+    private static final String LINK_LEAD =
+            "UPDATE leads SET converted_customer_id = :customerId, status = 'CONVERTED', score = 0, " +
+            "updated_date = :now, version = version + 1 " +
+            "WHERE id = :id AND converted_customer_id IS NULL";
+
+    private final LeadRepository leadRepository;
+    private final CustomerRepository customerRepository;
+    private final LeadBatchAuditRepository auditRepository;
+    private final LeadFunnelService leadFunnelService;
+    private final CustomerService customerService;
+    private final LargeTextService largeTextService;
+    private final OutboxService outboxService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public LeadConversionServiceImpl(LeadRepository leadRepository,
+                                     CustomerRepository customerRepository,
+                                     LeadBatchAuditRepository auditRepository,
+                                     LeadFunnelService leadFunnelService,
+                                     CustomerService customerService,
+                                     LargeTextService largeTextService,
+                                     OutboxService outboxService,
+                                     NamedParameterJdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${crm.leads.bulk.chunk-size:500}") int chunkSize) {
+        this.leadRepository = leadRepository;
+        this.customerRepository = customerRepository;
+        this.auditRepository = auditRepository;
+        this.leadFunnelService = leadFunnelService;
+        this.customerService = customerService;
+        this.largeTextService = largeTextService;
+        this.outboxService = outboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Optional<Customer> convert(Long leadId) {
+        if (!leadRepository.existsById(leadId)) {
+            return Optional.empty();
+        }
+        convertChunk(List.of(leadId));
+        // Merges move leads onto the surviving customer, whose source_lead_id may name another lead
+        Optional<Customer> customer = customerRepository.findBySourceLeadId(leadId)
+                .or(() -> leadRepository.findConvertedCustomerIdById(leadId).flatMap(customerRepository::findById));
+        customer.ifPresent(found -> found.setNotes(largeTextService.load(LargeTextField.CUSTOMER_NOTES, found.getId())));
+        return customer;
+    }
+
+    @Override
+    public BulkOperationResult convertAll(List<Long> leadIds) {
+        long start = System.nanoTime();
+        List<Long> ids = leadIds.stream().distinct().toList();
+        // Written first and updated after every chunk, so a conversion that fails part way is on record
+        LeadBatchAudit audit = auditRepository.save(new LeadBatchAudit("CONVERT", "leadIds=" + ids.size(), null));
+        long matched = 0;
+        long converted = 0;
+        int chunks = 0;
+        boolean completed = false;
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                converted += convertChunk(chunk);
+                matched += chunk.size();
+                chunks++;
+                long matchedSoFar = matched;
+                long convertedSoFar = converted;
+                int chunksSoFar = chunks;
+                transactionTemplate.executeWithoutResult(tx -> auditRepository.recordProgress(audit.getId(),
+                        matchedSoFar, convertedSoFar, chunksSoFar, (System.nanoTime() - start) / 1_000_000));
+            }
+            completed = true;
+        } finally {
+            BulkOperationOutcome outcome = completed ? BulkOperationOutcome.COMPLETED : BulkOperationOutcome.FAILED;
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            transactionTemplate.executeWithoutResult(tx ->
+                    auditRepository.finish(audit.getId(), outcome, durationMillis, LocalDateTime.now()));
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkOperationResult result = new BulkOperationResult("CONVERT", ids.size(), converted, chunks, durationMillis, audit.getId());
+        logger.info("Converted {} of {} leads in {} chunks, {} ms", converted, ids.size(), chunks, durationMillis);
+        return result;
+    }
+
+    /**
+     * Convert one chunk of leads in a single transaction
+     * @return number of leads converted
+     */
+    private int convertChunk(List<Long> chunk) {
+        Integer converted = transactionTemplate.execute(tx -> {
+            Map<Long, LeadStatus> previousStatuses = new HashMap<>();
+            for (Object[] state : leadRepository.lockStates(chunk)) {
+                previousStatuses.put(((Number) state[0]).longValue(), LeadStatus.valueOf((String) state[1]));
+            }
+            List<Object[]> rows = leadRepository.findConvertibleRows(chunk);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            SqlParameterSource[] customers = rows.stream()
+                    .map(row -> toCustomerParameters(row, now))
+                    .toArray(SqlParameterSource[]::new);
+            // A lead matching an existing customer's natural key hits the unique index and inserts nothing
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER, customers);
+            customerService.invalidateList();
+
+            List<Long> convertibleIds = rows.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, Long> customerByLead = new HashMap<>();
+            Map<Long, String> notes = new HashMap<>();
+            jdbcTemplate.query(SELECT_CUSTOMERS_BY_SOURCE_LEAD, new MapSqlParameterSource("ids", convertibleIds), rs -> {
+                customerByLead.put(rs.getLong(2), rs.getLong(1));
+            });
+            Map<Long, String> keyByLead = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Long leadId = (Long) rows.get(i)[0];
+                String naturalKey = (String) customers[i].getValue("naturalKey");
+                if (customerByLead.containsKey(leadId)) {
+                    // Only customers created by this conversion get the conversion note
+                    notes.put(customerByLead.get(leadId), conversionNote((String) rows.get(i)[3]));
+                } else if (naturalKey != null) {
+                    keyByLead.put(leadId, naturalKey);
+                }
+            }
+            if (!keyByLead.isEmpty()) {
+                Map<String, Long> customerByKey = new HashMap<>();
+                jdbcTemplate.query(SELECT_CUSTOMERS_BY_NATURAL_KEY,
+                        new MapSqlParameterSource("keys", List.copyOf(new HashSet<>(keyByLead.values()))),
+                        rs -> { customerByKey.put(rs.getString(2), rs.getLong(1)); });
+                keyByLead.forEach((leadId, key) -> {
+                    Long customerId = customerByKey.get(key);
+                    if (customerId != null) {
+                        customerByLead.put(leadId, customerId);
+                    }
+                });
+            }
+            largeTextService.storeAll(LargeTextField.CUSTOMER_NOTES, notes);
+
+            SqlParameterSource[] links = customerByLead.entrySet().stream()
+                    .map(link -> new MapSqlParameterSource()
+                            .addValue("id", link.getKey())
+                            .addValue("customerId", link.getValue())
+                            .addValue("now", now))
+                    .toArray(SqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate(LINK_LEAD, links);
+
+            // Batched updates may not report row counts, so count the leads that now have a customer
+            int linked = 0;
+            List<Long> newlyConverted = new ArrayList<>();
+            for (Lead lead : leadRepository.findAllById(customerByLead.keySet())) {
+                if (lead.getConvertedCustomerId() == null) {
+                    continue;
+                }
+                linked++;
+                LeadStatus previousStatus = previousStatuses.get(lead.getId());
+                // Leads that were already CONVERTED only gain their customer; the funnel counted them before
+                if (previousStatus != LeadStatus.CONVERTED) {
+                    newlyConverted.add(lead.getId());
+                }
+                outboxService.leadChanged(previousStatus != LeadStatus.CONVERTED
+                        ? DomainEventType.LEAD_CONVERTED : DomainEventType.LEAD_UPDATED, lead, previousStatus);
+            }
+            leadFunnelService.recordBulkTransition(newlyConverted, LeadStatus.CONVERTED, now);
+            return linked;
+        });
+        return converted != null ? converted : 0;
+    }
+
+    /**
+     * Map a lead row (id, name, contactInfo, source) onto the customer insert parameters.
+     * Contact info containing an '@' is treated as an email address, anything else as a phone number.
+     */
+    private SqlParameterSource toCustomerParameters(Object[] row, LocalDateTime now) {
+        String contactInfo = (String) row[2];
+        boolean isEmail = contactInfo != null && contactInfo.contains("@");
+        String email = isEmail ? contactInfo.trim() : null;
+        // Set here because this insert bypasses the entity callback that keys JPA-saved customers
+        return new MapSqlParameterSource()
+                .addValue("name", row[1])
+                .addValue("email", email)
+                .addValue("naturalKey", Customer.naturalKeyOf(email, null, (String) row[1]))
+                .addValue("phone", !isEmail ? contactInfo : null)
+                .addValue("sourceLeadId", row[0])
+                .addValue("now", now);
+    }
+
+    private static String conversionNote(String source) {
+        return source != null ? "Converted from lead (source: " + source + ")" : "Converted from lead";
+    }
+}
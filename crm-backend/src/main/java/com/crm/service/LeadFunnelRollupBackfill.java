@@ -0,0 +1,88 @@
+package com.crm.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Adds leads created before lead_daily_rollups existed to the funnel after startup. The cutoff is the
+ * earliest lead timestamp the live path has counted (or now, when it has counted nothing yet), so a lead
+ * is either counted live or here, never both. Every lead created before the cutoff is counted once as NEW
+ * on its creation day and, unless still NEW, once in its current status on the day it was last updated,
+ * when that was also before the cutoff (later transitions were recorded as they happened). Intermediate
+ * statuses of old leads are not known and stay uncounted.
+ * <p>
+ * The backfilled part of each row is kept in backfilled_count and set rather than added to, so instances
+ * starting together write the same values; once any backfilled row exists the job does nothing.
+ */
+@Component
+public class LeadFunnelRollupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadFunnelRollupBackfill.class);
+
+    // Rows without a live timestamp were written by a backfill, including ones from before backfilled_count
+    private static final String ALREADY_BACKFILLED =
+            "SELECT EXISTS (SELECT 1 FROM lead_daily_rollups WHERE first_counted_at IS NULL OR backfilled_count <> 0)";
+
+    private static final String FIRST_COUNTED_AT = "SELECT MIN(first_counted_at) FROM lead_daily_rollups";
+
+    private static final String INSERT_CREATED =
+            "INSERT INTO lead_daily_rollups (rollup_date, source, sales_rep_id, status, entered_count, backfilled_count) " +
+            "SELECT c.rollup_date, c.source, c.sales_rep_id, 'NEW', c.entered, c.entered " +
+            "FROM (SELECT DATE(created_date) AS rollup_date, COALESCE(source, '') AS source, " +
+            "COALESCE(assigned_sales_rep_id, 0) AS sales_rep_id, COUNT(*) AS entered " +
+            "FROM leads WHERE created_date < :cutoff " +
+            "GROUP BY DATE(created_date), COALESCE(source, ''), COALESCE(assigned_sales_rep_id, 0)) c " +
+            "ON DUPLICATE KEY UPDATE " +
+            "entered_count = lead_daily_rollups.entered_count - lead_daily_rollups.backfilled_count + c.entered, " +
+            "backfilled_count = c.entered";
+
+    private static final String INSERT_CURRENT_STATUS =
+            "INSERT INTO lead_daily_rollups (rollup_date, source, sales_rep_id, status, entered_count, backfilled_count) " +
+            "SELECT c.rollup_date, c.source, c.sales_rep_id, c.status, c.entered, c.entered " +
+            "FROM (SELECT DATE(COALESCE(updated_date, created_date)) AS rollup_date, COALESCE(source, '') AS source, " +
+            "COALESCE(assigned_sales_rep_id, 0) AS sales_rep_id, status, COUNT(*) AS entered " +
+            "FROM leads WHERE created_date < :cutoff AND COALESCE(updated_date, created_date) < :cutoff " +
+            "AND status IS NOT NULL AND status <> 'NEW' " +
+            "GROUP BY DATE(COALESCE(updated_date, created_date)), COALESCE(source, ''), " +
+            "COALESCE(assigned_sales_rep_id, 0), status) c " +
+            "ON DUPLICATE KEY UPDATE " +
+            "entered_count = lead_daily_rollups.entered_count - lead_daily_rollups.backfilled_count + c.entered, " +
+            "backfilled_count = c.entered";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LeadFunnelRollupBackfill(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        Integer added = transactionTemplate.execute(tx -> {
+            MapSqlParameterSource none = new MapSqlParameterSource();
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(ALREADY_BACKFILLED, none, Boolean.class))) {
+                return 0;
+            }
+            LocalDateTime firstCounted = jdbcTemplate.queryForObject(FIRST_COUNTED_AT, none, LocalDateTime.class);
+            MapSqlParameterSource params = new MapSqlParameterSource("cutoff",
+                    firstCounted != null ? firstCounted : LocalDateTime.now());
+            return jdbcTemplate.update(INSERT_CREATED, params) + jdbcTemplate.update(INSERT_CURRENT_STATUS, params);
+        });
+        if (added != null && added > 0) {
+            logger.info("Backfilled {} lead funnel rollup rows in {} ms", added, System.currentTimeMillis() - start);
+        }
+    }
+}
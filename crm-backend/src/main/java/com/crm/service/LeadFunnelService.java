@@ -0,0 +1,54 @@
+package com.crm.service;
+
+import com.crm.dto.LeadConversionRate;
+import com.crm.dto.LeadFunnelReport;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Lead;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LeadFunnelService {
+
+    /**
+     * Record a newly created lead entering the funnel
+     * @param lead the saved lead
+     */
+    void recordCreated(Lead lead);
+
+    /**
+     * Record a single lead entering a new status
+     * @param lead the lead as written (source and sales rep are taken from it, and its updated date is the
+     *             time of the transition)
+     * @param status the status entered
+     */
+    void recordTransition(Lead lead, LeadStatus status);
+
+    /**
+     * Record leads moved into a status by a bulk statement
+     * @param leadIds the IDs the statement targeted
+     * @param status the status entered
+     * @param updatedDate the updated_date value the statement stamped on the moved rows
+     */
+    void recordBulkTransition(List<Long> leadIds, LeadStatus status, LocalDateTime updatedDate);
+
+    /**
+     * Funnel stage counts for a date range
+     * @param fromDate first day included
+     * @param toDate last day included
+     * @param source optional source filter
+     * @param salesRepId optional sales representative filter
+     * @return the funnel report
+     */
+    LeadFunnelReport getFunnel(LocalDate fromDate, LocalDate toDate, String source, Long salesRepId);
+
+    /**
+     * Conversion figures grouped by source, sales representative or day
+     * @param fromDate first day included
+     * @param toDate last day included
+     * @param groupBy one of "source", "salesRep" or "day"
+     * @return one row per group
+     */
+    List<LeadConversionRate> getConversionRates(LocalDate fromDate, LocalDate toDate, String groupBy);
+}
@@ -0,0 +1,127 @@
+package com.crm.service;
+
+import com.crm.dto.LeadConversionRate;
+import com.crm.dto.LeadFunnelReport;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Lead;
+import com.crm.model.LeadDailyRollup;
+import com.crm.repository.LeadDailyRollupRepository;
+import com.crm.repository.LeadRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the lead_daily_rollups table (day x source x sales rep x status) as leads are
+ * created and change status, and answers funnel questions from the rollups alone, so the
+ * cost of a report depends on the number of days, sources and reps, not on the number of leads.
+ */
+@Service
+@Transactional
+public class LeadFunnelServiceImpl implements LeadFunnelService {
+
+    private final LeadDailyRollupRepository rollupRepository;
+    private final LeadRepository leadRepository;
+
+    public LeadFunnelServiceImpl(LeadDailyRollupRepository rollupRepository, LeadRepository leadRepository) {
+        this.rollupRepository = rollupRepository;
+        this.leadRepository = leadRepository;
+    }
+
+    @Override
+    public void recordCreated(Lead lead) {
+        record(lead, LeadStatus.NEW, lead.getCreatedDate());
+        if (lead.getStatus() != null && lead.getStatus() != LeadStatus.NEW) {
+            record(lead, lead.getStatus(), lead.getCreatedDate());
+        }
+    }
+
+    @Override
+    public void recordTransition(Lead lead, LeadStatus status) {
+        record(lead, status, lead.getUpdatedDate());
+    }
+
+    @Override
+    public void recordBulkTransition(List<Long> leadIds, LeadStatus status, LocalDateTime updatedDate) {
+        if (leadIds.isEmpty()) {
+            return;
+        }
+        LocalDate day = updatedDate.toLocalDate();
+        for (Object[] group : leadRepository.countTransitionedBySourceAndSalesRep(leadIds, status, updatedDate)) {
+            increment(day, (String) group[0], (Long) group[1], status, ((Number) group[2]).longValue(), updatedDate);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LeadFunnelReport getFunnel(LocalDate fromDate, LocalDate toDate, String source, Long salesRepId) {
+        Map<LeadStatus, Long> stageCounts = new EnumMap<>(LeadStatus.class);
+        for (LeadStatus status : LeadStatus.values()) {
+            stageCounts.put(status, 0L);
+        }
+        for (Object[] row : rollupRepository.sumByStatus(fromDate, toDate, source, salesRepId)) {
+            stageCounts.put((LeadStatus) row[0], ((Number) row[1]).longValue());
+        }
+        double rate = percentage(stageCounts.get(LeadStatus.CONVERTED), stageCounts.get(LeadStatus.NEW));
+        return new LeadFunnelReport(fromDate, toDate, stageCounts, rate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeadConversionRate> getConversionRates(LocalDate fromDate, LocalDate toDate, String groupBy) {
+        List<Object[]> rows = switch (groupBy) {
+            case "source" -> rollupRepository.sumBySourceAndStatus(fromDate, toDate);
+            case "salesRep" -> rollupRepository.sumBySalesRepAndStatus(fromDate, toDate);
+            case "day" -> rollupRepository.sumByDayAndStatus(fromDate, toDate);
+            default -> throw new IllegalArgumentException("Invalid groupBy: " + groupBy + ". Valid values are: source, salesRep, day");
+        };
+
+        Map<String, LeadConversionRate> groups = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String key = String.valueOf(row[0]);
+            LeadConversionRate group = groups.computeIfAbsent(key, LeadConversionRate::new);
+            long count = ((Number) row[2]).longValue();
+            switch ((LeadStatus) row[1]) {
+                case NEW -> group.setCreated(count);
+                case CONTACTED -> group.setContacted(count);
+                case CONVERTED -> group.setConverted(count);
+                case LOST -> group.setLost(count);
+            }
+        }
+
+        List<LeadConversionRate> result = new ArrayList<>(groups.values());
+        result.forEach(group -> group.setConversionRate(percentage(group.getConverted(), group.getCreated())));
+        return result;
+    }
+
+    /**
+     * Count one lead on today's rollup, stamped with the lead timestamp the backfill compares
+     * against, so a lead counted here is never also counted by {@link LeadFunnelRollupBackfill}
+     */
+    private void record(Lead lead, LeadStatus status, LocalDateTime leadTimestamp) {
+        Long salesRepId = lead.getAssignedSalesRep() != null ? lead.getAssignedSalesRep().getId() : null;
+        increment(LocalDate.now(), lead.getSource(), salesRepId, status, 1,
+                leadTimestamp != null ? leadTimestamp : LocalDateTime.now());
+    }
+
+    private void increment(LocalDate day, String source, Long salesRepId, LeadStatus status, long delta,
+                           LocalDateTime countedAt) {
+        rollupRepository.increment(day,
+                source != null ? source : LeadDailyRollup.UNKNOWN_SOURCE,
+                salesRepId != null ? salesRepId : LeadDailyRollup.UNASSIGNED,
+                status.name(),
+                delta,
+                countedAt);
+    }
+
+    private double percentage(long part, long total) {
+        return total > 0 ? Math.round(part * 1000.0 / total) / 10.0 : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.crm.service;
+
+import com.crm.model.Lead;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes the stored score of every open lead. Scores are otherwise only refreshed when a lead or
+ * one of its tasks changes, so untouched leads would keep their freshness points forever and leads
+ * created before scoring existed would keep score 0. Runs once after startup and then nightly, one
+ * chunk per transaction; only changed scores are written, each guarded by the version it was
+ * computed from, so a lead edited meanwhile keeps the score its own update gave it. The write leaves
+ * the version and updated date alone, so a rescore never looks like an edit to clients or the queue.
+ */
+@Component
+public class LeadRescoreJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadRescoreJob.class);
+
+    private final LeadRepository leadRepository;
+    private final TaskRepository taskRepository;
+    private final LeadScoringService leadScoringService;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${crm.leads.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    public LeadRescoreJob(LeadRepository leadRepository, TaskRepository taskRepository,
+                          LeadScoringService leadScoringService, PlatformTransactionManager transactionManager) {
+        this.leadRepository = leadRepository;
+        this.taskRepository = taskRepository;
+        this.leadScoringService = leadScoringService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rescoreAfterStartup() {
+        rescoreAll();
+    }
+
+    @Scheduled(cron = "${crm.leads.rescore.cron:0 15 2 * * *}")
+    public void scheduledRescore() {
+        rescoreAll();
+    }
+
+    /**
+     * Rescore every open lead unless a run is already in progress
+     * @return number of scores changed, or -1 when skipped
+     */
+    public long rescoreAll() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long scanned = 0;
+            long changed = 0;
+            long afterId = 0L;
+            while (true) {
+                long from = afterId;
+                List<Lead> chunk = leadRepository.findByStatusInAfter(from, LeadRepository.FOLLOW_UP_STATUSES,
+                        PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                Integer updated = transactionTemplate.execute(tx -> rescoreChunk(chunk));
+                changed += updated != null ? updated : 0;
+                scanned += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getId();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            logger.info("Rescored {} open leads, {} scores changed, in {} ms",
+                    scanned, changed, System.currentTimeMillis() - start);
+            return changed;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int rescoreChunk(List<Lead> chunk) {
+        Map<Long, long[]> taskCounts = new HashMap<>();
+        for (Object[] row : taskRepository.countTasksByLeadIds(chunk.stream().map(Lead::getId).toList())) {
+            taskCounts.put((Long) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        int updated = 0;
+        for (Lead lead : chunk) {
+            long[] counts = taskCounts.getOrDefault(lead.getId(), new long[2]);
+            int score = leadScoringService.computeScore(lead, counts[0], counts[1], now);
+            if (score != lead.getScore()) {
+                updated += leadRepository.updateScoreIfVersion(lead.getId(), score, lead.getVersion());
+            }
+        }
+        return updated;
+    }
+}
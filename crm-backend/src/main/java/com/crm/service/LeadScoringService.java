@@ -0,0 +1,150 @@
+package com.crm.service;
+
+import com.crm.enums.LeadStatus;
+import com.crm.enums.TaskStatus;
+import com.crm.model.Lead;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes lead priority scores.
+ * Scores are recomputed for a single lead whenever that lead or one of its tasks changes,
+ * so ranking never requires a pass over the whole leads table.
+ */
+@Service
+@Transactional
+public class LeadScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadScoringService.class);
+
+    private static final int DEFAULT_SOURCE_POINTS = 10;
+    private static final int MAX_FRESHNESS_POINTS = 30;
+    private static final int POINTS_PER_COMPLETED_TASK = 5;
+    private static final int MAX_ACTIVITY_POINTS = 25;
+    private static final int POINTS_PER_OPEN_TASK = 2;
+    private static final int MAX_OPEN_TASK_POINTS = 10;
+
+    /**
+     * Points awarded per lead source keyword (matched case-insensitively)
+     */
+    private static final Map<String, Integer> SOURCE_POINTS = Map.of(
+            "referral", 30,
+            "partner", 25,
+            "event", 20,
+            "website", 20,
+            "email", 15,
+            "social", 12,
+            "cold", 5
+    );
+
+    private final LeadRepository leadRepository;
+    private final TaskRepository taskRepository;
+
+    public LeadScoringService(LeadRepository leadRepository, TaskRepository taskRepository) {
+        this.leadRepository = leadRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Recalculate and set the score on the given lead without saving it
+     * @param lead the lead to score
+     * @return the new score
+     */
+    public int applyScore(Lead lead) {
+        long completedTasks = 0;
+        long openTasks = 0;
+        if (lead.getId() != null) {
+            completedTasks = taskRepository.countByLeadIdAndStatus(lead.getId(), TaskStatus.COMPLETED);
+            openTasks = taskRepository.countOpenTasksByLeadId(lead.getId());
+        }
+        int score = computeScore(lead, completedTasks, openTasks, LocalDateTime.now());
+        lead.setScore(score);
+        return score;
+    }
+
+    /**
+     * Calculate the score the lead would have in the given status, without changing the lead
+     * @param lead the lead to score
+     * @param status the status to score it in
+     * @return the score
+     */
+    public int scoreAs(Lead lead, LeadStatus status) {
+        long completedTasks = taskRepository.countByLeadIdAndStatus(lead.getId(), TaskStatus.COMPLETED);
+        long openTasks = taskRepository.countOpenTasksByLeadId(lead.getId());
+        return computeScore(lead, status, completedTasks, openTasks, LocalDateTime.now());
+    }
+
+    /**
+     * Recalculate and persist the score of a lead after related task activity
+     * @param leadId the lead ID, ignored when null
+     */
+    public void rescore(Long leadId) {
+        if (leadId == null) {
+            return;
+        }
+        leadRepository.findById(leadId).ifPresent(lead -> {
+            int previous = lead.getScore();
+            if (applyScore(lead) != previous) {
+                leadRepository.save(lead);
+                logger.debug("Lead {} rescored from {} to {}", leadId, previous, lead.getScore());
+            }
+        });
+    }
+
+    /**
+     * Score a lead from its source, age, status and task activity.
+     * Closed leads (converted or lost) always score zero so they drop out of the queue.
+     */
+    int computeScore(Lead lead, long completedTasks, long openTasks, LocalDateTime now) {
+        return computeScore(lead, lead.getStatus(), completedTasks, openTasks, now);
+    }
+
+    private int computeScore(Lead lead, LeadStatus leadStatus, long completedTasks, long openTasks, LocalDateTime now) {
+        LeadStatus status = leadStatus != null ? leadStatus : LeadStatus.NEW;
+        if (status == LeadStatus.CONVERTED || status == LeadStatus.LOST) {
+            return 0;
+        }
+
+        int score = statusPoints(status) + sourcePoints(lead.getSource());
+
+        LocalDateTime created = lead.getCreatedDate() != null ? lead.getCreatedDate() : now;
+        long ageInDays = Math.max(0, Duration.between(created, now).toDays());
+        score += (int) Math.max(0, MAX_FRESHNESS_POINTS - ageInDays);
+
+        score += (int) Math.min(MAX_ACTIVITY_POINTS, completedTasks * POINTS_PER_COMPLETED_TASK);
+        score += (int) Math.min(MAX_OPEN_TASK_POINTS, openTasks * POINTS_PER_OPEN_TASK);
+        return score;
+    }
+
+    /**
+     * Points contributed by the status of an open lead
+     */
+    public static int statusPoints(LeadStatus status) {
+        return switch (status) {
+            case NEW -> 20;
+            case CONTACTED -> 35;
+            case CONVERTED, LOST -> 0;
+        };
+    }
+
+    private int sourcePoints(String source) {
+        if (source == null || source.isBlank()) {
+            return DEFAULT_SOURCE_POINTS;
+        }
+        String normalized = source.toLowerCase(Locale.ROOT);
+        return SOURCE_POINTS.entrySet().stream()
+                .filter(entry -> normalized.contains(entry.getKey()))
+                .mapToInt(Map.Entry::getValue)
+                .max()
+                .orElse(DEFAULT_SOURCE_POINTS);
+    }
+}
@@ -3,6 +3,8 @@ package com.crm.service;
 
 import com.crm.model.Lead;
 import com.crm.enums.LeadStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -57,9 +59,9 @@ public interface LeadService {
     Long countByStatus(LeadStatus status);
 
     /**
-     * Convert a lead to a customer
+     * Convert a lead to a customer, creating and linking the customer record
      * @param leadId the lead ID to convert
-     * @return the converted customer (you might want to return a Customer object)
+     * @return true if the lead exists and is now converted, false otherwise
      */
     boolean convertToCustomer(Long leadId);
 
@@ -70,8 +72,38 @@ public interface LeadService {
      */
     boolean existsById(Long id);
 
-    Optional<Lead> updateLead(Long id, Lead leadDetails);
+    /**
+     * Replace the editable fields of a lead
+     * @param id the lead ID
+     * @param leadDetails the new field values
+     * @param expectedVersion version the caller last read (If-Match), or null to skip the check
+     * @return the updated lead, or empty if not found
+     */
+    Optional<Lead> updateLead(Long id, Lead leadDetails, Long expectedVersion);
+
+    /**
+     * Change the status of a lead; with an expected version the change is a single conditional UPDATE
+     * @param id the lead ID
+     * @param status the new status
+     * @param expectedVersion version the caller last read (If-Match), or null to skip the check
+     * @return the updated lead, or empty if not found
+     */
+    Optional<Lead> updateStatus(Long id, LeadStatus status, Long expectedVersion);
+
+    /**
+     * Find the open leads with the highest score
+     * @param limit maximum number of leads to return
+     * @param salesRepId optional sales representative ID to restrict the result to
+     * @return leads ordered by descending score
+     */
+    List<Lead> findPrioritized(int limit, Long salesRepId);
 
-    Optional<Lead> updateStatus(Long id, LeadStatus status);
+    /**
+     * Page through the follow-up queue (NEW and CONTACTED leads), oldest update first
+     * @param salesRepId optional sales representative ID whose queue to return
+     * @param pageable the page to fetch
+     * @return a page of leads needing follow-up
+     */
+    Page<Lead> findFollowUpQueue(Long salesRepId, Pageable pageable);
 
 }
@@ -1,11 +1,23 @@
 package com.crm.service.impl;
 
+import com.crm.enums.DomainEventType;
 import com.crm.enums.LeadStatus;
+import com.crm.exceptionhandler.PreconditionFailedException;
 import com.crm.model.Lead;
 import com.crm.repository.LeadRepository;
+import com.crm.service.LeadConversionService;
+import com.crm.service.LeadFunnelService;
+import com.crm.service.LeadScoringService;
 import com.crm.service.LeadService;
+import com.crm.service.OutboxService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +26,19 @@ import java.util.Optional;
 public class LeadServiceImpl implements LeadService {
 
     private final LeadRepository leadRepository;
-
-    public LeadServiceImpl(LeadRepository leadRepository) {
+    private final LeadScoringService leadScoringService;
+    private final LeadConversionService leadConversionService;
+    private final LeadFunnelService leadFunnelService;
+    private final OutboxService outboxService;
+
+    public LeadServiceImpl(LeadRepository leadRepository, LeadScoringService leadScoringService,
+                           LeadConversionService leadConversionService, LeadFunnelService leadFunnelService,
+                           OutboxService outboxService) {
         this.leadRepository = leadRepository;
+        this.leadScoringService = leadScoringService;
+        this.leadConversionService = leadConversionService;
+        this.leadFunnelService = leadFunnelService;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -31,12 +53,25 @@ public class LeadServiceImpl implements LeadService {
 
     @Override
     public Lead save(Lead lead) {
-        return leadRepository.save(lead);
+        boolean isNew = lead.getId() == null;
+        if (isNew && lead.getStatus() == null) {
+            lead.setStatus(LeadStatus.NEW);
+        }
+        leadScoringService.applyScore(lead);
+        Lead savedLead = leadRepository.save(lead);
+        if (isNew) {
+            leadFunnelService.recordCreated(savedLead);
+        }
+        outboxService.leadChanged(isNew ? DomainEventType.LEAD_CREATED : DomainEventType.LEAD_UPDATED, savedLead, null);
+        return savedLead;
     }
 
     @Override
     public void deleteById(Long id) {
-        leadRepository.deleteById(id);
+        leadRepository.findById(id).ifPresent(lead -> {
+            outboxService.leadChanged(DomainEventType.LEAD_DELETED, lead, lead.getStatus());
+            leadRepository.delete(lead);
+        });
     }
 
     @Override
@@ -56,17 +91,8 @@ public class LeadServiceImpl implements LeadService {
 
     @Override
     public boolean convertToCustomer(Long leadId) {
-        Optional<Lead> optional = leadRepository.findById(leadId);
-
-        if (optional.isEmpty()) {
-            return false;
-        }
-
-        Lead lead = optional.get();
-        lead.setStatus(LeadStatus.CONVERTED);
-        leadRepository.save(lead);
-
-        return true;
+        // The conversion writes the LEAD_CONVERTED event itself
+        return leadConversionService.convert(leadId).isPresent();
     }
 
     @Override
@@ -77,35 +103,127 @@ public class LeadServiceImpl implements LeadService {
 
 
     @Override
-    public Optional<Lead> updateLead(Long id, Lead leadDetails) {
+    public Optional<Lead> updateLead(Long id, Lead leadDetails, Long expectedVersion) {
         return leadRepository.findById(id).map(existingLead -> {
+            requireVersion(existingLead, expectedVersion);
+            LeadStatus previousStatus = existingLead.getStatus();
             existingLead.setName(leadDetails.getName());
             existingLead.setContactInfo(leadDetails.getContactInfo());
             existingLead.setSource(leadDetails.getSource());
             existingLead.setStatus(leadDetails.getStatus());
             existingLead.setAssignedSalesRep(leadDetails.getAssignedSalesRep());
-            return leadRepository.save(existingLead);
+            leadScoringService.applyScore(existingLead);
+            // Flushed so updatedDate is the time of the write the funnel stamps the transition with
+            Lead savedLead = leadRepository.saveAndFlush(existingLead);
+            boolean statusChanged = savedLead.getStatus() != null && savedLead.getStatus() != previousStatus;
+            if (statusChanged) {
+                leadFunnelService.recordTransition(savedLead, savedLead.getStatus());
+            }
+            outboxService.leadChanged(statusChanged ? DomainEventType.LEAD_STATUS_CHANGED : DomainEventType.LEAD_UPDATED,
+                    savedLead, previousStatus);
+            return savedLead;
         });
     }
 
     @Override
-    public Optional<Lead> updateStatus(Long id, LeadStatus status) {
+    public Optional<Lead> updateStatus(Long id, LeadStatus status, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return updateStatusIfVersion(id, status, expectedVersion);
+        }
         return leadRepository.findById(id).map(lead -> {
+            LeadStatus previousStatus = lead.getStatus();
             lead.setStatus(status);
-            return leadRepository.save(lead);
+            leadScoringService.applyScore(lead);
+            Lead savedLead = leadRepository.saveAndFlush(lead);
+            if (status != null && status != previousStatus) {
+                leadFunnelService.recordTransition(savedLead, status);
+                outboxService.leadChanged(DomainEventType.LEAD_STATUS_CHANGED, savedLead, previousStatus);
+            }
+            return savedLead;
         });
     }
 
+    /**
+     * Write the status and score with one UPDATE guarded by id and version, so a stale client is rejected
+     * without loading the lead first, and re-read the lead once. The row is locked beforehand so its
+     * previous status is known; the score is shifted by the status points delta as in bulk transitions.
+     * Only reopening a closed lead (which scores zero) needs its full score computed up front.
+     * Re-setting the current status is a no-op: the version stays and no transition or event is recorded.
+     */
+    private Optional<Lead> updateStatusIfVersion(Long id, LeadStatus status, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Object[]> locked = leadRepository.lockStates(List.of(id));
+        LeadStatus previousStatus = !locked.isEmpty() && locked.get(0)[1] != null
+                ? LeadStatus.valueOf((String) locked.get(0)[1]) : null;
+        int updated;
+        if (locked.isEmpty()) {
+            updated = 0;
+        } else if (isClosed(status)) {
+            updated = leadRepository.closeIfVersion(id, status, expectedVersion, now);
+        } else {
+            updated = leadRepository.transitionIfVersion(id, status, scoreDelta(id, previousStatus, status),
+                    expectedVersion, now);
+        }
+        Optional<Lead> current = leadRepository.findById(id);
+        if (updated == 0) {
+            return current.map(lead -> {
+                requireVersion(lead, expectedVersion);
+                return lead;
+            });
+        }
+        Lead lead = current.orElseThrow(() -> new RuntimeException("Lead not found with id: " + id));
+        leadFunnelService.recordTransition(lead, status);
+        outboxService.leadChanged(DomainEventType.LEAD_STATUS_CHANGED, lead, previousStatus);
+        return Optional.of(lead);
+    }
+
+    private int scoreDelta(Long id, LeadStatus previousStatus, LeadStatus status) {
+        if (isClosed(previousStatus)) {
+            return leadRepository.findById(id).map(lead -> leadScoringService.scoreAs(lead, status)).orElse(0);
+        }
+        return LeadScoringService.statusPoints(status)
+                - LeadScoringService.statusPoints(previousStatus != null ? previousStatus : LeadStatus.NEW);
+    }
+
+    private static boolean isClosed(LeadStatus status) {
+        return status == LeadStatus.CONVERTED || status == LeadStatus.LOST;
+    }
+
+    private void requireVersion(Lead lead, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(lead.getVersion())) {
+            throw PreconditionFailedException.staleVersion("Lead", lead.getId(), expectedVersion, lead.getVersion());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Lead> findPrioritized(int limit, Long salesRepId) {
+        PageRequest topN = PageRequest.of(0, Math.max(1, limit));
+        if (salesRepId != null) {
+            return leadRepository.findByAssignedSalesRepIdAndStatusInOrderByScoreDesc(salesRepId, LeadRepository.FOLLOW_UP_STATUSES, topN);
+        }
+        return leadRepository.findByStatusInOrderByScoreDesc(LeadRepository.FOLLOW_UP_STATUSES, topN);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Lead> findFollowUpQueue(Long salesRepId, Pageable pageable) {
+        if (salesRepId != null) {
+            return leadRepository.findByAssignedSalesRepIdAndStatusInOrderByUpdatedDateAsc(
+                    salesRepId, LeadRepository.FOLLOW_UP_STATUSES, pageable);
+        }
+        return leadRepository.findByStatusInOrderByUpdatedDateAsc(LeadRepository.FOLLOW_UP_STATUSES, pageable);
+    }
+
     public LeadStatistics getLeadStatistics() {
         Long totalLeads = leadRepository.count();
         Long newLeads = leadRepository.countByStatus(LeadStatus.NEW);
         Long contactedLeads = leadRepository.countByStatus(LeadStatus.CONTACTED);
         Long convertedLeads = leadRepository.countByStatus(LeadStatus.CONVERTED);
 
-        // Get leads needing follow-up (using the fixed method)
-        List<Lead> leadsNeedingFollowUp = leadRepository.findLeadsNeedingFollowUp();
+        Long leadsNeedingFollowUp = leadRepository.countLeadsNeedingFollowUp();
 
-        return new LeadStatistics(totalLeads, newLeads, contactedLeads, convertedLeads, (long) leadsNeedingFollowUp.size());
+        return new LeadStatistics(totalLeads, newLeads, contactedLeads, convertedLeads, leadsNeedingFollowUp);
     }
 
     // Update LeadStatistics class to include follow-up count:
@@ -0,0 +1,170 @@
+package com.crm.service;
+
+import com.crm.event.DomainEvent;
+import com.crm.event.DomainEventBus;
+import com.crm.event.DomainEventDeliveryException;
+import com.crm.model.OutboxEvent;
+import com.crm.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Drains the outbox into the {@link DomainEventBus}. Each batch is locked, delivered and marked
+ * published in one transaction; rows locked by another instance are skipped, so several
+ * application instances can relay side by side. Delivery is at-least-once. An event whose payload
+ * cannot be read is marked failed and left in the table instead of blocking the events behind it.
+ * <p>
+ * When a sink throws, the batch transaction is rolled back so nothing is marked published, and the
+ * batch is then retried one event per transaction to isolate the event that fails. Each failed
+ * delivery is counted on the row; after {@code crm.outbox.relay.max-attempts} the event is marked
+ * failed (dead-lettered) so it stops holding up the relay. Retried events can overtake a failing one.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DomainEventBus domainEventBus;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${crm.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${crm.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${crm.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, DomainEventBus domainEventBus,
+                       JsonMapper jsonMapper, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.domainEventBus = domainEventBus;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Relay pending events until the outbox is empty. After a failed batch the rest waits for the
+     * next run, so a sink that is down does not burn through every attempt in one go.
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.relay.interval-ms:500}")
+    public void relay() {
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(this::relayBatch);
+            if (batch == null) {
+                return;
+            }
+            for (Long id : batch.retryIds()) {
+                transactionTemplate.executeWithoutResult(status -> relayOne(id));
+            }
+        } while (batch.size() == batchSize && batch.retryIds().isEmpty());
+    }
+
+    /**
+     * Delete published events older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Deleted {} published outbox events", deleted);
+        }
+    }
+
+    private Batch relayBatch(TransactionStatus status) {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return new Batch(0, List.of());
+        }
+        List<DomainEvent> events = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent row : batch) {
+            try {
+                events.add(toEvent(row));
+                ids.add(row.getId());
+            } catch (JacksonException e) {
+                logger.error("Unreadable payload in outbox event {}, marking it failed", row.getId(), e);
+                outboxEventRepository.markFailed(row.getId(), truncate(e.getMessage()), now);
+            }
+        }
+        if (!events.isEmpty()) {
+            try {
+                domainEventBus.publish(events);
+            } catch (DomainEventDeliveryException e) {
+                logger.warn("Delivery of {} outbox events failed, retrying them one at a time: {}",
+                        events.size(), e.getMessage());
+                status.setRollbackOnly();
+                return new Batch(batch.size(), batch.stream().map(OutboxEvent::getId).toList());
+            }
+            outboxEventRepository.markPublished(ids, now);
+            logger.debug("Relayed {} outbox events up to id {}", ids.size(), ids.get(ids.size() - 1));
+        }
+        return new Batch(batch.size(), List.of());
+    }
+
+    private void relayOne(Long id) {
+        Optional<OutboxEvent> locked = outboxEventRepository.lockPending(id);
+        if (locked.isEmpty()) {
+            return;
+        }
+        OutboxEvent row = locked.get();
+        LocalDateTime now = LocalDateTime.now();
+        DomainEvent event;
+        try {
+            event = toEvent(row);
+        } catch (JacksonException e) {
+            logger.error("Unreadable payload in outbox event {}, marking it failed", id, e);
+            outboxEventRepository.markFailed(id, truncate(e.getMessage()), now);
+            return;
+        }
+        try {
+            domainEventBus.publish(List.of(event));
+            outboxEventRepository.markPublished(List.of(id), now);
+        } catch (DomainEventDeliveryException e) {
+            outboxEventRepository.recordFailedAttempt(id, truncate(e.getMessage()), maxAttempts, now);
+            if (row.getAttempts() + 1 >= maxAttempts) {
+                logger.error("Outbox event {} failed delivery {} times, marking it failed", id, maxAttempts, e);
+            }
+        }
+    }
+
+    private DomainEvent toEvent(OutboxEvent row) {
+        return new DomainEvent(row.getId(), row.getEventType(), row.getAggregateId(),
+                jsonMapper.readValue(row.getPayload(), PAYLOAD_TYPE), row.getCreatedAt());
+    }
+
+    /**
+     * Rows locked by one batch, and the ids to retry singly when delivery of the batch failed
+     */
+    private record Batch(int size, List<Long> retryIds) {}
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
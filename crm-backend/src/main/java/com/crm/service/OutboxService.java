@@ -0,0 +1,34 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LeadStatus;
+import com.crm.enums.SaleStatus;
+import com.crm.enums.TaskStatus;
+import com.crm.model.Lead;
+import com.crm.model.Sale;
+import com.crm.model.Task;
+
+/**
+ * Writes domain events to the outbox table. Must be called inside the transaction that makes
+ * the change, so the event is stored if and only if the change commits.
+ */
+public interface OutboxService {
+
+    /**
+     * Record a sale event
+     * @param previousStatus status before the change, or null for creations
+     */
+    void saleChanged(DomainEventType type, Sale sale, SaleStatus previousStatus);
+
+    /**
+     * Record a lead event
+     * @param previousStatus status before the change, or null for creations
+     */
+    void leadChanged(DomainEventType type, Lead lead, LeadStatus previousStatus);
+
+    /**
+     * Record a task event
+     * @param previousStatus status before the change, or null for creations
+     */
+    void taskChanged(DomainEventType type, Task task, TaskStatus previousStatus);
+}
@@ -0,0 +1,88 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LeadStatus;
+import com.crm.enums.SaleStatus;
+import com.crm.enums.TaskStatus;
+import com.crm.enums.VersionedResource;
+import com.crm.model.Lead;
+import com.crm.model.OutboxEvent;
+import com.crm.model.Sale;
+import com.crm.model.Task;
+import com.crm.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final CollectionChangeService collectionChangeService;
+    private final JsonMapper jsonMapper;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             CollectionChangeService collectionChangeService, JsonMapper jsonMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.collectionChangeService = collectionChangeService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public void saleChanged(DomainEventType type, Sale sale, SaleStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", sale.getStatus());
+        payload.put("previousStatus", previousStatus);
+        payload.put("amount", sale.getAmount() != null ? sale.getAmount().toDecimal().toPlainString() : null);
+        payload.put("currency", sale.getCurrency());
+        payload.put("date", sale.getDate() != null ? sale.getDate().toString() : null);
+        payload.put("salesRepId", sale.getAssignedSalesRep() != null ? sale.getAssignedSalesRep().getId() : null);
+        payload.put("customerId", sale.getCustomer() != null ? sale.getCustomer().getId() : null);
+        write(type, sale.getId(), payload, VersionedResource.SALES);
+    }
+
+    @Override
+    public void leadChanged(DomainEventType type, Lead lead, LeadStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("name", lead.getName());
+        payload.put("status", lead.getStatus());
+        payload.put("previousStatus", previousStatus);
+        payload.put("source", lead.getSource());
+        payload.put("score", lead.getScore());
+        payload.put("salesRepId", lead.getAssignedSalesRep() != null ? lead.getAssignedSalesRep().getId() : null);
+        payload.put("convertedCustomerId", lead.getConvertedCustomerId());
+        write(type, lead.getId(), payload, VersionedResource.LEADS);
+    }
+
+    @Override
+    public void taskChanged(DomainEventType type, Task task, TaskStatus previousStatus) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("title", task.getTitle());
+        payload.put("status", task.getStatus());
+        payload.put("previousStatus", previousStatus);
+        payload.put("priority", task.getPriority());
+        payload.put("dueDate", task.getDueDate() != null ? task.getDueDate().toString() : null);
+        payload.put("assignedToId", task.getAssignedTo() != null ? task.getAssignedTo().getId() : null);
+        payload.put("leadId", task.getLead() != null ? task.getLead().getId() : null);
+        write(type, task.getId(), payload, VersionedResource.TASKS);
+    }
+
+    /**
+     * Every sale, lead and task change writes an event here, in its own transaction, so this is also
+     * where the change is counted for the collection ETag
+     */
+    private void write(DomainEventType type, Long aggregateId, Map<String, Object> payload, VersionedResource resource) {
+        collectionChangeService.recordChange(resource.getTable());
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, aggregateId, jsonMapper.writeValueAsString(payload)));
+        } catch (JacksonException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event for " + aggregateId, e);
+        }
+    }
+}
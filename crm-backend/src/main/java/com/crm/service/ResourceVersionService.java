@@ -0,0 +1,24 @@
+package com.crm.service;
+
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
+
+import java.util.Optional;
+
+/**
+ * Cheap validator lookups so conditional GETs can be answered with 304 before any entity is loaded
+ */
+public interface ResourceVersionService {
+
+    /**
+     * Version and last change of one record
+     * @return empty when the record does not exist
+     */
+    Optional<ResourceVersion> getRecordVersion(VersionedResource resource, Long id);
+
+    /**
+     * Fingerprint of a whole collection, changing whenever a row in it, or in a table embedded in its
+     * list responses, is inserted, updated or deleted
+     */
+    ResourceVersion getCollectionVersion(VersionedResource resource);
+}
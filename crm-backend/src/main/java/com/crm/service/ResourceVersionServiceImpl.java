@@ -0,0 +1,107 @@
+package com.crm.service;
+
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads validators with single-row queries. A collection fingerprint is, for each table involved, its
+ * change counter (see {@link CollectionChangeService}) and latest updated_date, read in one statement
+ * of primary-key and index lookups. The counter catches deletes and changes committed out of
+ * updated_date order; the maximum is a safety net for any write path that sets updated_date but does
+ * not record itself. This replaced a COUNT(*) per table, which scanned an index on every list GET.
+ * Collections carry no last-modified time, since a delete does not move it and If-Modified-Since
+ * would then answer 304 for a changed list.
+ * Validators are read in read-only transactions, so they come from the same database as the
+ * read-only body queries (the replica, unless the client is pinned to the primary). Controllers
+ * read the validator before the body, so a body is never older than the tag it is cached under.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    /**
+     * Tables with an indexed updated_date; users have neither that column nor record validators
+     */
+    private static final Set<String> TIMESTAMPED_TABLES = Arrays.stream(VersionedResource.values())
+            .map(VersionedResource::getTable)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResourceVersionServiceImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Optional<ResourceVersion> getRecordVersion(VersionedResource resource, Long id) {
+        List<ResourceVersion> versions = jdbcTemplate.query(
+                "SELECT version, updated_date FROM " + resource.getTable() + " WHERE id = ?",
+                (rs, rowNum) -> new ResourceVersion(Long.toString(rs.getLong(1)), rs.getObject(2, LocalDateTime.class)),
+                id);
+        return versions.stream().findFirst();
+    }
+
+    @Override
+    public ResourceVersion getCollectionVersion(VersionedResource resource) {
+        List<String> tables = collectionTables(resource);
+        String tag = jdbcTemplate.queryForObject(collectionQuery(tables), (rs, rowNum) -> {
+            StringBuilder fingerprint = new StringBuilder();
+            int column = 1;
+            for (String table : tables) {
+                if (!fingerprint.isEmpty()) {
+                    fingerprint.append('-');
+                }
+                fingerprint.append(rs.getLong(column++));
+                if (TIMESTAMPED_TABLES.contains(table)) {
+                    LocalDateTime modified = rs.getObject(column++, LocalDateTime.class);
+                    fingerprint.append('.')
+                            .append(modified != null ? modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0);
+                }
+            }
+            return fingerprint.toString();
+        });
+        return new ResourceVersion(tag, null);
+    }
+
+    /**
+     * One row with the change counter, and the latest updated_date where the table has one, of each table
+     */
+    static String collectionQuery(List<String> tables) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String table : tables) {
+            if (sql.length() > "SELECT ".length()) {
+                sql.append(", ");
+            }
+            sql.append("COALESCE((SELECT changes FROM collection_versions WHERE table_name = '").append(table).append("'), 0)");
+            if (TIMESTAMPED_TABLES.contains(table)) {
+                sql.append(", (SELECT MAX(updated_date) FROM ").append(table).append(')');
+            }
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Tables whose changes alter a collection's list responses
+     */
+    static List<String> collectionTables(VersionedResource resource) {
+        return switch (resource) {
+            case CUSTOMERS -> List.of(resource.getTable());
+            // Leads embed their sales rep, sales their customer and sales rep, tasks their lead and assignee
+            case LEADS -> List.of(resource.getTable(), CollectionChangeService.USERS);
+            case SALES -> List.of(resource.getTable(), VersionedResource.CUSTOMERS.getTable(), CollectionChangeService.USERS);
+            case TASKS -> List.of(resource.getTable(), VersionedResource.LEADS.getTable(), CollectionChangeService.USERS);
+        };
+    }
+}
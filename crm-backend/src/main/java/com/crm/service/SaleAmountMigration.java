@@ -0,0 +1,134 @@
+package com.crm.service;
+
+import com.crm.enums.VersionedResource;
+import com.crm.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies amounts still held only in the legacy sales.amount DOUBLE column into amount_minor after
+ * startup, and gives rows whose currency was added empty the default currency. Only rows without
+ * amount_minor are touched, so amounts written since the switch win and a rerun does nothing.
+ * When anything changed the revenue buckets of the affected days are corrected and the forecast
+ * cache is dropped.
+ * Once no row is left without amount_minor the legacy column can be dropped.
+ */
+@Component
+public class SaleAmountMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleAmountMigration.class);
+
+    private static final String COLUMN_EXISTS =
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = DATABASE() AND table_name = 'sales' AND column_name = 'amount'";
+
+    private static final String FILL_CURRENCY =
+            "UPDATE sales SET currency = :currency WHERE currency IS NULL OR currency = ''";
+
+    private static final String UPDATE_AMOUNT =
+            "UPDATE sales SET amount_minor = :amountMinor WHERE id = :id AND amount_minor IS NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SaleRevenueBucketBackfill saleRevenueBucketBackfill;
+    private final SaleForecastService saleForecastService;
+    private final SaleAnalyticsService saleAnalyticsService;
+    private final CollectionChangeService collectionChangeService;
+
+    @Value("${crm.sales.amount.migration.batch-size:1000}")
+    private int batchSize;
+
+    public SaleAmountMigration(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               SaleRevenueBucketBackfill saleRevenueBucketBackfill, SaleForecastService saleForecastService,
+                               SaleAnalyticsService saleAnalyticsService, CollectionChangeService collectionChangeService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.saleRevenueBucketBackfill = saleRevenueBucketBackfill;
+        this.collectionChangeService = collectionChangeService;
+        this.saleForecastService = saleForecastService;
+        this.saleAnalyticsService = saleAnalyticsService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long start = System.currentTimeMillis();
+        long total = jdbcTemplate.update(FILL_CURRENCY,
+                new MapSqlParameterSource("currency", Money.DEFAULT_CURRENCY));
+        Integer exists = jdbcTemplate.queryForObject(COLUMN_EXISTS, new MapSqlParameterSource(), Integer.class);
+        if (exists != null && exists > 0) {
+            long afterId = 0;
+            Batch batch;
+            do {
+                long from = afterId;
+                batch = transactionTemplate.execute(tx -> moveBatch(from));
+                if (batch == null) {
+                    break;
+                }
+                total += batch.moved();
+                afterId = batch.lastId();
+            } while (batch.moved() == batchSize);
+        }
+        if (total == 0) {
+            return;
+        }
+        // Currencies and amounts show in sale lists, so committed batches move the collection ETag
+        collectionChangeService.recordChange(VersionedResource.SALES.getTable());
+        int days = saleRevenueBucketBackfill.reconcile();
+        saleForecastService.invalidate();
+        saleAnalyticsService.refresh();
+        logger.info("Backfilled {} sale amounts/currencies and corrected revenue buckets of {} days in {} ms",
+                total, days, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Convert the next batch of rows after {@code afterId} that have a legacy amount but no amount_minor.
+     * The legacy value is a double, so it is rounded half up to the currency's minor unit.
+     */
+    private Batch moveBatch(long afterId) {
+        String select = "SELECT id, amount, currency FROM sales " +
+                "WHERE id > :afterId AND amount_minor IS NULL AND amount IS NOT NULL " +
+                "ORDER BY id LIMIT " + batchSize + " FOR UPDATE";
+        List<SqlParameterSource> updates = new ArrayList<>();
+        long[] lastId = {afterId};
+        jdbcTemplate.query(select, new MapSqlParameterSource("afterId", afterId), rs -> {
+            long id = rs.getLong(1);
+            String currency = rs.getString(3);
+            int fractionDigits = Money.fractionDigits(currency != null && !currency.isBlank()
+                    ? currency : Money.DEFAULT_CURRENCY);
+            long minorUnits = BigDecimal.valueOf(rs.getDouble(2))
+                    .setScale(fractionDigits, RoundingMode.HALF_UP)
+                    .movePointRight(fractionDigits)
+                    .longValueExact();
+            lastId[0] = id;
+            updates.add(new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("amountMinor", minorUnits));
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_AMOUNT, updates.toArray(SqlParameterSource[]::new));
+        }
+        return new Batch(updates.size(), lastId[0]);
+    }
+
+    /**
+     * Rows converted in one batch and the last id read
+     */
+    private record Batch(int moved, long lastId) {
+    }
+}
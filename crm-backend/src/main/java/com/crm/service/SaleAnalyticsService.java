@@ -0,0 +1,29 @@
+package com.crm.service;
+
+import com.crm.dto.SaleAnalyticsResult;
+import com.crm.enums.SaleStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SaleAnalyticsService {
+
+    /**
+     * Filter, group and sum sales from the in-memory snapshot
+     * @param fromDate optional first sale date included
+     * @param toDate optional last sale date included
+     * @param statuses optional statuses to include, all when empty
+     * @param salesRepId optional sales representative filter
+     * @param customerId optional customer filter
+     * @param currency currency of the amounts to sum
+     * @param groupBy none, status, salesRep, customer, day or month
+     * @return count and amount per non-empty group
+     */
+    SaleAnalyticsResult query(LocalDate fromDate, LocalDate toDate, List<SaleStatus> statuses,
+                              Long salesRepId, Long customerId, String currency, String groupBy);
+
+    /**
+     * Reload the snapshot from the sales table
+     */
+    void refresh();
+}
@@ -0,0 +1,248 @@
+package com.crm.service;
+
+import com.crm.dto.RevenueTotal;
+import com.crm.dto.SaleAnalyticsResult;
+import com.crm.enums.SaleStatus;
+import com.crm.model.Money;
+import com.crm.model.SaleRevenueBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Answers slice-and-dice sales questions from a columnar snapshot of the sales table held in memory.
+ * The snapshot is reloaded on a fixed delay; queries split it into fixed-size row ranges and scan
+ * them in parallel on the common fork-join pool. There is one worker per pool thread, each taking
+ * every n-th range and summing into a single primitive accumulator of its own, so a query allocates
+ * one accumulator per worker rather than one per range, however many groups it has.
+ */
+@Service
+public class SaleAnalyticsServiceImpl implements SaleAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleAnalyticsServiceImpl.class);
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_DAY_GROUPS = 3660;
+    private static final int ANY = Integer.MIN_VALUE;
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final String SELECT_SALES =
+            "SELECT amount_minor, currency, date, status, assigned_sales_rep_id, customer_id FROM sales " +
+            "WHERE amount_minor IS NOT NULL AND date IS NOT NULL AND status IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private volatile SalesColumnarSnapshot snapshot;
+
+    public SaleAnalyticsServiceImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Batches from a server-side cursor; MySQL Connector/J needs useCursorFetch=true on the URL for this
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
+    @Override
+    public SaleAnalyticsResult query(LocalDate fromDate, LocalDate toDate, List<SaleStatus> statuses,
+                                     Long salesRepId, Long customerId, String currency, String groupBy) {
+        Dimension dimension = Dimension.parse(groupBy);
+        SalesColumnarSnapshot current = currentSnapshot();
+        String label = groupBy.toLowerCase(Locale.ROOT);
+        if (current.size == 0) {
+            return new SaleAnalyticsResult(current.takenAt, 0, 0, 0, label, List.of());
+        }
+
+        int fromDay = fromDate != null ? (int) fromDate.toEpochDay() : current.minEpochDay;
+        int toDay = toDate != null ? (int) toDate.toEpochDay() : current.maxEpochDay;
+        int currencyIndex = current.currencyIndex(currency != null ? currency.toUpperCase(Locale.ROOT) : Money.DEFAULT_CURRENCY);
+        int salesRepIndex = salesRepId != null ? current.salesRepIndex(salesRepId) : ANY;
+        int customerIndex = customerId != null ? current.customerIndex(customerId) : ANY;
+        if (fromDay > toDay || currencyIndex == SalesColumnarSnapshot.NONE
+                || salesRepIndex == SalesColumnarSnapshot.NONE || customerIndex == SalesColumnarSnapshot.NONE) {
+            return new SaleAnalyticsResult(current.takenAt, current.size, 0, 0, label, List.of());
+        }
+
+        boolean[] statusMask = new boolean[SaleStatus.values().length];
+        for (SaleStatus status : SaleStatus.values()) {
+            statusMask[status.ordinal()] = statuses == null || statuses.isEmpty() || statuses.contains(status);
+        }
+        int fromMonth = SalesColumnarSnapshot.epochMonth(LocalDate.ofEpochDay(fromDay));
+        int toMonth = SalesColumnarSnapshot.epochMonth(LocalDate.ofEpochDay(toDay));
+        Filter filter = new Filter(fromDay, toDay, fromMonth, statusMask, currencyIndex, salesRepIndex, customerIndex);
+        int groups = dimension.groupCount(current, fromDay, toDay, fromMonth, toMonth);
+
+        long start = System.nanoTime();
+        int chunks = (current.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        // The calling thread joins in, so the pool's parallelism plus one
+        int workers = Math.min(chunks, ForkJoinPool.getCommonPoolParallelism() + 1);
+        long[] totals = IntStream.range(0, workers).parallel()
+                .mapToObj(worker -> scanChunks(current, worker, workers, chunks, filter, dimension, groups))
+                .reduce(SaleAnalyticsServiceImpl::merge)
+                .orElseGet(() -> new long[groups * 2]);
+        double scanMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        String currencyCode = current.currencies[currencyIndex];
+        List<RevenueTotal> result = new ArrayList<>();
+        long matched = 0;
+        for (int group = 0; group < groups; group++) {
+            long count = totals[group * 2];
+            if (count > 0) {
+                matched += count;
+                result.add(new RevenueTotal(dimension.key(current, group, groups, fromDay, fromMonth), currencyCode,
+                        count, Money.ofMinor(totals[group * 2 + 1], currencyCode).toDecimal()));
+            }
+        }
+        return new SaleAnalyticsResult(current.takenAt, current.size, matched, scanMillis, label, result);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${crm.sales.analytics.refresh-interval-ms:300000}",
+            initialDelayString = "${crm.sales.analytics.initial-delay-ms:30000}")
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        Integer expectedRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales", Integer.class);
+        SalesColumnarSnapshot.Builder builder = new SalesColumnarSnapshot.Builder(expectedRows != null ? expectedRows : 0);
+        streamingJdbcTemplate.query(SELECT_SALES, rs -> {
+            long salesRepId = rs.getLong(5);
+            boolean noSalesRep = rs.wasNull();
+            long customerId = rs.getLong(6);
+            boolean noCustomer = rs.wasNull();
+            builder.add(rs.getLong(1), rs.getObject(3, LocalDate.class),
+                    SaleStatus.valueOf(rs.getString(4)).ordinal(), rs.getString(2),
+                    noSalesRep ? null : salesRepId, noCustomer ? null : customerId);
+        });
+        snapshot = builder.build(LocalDateTime.now());
+        logger.info("Sales analytics snapshot loaded with {} rows in {} ms",
+                snapshot.size, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Serve queries from a prebuilt snapshot instead of the sales table; used by the benchmarks
+     */
+    void useSnapshot(SalesColumnarSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    private SalesColumnarSnapshot currentSnapshot() {
+        SalesColumnarSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sum every {@code workers}-th row range, starting at {@code worker}, into one accumulator holding
+     * (count, amount) pairs per group. Interleaving the ranges keeps the workers' shares even.
+     */
+    private static long[] scanChunks(SalesColumnarSnapshot s, int worker, int workers, int chunks, Filter f,
+                                     Dimension dimension, int groups) {
+        long[] acc = new long[groups * 2];
+        for (int chunk = worker; chunk < chunks; chunk += workers) {
+            scanChunk(s, chunk, f, dimension, groups, acc);
+        }
+        return acc;
+    }
+
+    private static void scanChunk(SalesColumnarSnapshot s, int chunk, Filter f, Dimension dimension, int groups,
+                                  long[] acc) {
+        int end = Math.min(s.size, (chunk + 1) * CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            int day = s.epochDay[i];
+            if (day < f.fromDay() || day > f.toDay() || s.currency[i] != f.currency() || !f.statusMask()[s.status[i]]) {
+                continue;
+            }
+            if ((f.salesRep() != ANY && s.salesRep[i] != f.salesRep())
+                    || (f.customer() != ANY && s.customer[i] != f.customer())) {
+                continue;
+            }
+            int group = switch (dimension) {
+                case NONE -> 0;
+                case STATUS -> s.status[i];
+                case SALES_REP -> s.salesRep[i] == SalesColumnarSnapshot.NONE ? groups - 1 : s.salesRep[i];
+                case CUSTOMER -> s.customer[i] == SalesColumnarSnapshot.NONE ? groups - 1 : s.customer[i];
+                case DAY -> day - f.fromDay();
+                case MONTH -> s.epochMonth[i] - f.fromMonth();
+            };
+            acc[group * 2]++;
+            acc[group * 2 + 1] = Math.addExact(acc[group * 2 + 1], s.amountMinor[i]);
+        }
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] = Math.addExact(left[i], right[i]);
+        }
+        return left;
+    }
+
+    /**
+     * Row filter resolved against the snapshot dictionaries; {@link #ANY} disables the rep and customer filters
+     */
+    private record Filter(int fromDay, int toDay, int fromMonth, boolean[] statusMask,
+                          int currency, int salesRep, int customer) {
+    }
+
+    private enum Dimension {
+        NONE, STATUS, SALES_REP, CUSTOMER, DAY, MONTH;
+
+        static Dimension parse(String groupBy) {
+            return switch (groupBy.toLowerCase(Locale.ROOT)) {
+                case "none" -> NONE;
+                case "status" -> STATUS;
+                case "salesrep" -> SALES_REP;
+                case "customer" -> CUSTOMER;
+                case "day" -> DAY;
+                case "month" -> MONTH;
+                default -> throw new IllegalArgumentException(
+                        "Unsupported groupBy: " + groupBy + " (expected none, status, salesRep, customer, day or month)");
+            };
+        }
+
+        /**
+         * Number of groups; sales rep and customer reserve the last group for sales without one
+         */
+        int groupCount(SalesColumnarSnapshot s, int fromDay, int toDay, int fromMonth, int toMonth) {
+            return switch (this) {
+                case NONE -> 1;
+                case STATUS -> SaleStatus.values().length;
+                case SALES_REP -> s.salesRepIds.length + 1;
+                case CUSTOMER -> s.customerIds.length + 1;
+                case DAY -> {
+                    if (toDay - fromDay + 1 > MAX_DAY_GROUPS) {
+                        throw new IllegalArgumentException("Grouping by day supports at most " + MAX_DAY_GROUPS + " days");
+                    }
+                    yield toDay - fromDay + 1;
+                }
+                case MONTH -> toMonth - fromMonth + 1;
+            };
+        }
+
+        String key(SalesColumnarSnapshot s, int group, int groups, int fromDay, int fromMonth) {
+            return switch (this) {
+                case NONE -> "all";
+                case STATUS -> SaleStatus.values()[group].name();
+                case SALES_REP -> String.valueOf(group == groups - 1 ? SaleRevenueBucket.NONE : s.salesRepIds[group]);
+                case CUSTOMER -> String.valueOf(group == groups - 1 ? SaleRevenueBucket.NONE : s.customerIds[group]);
+                case DAY -> LocalDate.ofEpochDay(fromDay + group).toString();
+                case MONTH -> SalesColumnarSnapshot.monthStart(fromMonth + group).toString();
+            };
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.crm.service;
+
+import com.crm.enums.SaleStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SaleExportService {
+
+    /**
+     * Write matching sales as CSV, one row at a time, to the given stream
+     * @param fromDate optional first sale date included
+     * @param toDate optional last sale date included
+     * @param statuses optional statuses to include, all when empty
+     * @param out destination; flushed but not closed
+     * @return number of rows written
+     */
+    long exportCsv(LocalDate fromDate, LocalDate toDate, List<SaleStatus> statuses, OutputStream out) throws IOException;
+}
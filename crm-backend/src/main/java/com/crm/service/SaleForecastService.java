@@ -0,0 +1,19 @@
+package com.crm.service;
+
+import com.crm.dto.SalesForecast;
+
+public interface SaleForecastService {
+
+    /**
+     * Forecast of open sales weighted by stage probability, per sales representative and expected close month
+     * @param currency currency of the sales to include
+     * @param horizonMonths number of months after the current one to include
+     * @return the forecast, served from cache until the next sale change
+     */
+    SalesForecast getForecast(String currency, int horizonMonths);
+
+    /**
+     * Drop cached forecasts; call whenever a sale is created, changed or deleted
+     */
+    void invalidate();
+}
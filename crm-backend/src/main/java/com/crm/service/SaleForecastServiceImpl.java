@@ -0,0 +1,222 @@
+package com.crm.service;
+
+import com.crm.dto.SalesForecast;
+import com.crm.dto.SalesForecastEntry;
+import com.crm.enums.SaleStatus;
+import com.crm.model.Money;
+import com.crm.model.SaleRevenueBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forecasts open sales by weighting each amount with the probability of its stage closing.
+ * Open sales are read in one streamed pass ordered by sales representative, so only one
+ * representative's monthly accumulators are held at a time. Results are cached per currency
+ * and horizon until a sale changes.
+ */
+@Service
+public class SaleForecastServiceImpl implements SaleForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleForecastServiceImpl.class);
+
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final int MAX_HORIZON_MONTHS = 24;
+    private static final long BASIS_POINTS = 10_000;
+
+    /**
+     * Chance, in basis points, that a sale in each open stage closes
+     */
+    private static final Map<SaleStatus, Integer> STAGE_PROBABILITY = new EnumMap<>(Map.of(
+            SaleStatus.PROPOSAL, 2_000,
+            SaleStatus.PENDING, 4_000,
+            SaleStatus.APPROVED, 7_000,
+            SaleStatus.PAYMENT_PENDING, 9_000,
+            SaleStatus.ON_HOLD, 1_000
+    ));
+
+    private static final String SELECT_OPEN_SALES =
+            "SELECT assigned_sales_rep_id, status, amount_minor, COALESCE(expected_close_date, date) AS close_date " +
+            "FROM sales WHERE currency = :currency AND status IN (:statuses) AND amount_minor IS NOT NULL " +
+            "AND COALESCE(expected_close_date, date) <= :horizonEnd " +
+            "ORDER BY assigned_sales_rep_id";
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final Map<String, SalesForecast> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public SaleForecastServiceImpl(DataSource dataSource) {
+        // Batches from a server-side cursor; MySQL Connector/J needs useCursorFetch=true on the URL for this
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(STREAMING_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    @Override
+    public SalesForecast getForecast(String currency, int horizonMonths) {
+        if (horizonMonths < 0 || horizonMonths > MAX_HORIZON_MONTHS) {
+            throw new IllegalArgumentException("Forecast horizon must be between 0 and " + MAX_HORIZON_MONTHS + " months");
+        }
+        String code = currency != null ? currency.trim().toUpperCase(Locale.ROOT) : Money.DEFAULT_CURRENCY;
+        String key = code + ":" + horizonMonths;
+        SalesForecast cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        SalesForecast forecast = compute(code, horizonMonths);
+        // A sale changed while computing; serve this result but do not cache it
+        if (generation.get() == observedGeneration) {
+            cache.put(key, forecast);
+        }
+        return forecast;
+    }
+
+    @Override
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evict again once the change is visible, in case a forecast was computed from pre-commit data
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private SalesForecast compute(String currency, int horizonMonths) {
+        long start = System.currentTimeMillis();
+        LocalDate fromMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate toMonth = fromMonth.plusMonths(horizonMonths);
+        LocalDate horizonEnd = toMonth.plusMonths(1).minusDays(1);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("currency", currency)
+                .addValue("statuses", STAGE_PROBABILITY.keySet().stream().map(Enum::name).toList())
+                .addValue("horizonEnd", horizonEnd);
+        ForecastAccumulator accumulator = new ForecastAccumulator(currency, fromMonth, horizonMonths + 1);
+        streamingJdbcTemplate.query(SELECT_OPEN_SALES, params, accumulator);
+        accumulator.flush();
+
+        logger.debug("Computed {} forecast over {} months in {} ms",
+                currency, horizonMonths + 1, System.currentTimeMillis() - start);
+        return new SalesForecast(LocalDateTime.now(), currency, fromMonth, toMonth,
+                accumulator.toDecimal(accumulator.totalPipeline),
+                accumulator.toDecimal(weighted(accumulator.totalWeighted)),
+                accumulator.entries);
+    }
+
+    private static long weighted(long amountTimesBasisPoints) {
+        return BigDecimal.valueOf(amountTimesBasisPoints)
+                .divide(BigDecimal.valueOf(BASIS_POINTS), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * Sums the rows of one sales representative into per-month primitive arrays and emits
+     * entries when the representative changes. Weighted sums are kept as amount times basis
+     * points so rounding happens once per entry.
+     */
+    private static final class ForecastAccumulator implements RowCallbackHandler {
+
+        private final String currency;
+        private final LocalDate fromMonth;
+        private final long[] counts;
+        private final long[] pipeline;
+        private final long[] weighted;
+        private final List<SalesForecastEntry> entries = new ArrayList<>();
+
+        private long salesRepId = -1;
+        private long totalPipeline;
+        private long totalWeighted;
+
+        ForecastAccumulator(String currency, LocalDate fromMonth, int months) {
+            this.currency = currency;
+            this.fromMonth = fromMonth;
+            this.counts = new long[months];
+            this.pipeline = new long[months];
+            this.weighted = new long[months];
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rep = rs.getLong(1);
+            if (rs.wasNull()) {
+                rep = SaleRevenueBucket.NONE;
+            }
+            if (rep != salesRepId) {
+                flush();
+                salesRepId = rep;
+            }
+
+            long amount = rs.getLong(3);
+            int probability = STAGE_PROBABILITY.get(SaleStatus.valueOf(rs.getString(2)));
+            Date closeDate = rs.getDate(4);
+            int month = (int) ChronoUnit.MONTHS.between(fromMonth, closeDate.toLocalDate().withDayOfMonth(1));
+            if (month < 0) {
+                // Expected close date already passed: forecast it this month at half its stage probability
+                month = 0;
+                probability /= 2;
+            }
+
+            counts[month]++;
+            pipeline[month] = Math.addExact(pipeline[month], amount);
+            weighted[month] = Math.addExact(weighted[month], Math.multiplyExact(amount, probability));
+        }
+
+        void flush() {
+            if (salesRepId < 0) {
+                return;
+            }
+            for (int month = 0; month < counts.length; month++) {
+                if (counts[month] > 0) {
+                    entries.add(new SalesForecastEntry(salesRepId, fromMonth.plusMonths(month), counts[month],
+                            toDecimal(pipeline[month]), toDecimal(weighted(weighted[month]))));
+                    totalPipeline = Math.addExact(totalPipeline, pipeline[month]);
+                    totalWeighted = Math.addExact(totalWeighted, weighted[month]);
+                }
+            }
+            Arrays.fill(counts, 0);
+            Arrays.fill(pipeline, 0);
+            Arrays.fill(weighted, 0);
+            salesRepId = -1;
+        }
+
+        BigDecimal toDecimal(long minorUnits) {
+            return Money.ofMinor(minorUnits, currency).toDecimal();
+        }
+    }
+}
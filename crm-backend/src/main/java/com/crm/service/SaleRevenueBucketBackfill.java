@@ -0,0 +1,55 @@
+package com.crm.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fills the revenue buckets for sales written before the buckets existed. After startup the day
+ * buckets are compared with the sales table per day and currency, and only the days that disagree
+ * are corrected, each in its own short transaction through the same upsert sale writes use, so
+ * the check is a no-op once they match and never rebuilds buckets that live traffic is updating.
+ */
+@Component
+public class SaleRevenueBucketBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleRevenueBucketBackfill.class);
+
+    private final SaleRevenueService saleRevenueService;
+
+    public SaleRevenueBucketBackfill(SaleRevenueService saleRevenueService) {
+        this.saleRevenueService = saleRevenueService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        reconcile();
+    }
+
+    /**
+     * Correct the buckets of every day that disagrees with the sales table
+     * @return number of days corrected
+     */
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        List<LocalDate> days = saleRevenueService.findUnreconciledDays();
+        int corrected = 0;
+        for (LocalDate day : days) {
+            if (saleRevenueService.reconcileDay(day) > 0) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            logger.info("Reconciled revenue buckets for {} of {} days in {} ms",
+                    corrected, days.size(), System.currentTimeMillis() - start);
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,78 @@
+package com.crm.service;
+
+import com.crm.dto.RevenueTotal;
+import com.crm.enums.BucketGranularity;
+import com.crm.enums.SaleStatus;
+import com.crm.model.Sale;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SaleRevenueService {
+
+    /**
+     * Add a sale to its revenue buckets
+     * @param sale the saved sale
+     */
+    void record(Sale sale);
+
+    /**
+     * Remove a sale from its revenue buckets; call with the sale's current values before changing or deleting it
+     * @param sale the sale as currently stored
+     */
+    void reverse(Sale sale);
+
+    /**
+     * Days whose day buckets disagree with the sales table in sale count or amount for some currency,
+     * e.g. because the sales were written before the buckets existed
+     * @return the days, oldest first
+     */
+    List<LocalDate> findUnreconciledDays();
+
+    /**
+     * Bring the buckets of one day in line with the sales table by applying the difference to its
+     * day, week and month buckets
+     * @param day the sale date to reconcile
+     * @return number of bucket keys corrected
+     */
+    int reconcileDay(LocalDate day);
+
+    /**
+     * Sale count and amount per bucket in a date range
+     * @param granularity bucket size
+     * @param fromDate first bucket start included
+     * @param toDate last bucket start included
+     * @param salesRepId optional sales representative filter
+     * @param customerId optional customer filter
+     * @param status optional status filter
+     * @return one entry per non-empty bucket, oldest first
+     */
+    List<RevenueTotal> getTimeSeries(BucketGranularity granularity, LocalDate fromDate, LocalDate toDate,
+                                     Long salesRepId, Long customerId, SaleStatus status);
+
+    /**
+     * Sales representatives with the highest amount of completed sales in a date range
+     * @param granularity bucket size used to resolve the range
+     * @param fromDate first bucket start included
+     * @param toDate last bucket start included
+     * @param limit number of representatives to return
+     * @return representatives ordered by descending amount
+     */
+    List<RevenueTotal> getTopSalesReps(BucketGranularity granularity, LocalDate fromDate, LocalDate toDate, int limit);
+
+    /**
+     * Count and amount of open (not completed, cancelled or refunded) sales per status
+     * @param salesRepId optional sales representative filter
+     * @return one entry per open status
+     */
+    List<RevenueTotal> getPipelineValue(Long salesRepId);
+
+    /**
+     * Exact sale count and amount per currency, summed over every matching sale row
+     * @param fromDate first sale date included
+     * @param toDate last sale date included
+     * @param status optional status filter
+     * @return one entry per currency, keyed by currency code
+     */
+    List<RevenueTotal> getExactTotals(LocalDate fromDate, LocalDate toDate, SaleStatus status);
+}
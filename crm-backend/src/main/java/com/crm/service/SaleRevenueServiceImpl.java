@@ -0,0 +1,228 @@
+package com.crm.service;
+
+import com.crm.dto.RevenueTotal;
+import com.crm.enums.BucketGranularity;
+import com.crm.enums.SaleStatus;
+import com.crm.model.Money;
+import com.crm.model.Sale;
+import com.crm.model.SaleRevenueBucket;
+import com.crm.repository.SaleRevenueBucketRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps day, week and month revenue buckets in step with the sales table. Every sale
+ * contributes to exactly one bucket per granularity; updates reverse the old contribution
+ * and record the new one, so reports read buckets instead of scanning sales.
+ */
+@Service
+@Transactional
+public class SaleRevenueServiceImpl implements SaleRevenueService {
+
+    /**
+     * Statuses counted as open pipeline
+     */
+    public static final List<SaleStatus> OPEN_STATUSES = List.of(
+            SaleStatus.PROPOSAL, SaleStatus.PENDING, SaleStatus.APPROVED,
+            SaleStatus.PAYMENT_PENDING, SaleStatus.ON_HOLD);
+
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final String SELECT_CURRENCIES = "SELECT DISTINCT currency FROM sales";
+
+    private static final String SELECT_AMOUNTS =
+            "SELECT amount_minor FROM sales " +
+            "WHERE currency = :currency AND date BETWEEN :fromDate AND :toDate " +
+            "AND amount_minor IS NOT NULL AND (:status IS NULL OR status = :status)";
+
+    private static final String UNRECONCILED_DAYS =
+            "SELECT DISTINCT m.day FROM (" +
+            "SELECT u.day FROM (" +
+            "SELECT date AS day, currency, COUNT(*) AS sale_count, COALESCE(SUM(amount_minor), 0) AS amount_minor " +
+            "FROM sales WHERE date IS NOT NULL AND status IS NOT NULL GROUP BY date, currency " +
+            "UNION ALL " +
+            "SELECT bucket_start, currency, -SUM(sale_count), -SUM(amount_minor) FROM sale_revenue_buckets " +
+            "WHERE granularity = 'DAY' GROUP BY bucket_start, currency) u " +
+            "GROUP BY u.day, u.currency HAVING SUM(u.sale_count) <> 0 OR SUM(u.amount_minor) <> 0) m " +
+            "ORDER BY m.day";
+
+    /**
+     * Locks the day's buckets, and the gaps between them, as the live upsert would
+     */
+    private static final String LOCK_DAY_BUCKETS =
+            "SELECT id FROM sale_revenue_buckets WHERE granularity = 'DAY' AND bucket_start = :day FOR UPDATE";
+
+    /**
+     * Same keys as {@link #apply}: unassigned sales and sales without a customer go to bucket key 0
+     */
+    private static final String DAY_DELTAS =
+            "SELECT d.sales_rep_id, d.customer_id, d.status, d.currency, SUM(d.sale_count), SUM(d.amount_minor) FROM (" +
+            "SELECT COALESCE(assigned_sales_rep_id, 0) AS sales_rep_id, COALESCE(customer_id, 0) AS customer_id, " +
+            "status, currency, COUNT(*) AS sale_count, COALESCE(SUM(amount_minor), 0) AS amount_minor " +
+            "FROM sales WHERE date = :day AND status IS NOT NULL GROUP BY 1, 2, 3, 4 " +
+            "UNION ALL " +
+            "SELECT sales_rep_id, customer_id, status, currency, -sale_count, -amount_minor " +
+            "FROM sale_revenue_buckets WHERE granularity = 'DAY' AND bucket_start = :day) d " +
+            "GROUP BY d.sales_rep_id, d.customer_id, d.status, d.currency " +
+            "HAVING SUM(d.sale_count) <> 0 OR SUM(d.amount_minor) <> 0";
+
+    private final SaleRevenueBucketRepository bucketRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public SaleRevenueServiceImpl(SaleRevenueBucketRepository bucketRepository, DataSource dataSource) {
+        this.bucketRepository = bucketRepository;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        // Batches from a server-side cursor; MySQL Connector/J needs useCursorFetch=true on the URL for this
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(STREAMING_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    @Override
+    public void record(Sale sale) {
+        apply(sale, 1);
+    }
+
+    @Override
+    public void reverse(Sale sale) {
+        apply(sale, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocalDate> findUnreconciledDays() {
+        return jdbcTemplate.queryForList(UNRECONCILED_DAYS, Map.of(), LocalDate.class);
+    }
+
+    /**
+     * Runs as one transaction holding the day's bucket locks, so a sale write that reaches the
+     * buckets meanwhile waits, and one that already did is committed and read before the
+     * difference is taken. The difference goes through the live path's upsert.
+     */
+    @Override
+    public int reconcileDay(LocalDate day) {
+        Map<String, Object> params = Map.of("day", day);
+        jdbcTemplate.queryForList(LOCK_DAY_BUCKETS, params, Long.class);
+        List<BucketDelta> deltas = jdbcTemplate.query(DAY_DELTAS, params, (rs, rowNum) -> new BucketDelta(
+                rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)));
+        for (BucketDelta delta : deltas) {
+            for (BucketGranularity granularity : BucketGranularity.values()) {
+                bucketRepository.increment(granularity.name(), granularity.bucketStart(day), delta.salesRepId(),
+                        delta.customerId(), delta.status(), delta.currency(), delta.saleCount(), delta.amountMinor());
+            }
+        }
+        return deltas.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueTotal> getTimeSeries(BucketGranularity granularity, LocalDate fromDate, LocalDate toDate,
+                                            Long salesRepId, Long customerId, SaleStatus status) {
+        return toTotals(bucketRepository.sumByBucket(granularity, granularity.bucketStart(fromDate), toDate,
+                salesRepId, customerId, status));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueTotal> getTopSalesReps(BucketGranularity granularity, LocalDate fromDate, LocalDate toDate, int limit) {
+        return toTotals(bucketRepository.topSalesReps(granularity, granularity.bucketStart(fromDate), toDate,
+                List.of(SaleStatus.COMPLETED), PageRequest.of(0, Math.max(1, limit))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueTotal> getPipelineValue(Long salesRepId) {
+        return toTotals(bucketRepository.sumByStatus(OPEN_STATUSES, salesRepId));
+    }
+
+    /**
+     * Streams the amount column once per currency and sums it into primitive longs, so the total
+     * is exact and no per-row objects are kept regardless of how many sales match.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueTotal> getExactTotals(LocalDate fromDate, LocalDate toDate, SaleStatus status) {
+        List<String> currencies = jdbcTemplate.queryForList(SELECT_CURRENCIES, Map.of(), String.class);
+        List<RevenueTotal> totals = new ArrayList<>(currencies.size());
+        for (String currency : currencies) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("currency", currency)
+                    .addValue("fromDate", fromDate)
+                    .addValue("toDate", toDate)
+                    .addValue("status", status != null ? status.name() : null);
+            MinorUnitSum sum = new MinorUnitSum();
+            streamingJdbcTemplate.query(SELECT_AMOUNTS, params, sum);
+            if (sum.count > 0) {
+                totals.add(new RevenueTotal(currency, currency, sum.count,
+                        Money.ofMinor(sum.total, currency).toDecimal()));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Add the sale (sign 1) to, or remove it (sign -1) from, one bucket per granularity.
+     * Sales without a date or status have no bucket.
+     */
+    private void apply(Sale sale, int sign) {
+        if (sale.getDate() == null || sale.getStatus() == null) {
+            return;
+        }
+        long salesRepId = sale.getAssignedSalesRep() != null ? sale.getAssignedSalesRep().getId() : SaleRevenueBucket.NONE;
+        long customerId = sale.getCustomer() != null && sale.getCustomer().getId() != null
+                ? sale.getCustomer().getId() : SaleRevenueBucket.NONE;
+        Money amount = sale.getAmount() != null ? sale.getAmount() : Money.ofMinor(0, sale.getCurrency());
+        long amountDelta = sign < 0 ? Math.negateExact(amount.getMinorUnits()) : amount.getMinorUnits();
+
+        for (BucketGranularity granularity : BucketGranularity.values()) {
+            bucketRepository.increment(granularity.name(), granularity.bucketStart(sale.getDate()),
+                    salesRepId, customerId, sale.getStatus().name(), amount.getCurrency(), sign, amountDelta);
+        }
+    }
+
+    private List<RevenueTotal> toTotals(List<Object[]> rows) {
+        List<RevenueTotal> totals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String currency = (String) row[1];
+            long amountMinor = row[3] != null ? ((Number) row[3]).longValue() : 0L;
+            totals.add(new RevenueTotal(String.valueOf(row[0]), currency, ((Number) row[2]).longValue(),
+                    Money.ofMinor(amountMinor, currency).toDecimal()));
+        }
+        return totals;
+    }
+
+    /**
+     * Running count and minor-unit total of a streamed amount column
+     */
+    private static final class MinorUnitSum implements RowCallbackHandler {
+        private long count;
+        private long total;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            total = Math.addExact(total, rs.getLong(1));
+            count++;
+        }
+    }
+
+    /**
+     * Difference between the sales table and the day bucket for one bucket key
+     */
+    private record BucketDelta(long salesRepId, long customerId, String status, String currency,
+                               long saleCount, long amountMinor) {
+    }
+}
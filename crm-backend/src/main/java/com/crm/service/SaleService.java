@@ -1,20 +1,40 @@
 package com.crm.service;
 
+import com.crm.enums.SaleStatus;
 import com.crm.exceptionhandler.ResourceNotFoundException;
 import com.crm.model.Sale;
 import com.crm.model.User;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
 import java.util.concurrent.CompletableFuture;
 
 public interface SaleService {
 
     CompletableFuture<Sale> createSale(Sale sale, User user);
 
-    CompletableFuture<List<Sale>> getAllSales(User user);
+    /**
+     * Find a page of sales, optionally filtered
+     * @param pageable page and sort
+     * @param salesRepId optional sales representative filter
+     * @param customerId optional customer filter
+     * @param status optional status filter
+     * @param fromDate optional first sale date included
+     * @param toDate optional last sale date included
+     * @param user the requesting user
+     * @return page of matching sales
+     */
+    CompletableFuture<Page<Sale>> getAllSales(Pageable pageable, Long salesRepId, Long customerId, SaleStatus status,
+                                              LocalDate fromDate, LocalDate toDate, User user);
 
     CompletableFuture<Sale> getSaleById(Long id, User user) throws ResourceNotFoundException;
 
-    CompletableFuture<Sale> updateSale(Long id, Sale sale, User user);
+    /**
+     * Replace the editable fields of a sale
+     * @param expectedVersion version the caller last read (If-Match), or null to skip the check
+     */
+    CompletableFuture<Sale> updateSale(Long id, Sale sale, Long expectedVersion, User user);
 
     CompletableFuture<Void> deleteSale(Long id, User user);
 }
@@ -1,15 +1,26 @@
 package com.crm.service;
 
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LargeTextField;
+import com.crm.enums.SaleStatus;
+import com.crm.exceptionhandler.PreconditionFailedException;
 import com.crm.exceptionhandler.ResourceNotFoundException;
 import com.crm.model.Sale;
 import com.crm.model.User;
 import com.crm.repository.SaleRepository;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -19,9 +30,19 @@ public class SaleServiceImpl implements SaleService {
 
     private static final Logger logger = LoggerFactory.getLogger(SaleServiceImpl.class);
     private final SaleRepository saleRepository;
-
-    public SaleServiceImpl(SaleRepository saleRepository) {
+    private final SaleRevenueService saleRevenueService;
+    private final SaleForecastService saleForecastService;
+    private final OutboxService outboxService;
+    private final LargeTextService largeTextService;
+
+    public SaleServiceImpl(SaleRepository saleRepository, SaleRevenueService saleRevenueService,
+                           SaleForecastService saleForecastService, OutboxService outboxService,
+                           LargeTextService largeTextService) {
         this.saleRepository = saleRepository;
+        this.saleRevenueService = saleRevenueService;
+        this.saleForecastService = saleForecastService;
+        this.outboxService = outboxService;
+        this.largeTextService = largeTextService;
     }
 
     private String getRole(User user) {
@@ -38,17 +59,24 @@ public class SaleServiceImpl implements SaleService {
         }
         sale.setCreatedBy(user.getId());
         Sale savedSale = saleRepository.save(sale);
+        largeTextService.store(LargeTextField.SALE_NOTES, savedSale.getId(), sale.getNotes());
+        saleRevenueService.record(savedSale);
+        saleForecastService.invalidate();
+        outboxService.saleChanged(DomainEventType.SALE_CREATED, savedSale, null);
         logger.info("Sale created successfully with ID: {}", savedSale.getId());
         return CompletableFuture.completedFuture(savedSale);
     }
 
     @Override
     @Async
-    public CompletableFuture<List<Sale>> getAllSales(User user) {
-        logger.info("Fetching all sales (UNRESTRICTED ACCESS)");
+    public CompletableFuture<Page<Sale>> getAllSales(Pageable pageable, Long salesRepId, Long customerId, SaleStatus status,
+                                                     LocalDate fromDate, LocalDate toDate, User user) {
+        logger.info("Fetching sales page {} (salesRepId={}, customerId={}, status={})",
+                pageable.getPageNumber(), salesRepId, customerId, status);
         try {
-            List<Sale> sales = saleRepository.findAll();
-            logger.info("Found {} sales (full list)", sales.size());
+            Specification<Sale> spec = buildSaleSpecification(salesRepId, customerId, status, fromDate, toDate);
+            Page<Sale> sales = saleRepository.findAll(spec, pageable);
+            logger.info("Found {} of {} sales", sales.getNumberOfElements(), sales.getTotalElements());
             return CompletableFuture.completedFuture(sales);
 
         } catch (Exception e) {
@@ -65,6 +93,7 @@ public class SaleServiceImpl implements SaleService {
         try {
             Sale sale = saleRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + id));
+            sale.setNotes(largeTextService.load(LargeTextField.SALE_NOTES, id));
             logger.info("Sale access granted for user {}", user.getEmail());
             return CompletableFuture.completedFuture(sale);
 
@@ -76,18 +105,32 @@ public class SaleServiceImpl implements SaleService {
 
     @Override
     @Async
-    public CompletableFuture<Sale> updateSale(Long id, Sale updatedSale, User user) {
+    public CompletableFuture<Sale> updateSale(Long id, Sale updatedSale, Long expectedVersion, User user) {
         logger.info("Updating sale ID: {} (UNRESTRICTED ACCESS)", id);
 
         try {
             Sale sale = saleRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + id));
+            if (expectedVersion != null && !expectedVersion.equals(sale.getVersion())) {
+                throw PreconditionFailedException.staleVersion("Sale", id, expectedVersion, sale.getVersion());
+            }
+            saleRevenueService.reverse(sale);
+            SaleStatus previousStatus = sale.getStatus();
+            sale.setCurrency(updatedSale.getCurrency());
             sale.setAmount(updatedSale.getAmount());
             sale.setStatus(updatedSale.getStatus());
             sale.setCustomer(updatedSale.getCustomer());
             sale.setDate(updatedSale.getDate());
+            sale.setExpectedCloseDate(updatedSale.getExpectedCloseDate());
             sale.setNotes(updatedSale.getNotes());
-            Sale saved = saleRepository.save(sale);
+            if (largeTextService.store(LargeTextField.SALE_NOTES, id, updatedSale.getNotes())) {
+                // The notes live outside the sales row; touch the row so its version and ETag change
+                sale.setUpdatedDate(LocalDateTime.now());
+            }
+            Sale saved = saleRepository.saveAndFlush(sale);
+            saleRevenueService.record(saved);
+            saleForecastService.invalidate();
+            outboxService.saleChanged(DomainEventType.SALE_UPDATED, saved, previousStatus);
             logger.info("Sale updated successfully: {}", saved.getId());
             return CompletableFuture.completedFuture(saved);
 
@@ -105,7 +148,11 @@ public class SaleServiceImpl implements SaleService {
             Sale sale = saleRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Sale not found with id: " + id));
 
+            saleRevenueService.reverse(sale);
+            outboxService.saleChanged(DomainEventType.SALE_DELETED, sale, sale.getStatus());
             saleRepository.delete(sale);
+            largeTextService.delete(LargeTextField.SALE_NOTES, List.of(id));
+            saleForecastService.invalidate();
             logger.info("Sale deleted successfully: {}", id);
             return CompletableFuture.completedFuture(null);
 
@@ -114,4 +161,36 @@ public class SaleServiceImpl implements SaleService {
             throw new RuntimeException("Sale not found: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds dynamic specification for filtering sales by indexed columns
+     */
+    private Specification<Sale> buildSaleSpecification(Long salesRepId, Long customerId, SaleStatus status,
+                                                       LocalDate fromDate, LocalDate toDate) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (salesRepId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("assignedSalesRep").get("id"), salesRepId));
+            }
+
+            if (customerId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("customer").get("id"), customerId));
+            }
+
+            if (status != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), status));
+            }
+
+            if (fromDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("date"), fromDate));
+            }
+
+            if (toDate != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("date"), toDate));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
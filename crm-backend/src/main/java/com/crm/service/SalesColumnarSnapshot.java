@@ -0,0 +1,177 @@
+package com.crm.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable struct-of-arrays copy of the sales table. Row {@code i} of the snapshot is spread
+ * over index {@code i} of each column array; repeated values (currency, sales rep, customer)
+ * are dictionary-encoded so every column is a primitive array that can be scanned without
+ * touching the heap per row.
+ */
+final class SalesColumnarSnapshot {
+
+    /**
+     * Dictionary index used when a sale has no sales representative or customer
+     */
+    static final int NONE = -1;
+
+    final int size;
+    final long[] amountMinor;
+    final int[] epochDay;
+    final int[] epochMonth;
+    final byte[] status;
+    final short[] currency;
+    final int[] salesRep;
+    final int[] customer;
+
+    final String[] currencies;
+    final long[] salesRepIds;
+    final long[] customerIds;
+    final int minEpochDay;
+    final int maxEpochDay;
+    final LocalDateTime takenAt;
+
+    private SalesColumnarSnapshot(Builder builder, LocalDateTime takenAt) {
+        this.size = builder.size;
+        this.amountMinor = Arrays.copyOf(builder.amountMinor, size);
+        this.epochDay = Arrays.copyOf(builder.epochDay, size);
+        this.epochMonth = Arrays.copyOf(builder.epochMonth, size);
+        this.status = Arrays.copyOf(builder.status, size);
+        this.currency = Arrays.copyOf(builder.currency, size);
+        this.salesRep = Arrays.copyOf(builder.salesRep, size);
+        this.customer = Arrays.copyOf(builder.customer, size);
+        this.currencies = new String[builder.currencyDictionary.size()];
+        for (Map.Entry<String, Integer> entry : builder.currencyDictionary.entrySet()) {
+            currencies[entry.getValue()] = entry.getKey();
+        }
+        this.salesRepIds = decode(builder.salesRepDictionary);
+        this.customerIds = decode(builder.customerDictionary);
+        this.minEpochDay = builder.minEpochDay;
+        this.maxEpochDay = builder.maxEpochDay;
+        this.takenAt = takenAt;
+    }
+
+    /**
+     * Months since year 0, so consecutive months have consecutive indexes
+     */
+    static int epochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    static LocalDate monthStart(int epochMonth) {
+        return LocalDate.of(Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1, 1);
+    }
+
+    /**
+     * Dictionary index of a currency code, or {@link #NONE} when no sale uses it
+     */
+    int currencyIndex(String code) {
+        for (int i = 0; i < currencies.length; i++) {
+            if (currencies[i].equals(code)) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Dictionary index of a sales representative ID, or {@link #NONE} when no sale references it
+     */
+    int salesRepIndex(long id) {
+        return indexOf(salesRepIds, id);
+    }
+
+    /**
+     * Dictionary index of a customer ID, or {@link #NONE} when no sale references it
+     */
+    int customerIndex(long id) {
+        return indexOf(customerIds, id);
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    private static long[] decode(Map<Long, Integer> dictionary) {
+        long[] ids = new long[dictionary.size()];
+        for (Map.Entry<Long, Integer> entry : dictionary.entrySet()) {
+            ids[entry.getValue()] = entry.getKey();
+        }
+        return ids;
+    }
+
+    /**
+     * Appends rows into growable column arrays; not thread-safe
+     */
+    static final class Builder {
+
+        private int size;
+        private long[] amountMinor;
+        private int[] epochDay;
+        private int[] epochMonth;
+        private byte[] status;
+        private short[] currency;
+        private int[] salesRep;
+        private int[] customer;
+        private int minEpochDay = Integer.MAX_VALUE;
+        private int maxEpochDay = Integer.MIN_VALUE;
+
+        private final Map<String, Integer> currencyDictionary = new HashMap<>();
+        private final Map<Long, Integer> salesRepDictionary = new HashMap<>();
+        private final Map<Long, Integer> customerDictionary = new HashMap<>();
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            amountMinor = new long[capacity];
+            epochDay = new int[capacity];
+            epochMonth = new int[capacity];
+            status = new byte[capacity];
+            currency = new short[capacity];
+            salesRep = new int[capacity];
+            customer = new int[capacity];
+        }
+
+        void add(long amount, LocalDate date, int statusOrdinal, String currencyCode, Long salesRepId, Long customerId) {
+            if (size == amountMinor.length) {
+                grow();
+            }
+            int day = (int) date.toEpochDay();
+            amountMinor[size] = amount;
+            epochDay[size] = day;
+            epochMonth[size] = epochMonth(date);
+            status[size] = (byte) statusOrdinal;
+            currency[size] = (short) (int) currencyDictionary.computeIfAbsent(currencyCode, k -> currencyDictionary.size());
+            salesRep[size] = salesRepId != null
+                    ? salesRepDictionary.computeIfAbsent(salesRepId, k -> salesRepDictionary.size()) : NONE;
+            customer[size] = customerId != null
+                    ? customerDictionary.computeIfAbsent(customerId, k -> customerDictionary.size()) : NONE;
+            minEpochDay = Math.min(minEpochDay, day);
+            maxEpochDay = Math.max(maxEpochDay, day);
+            size++;
+        }
+
+        SalesColumnarSnapshot build(LocalDateTime takenAt) {
+            return new SalesColumnarSnapshot(this, takenAt);
+        }
+
+        private void grow() {
+            int capacity = amountMinor.length + (amountMinor.length >> 1);
+            amountMinor = Arrays.copyOf(amountMinor, capacity);
+            epochDay = Arrays.copyOf(epochDay, capacity);
+            epochMonth = Arrays.copyOf(epochMonth, capacity);
+            status = Arrays.copyOf(status, capacity);
+            currency = Arrays.copyOf(currency, capacity);
+            salesRep = Arrays.copyOf(salesRep, capacity);
+            customer = Arrays.copyOf(customer, capacity);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.crm.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller for a key starts the computation and every
+ * caller arriving while it runs gets the same result. A successful result is also reused for
+ * {@code ttlMillis} after it completes; failures are never reused, so the next caller retries.
+ * Each caller receives its own copy of the shared future, so cancelling one does not affect the others.
+ */
+public final class SingleFlight<K, V> {
+
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    public SingleFlight(long ttlMillis) {
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000;
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<V> started = new Flight<>();
+        Flight<V> flight = flights.compute(key, (k, current) ->
+                current != null && current.isShareable(System.nanoTime(), ttlNanos) ? current : started);
+        if (flight == started) {
+            start(key, started, call);
+        }
+        return flight.result.copy();
+    }
+
+    private void start(K key, Flight<V> flight, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, error) -> {
+            if (error != null || ttlNanos == 0) {
+                flights.remove(key, flight);
+            } else {
+                flight.completedAt = System.nanoTime();
+                flight.completed = true;
+            }
+            if (error != null) {
+                flight.result.completeExceptionally(error);
+            } else {
+                flight.result.complete(value);
+            }
+        });
+    }
+
+    private static final class Flight<V> {
+
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile long completedAt;
+        volatile boolean completed;
+
+        /**
+         * Still running, or completed successfully within the TTL
+         */
+        boolean isShareable(long now, long ttlNanos) {
+            return !completed || now - completedAt < ttlNanos;
+        }
+    }
+}
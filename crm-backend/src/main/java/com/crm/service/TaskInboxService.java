@@ -0,0 +1,33 @@
+package com.crm.service;
+
+import com.crm.dto.TaskInbox;
+import com.crm.model.Task;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps each active user's open and recently closed tasks in memory and serves them, or just the
+ * changes since a cursor, without querying the tasks table. Writes are applied as soon as their
+ * transaction commits, before the writing request returns, so a user always reads their own changes.
+ * Changes made on other instances arrive through the outbox within about a second.
+ */
+public interface TaskInboxService {
+
+    /**
+     * Get a user's inbox
+     * @param since cursor from the previous response; null or an expired cursor returns the whole inbox
+     * @param waitMs when positive and nothing changed since the cursor, wait up to this long for a change
+     */
+    CompletableFuture<TaskInbox> getInbox(Long userId, Long since, long waitMs);
+
+    /**
+     * Record a created or changed task; applied after the current transaction commits
+     * @param previousAssigneeId user the task was assigned to before the change, or null when unchanged
+     */
+    void taskSaved(Task task, Long previousAssigneeId);
+
+    /**
+     * Record a deleted task; applied after the current transaction commits
+     */
+    void taskRemoved(Task task);
+}
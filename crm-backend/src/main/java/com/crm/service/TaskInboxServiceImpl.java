@@ -0,0 +1,400 @@
+package com.crm.service;
+
+import com.crm.dto.TaskInbox;
+import com.crm.dto.TaskInboxItem;
+import com.crm.enums.TaskStatus;
+import com.crm.model.OutboxEvent;
+import com.crm.model.Task;
+import com.crm.repository.OutboxEventRepository;
+import com.crm.repository.TaskRepository;
+import com.crm.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Inboxes are loaded on first access with one query and then maintained from task writes in
+ * {@link TaskServiceImpl}. Each inbox holds at most {@code max-items} tasks, evicting closed tasks
+ * before open ones, plus as many removal markers; a cursor older than the oldest marker gets the
+ * whole inbox back. Only the most recently used {@code max-users} inboxes are kept.
+ * <p>
+ * Writes made on other instances reach this one through the outbox: every instance tails the task
+ * events in {@code outbox_events} on its own, independently of the relay, and reloads the tasks
+ * they name. Ids are assigned before commit, so the tail only moves past an event once it is older
+ * than {@code sync-overlap-ms}; a transaction that commits later than that is picked up when the
+ * affected inbox is next loaded.
+ */
+@Service
+public class TaskInboxServiceImpl implements TaskInboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskInboxServiceImpl.class);
+
+    private static final Set<TaskStatus> CLOSED = EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+
+    private static final Comparator<TaskInboxItem> INBOX_ORDER = Comparator
+            .comparing((TaskInboxItem item) -> CLOSED.contains(item.getStatus()))
+            .thenComparing(TaskInboxItem::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskInboxItem::getTaskId, Comparator.reverseOrder());
+
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final int maxItems;
+    private final long maxWaitMs;
+    private final long syncOverlapMs;
+    private final Map<Long, UserInbox> inboxes;
+
+    /**
+     * Outbox events at or below this id have been applied; negative until the first sync
+     */
+    private long syncedUpTo = -1;
+
+    /**
+     * Events above {@link #syncedUpTo} already applied, with when they were written, kept until the tail moves past them
+     */
+    private final Map<Long, LocalDateTime> syncedEvents = new HashMap<>();
+
+    /**
+     * Cursors continue from the clock, so a cursor issued before a restart is older than any inbox loaded after it
+     */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    public TaskInboxServiceImpl(TaskRepository taskRepository, UserRepository userRepository,
+                                OutboxEventRepository outboxEventRepository,
+                                @Value("${crm.tasks.inbox.max-items:200}") int maxItems,
+                                @Value("${crm.tasks.inbox.max-users:5000}") int maxUsers,
+                                @Value("${crm.tasks.inbox.max-wait-ms:30000}") long maxWaitMs,
+                                @Value("${crm.tasks.inbox.sync-overlap-ms:10000}") long syncOverlapMs) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.maxItems = maxItems;
+        this.maxWaitMs = maxWaitMs;
+        this.syncOverlapMs = syncOverlapMs;
+        this.inboxes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserInbox> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<TaskInbox> getInbox(Long userId, Long since, long waitMs) {
+        UserInbox inbox = inboxes.get(userId);
+        if (inbox == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found with id: " + userId);
+            }
+            inbox = inboxes.computeIfAbsent(userId, UserInbox::new);
+        }
+
+        CompletableFuture<Void> changed = new CompletableFuture<>();
+        synchronized (inbox) {
+            if (!inbox.loaded) {
+                load(inbox);
+            }
+            TaskInbox result = inbox.changesSince(since);
+            if (waitMs <= 0 || result.isFull() || !result.getItems().isEmpty() || !result.getRemovedTaskIds().isEmpty()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            inbox.waiters.add(changed);
+        }
+
+        // Nothing new yet: hold the request, without a thread, until the inbox changes or the wait ends
+        UserInbox waitingOn = inbox;
+        changed.whenComplete((ignored, error) -> {
+            synchronized (waitingOn) {
+                waitingOn.waiters.remove(changed);
+            }
+        });
+        return changed.completeOnTimeout(null, Math.min(waitMs, maxWaitMs), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    synchronized (waitingOn) {
+                        return waitingOn.changesSince(since);
+                    }
+                });
+    }
+
+    @Override
+    public void taskSaved(Task task, Long previousAssigneeId) {
+        Long assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        afterCommit(() -> {
+            // Read the task only now: its version is bumped when the transaction flushes
+            TaskInboxItem item = TaskInboxItem.of(task);
+            if (previousAssigneeId != null && !previousAssigneeId.equals(assigneeId)) {
+                apply(previousAssigneeId, inbox -> inbox.remove(item.getTaskId(), item.getVersion(), sequence.incrementAndGet()));
+            }
+            if (assigneeId != null) {
+                apply(assigneeId, inbox -> inbox.put(item, sequence.incrementAndGet()));
+            }
+        });
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        Long taskId = task.getId();
+        Long assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        if (assigneeId != null) {
+            // A deleted task must not come back from a late write, so its marker outranks every version
+            afterCommit(() -> apply(assigneeId, inbox -> inbox.remove(taskId, Long.MAX_VALUE, sequence.incrementAndGet())));
+        }
+    }
+
+    /**
+     * Apply task changes written by any instance, including this one, since the last sync
+     */
+    @Scheduled(fixedDelayString = "${crm.tasks.inbox.sync-interval-ms:1000}")
+    public synchronized void syncFromOutbox() {
+        if (syncedUpTo < 0) {
+            // Nothing is loaded yet, and inboxes loaded from now on read the current tasks
+            syncedUpTo = outboxEventRepository.findMaxId();
+            return;
+        }
+        LocalDateTime settled = LocalDateTime.now().minusNanos(syncOverlapMs * 1_000_000);
+        // Rescan from the settled point every time: an earlier id may have committed since the last sync
+        long after = syncedUpTo;
+        List<OutboxEvent> events;
+        do {
+            events = outboxEventRepository.findByAggregateTypeAfter(after, "TASK", PageRequest.of(0, SYNC_BATCH_SIZE));
+            Set<Long> taskIds = new LinkedHashSet<>();
+            for (OutboxEvent event : events) {
+                after = event.getId();
+                if (syncedEvents.putIfAbsent(event.getId(), event.getCreatedAt()) == null) {
+                    taskIds.add(event.getAggregateId());
+                }
+            }
+            if (!taskIds.isEmpty() && !inboxes.isEmpty()) {
+                applyFromDatabase(taskIds);
+            }
+        } while (events.size() == SYNC_BATCH_SIZE);
+
+        // Move the tail past events old enough that no earlier id can still commit
+        long settledUpTo = syncedUpTo;
+        for (Map.Entry<Long, LocalDateTime> event : syncedEvents.entrySet()) {
+            if (event.getValue() == null || event.getValue().isBefore(settled)) {
+                settledUpTo = Math.max(settledUpTo, event.getKey());
+            }
+        }
+        long newSyncedUpTo = settledUpTo;
+        syncedUpTo = newSyncedUpTo;
+        syncedEvents.keySet().removeIf(id -> id <= newSyncedUpTo);
+    }
+
+    private void applyFromDatabase(Set<Long> taskIds) {
+        Map<Long, Task> tasks = new HashMap<>();
+        taskRepository.findAllById(taskIds).forEach(task -> tasks.put(task.getId(), task));
+        List<UserInbox> loaded;
+        synchronized (inboxes) {
+            loaded = new ArrayList<>(inboxes.values());
+        }
+        for (Long taskId : taskIds) {
+            Task task = tasks.get(taskId);
+            TaskInboxItem item = task != null ? TaskInboxItem.of(task) : null;
+            Long assigneeId = task != null && task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+            for (UserInbox inbox : loaded) {
+                synchronized (inbox) {
+                    if (!inbox.loaded) {
+                        continue;
+                    }
+                    TaskInboxItem current = inbox.items.get(taskId);
+                    if (item != null && inbox.userId.equals(assigneeId)) {
+                        if (current == null || !Objects.equals(current.getVersion(), item.getVersion())) {
+                            apply(inbox, changed -> changed.put(item, sequence.incrementAndGet()));
+                        }
+                    } else if (current != null) {
+                        // Deleted, or now assigned to someone else
+                        Long version = item != null ? item.getVersion() : Long.valueOf(Long.MAX_VALUE);
+                        apply(inbox, changed -> changed.remove(taskId, version, sequence.incrementAndGet()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void load(UserInbox inbox) {
+        long start = System.currentTimeMillis();
+        long cursor = sequence.incrementAndGet();
+        for (Task task : taskRepository.findInboxTasks(inbox.userId, PageRequest.of(0, maxItems))) {
+            inbox.items.put(task.getId(), TaskInboxItem.of(task).withCursor(cursor));
+        }
+        inbox.floor = cursor;
+        inbox.loaded = true;
+        logger.debug("Loaded inbox of user {} with {} tasks in {} ms",
+                inbox.userId, inbox.items.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Change an inbox that is already in memory; inboxes not loaded yet will read the change from the database
+     */
+    private void apply(Long userId, Consumer<UserInbox> change) {
+        UserInbox inbox = inboxes.get(userId);
+        if (inbox != null) {
+            apply(inbox, change);
+        }
+    }
+
+    private void apply(UserInbox inbox, Consumer<UserInbox> change) {
+        synchronized (inbox) {
+            if (!inbox.loaded) {
+                return;
+            }
+            change.accept(inbox);
+            inbox.trim();
+            List<CompletableFuture<Void>> waiting = new ArrayList<>(inbox.waiters);
+            inbox.waiters.clear();
+            waiting.forEach(waiter -> waiter.complete(null));
+        }
+    }
+
+    /**
+     * Run once the current transaction commits, before the writing request returns; immediately when there is none
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Removal marker: the cursor it was recorded at and the task version it supersedes
+     */
+    private record Removal(long cursor, long version) {
+    }
+
+    /**
+     * One user's tasks and removal markers, guarded by its own monitor
+     */
+    private final class UserInbox {
+
+        private final Long userId;
+        private final Map<Long, TaskInboxItem> items = new HashMap<>();
+        private final LinkedHashMap<Long, Removal> removed = new LinkedHashMap<>();
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        private boolean loaded;
+
+        /**
+         * Changes at or before this cursor are no longer tracked
+         */
+        private long floor;
+
+        UserInbox(Long userId) {
+            this.userId = userId;
+        }
+
+        void put(TaskInboxItem item, long cursor) {
+            TaskInboxItem current = items.get(item.getTaskId());
+            Removal removal = removed.get(item.getTaskId());
+            // Commits can finish out of order; never replace a newer version with an older one
+            if ((current != null && isNewer(current.getVersion(), item.getVersion()))
+                    || (removal != null && removal.version() >= versionOf(item.getVersion()))) {
+                return;
+            }
+            removed.remove(item.getTaskId());
+            items.put(item.getTaskId(), item.withCursor(cursor));
+        }
+
+        void remove(Long taskId, Long version, long cursor) {
+            TaskInboxItem current = items.get(taskId);
+            if (current != null && isNewer(current.getVersion(), version)) {
+                return;
+            }
+            items.remove(taskId);
+            removed.remove(taskId);
+            removed.put(taskId, new Removal(cursor, versionOf(version)));
+        }
+
+        void trim() {
+            while (items.size() > maxItems) {
+                TaskInboxItem evict = null;
+                for (TaskInboxItem item : items.values()) {
+                    if (evict == null || evictsBefore(item, evict)) {
+                        evict = item;
+                    }
+                }
+                items.remove(evict.getTaskId());
+                removed.put(evict.getTaskId(), new Removal(sequence.incrementAndGet(), versionOf(evict.getVersion()) - 1));
+            }
+            Iterator<Removal> oldest = removed.values().iterator();
+            while (removed.size() > maxItems) {
+                floor = Math.max(floor, oldest.next().cursor());
+                oldest.remove();
+            }
+        }
+
+        TaskInbox changesSince(Long since) {
+            long cursor = sequence.get();
+            if (since == null || since < floor || since > cursor) {
+                List<TaskInboxItem> all = new ArrayList<>(items.values());
+                all.sort(INBOX_ORDER);
+                return new TaskInbox(userId, cursor, true, all, List.of());
+            }
+            List<TaskInboxItem> changed = new ArrayList<>();
+            for (TaskInboxItem item : items.values()) {
+                if (item.getCursor() > since) {
+                    changed.add(item);
+                }
+            }
+            changed.sort(INBOX_ORDER);
+            List<Long> removedIds = new ArrayList<>();
+            removed.forEach((taskId, removal) -> {
+                if (removal.cursor() > since) {
+                    removedIds.add(taskId);
+                }
+            });
+            return new TaskInbox(userId, cursor, false, changed, removedIds);
+        }
+
+        /**
+         * Closed tasks go first, then the least recently changed
+         */
+        private boolean evictsBefore(TaskInboxItem item, TaskInboxItem other) {
+            boolean closed = CLOSED.contains(item.getStatus());
+            boolean otherClosed = CLOSED.contains(other.getStatus());
+            if (closed != otherClosed) {
+                return closed;
+            }
+            return item.getCursor() < other.getCursor();
+        }
+
+        private boolean isNewer(Long version, Long than) {
+            return versionOf(version) > versionOf(than);
+        }
+
+        private long versionOf(Long version) {
+            return version != null ? version : 0;
+        }
+    }
+}
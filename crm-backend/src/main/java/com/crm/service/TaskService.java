@@ -26,11 +26,19 @@ public interface TaskService {
     @Async
     CompletableFuture<Task> createTask(TaskCreateRequest request);
 
+    /**
+     * Update the provided fields of a task
+     * @param expectedVersion version the caller last read (If-Match), or null to skip the check
+     */
     @Async
-    CompletableFuture<Task> updateTask(Long id, TaskUpdateRequest request);
+    CompletableFuture<Task> updateTask(Long id, TaskUpdateRequest request, Long expectedVersion);
 
+    /**
+     * Change the status of a task; with an expected version the change is a single conditional UPDATE
+     * @param expectedVersion version the caller last read (If-Match), or null to skip the check
+     */
     @Async
-    CompletableFuture<Task> updateTaskStatus(Long id, TaskStatus status);
+    CompletableFuture<Task> updateTaskStatus(Long id, TaskStatus status, Long expectedVersion);
 
     @Async
     CompletableFuture<Void> deleteTask(Long id);
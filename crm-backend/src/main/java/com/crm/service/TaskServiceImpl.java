@@ -1,30 +1,42 @@
 package com.crm.service;
 
 
+import com.crm.model.Lead;
 import com.crm.model.Task;
 import com.crm.model.User;
 import com.crm.dto.TaskCreateRequest;
 import com.crm.dto.TaskUpdateRequest;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LargeTextField;
 import com.crm.enums.TaskStatus;
+import com.crm.exceptionhandler.PreconditionFailedException;
+import com.crm.repository.LeadRepository;
 import com.crm.repository.TaskRepository;
 import com.crm.repository.UserRepository;
 import jakarta.persistence.criteria.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.Map;
 
 @Service
@@ -39,6 +51,50 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private LeadScoringService leadScoringService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TaskInboxService taskInboxService;
+
+    @Autowired
+    private LargeTextService largeTextService;
+
+    /**
+     * Mutations run on the async pool, outside the caller's transaction; this template gives each
+     * one a transaction of its own so the task row and its outbox event commit together.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * Dashboard statistics requested by many users at once share one query run and its result for a short TTL
+     */
+    private final SingleFlight<String, Object> taskStatistics;
+
+    /**
+     * The shared run executes on the task executor, outside any caller's transaction; this template
+     * gives it a read-only one, so its counts come from one snapshot and may be served by the replica
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public TaskServiceImpl(@Value("${crm.dashboard.single-flight.ttl-ms:2000}") long singleFlightTtlMs,
+                           PlatformTransactionManager transactionManager) {
+        this.taskStatistics = new SingleFlight<>(singleFlightTtlMs);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     @Override
     @Async
    // @Async("taskExecutor")
@@ -58,7 +114,9 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public CompletableFuture<Optional<Task>> findById(Long id) {
         logger.debug("Fetching task by ID: {} - Thread: {}", id, Thread.currentThread().getName());
-        return CompletableFuture.completedFuture(taskRepository.findById(id));
+        Optional<Task> task = taskRepository.findById(id);
+        task.ifPresent(found -> found.setDescription(largeTextService.load(LargeTextField.TASK_DESCRIPTION, id)));
+        return CompletableFuture.completedFuture(task);
     }
 
     @Override
@@ -67,7 +125,7 @@ public class TaskServiceImpl implements TaskService {
     public CompletableFuture<Task> createTask(TaskCreateRequest request) {
         logger.info("Creating new task - Thread: {}", Thread.currentThread().getName());
 
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(tx -> {
             Task task = new Task();
             task.setTitle(request.getTitle());
             task.setDescription(request.getDescription());
@@ -82,19 +140,31 @@ public class TaskServiceImpl implements TaskService {
                 task.setAssignedTo(assignedUser);
             }
 
-            return taskRepository.save(task);
-        });
+            if (request.getLeadId() != null) {
+                task.setLead(findLead(request.getLeadId()));
+            }
+
+            Task savedTask = taskRepository.save(task);
+            largeTextService.store(LargeTextField.TASK_DESCRIPTION, savedTask.getId(), request.getDescription());
+            leadScoringService.rescore(leadIdOf(savedTask));
+            outboxService.taskChanged(DomainEventType.TASK_CREATED, savedTask, null);
+            taskInboxService.taskSaved(savedTask, null);
+            return savedTask;
+        }));
     }
 
     @Override
     @Async
   //  @Async("taskExecutor")
-    public CompletableFuture<Task> updateTask(Long id, TaskUpdateRequest request) {
+    public CompletableFuture<Task> updateTask(Long id, TaskUpdateRequest request, Long expectedVersion) {
         logger.info("Updating task with ID: {} - Thread: {}", id, Thread.currentThread().getName());
 
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(tx -> {
             Task task = taskRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+            requireVersion(task, expectedVersion);
+            TaskStatus previousStatus = task.getStatus();
+            Long previousAssigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
 
             // Update fields if provided
             if (request.getTitle() != null) {
@@ -102,6 +172,12 @@ public class TaskServiceImpl implements TaskService {
             }
             if (request.getDescription() != null) {
                 task.setDescription(request.getDescription());
+                if (largeTextService.store(LargeTextField.TASK_DESCRIPTION, id, request.getDescription())) {
+                    // The description lives outside the tasks row; touch the row so its version and ETag change
+                    task.setUpdatedDate(LocalDateTime.now());
+                }
+            } else {
+                task.setDescription(largeTextService.load(LargeTextField.TASK_DESCRIPTION, id));
             }
             if (request.getDueDate() != null) {
                 task.setDueDate(request.getDueDate());
@@ -118,23 +194,57 @@ public class TaskServiceImpl implements TaskService {
                 task.setAssignedTo(assignedUser);
             }
 
-            return taskRepository.save(task);
-        });
+            Long previousLeadId = leadIdOf(task);
+            if (request.getLeadId() != null) {
+                task.setLead(findLead(request.getLeadId()));
+            }
+
+            Task savedTask = taskRepository.save(task);
+            leadScoringService.rescore(leadIdOf(savedTask));
+            if (previousLeadId != null && !previousLeadId.equals(leadIdOf(savedTask))) {
+                leadScoringService.rescore(previousLeadId);
+            }
+            outboxService.taskChanged(savedTask.getStatus() != previousStatus
+                    ? DomainEventType.TASK_STATUS_CHANGED : DomainEventType.TASK_UPDATED, savedTask, previousStatus);
+            taskInboxService.taskSaved(savedTask, previousAssigneeId);
+            return savedTask;
+        }));
     }
 
     @Override
     @Async
    // @Async("taskExecutor")
-    public CompletableFuture<Task> updateTaskStatus(Long id, TaskStatus status) {
+    public CompletableFuture<Task> updateTaskStatus(Long id, TaskStatus status, Long expectedVersion) {
         logger.info("Updating task status for ID: {} to {} - Thread: {}", id, status, Thread.currentThread().getName());
 
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(tx -> {
+            if (expectedVersion != null) {
+                // Single guarded UPDATE on the locked row: stale versions are rejected without loading the task
+                TaskStatus previousStatus = taskRepository.lockStatus(id).map(TaskStatus::valueOf).orElse(null);
+                if (taskRepository.updateStatusIfVersion(id, status, expectedVersion, LocalDateTime.now()) == 0) {
+                    Task current = taskRepository.findById(id)
+                            .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+                    throw PreconditionFailedException.staleVersion("Task", id, expectedVersion, current.getVersion());
+                }
+                Task savedTask = taskRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+                leadScoringService.rescore(leadIdOf(savedTask));
+                outboxService.taskChanged(DomainEventType.TASK_STATUS_CHANGED, savedTask, previousStatus);
+                taskInboxService.taskSaved(savedTask, null);
+                return savedTask;
+            }
+
             Task task = taskRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
 
+            TaskStatus previousStatus = task.getStatus();
             task.setStatus(status);
-            return taskRepository.save(task);
-        });
+            Task savedTask = taskRepository.save(task);
+            leadScoringService.rescore(leadIdOf(savedTask));
+            outboxService.taskChanged(DomainEventType.TASK_STATUS_CHANGED, savedTask, previousStatus);
+            taskInboxService.taskSaved(savedTask, null);
+            return savedTask;
+        }));
     }
 
     @Override
@@ -143,12 +253,16 @@ public class TaskServiceImpl implements TaskService {
     public CompletableFuture<Void> deleteTask(Long id) {
         logger.info("Deleting task with ID: {} - Thread: {}", id, Thread.currentThread().getName());
 
-        return CompletableFuture.runAsync(() -> {
-            if (!taskRepository.existsById(id)) {
-                throw new RuntimeException("Task not found with id: " + id);
-            }
-            taskRepository.deleteById(id);
-        });
+        return CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+            Task task = taskRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+            Long leadId = leadIdOf(task);
+            outboxService.taskChanged(DomainEventType.TASK_DELETED, task, task.getStatus());
+            taskInboxService.taskRemoved(task);
+            taskRepository.delete(task);
+            largeTextService.delete(LargeTextField.TASK_DESCRIPTION, List.of(id));
+            leadScoringService.rescore(leadId);
+        }));
     }
 
     @Override
@@ -198,13 +312,17 @@ public class TaskServiceImpl implements TaskService {
         return CompletableFuture.supplyAsync(() -> taskRepository.findByDueDate(LocalDate.now()));
     }
 
+    // Runs on the caller's thread without a transaction, so callers waiting on a shared run hold
+    // neither a pool thread nor a connection; only the run itself goes to the executor
     @Override
-    @Async
-   // @Async("taskExecutor")
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompletableFuture<Object> getTaskStatistics() {
+        return taskStatistics.execute("all", this::calculateTaskStatistics);
+    }
+
+    private CompletableFuture<Object> calculateTaskStatistics() {
         logger.info("Calculating task statistics - Thread: {}", Thread.currentThread().getName());
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransactionTemplate.execute(status -> {
             Map<String, Object> stats = new ConcurrentHashMap<>();
             Long totalTasks = taskRepository.count();
             Long completedTasks = taskRepository.countByStatus(TaskStatus.COMPLETED);
@@ -216,7 +334,7 @@ public class TaskServiceImpl implements TaskService {
             stats.put("pendingTasks", pendingTasks);
             stats.put("completionRate", totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0);
             return stats;
-        });
+        }), taskExecutor);
     }
 
     @Override
@@ -228,6 +346,21 @@ public class TaskServiceImpl implements TaskService {
                 taskRepository.findByDueDateBetween(startDate, endDate));
     }
 
+    private void requireVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw PreconditionFailedException.staleVersion("Task", task.getId(), expectedVersion, task.getVersion());
+        }
+    }
+
+    private Lead findLead(Long leadId) {
+        return leadRepository.findById(leadId)
+                .orElseThrow(() -> new RuntimeException("Lead not found with id: " + leadId));
+    }
+
+    private Long leadIdOf(Task task) {
+        return task.getLead() != null ? task.getLead().getId() : null;
+    }
+
     /**
      * Builds dynamic specification for filtering tasks
      */
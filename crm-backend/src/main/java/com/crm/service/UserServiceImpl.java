@@ -9,17 +9,23 @@ import jakarta.persistence.criteria.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional
@@ -33,6 +39,37 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    /**
+     * Users are embedded in lead, sale and task lists; writes below run on the async pool after their
+     * own save commits, so the change is counted after it is visible
+     */
+    @Autowired
+    private CollectionChangeService collectionChangeService;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * Dashboard reads issued by many users at once share one query run and its result for a short TTL
+     */
+    private final SingleFlight<String, Object> userStatistics;
+    private final SingleFlight<String, List<User>> salesRepresentatives;
+
+    /**
+     * Shared runs execute on the task executor, outside any caller's transaction; this template gives
+     * each a read-only one, so it reads one snapshot and may be served by the replica
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public UserServiceImpl(@Value("${crm.dashboard.single-flight.ttl-ms:2000}") long singleFlightTtlMs,
+                           PlatformTransactionManager transactionManager) {
+        this.userStatistics = new SingleFlight<>(singleFlightTtlMs);
+        this.salesRepresentatives = new SingleFlight<>(singleFlightTtlMs);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     @Override
     @Async
    // @Async("taskExecutor")
@@ -106,6 +143,7 @@ public class UserServiceImpl implements UserService {
                 }
 
                 User savedUser = userRepository.save(user);
+                collectionChangeService.recordChange(CollectionChangeService.USERS);
                 logger.info("User created successfully with ID: {}", savedUser.getId());
                 return savedUser;
 
@@ -146,7 +184,9 @@ public class UserServiceImpl implements UserService {
                 }
             }
 
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            collectionChangeService.recordChange(CollectionChangeService.USERS);
+            return savedUser;
         });
     }
 
@@ -162,7 +202,9 @@ public class UserServiceImpl implements UserService {
             try {
                 Role newRole = Role.valueOf(role.toUpperCase());
                 user.setRole(newRole);
-                return userRepository.save(user);
+                User savedUser = userRepository.save(user);
+                collectionChangeService.recordChange(CollectionChangeService.USERS);
+                return savedUser;
             } catch (IllegalArgumentException e) {
                 throw new RuntimeException("Invalid role: " + role);
             }
@@ -184,6 +226,7 @@ public class UserServiceImpl implements UserService {
             }
 
             userRepository.delete(user);
+            collectionChangeService.recordChange(CollectionChangeService.USERS);
         });
     }
 
@@ -211,13 +254,18 @@ public class UserServiceImpl implements UserService {
         return CompletableFuture.completedFuture(userRepository.existsByEmail(email));
     }
 
+    // Runs on the caller's thread without a transaction, so callers waiting on a shared run hold
+    // neither a pool thread nor a connection; only the run itself goes to the executor
     @Override
-    @Async
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompletableFuture<Object> getUserStatistics() {
+        return userStatistics.execute("all", this::calculateUserStatistics);
+    }
+
+    private CompletableFuture<Object> calculateUserStatistics() {
         logger.info("Calculating user statistics - Thread: {}", Thread.currentThread().getName());
 
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransactionTemplate.execute(status -> {
             Map<String, Object> stats = new ConcurrentHashMap<>();
 
             // Execute queries
@@ -234,14 +282,16 @@ public class UserServiceImpl implements UserService {
             stats.put("managerUsers", managerUsers);
 
             return stats;
-        });
+        }), taskExecutor);
     }
 
     @Override
-    @Async
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CompletableFuture<List<User>> findSalesRepresentatives() {
-        return CompletableFuture.supplyAsync(() -> userRepository.findByRole(Role.SALES));
+        // Immutable, since every caller sharing the run receives the same list
+        return salesRepresentatives.execute("all", () -> CompletableFuture.supplyAsync(
+                () -> readOnlyTransactionTemplate.execute(status -> List.copyOf(userRepository.findByRole(Role.SALES))),
+                taskExecutor));
     }
 
     @Override
@@ -315,6 +365,7 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
 
             User savedUser = userRepository.save(user);
+            collectionChangeService.recordChange(CollectionChangeService.USERS);
             logger.info("User registered successfully with ID: {}", savedUser.getId());
             return savedUser;
         });
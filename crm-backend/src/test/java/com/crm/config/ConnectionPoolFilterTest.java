@@ -0,0 +1,78 @@
+package com.crm.config;
+
+import com.crm.service.ConnectionPoolMonitor;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * API requests are shed with 503 once too many threads queue for a connection, except streams and the
+ * pool statistics, and requests let through are labelled with their endpoint
+ */
+class ConnectionPoolFilterTest {
+
+    private static final int MAX_PENDING = 20;
+
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    private ConnectionPoolFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        connectionPoolMonitor = mock(ConnectionPoolMonitor.class);
+        filter = new ConnectionPoolFilter(connectionPoolMonitor, MAX_PENDING);
+    }
+
+    @Test
+    void requestsPassWhileThePoolsKeepUp() throws Exception {
+        when(connectionPoolMonitor.getMaxPending()).thenReturn(MAX_PENDING - 1);
+        String[] endpoint = new String[1];
+
+        MockHttpServletResponse response = filter("GET", "/api/customers",
+                (req, res) -> endpoint[0] = RequestEndpoint.current());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("GET (unmatched)", endpoint[0]);
+        assertNull(RequestEndpoint.current());
+    }
+
+    @Test
+    void saturatedPoolsShedApiRequestsWithRetryAfter() throws Exception {
+        when(connectionPoolMonitor.getMaxPending()).thenReturn(MAX_PENDING);
+
+        MockHttpServletResponse response = filter("POST", "/api/sales", (req, res) -> {
+            throw new AssertionError("a shed request reached the handler");
+        });
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":503"));
+    }
+
+    @Test
+    void streamsStatisticsAndNonApiPathsAreNeverShed() throws Exception {
+        when(connectionPoolMonitor.getMaxPending()).thenReturn(MAX_PENDING * 2);
+
+        for (String path : new String[]{"/api/stream/dashboard", "/api/system/connection-pools", "/index.html"}) {
+            boolean[] handled = new boolean[1];
+            MockHttpServletResponse response = filter("GET", path, (req, res) -> handled[0] = true);
+
+            assertEquals(200, response.getStatus(), path);
+            assertTrue(handled[0], path);
+        }
+    }
+
+    private MockHttpServletResponse filter(String method, String path, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        return response;
+    }
+}
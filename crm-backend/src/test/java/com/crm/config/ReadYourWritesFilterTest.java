@@ -0,0 +1,75 @@
+package com.crm.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client's reads go to the primary during and shortly after its own writes, and nobody else's do
+ */
+class ReadYourWritesFilterTest {
+
+    private static final String ALICE = "Bearer alice";
+    private static final String BOB = "Bearer bob";
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(60_000);
+
+    @Test
+    void readsUseTheReplicaWithoutARecentWrite() throws Exception {
+        assertFalse(pinnedDuring("GET", ALICE, "10.0.0.1"));
+    }
+
+    @Test
+    void writesAndTheWritersNextReadsArePinned() throws Exception {
+        assertTrue(pinnedDuring("POST", ALICE, "10.0.0.1"));
+        assertTrue(pinnedDuring("GET", ALICE, "10.0.0.1"));
+        // Same address, different user
+        assertFalse(pinnedDuring("GET", BOB, "10.0.0.1"));
+    }
+
+    @Test
+    void anonymousClientsAreToldApartByAddress() throws Exception {
+        assertTrue(pinnedDuring("DELETE", null, "10.0.0.2"));
+        assertTrue(pinnedDuring("GET", null, "10.0.0.2"));
+        assertFalse(pinnedDuring("GET", null, "10.0.0.3"));
+    }
+
+    @Test
+    void pinEndsWhenTheWindowDoes() throws Exception {
+        ReadYourWritesFilter shortWindow = new ReadYourWritesFilter(50);
+        pinnedDuring(shortWindow, "PUT", ALICE, "10.0.0.1");
+
+        Thread.sleep(200);
+
+        assertFalse(pinnedDuring(shortWindow, "GET", ALICE, "10.0.0.1"));
+    }
+
+    @Test
+    void pinDoesNotOutliveTheRequest() throws Exception {
+        pinnedDuring("POST", ALICE, "10.0.0.1");
+
+        assertFalse(PrimaryReads.isPinned());
+    }
+
+    private boolean pinnedDuring(String method, String authorization, String address) throws Exception {
+        return pinnedDuring(filter, method, authorization, address);
+    }
+
+    private static boolean pinnedDuring(ReadYourWritesFilter filter, String method, String authorization,
+                                        String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/leads");
+        request.setRemoteAddr(address);
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        boolean[] pinned = new boolean[1];
+        FilterChain chain = (req, res) -> pinned[0] = PrimaryReads.isPinned();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return pinned[0];
+    }
+}
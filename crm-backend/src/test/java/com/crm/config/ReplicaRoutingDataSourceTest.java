@@ -0,0 +1,93 @@
+package com.crm.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read-only work goes to the replica unless pinned to the primary; everything else always goes to the primary
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private DataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        routing = new ReplicaRoutingConfig().dataSource(primary, replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryReads.clear();
+    }
+
+    @Test
+    void readOnlyWorkUsesTheReplica() throws SQLException {
+        use(true);
+
+        verify(replica).getConnection();
+    }
+
+    @Test
+    void pinnedReadOnlyWorkUsesThePrimary() throws SQLException {
+        PrimaryReads.pin(true);
+
+        use(true);
+
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void writesNeverUseTheReplica() throws SQLException {
+        use(false);
+
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void pinFollowsWorkHandedToAnotherThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PrimaryReads.pin(true);
+            Runnable check = PrimaryReads.propagate(() -> assertTrue(PrimaryReads.isPinned()));
+            PrimaryReads.clear();
+
+            CompletableFuture.runAsync(check, executor).join();
+            // The worker's own state is restored afterwards
+            assertFalse(CompletableFuture.supplyAsync(PrimaryReads::isPinned, executor).join());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Open a connection the way the transaction manager does and issue a statement, which is when the
+     * lazy proxy picks the physical connection
+     */
+    private void use(boolean readOnly) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(readOnly);
+            connection.createStatement();
+        }
+    }
+}
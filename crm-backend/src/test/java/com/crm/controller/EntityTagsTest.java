@@ -0,0 +1,107 @@
+package com.crm.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityTagsTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2026, 3, 1, 10, 15, 30, 250_000_000);
+
+    @Test
+    void formatsVersionTags() {
+        assertEquals("\"7\"", EntityTags.of(7L));
+        assertEquals("\"0\"", EntityTags.of(null));
+        assertEquals("W/\"12-34\"", EntityTags.ofCollection("12-34"));
+    }
+
+    @Test
+    void parsesIfMatchVersions() {
+        assertEquals(7L, EntityTags.expectedVersion("\"7\""));
+        assertEquals(7L, EntityTags.expectedVersion(" W/\"7\" "));
+        assertEquals(7L, EntityTags.expectedVersion("7"));
+    }
+
+    @Test
+    void ifMatchWithoutVersionIsUnconditional() {
+        assertNull(EntityTags.expectedVersion(null));
+        assertNull(EntityTags.expectedVersion(""));
+        assertNull(EntityTags.expectedVersion("*"));
+    }
+
+    @Test
+    void rejectsMalformedIfMatch() {
+        assertThrows(IllegalArgumentException.class, () -> EntityTags.expectedVersion("\"abc\""));
+    }
+
+    @Test
+    void ifNoneMatchComparesWeakly() {
+        assertTrue(EntityTags.isNotModified(ifNoneMatch("W/\"7\""), "\"7\"", null));
+        assertTrue(EntityTags.isNotModified(ifNoneMatch("\"12-34\""), "W/\"12-34\"", null));
+        assertTrue(EntityTags.isNotModified(ifNoneMatch("*"), "\"7\"", null));
+        assertFalse(EntityTags.isNotModified(ifNoneMatch("\"6\""), "\"7\"", null));
+    }
+
+    @Test
+    void ifNoneMatchDecidesAloneWhenPresent() {
+        HttpHeaders headers = ifNoneMatch("\"6\"");
+        headers.setIfModifiedSince(epochMillis(MODIFIED.plusDays(1)));
+
+        assertFalse(EntityTags.isNotModified(headers, "\"7\"", MODIFIED));
+    }
+
+    @Test
+    void ifModifiedSinceComparesWholeSeconds() {
+        HttpHeaders sameSecond = new HttpHeaders();
+        sameSecond.setIfModifiedSince(epochMillis(MODIFIED.withNano(0)));
+        HttpHeaders secondBefore = new HttpHeaders();
+        secondBefore.setIfModifiedSince(epochMillis(MODIFIED.withNano(0).minusSeconds(1)));
+
+        assertTrue(EntityTags.isNotModified(sameSecond, "\"7\"", MODIFIED));
+        assertFalse(EntityTags.isNotModified(secondBefore, "\"7\"", MODIFIED));
+    }
+
+    @Test
+    void unparseableIfModifiedSinceIsIgnored() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, "yesterday");
+
+        assertFalse(EntityTags.isNotModified(headers, "\"7\"", MODIFIED));
+    }
+
+    @Test
+    void withoutConditionalHeadersTheCopyIsStale() {
+        assertFalse(EntityTags.isNotModified(new HttpHeaders(), "\"7\"", MODIFIED));
+    }
+
+    @Test
+    void notModifiedCarriesValidatorsWithoutBody() {
+        ResponseEntity<Object> response = EntityTags.notModified("\"7\"", MODIFIED);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals(epochMillis(MODIFIED.withNano(0)), response.getHeaders().getLastModified());
+        assertNull(response.getBody());
+    }
+
+    private static HttpHeaders ifNoneMatch(String tag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(tag);
+        return headers;
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,119 @@
+package com.crm.controller;
+
+import com.crm.dto.ResourceVersion;
+import com.crm.enums.VersionedResource;
+import com.crm.model.Sale;
+import com.crm.model.User;
+import com.crm.repository.UserRepository;
+import com.crm.service.ResourceVersionService;
+import com.crm.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caller resolution and sort validation of the sales list
+ */
+class SaleControllerTest {
+
+    private SaleService saleService;
+    private UserRepository userRepository;
+    private SaleController controller;
+
+    @BeforeEach
+    void setUp() {
+        saleService = mock(SaleService.class);
+        userRepository = mock(UserRepository.class);
+        ResourceVersionService resourceVersionService = mock(ResourceVersionService.class);
+        when(resourceVersionService.getCollectionVersion(VersionedResource.SALES)).thenReturn(new ResourceVersion("1-1", null));
+        when(saleService.getAllSales(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PageImpl<>(List.of())));
+        controller = new SaleController(saleService, resourceVersionService, userRepository);
+    }
+
+    @Test
+    void mineFiltersByTheAuthenticatedUser() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("rep@example.com");
+        when(userRepository.findByEmail("rep@example.com")).thenReturn(Optional.of(user));
+
+        ResponseEntity<Page<Sale>> response = list("date", "DESC", true, caller("rep@example.com"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(saleService).getAllSales(any(), eq(7L), isNull(), isNull(), isNull(), isNull(), eq(user));
+    }
+
+    @Test
+    void mineWithoutCallerIsUnauthorized() {
+        ResponseEntity<Page<Sale>> response = list("date", "DESC", true, null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(saleService);
+    }
+
+    @Test
+    void mineWithUnknownCallerIsUnauthorized() {
+        when(userRepository.findByEmail("gone@example.com")).thenReturn(Optional.empty());
+
+        ResponseEntity<Page<Sale>> response = list("date", "DESC", true, caller("gone@example.com"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void sortsByAllowedFieldCaseInsensitiveDirection() {
+        list("amount", "asc", false, null);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(saleService).getAllSales(pageable.capture(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull());
+        assertEquals(Sort.by(Sort.Direction.ASC, "amount"), pageable.getValue().getSort());
+    }
+
+    @Test
+    void rejectsUnknownSortFieldOrDirection() {
+        assertThrows(IllegalArgumentException.class, () -> list("notes", "DESC", false, null));
+        assertThrows(IllegalArgumentException.class, () -> list("date", "sideways", false, null));
+        verifyNoInteractions(saleService);
+    }
+
+    @Test
+    void createWithoutCallerIsUnauthorized() {
+        ResponseEntity<Sale> response = controller.createSale(new Sale(), null).join();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(saleService);
+    }
+
+    private ResponseEntity<Page<Sale>> list(String sortBy, String direction, boolean mine, Authentication authentication) {
+        return controller.getAllSales(0, 20, sortBy, direction, null, mine, null, null, null, null,
+                new HttpHeaders(), authentication).join();
+    }
+
+    private static Authentication caller(String email) {
+        return new UsernamePasswordAuthenticationToken(email, null, List.of());
+    }
+}
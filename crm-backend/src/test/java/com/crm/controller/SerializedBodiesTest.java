@@ -0,0 +1,79 @@
+package com.crm.controller;
+
+import com.crm.model.SerializedJson;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SerializedBodiesTest {
+
+    private static final byte[] JSON = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = {0x1f, (byte) 0x8b, 8, 0};
+    private static final SerializedJson BODY = new SerializedJson("1-2", JSON, GZIP);
+
+    @Test
+    void servesTheGzipCopyWhenAccepted() {
+        assertGzip(write("gzip, deflate, br"));
+        assertGzip(write("br;q=1.0, gzip;q=0.8"));
+        assertGzip(write("X-GZIP"));
+        assertGzip(write("*"));
+    }
+
+    @Test
+    void servesPlainJsonWhenGzipIsNotAccepted() {
+        assertPlain(write(null));
+        assertPlain(write("br, deflate"));
+        assertPlain(write("gzip;q=0"));
+        assertPlain(write("gzip;q=0.000"));
+        assertPlain(write("gzip;q=abc"));
+        assertPlain(write("*;q=0"));
+    }
+
+    @Test
+    void explicitGzipEntryOverridesTheWildcard() {
+        assertPlain(write("gzip;q=0, *"));
+        assertPlain(write("*, gzip;q=0"));
+        assertGzip(write("*;q=0, gzip"));
+    }
+
+    @Test
+    void smallBodiesWithoutAGzipCopyAreAlwaysPlain() {
+        HttpHeaders request = new HttpHeaders();
+        request.add(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        ResponseEntity<byte[]> response = SerializedBodies.write(ResponseEntity.ok(),
+                new SerializedJson("1-2", JSON, null), request);
+
+        assertPlain(response);
+    }
+
+    @Test
+    void responsesVaryOnAcceptEncoding() {
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, write(null).getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, write("gzip").getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    private static ResponseEntity<byte[]> write(String acceptEncoding) {
+        HttpHeaders request = new HttpHeaders();
+        if (acceptEncoding != null) {
+            request.add(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return SerializedBodies.write(ResponseEntity.ok(), BODY, request);
+    }
+
+    private static void assertGzip(ResponseEntity<byte[]> response) {
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(GZIP, response.getBody());
+    }
+
+    private static void assertPlain(ResponseEntity<byte[]> response) {
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(JSON, response.getBody());
+    }
+}
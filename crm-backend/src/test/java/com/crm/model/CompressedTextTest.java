@@ -0,0 +1,58 @@
+package com.crm.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextTest {
+
+    @Test
+    void compressesRepetitiveTextAndDecodesItBack() {
+        String text = "Follow up with the customer about the renewal. ".repeat(100);
+
+        CompressedText stored = CompressedText.of(text);
+
+        assertTrue(stored.compressed());
+        assertTrue(stored.content().length < text.length());
+        assertEquals(text.length(), stored.originalLength());
+        assertEquals(text, CompressedText.decode(stored.content(), true));
+    }
+
+    @Test
+    void keepsShortTextPlain() {
+        String text = "Call back on Monday";
+
+        CompressedText stored = CompressedText.of(text);
+
+        assertFalse(stored.compressed());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), stored.content());
+        assertEquals(text, CompressedText.decode(stored.content(), false));
+    }
+
+    @Test
+    void roundTripsTextAtTheCompressionThreshold() {
+        String text = "x".repeat(127) + "é";
+
+        CompressedText stored = CompressedText.of(text);
+
+        assertEquals(text, CompressedText.decode(stored.content(), stored.compressed()));
+    }
+
+    @Test
+    void measuresOriginalLengthInUtf8Bytes() {
+        String text = "Überprüfung ✓";
+
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, CompressedText.of(text).originalLength());
+    }
+
+    @Test
+    void decodesMissingContentAsNull() {
+        assertNull(CompressedText.decode(null, true));
+    }
+}
@@ -0,0 +1,64 @@
+package com.crm.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Natural key maintenance by the entity callbacks
+ */
+class CustomerTest {
+
+    @Test
+    void newCustomerIsKeyed() {
+        Customer customer = customer("Ann Lee", "Ann@Example.com", null);
+
+        customer.onCreate();
+
+        assertEquals("email:ann@example.com", customer.getNaturalKey());
+        assertNotNull(customer.getUpdatedDate());
+    }
+
+    @Test
+    void unkeyedDuplicateStaysUnkeyedWhenOtherFieldsChange() {
+        // Loaded as the migration left it: its key belongs to an older twin
+        Customer duplicate = customer("Ann Lee", "ann@example.com", null);
+        duplicate.onLoad();
+
+        duplicate.setPhone("+1 555 0100");
+        duplicate.onUpdate();
+
+        assertNull(duplicate.getNaturalKey());
+    }
+
+    @Test
+    void keyFollowsEmailChange() {
+        Customer customer = customer("Ann Lee", "ann@example.com", null);
+        customer.setNaturalKey("email:ann@example.com");
+        customer.onLoad();
+
+        customer.setEmail("ann.lee@example.com");
+        customer.onUpdate();
+
+        assertEquals("email:ann.lee@example.com", customer.getNaturalKey());
+    }
+
+    @Test
+    void keyFallsBackToCompanyAndName() {
+        Customer customer = customer("Ann  Lee", null, "Acme");
+
+        customer.onCreate();
+
+        assertEquals("company:acme/ann lee", customer.getNaturalKey());
+    }
+
+    private static Customer customer(String name, String email, String company) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setEmail(email);
+        customer.setCompany(company);
+        return customer;
+    }
+}
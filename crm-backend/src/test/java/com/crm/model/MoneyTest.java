@@ -0,0 +1,75 @@
+package com.crm.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void storesDecimalAmountAsMinorUnits() {
+        Money money = Money.of(new BigDecimal("999.99"), "usd");
+
+        assertEquals(99999, money.getMinorUnits());
+        assertEquals("USD", money.getCurrency());
+        assertEquals(new BigDecimal("999.99"), money.toDecimal());
+    }
+
+    @Test
+    void usesTheFractionDigitsOfTheCurrency() {
+        assertEquals(1500, Money.of(new BigDecimal("1500"), "JPY").getMinorUnits());
+        assertEquals(1500, Money.of(new BigDecimal("1.500"), "KWD").getMinorUnits());
+        assertEquals(new BigDecimal("1500"), Money.ofMinor(1500, "JPY").toDecimal());
+    }
+
+    @Test
+    void rejectsMoreDecimalsThanTheCurrencyAllows() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001"), "USD"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.5"), "JPY"));
+    }
+
+    @Test
+    void trailingZerosBeyondTheCurrencyScaleAreAccepted() {
+        assertEquals(Money.ofMinor(1050, "USD"), Money.of(new BigDecimal("10.5000"), "USD"));
+    }
+
+    @Test
+    void addsWithoutFloatingPointDrift() {
+        Money total = Money.ofMinor(0, "USD");
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(new BigDecimal("0.10"), "USD"));
+        }
+
+        assertEquals(Money.of(BigDecimal.ONE, "USD"), total);
+    }
+
+    @Test
+    void refusesToMixCurrencies() {
+        Money usd = Money.ofMinor(100, "USD");
+        Money eur = Money.ofMinor(100, "EUR");
+
+        assertThrows(IllegalArgumentException.class, () -> usd.plus(eur));
+        assertThrows(IllegalArgumentException.class, () -> usd.compareTo(eur));
+    }
+
+    @Test
+    void detectsOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, "USD").plus(Money.ofMinor(1, "USD")));
+    }
+
+    @Test
+    void defaultsToUsdWithoutCurrency() {
+        assertEquals(Money.DEFAULT_CURRENCY, Money.ofMinor(1, null).getCurrency());
+        assertEquals(Money.of(new BigDecimal("12.34"), "USD"), Money.fromJson(new BigDecimal("12.34")));
+    }
+
+    @Test
+    void equalityIncludesCurrency() {
+        assertEquals(Money.ofMinor(100, "USD"), Money.ofMinor(100, "usd"));
+        assertEquals(Money.ofMinor(100, "EUR"), Money.ofMinor(100, "USD").withCurrency("EUR"));
+        assertEquals("1.00 USD", Money.ofMinor(100, "USD").toString());
+    }
+}
@@ -0,0 +1,128 @@
+package com.crm.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A pool grows by its waiters up to the ceiling as soon as it falls behind, and shrinks one connection
+ * at a time down to the floor only after a run of quiet intervals
+ */
+class AdaptivePoolSizerTest {
+
+    private static final String POOL = "primary";
+    private static final int SHRINK_AFTER = 3;
+
+    private final HikariConfig config = new HikariConfig();
+    private HikariDataSource dataSource;
+    private HikariPoolMXBean pool;
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        dataSource = mock(HikariDataSource.class);
+        pool = mock(HikariPoolMXBean.class);
+        connectionPoolMonitor = mock(ConnectionPoolMonitor.class);
+        ObjectProvider<HikariDataSource> dataSources = mock(ObjectProvider.class);
+        when(dataSources.orderedStream()).thenAnswer(invocation -> Stream.of(dataSource));
+        when(dataSource.getPoolName()).thenReturn(POOL);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(dataSource.getHikariConfigMXBean()).thenReturn(config);
+
+        sizer = new AdaptivePoolSizer(dataSources, connectionPoolMonitor);
+        ReflectionTestUtils.setField(sizer, "minSize", 5);
+        ReflectionTestUtils.setField(sizer, "maxSize", 20);
+        ReflectionTestUtils.setField(sizer, "shrinkAfterIntervals", SHRINK_AFTER);
+    }
+
+    @Test
+    void growsByTheNumberOfWaiters() {
+        config.setMaximumPoolSize(5);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+        sizer.resize();
+
+        assertEquals(8, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void slowAcquiresWithoutWaitersGrowByOne() {
+        config.setMaximumPoolSize(5);
+        when(connectionPoolMonitor.drainSlowAcquires(POOL)).thenReturn(4L);
+
+        sizer.resize();
+
+        assertEquals(6, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void neverGrowsPastTheCeiling() {
+        config.setMaximumPoolSize(18);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(10);
+
+        sizer.resize();
+        sizer.resize();
+
+        assertEquals(20, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void shrinksByOneAfterARunOfQuietIntervals() {
+        config.setMaximumPoolSize(8);
+        when(pool.getActiveConnections()).thenReturn(2);
+
+        for (int i = 1; i < SHRINK_AFTER; i++) {
+            sizer.resize();
+        }
+        assertEquals(8, config.getMaximumPoolSize());
+
+        sizer.resize();
+        assertEquals(7, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void busyIntervalRestartsTheQuietRun() {
+        config.setMaximumPoolSize(8);
+        when(pool.getActiveConnections()).thenReturn(2, 2, 6, 2, 2);
+
+        for (int i = 0; i < 5; i++) {
+            sizer.resize();
+        }
+
+        assertEquals(8, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void neverShrinksBelowTheFloor() {
+        config.setMaximumPoolSize(5);
+
+        for (int i = 0; i < SHRINK_AFTER * 3; i++) {
+            sizer.resize();
+        }
+
+        assertEquals(5, config.getMaximumPoolSize());
+    }
+
+    @Test
+    void poolNotStartedYetIsLeftAlone() {
+        config.setMaximumPoolSize(5);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(null);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+        sizer.resize();
+
+        assertEquals(5, config.getMaximumPoolSize());
+    }
+}
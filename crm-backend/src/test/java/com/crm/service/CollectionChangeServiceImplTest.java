@@ -0,0 +1,65 @@
+package com.crm.service;
+
+import com.crm.repository.CollectionVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Counters are bumped once per table, in table order, when the transaction commits
+ */
+class CollectionChangeServiceImplTest {
+
+    private CollectionVersionRepository collectionVersionRepository;
+    private CollectionChangeServiceImpl collectionChangeService;
+
+    @BeforeEach
+    void setUp() {
+        collectionVersionRepository = mock(CollectionVersionRepository.class);
+        collectionChangeService = new CollectionChangeServiceImpl(collectionVersionRepository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void changesAreCountedOncePerTableBeforeCommit() {
+        collectionChangeService.recordChange("sales");
+        collectionChangeService.recordChange(CollectionChangeService.USERS);
+        collectionChangeService.recordChange("sales");
+        collectionChangeService.recordChange("customers");
+
+        verify(collectionVersionRepository, never()).increment(anyString());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        InOrder order = inOrder(collectionVersionRepository);
+        order.verify(collectionVersionRepository).increment("customers");
+        order.verify(collectionVersionRepository).increment("sales");
+        order.verify(collectionVersionRepository).increment("users");
+        verify(collectionVersionRepository, times(3)).increment(anyString());
+    }
+
+    @Test
+    void rolledBackChangesAreNotCounted() {
+        collectionChangeService.recordChange("leads");
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), 1);
+
+        verify(collectionVersionRepository, never()).increment(anyString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.crm.service;
+
+import com.crm.service.CustomerDedupServiceImpl.CustomerRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.crm.service.CustomerDedupServiceImpl.COMPANY_SOUNDEX;
+import static com.crm.service.CustomerDedupServiceImpl.DOMAIN;
+import static com.crm.service.CustomerDedupServiceImpl.EMAIL;
+import static com.crm.service.CustomerDedupServiceImpl.KEY_TYPES;
+import static com.crm.service.CustomerDedupServiceImpl.PHONE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Blocking keys of the duplicate scan, and which block a pair sharing several keys is compared in
+ */
+class CustomerDedupServiceImplTest {
+
+    @Test
+    void soundexFollowsAmericanRules() {
+        assertEquals("R163", CustomerDedupServiceImpl.soundex("Robert"));
+        assertEquals("R163", CustomerDedupServiceImpl.soundex("Rupert"));
+        assertEquals("A261", CustomerDedupServiceImpl.soundex("Ashcraft"));
+        assertEquals("T522", CustomerDedupServiceImpl.soundex("Tymczak"));
+        assertEquals("P236", CustomerDedupServiceImpl.soundex("Pfister"));
+        assertEquals("L000", CustomerDedupServiceImpl.soundex("Lee"));
+        assertNull(CustomerDedupServiceImpl.soundex("123"));
+    }
+
+    @Test
+    void pairIsComparedInTheFirstComparedBlockTheyShare() {
+        CustomerRow a = CustomerRow.of(1, "Ann Lee", "Ann@Acme.io", "+1 (555) 123-4567", "Acme Inc");
+        CustomerRow b = CustomerRow.of(2, "Ann Lee", "ann@acme.io", "555.123.4567", "The Acme Corp");
+        List<Set<String>> compared = compared(Set.of("ann@acme.io"), Set.of("acme.io"), Set.of("5551234567"), Set.of("A250"));
+
+        assertFalse(CustomerDedupServiceImpl.sharesEarlierKey(a, b, EMAIL, compared));
+        assertTrue(CustomerDedupServiceImpl.sharesEarlierKey(a, b, DOMAIN, compared));
+        assertTrue(CustomerDedupServiceImpl.sharesEarlierKey(a, b, PHONE, compared));
+        assertTrue(CustomerDedupServiceImpl.sharesEarlierKey(a, b, COMPANY_SOUNDEX, compared));
+    }
+
+    @Test
+    void oversizedEarlierBlockDoesNotSuppressTheComparison() {
+        CustomerRow a = CustomerRow.of(1, "Ann Lee", "ann@acme.io", "5551234567", null);
+        CustomerRow b = CustomerRow.of(2, "Bob Ray", "bob@acme.io", "5551234567", null);
+        // The acme.io domain block was skipped as oversized, so the pair must be compared by phone
+        List<Set<String>> compared = compared(Set.of(), Set.of(), Set.of("5551234567"), Set.of());
+
+        assertFalse(CustomerDedupServiceImpl.sharesEarlierKey(a, b, PHONE, compared));
+    }
+
+    @Test
+    void freeMailDomainsAreNotBlocked() {
+        CustomerRow a = CustomerRow.of(1, "Ann Lee", "ann@gmail.com", "5551234567", null);
+        CustomerRow b = CustomerRow.of(2, "Bob Ray", "bob@gmail.com", "5551234567", null);
+        List<Set<String>> compared = compared(Set.of(), Set.of("gmail.com"), Set.of("5551234567"), Set.of());
+
+        assertFalse(CustomerDedupServiceImpl.sharesEarlierKey(a, b, PHONE, compared));
+    }
+
+    @Test
+    void companySoundexIgnoresLegalSuffixesAndSpelling() {
+        CustomerRow a = CustomerRow.of(1, "Ann Lee", null, null, "Smith & Sons Ltd");
+        CustomerRow b = CustomerRow.of(2, "Ann Lee", null, null, "Smyth Sons GmbH");
+        List<Set<String>> compared = compared(Set.of(), Set.of(), Set.of(), Set.of("S530S520"));
+
+        assertTrue(CustomerDedupServiceImpl.sharesEarlierKey(a, b, KEY_TYPES, compared));
+    }
+
+    @Test
+    void shortPhoneNumbersAndMissingEmailsGiveNoKey() {
+        CustomerRow a = CustomerRow.of(1, "Ann Lee", "not-an-email", "12-34", null);
+        CustomerRow b = CustomerRow.of(2, "Ann Lee", "not-an-email", "12-34", null);
+        List<Set<String>> compared = compared(Set.of("not-an-email"), Set.of(), Set.of("1234"), Set.of());
+
+        assertFalse(CustomerDedupServiceImpl.sharesEarlierKey(a, b, KEY_TYPES, compared));
+    }
+
+    private static List<Set<String>> compared(Set<String> emails, Set<String> domains, Set<String> phones,
+                                              Set<String> companies) {
+        List<Set<String>> compared = new ArrayList<>(KEY_TYPES);
+        compared.add(emails);
+        compared.add(domains);
+        compared.add(phones);
+        compared.add(companies);
+        return compared;
+    }
+}
@@ -0,0 +1,178 @@
+package com.crm.service;
+
+import com.crm.dto.CustomerOverview;
+import com.crm.dto.CustomerOverviewSale;
+import com.crm.model.Customer;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.SaleRepository;
+import com.crm.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sections run in parallel under a shared permit cap, and the overview is answered at the deadline
+ * with late or failed sections listed as incomplete
+ */
+class CustomerOverviewServiceImplTest {
+
+    private static final long CUSTOMER_ID = 7L;
+    private static final long DEADLINE_MS = 300;
+
+    private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private CustomerService customerService;
+    private SaleRepository saleRepository;
+    private TaskRepository taskRepository;
+    private LeadRepository leadRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerService = mock(CustomerService.class);
+        saleRepository = mock(SaleRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        leadRepository = mock(LeadRepository.class);
+        Customer customer = new Customer();
+        customer.setId(CUSTOMER_ID);
+        when(customerService.findById(CUSTOMER_ID)).thenReturn(Optional.of(customer));
+        when(saleRepository.sumByCurrencyForCustomer(CUSTOMER_ID))
+                .thenReturn(List.<Object[]>of(new Object[]{"USD", 2L, 150_000L}));
+        when(saleRepository.findOverviewByCustomerId(anyLong(), any()))
+                .thenReturn(List.of(mock(CustomerOverviewSale.class)));
+        when(taskRepository.findOverviewByCustomerId(anyLong(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void allSectionsInTimeGiveACompleteOverview() {
+        CustomerOverview overview = service(3).getOverview(CUSTOMER_ID).join().orElseThrow();
+
+        assertTrue(overview.getIncompleteSections().isEmpty());
+        assertEquals(1, overview.getSalesTotals().size());
+        assertEquals(1, overview.getRecentSales().size());
+    }
+
+    @Test
+    void lateSectionIsReportedAtTheDeadlineInsteadOfDelayingTheResponse() {
+        when(taskRepository.findOverviewByCustomerId(anyLong(), any())).thenAnswer(invocation -> {
+            released.await();
+            return List.of();
+        });
+        long start = System.nanoTime();
+
+        CustomerOverview overview = service(3).getOverview(CUSTOMER_ID).join().orElseThrow();
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < DEADLINE_MS + 1_000, "answered after " + elapsedMs + " ms");
+        assertEquals(List.of("tasks"), overview.getIncompleteSections());
+        assertEquals(1, overview.getRecentSales().size());
+        assertTrue(overview.getTasks().isEmpty());
+    }
+
+    @Test
+    void failedSectionIsReportedLikeALateOne() {
+        when(saleRepository.sumByCurrencyForCustomer(CUSTOMER_ID)).thenThrow(new IllegalStateException("boom"));
+
+        CustomerOverview overview = service(3).getOverview(CUSTOMER_ID).join().orElseThrow();
+
+        assertEquals(List.of("salesTotals"), overview.getIncompleteSections());
+        assertTrue(overview.getSalesTotals().isEmpty());
+    }
+
+    @Test
+    void sectionQueriesNeverExceedThePermits() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Answer<List<Object>> query = invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return List.of();
+        };
+        when(saleRepository.findOverviewByCustomerId(anyLong(), any())).thenAnswer(query);
+        when(taskRepository.findOverviewByCustomerId(anyLong(), any())).thenAnswer(query);
+        CustomerOverviewService service = service(2);
+
+        List<CompletableFuture<Optional<CustomerOverview>>> overviews = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            overviews.add(service.getOverview(CUSTOMER_ID));
+        }
+        overviews.forEach(CompletableFuture::join);
+
+        assertTrue(maxRunning.get() <= 2, maxRunning.get() + " section queries ran at once");
+    }
+
+    @Test
+    void sectionStillWaitingForAPermitAtTheDeadlineIsSkipped() throws Exception {
+        // Whichever section gets the only permit holds it past the deadline
+        AtomicInteger queried = new AtomicInteger();
+        Answer<List<Object>> stuck = invocation -> {
+            queried.incrementAndGet();
+            released.await();
+            return List.of();
+        };
+        when(saleRepository.sumByCurrencyForCustomer(CUSTOMER_ID)).thenAnswer(stuck);
+        when(saleRepository.findOverviewByCustomerId(anyLong(), any())).thenAnswer(stuck);
+        when(taskRepository.findOverviewByCustomerId(anyLong(), any())).thenAnswer(stuck);
+
+        CustomerOverview overview = service(1).getOverview(CUSTOMER_ID).join().orElseThrow();
+
+        assertEquals(3, overview.getIncompleteSections().size());
+        // Let the two sections queued for the permit give up before it is freed
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() > 1 && System.nanoTime() < until) {
+            Thread.sleep(10);
+        }
+        released.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, queried.get());
+    }
+
+    @Test
+    void unknownCustomerIssuesNoSectionQueries() {
+        when(customerService.findById(CUSTOMER_ID)).thenReturn(Optional.empty());
+
+        assertTrue(service(3).getOverview(CUSTOMER_ID).join().isEmpty());
+
+        verifyNoInteractions(taskRepository, leadRepository);
+        verify(saleRepository, never()).sumByCurrencyForCustomer(anyLong());
+    }
+
+    private CustomerOverviewServiceImpl service(int maxConcurrentQueries) {
+        CustomerOverviewServiceImpl service = new CustomerOverviewServiceImpl(customerService, saleRepository,
+                taskRepository, leadRepository, executor, maxConcurrentQueries);
+        ReflectionTestUtils.setField(service, "deadlineMs", DEADLINE_MS);
+        ReflectionTestUtils.setField(service, "maxSales", 20);
+        ReflectionTestUtils.setField(service, "maxTasks", 20);
+        return service;
+    }
+}
@@ -0,0 +1,100 @@
+package com.crm.service;
+
+import com.crm.enums.LargeTextField;
+import com.crm.model.Customer;
+import com.crm.repository.CustomerRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cached customers are checked against the database, so changes made on another instance are picked up
+ */
+class CustomerServiceTest {
+
+    private CustomerRepository customerRepository;
+    private Cache secondLevelCache;
+    private CustomerService customerService;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        secondLevelCache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        LargeTextService largeTextService = mock(LargeTextService.class);
+        when(largeTextService.load(LargeTextField.CUSTOMER_NOTES, 1L)).thenReturn("notes");
+        customerService = new CustomerService(100, 600);
+        ReflectionTestUtils.setField(customerService, "customerRepository", customerRepository);
+        ReflectionTestUtils.setField(customerService, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(customerService, "largeTextService", largeTextService);
+        ReflectionTestUtils.setField(customerService, "collectionChangeService", mock(CollectionChangeService.class));
+    }
+
+    @Test
+    void cachedCustomerIsServedWhileItsVersionIsCurrent() {
+        when(customerRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer("Acme", 3L)));
+
+        customerService.findById(1L);
+        Customer second = customerService.findById(1L).orElseThrow();
+
+        assertEquals("Acme", second.getName());
+        assertEquals("notes", second.getNotes());
+        verify(customerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void customerChangedOnAnotherInstanceIsReloaded() {
+        when(customerRepository.findVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer("Acme", 3L)),
+                Optional.of(customer("Acme Ltd", 4L)));
+
+        customerService.findById(1L);
+        Customer reloaded = customerService.findById(1L).orElseThrow();
+
+        assertEquals("Acme Ltd", reloaded.getName());
+        assertEquals(4L, reloaded.getVersion());
+        verify(secondLevelCache, times(2)).evict(Customer.class, 1L);
+    }
+
+    @Test
+    void customerDeletedOnAnotherInstanceIsNotServed() {
+        when(customerRepository.findVersionById(1L)).thenReturn(Optional.of(3L), Optional.empty());
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer("Acme", 3L)));
+
+        customerService.findById(1L);
+
+        assertTrue(customerService.findById(1L).isEmpty());
+    }
+
+    @Test
+    void listIsCachedPerCollectionVersion() {
+        when(customerRepository.findAll()).thenReturn(List.of(customer("Acme", 3L)), List.of(customer("Acme Ltd", 4L)));
+
+        assertEquals("Acme", customerService.findAll("1.100").get(0).getName());
+        assertEquals("Acme", customerService.findAll("1.100").get(0).getName());
+        assertEquals("Acme Ltd", customerService.findAll("1.200").get(0).getName());
+        verify(customerRepository, times(2)).findAll();
+    }
+
+    private static Customer customer(String name, Long version) {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName(name);
+        customer.setVersion(version);
+        return customer;
+    }
+}
@@ -0,0 +1,182 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.Role;
+import com.crm.event.DomainEvent;
+import com.crm.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deltas fan out once per event to every stream, redacted by role, and a stuck stream is dropped without holding up the rest
+ */
+class DashboardStreamServiceImplTest {
+
+    private static final int MAX_PENDING = 4;
+
+    private DashboardStreamServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardStreamServiceImpl();
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maxPending", MAX_PENDING);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void managersSeeEveryPayloadAndOthersOnlyTheirOwn() throws Exception {
+        RecordingEmitter manager = subscribe(user(1L, Role.MANAGER), new RecordingEmitter());
+        RecordingEmitter rep = subscribe(user(2L, Role.SALES), new RecordingEmitter());
+
+        service.onEvents(List.of(
+                event(10, DomainEventType.TASK_CREATED, Map.of("assignedToId", 2, "title", "Call Acme")),
+                event(11, DomainEventType.SALE_CREATED, Map.of("salesRepId", 3, "customerName", "Globex"))));
+
+        assertTrue(manager.next().contains("Call Acme"));
+        assertTrue(manager.next().contains("Globex"));
+        assertTrue(rep.next().contains("Call Acme"));
+        String redacted = rep.next();
+        assertTrue(redacted.contains("\"aggregateId\":11"));
+        assertTrue(redacted.contains("\"payload\":{}"));
+        assertFalse(redacted.contains("Globex"));
+    }
+
+    @Test
+    void leadFieldEditsAreNotStreamed() throws Exception {
+        RecordingEmitter emitter = subscribe(user(1L, Role.ADMIN), new RecordingEmitter());
+
+        service.onEvents(List.of(
+                event(20, DomainEventType.LEAD_UPDATED, Map.of()),
+                event(21, DomainEventType.LEAD_STATUS_CHANGED, Map.of())));
+
+        assertTrue(emitter.next().startsWith("id:21\n"));
+        assertEquals(0, emitter.frames.size());
+    }
+
+    @Test
+    void stuckStreamIsClosedWithoutHoldingUpTheRelayOrOtherStreams() throws Exception {
+        StuckEmitter stuck = new StuckEmitter();
+        RecordingEmitter healthy = subscribe(user(1L, Role.ADMIN), new RecordingEmitter());
+        service.subscribe(user(2L, Role.ADMIN), stuck);
+        // The stuck stream's sender is blocked writing its "connected" comment
+        assertTrue(stuck.sending.await(5, TimeUnit.SECONDS));
+
+        List<DomainEvent> events = new ArrayList<>();
+        for (int i = 0; i <= MAX_PENDING; i++) {
+            events.add(event(30 + i, DomainEventType.TASK_CREATED, Map.of()));
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.onEvents(events));
+
+        assertEquals(1, service.getSubscriberCount());
+        for (int i = 0; i <= MAX_PENDING; i++) {
+            assertTrue(healthy.next().startsWith("id:" + (30 + i) + "\n"));
+        }
+        stuck.released.countDown();
+        assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private RecordingEmitter subscribe(User user, RecordingEmitter emitter) throws InterruptedException {
+        service.subscribe(user, emitter);
+        assertTrue(emitter.next().contains("connected"));
+        return emitter;
+    }
+
+    private static User user(Long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+
+    private static DomainEvent event(long id, DomainEventType type, Map<String, Object> payload) {
+        return new DomainEvent(id, type, id, payload, LocalDateTime.of(2024, 5, 14, 10, 0));
+    }
+
+    /**
+     * Records each frame as text. Like the real emitter, send and complete share one lock.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final ReentrantLock lock = new ReentrantLock();
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            lock.lock();
+            try {
+                beforeSend();
+                StringBuilder frame = new StringBuilder();
+                items.forEach(item -> frame.append(item.getData()));
+                frames.add(frame.toString());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void complete() {
+            lock.lock();
+            try {
+                completed.countDown();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void beforeSend() {
+        }
+
+        String next() throws InterruptedException {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame, "no frame was sent");
+            return frame;
+        }
+    }
+
+    /**
+     * A client that stopped reading: the first send never returns until released
+     */
+    private static final class StuckEmitter extends RecordingEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        void beforeSend() {
+            sending.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.crm.service;
+
+import com.crm.enums.VersionedResource;
+import com.crm.model.SerializedJson;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each version is serialized once, and gzipped only when large enough to be worth it
+ */
+class JsonResponseCacheImplTest {
+
+    private static final int MIN_COMPRESS_BYTES = 256;
+    private static final int MAX_BYTES = 64 * 1024;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final JsonResponseCacheImpl cache = new JsonResponseCacheImpl(jsonMapper, MIN_COMPRESS_BYTES, MAX_BYTES);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void smallBodyIsNotCompressed() {
+        SerializedJson body = cache.get(VersionedResource.CUSTOMERS, "1-1", loader(2));
+
+        assertTrue(body.json().length < MIN_COMPRESS_BYTES);
+        assertNull(body.gzip());
+    }
+
+    @Test
+    void largeBodyGetsAGzipCopyOfTheSameBytes() throws IOException {
+        SerializedJson body = cache.get(VersionedResource.CUSTOMERS, "1-1", loader(200));
+
+        assertNotNull(body.gzip());
+        assertTrue(body.gzip().length < body.json().length);
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(body.json(), gzip.readAllBytes());
+        }
+        assertArrayEquals(jsonMapper.writeValueAsBytes(rows(200)), body.json());
+    }
+
+    @Test
+    void sameVersionIsServedWithoutReloading() {
+        SerializedJson first = cache.get(VersionedResource.CUSTOMERS, "1-1", loader(200));
+
+        assertSame(first, cache.get(VersionedResource.CUSTOMERS, "1-1", loader(200)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void newVersionReplacesTheOldBody() {
+        cache.get(VersionedResource.CUSTOMERS, "1-1", loader(200));
+        SerializedJson second = cache.get(VersionedResource.CUSTOMERS, "2-1", loader(201));
+
+        assertSame(second, cache.get(VersionedResource.CUSTOMERS, "2-1", loader(201)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void oversizedBodyIsServedButNotKept() {
+        // Comfortably above MAX_BYTES
+        cache.get(VersionedResource.CUSTOMERS, "1-1", loader(5_000));
+        cache.get(VersionedResource.CUSTOMERS, "1-1", loader(5_000));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<List<Map<String, Object>>> loader(int rows) {
+        return () -> {
+            loads.incrementAndGet();
+            return rows(rows);
+        };
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of("id", i, "name", "Customer " + i));
+        }
+        return rows;
+    }
+}
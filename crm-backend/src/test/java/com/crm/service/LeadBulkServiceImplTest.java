@@ -0,0 +1,151 @@
+package com.crm.service;
+
+import com.crm.dto.BulkLeadFilterUpdateRequest;
+import com.crm.dto.BulkLeadReassignRequest;
+import com.crm.dto.BulkLeadStatusRequest;
+import com.crm.dto.BulkOperationResult;
+import com.crm.enums.BulkOperationOutcome;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Lead;
+import com.crm.model.LeadBatchAudit;
+import com.crm.repository.LeadBatchAuditRepository;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filtered bulk updates: the empty-filter guard, and one transaction per chunk
+ */
+class LeadBulkServiceImplTest {
+
+    private LeadRepository leadRepository;
+    private LeadBatchAuditRepository auditRepository;
+    private OutboxService outboxService;
+    private PlatformTransactionManager transactionManager;
+    private LeadBulkServiceImpl bulkService;
+
+    @BeforeEach
+    void setUp() {
+        leadRepository = mock(LeadRepository.class);
+        auditRepository = mock(LeadBatchAuditRepository.class);
+        outboxService = mock(OutboxService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        bulkService = new LeadBulkServiceImpl(leadRepository, mock(UserRepository.class), auditRepository,
+                mock(LeadFunnelService.class), outboxService, transactionManager, 2);
+        when(auditRepository.save(any(LeadBatchAudit.class))).thenAnswer(invocation -> {
+            LeadBatchAudit audit = invocation.getArgument(0);
+            audit.setId(7L);
+            return audit;
+        });
+    }
+
+    @Test
+    void updateByFilterWithoutFilterIsRejected() {
+        BulkLeadFilterUpdateRequest request = new BulkLeadFilterUpdateRequest();
+        request.setNewStatus(LeadStatus.LOST);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkService.updateByFilter(request));
+
+        verifyNoInteractions(leadRepository, transactionManager, auditRepository);
+    }
+
+    @Test
+    void reassignWithoutSourceRepIsRejected() {
+        BulkLeadReassignRequest request = new BulkLeadReassignRequest();
+        request.setToSalesRepId(5L);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkService.reassign(request));
+
+        verifyNoInteractions(leadRepository, transactionManager, auditRepository);
+    }
+
+    @Test
+    void updateByFilterWithoutChangeIsRejected() {
+        BulkLeadFilterUpdateRequest request = new BulkLeadFilterUpdateRequest();
+        request.setStatus(LeadStatus.NEW);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkService.updateByFilter(request));
+
+        verifyNoInteractions(leadRepository, transactionManager, auditRepository);
+    }
+
+    @Test
+    void filteredUpdateCommitsEachChunkAndPublishesChanges() {
+        BulkLeadFilterUpdateRequest request = new BulkLeadFilterUpdateRequest();
+        request.setStatus(LeadStatus.NEW);
+        request.setNewStatus(LeadStatus.LOST);
+        when(leadRepository.findIdsAfter(eq(0L), eq(LeadStatus.NEW), isNull(), isNull(), any())).thenReturn(List.of(1L, 2L));
+        when(leadRepository.findIdsAfter(eq(2L), eq(LeadStatus.NEW), isNull(), isNull(), any())).thenReturn(List.of(3L));
+        when(leadRepository.lockStates(anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Long id : invocation.<List<Long>>getArgument(0)) {
+                rows.add(new Object[]{id, "NEW", null});
+            }
+            return rows;
+        });
+        when(leadRepository.bulkClose(anyList(), eq(List.of(LeadStatus.NEW)), eq(LeadStatus.LOST), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        when(leadRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Lead> leads = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                Lead lead = new Lead();
+                lead.setId(id);
+                lead.setStatus(LeadStatus.LOST);
+                leads.add(lead);
+            }
+            return leads;
+        });
+
+        BulkOperationResult result = bulkService.updateByFilter(request);
+
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        assertEquals(7L, result.getAuditId());
+        // One transaction per chunk, each also moving the audit totals, then one closing the audit
+        verify(transactionManager, times(3)).commit(any());
+        verify(auditRepository).recordProgress(eq(7L), eq(2L), eq(2L), eq(1), anyLong());
+        verify(auditRepository).recordProgress(eq(7L), eq(3L), eq(3L), eq(2), anyLong());
+        verify(auditRepository).finish(eq(7L), eq(BulkOperationOutcome.COMPLETED), anyLong(), any());
+        verify(outboxService, times(3)).leadChanged(eq(DomainEventType.LEAD_STATUS_CHANGED), any(Lead.class), eq(LeadStatus.NEW));
+    }
+
+    @Test
+    void failedChunkLeavesAFailedAuditWithTheCommittedTotals() {
+        BulkLeadStatusRequest request = new BulkLeadStatusRequest();
+        request.setLeadIds(List.of(1L, 2L, 3L));
+        request.setStatus(LeadStatus.LOST);
+        when(leadRepository.lockStates(anyList())).thenReturn(List.of());
+        when(leadRepository.bulkClose(eq(List.of(1L, 2L)), anyList(), eq(LeadStatus.LOST), any())).thenReturn(2);
+        when(leadRepository.bulkClose(eq(List.of(3L)), anyList(), eq(LeadStatus.LOST), any()))
+                .thenThrow(new IllegalStateException("lock wait timeout"));
+
+        assertThrows(IllegalStateException.class, () -> bulkService.changeStatus(request));
+
+        verify(auditRepository).save(any(LeadBatchAudit.class));
+        verify(auditRepository).recordProgress(eq(7L), eq(2L), eq(2L), eq(1), anyLong());
+        verify(auditRepository, never()).recordProgress(eq(7L), eq(3L), anyLong(), eq(2), anyLong());
+        verify(auditRepository).finish(eq(7L), eq(BulkOperationOutcome.FAILED), anyLong(), any());
+    }
+}
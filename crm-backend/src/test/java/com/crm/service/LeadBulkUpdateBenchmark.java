@@ -0,0 +1,129 @@
+package com.crm.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the bulk status change: the set-based, status-guarded UPDATE of one chunk that
+ * {@code LeadRepository.bulkTransition} runs, against the per-row UPDATE it replaced, each chunk in
+ * one transaction. Scores are rows per second. Every invocation flips the chunk between NEW and
+ * CONTACTED, so the table ends as it started. Point it at a populated database, for example:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.crm.service.LeadBulkUpdateBenchmark \
+ *     -Dexec.args="-p jdbcUrl=jdbc:mysql://localhost:3306/crm_db -p user=root -p password=secret"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(LeadBulkUpdateBenchmark.CHUNK_SIZE)
+public class LeadBulkUpdateBenchmark {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String SET_BASED =
+            "UPDATE leads SET status = :toStatus, score = score + :scoreDelta, updated_date = :now, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = :fromStatus";
+
+    private static final String PER_ROW =
+            "UPDATE leads SET status = :toStatus, score = score + :scoreDelta, updated_date = :now, version = version + 1 " +
+            "WHERE id = :id AND status = :fromStatus";
+
+    @Param("jdbc:mysql://localhost:3306/crm_db")
+    private String jdbcUrl;
+
+    @Param("root")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> ids;
+    private boolean contacted;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl, user, password);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ids = jdbcTemplate.queryForList("SELECT id FROM leads WHERE status = 'NEW' ORDER BY id LIMIT " + CHUNK_SIZE,
+                new MapSqlParameterSource(), Long.class);
+        if (ids.size() < CHUNK_SIZE) {
+            throw new IllegalStateException("Needs at least " + CHUNK_SIZE + " NEW leads, found " + ids.size());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDirection() {
+        // Whatever direction the last iteration ended in, put the chunk back to NEW
+        jdbcTemplate.update("UPDATE leads SET status = 'NEW', score = score - 15 WHERE id IN (:ids) AND status = 'CONTACTED'",
+                new MapSqlParameterSource("ids", ids));
+        contacted = false;
+    }
+
+    @Benchmark
+    public int setBasedChunk() {
+        MapSqlParameterSource params = nextTransition().addValue("ids", ids);
+        Integer updated = transactionTemplate.execute(tx -> jdbcTemplate.update(SET_BASED, params));
+        return updated != null ? updated : 0;
+    }
+
+    @Benchmark
+    public int perRowChunk() {
+        MapSqlParameterSource params = nextTransition();
+        Integer updated = transactionTemplate.execute(tx -> {
+            int count = 0;
+            for (Long id : ids) {
+                count += jdbcTemplate.update(PER_ROW, params.addValue("id", id));
+            }
+            return count;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    private MapSqlParameterSource nextTransition() {
+        String from = contacted ? "CONTACTED" : "NEW";
+        String to = contacted ? "NEW" : "CONTACTED";
+        contacted = !contacted;
+        return new MapSqlParameterSource()
+                .addValue("fromStatus", from)
+                .addValue("toStatus", to)
+                .addValue("scoreDelta", contacted ? 15 : -15)
+                .addValue("now", LocalDateTime.now());
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(LeadBulkUpdateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
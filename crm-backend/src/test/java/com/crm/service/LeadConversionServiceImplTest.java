@@ -0,0 +1,96 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LargeTextField;
+import com.crm.enums.LeadStatus;
+import com.crm.model.Customer;
+import com.crm.model.Lead;
+import com.crm.repository.CustomerRepository;
+import com.crm.repository.LeadBatchAuditRepository;
+import com.crm.repository.LeadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Converting a lead whose email already belongs to a customer links it to that customer
+ */
+class LeadConversionServiceImplTest {
+
+    private LeadRepository leadRepository;
+    private CustomerRepository customerRepository;
+    private LargeTextService largeTextService;
+    private OutboxService outboxService;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private LeadConversionServiceImpl conversionService;
+
+    @BeforeEach
+    void setUp() {
+        leadRepository = mock(LeadRepository.class);
+        customerRepository = mock(CustomerRepository.class);
+        largeTextService = mock(LargeTextService.class);
+        outboxService = mock(OutboxService.class);
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        conversionService = new LeadConversionServiceImpl(leadRepository, customerRepository,
+                mock(LeadBatchAuditRepository.class), mock(LeadFunnelService.class), mock(CustomerService.class),
+                largeTextService, outboxService, jdbcTemplate, mock(PlatformTransactionManager.class), 500);
+    }
+
+    @Test
+    void leadMatchingExistingCustomerIsLinkedToIt() throws Exception {
+        Customer existing = new Customer();
+        existing.setId(50L);
+        Lead lead = new Lead();
+        lead.setId(1L);
+        lead.setStatus(LeadStatus.CONVERTED);
+        lead.setConvertedCustomer(existing);
+
+        when(leadRepository.existsById(1L)).thenReturn(true);
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "CONTACTED", null}));
+        when(leadRepository.findConvertibleRows(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Ann Lee", " Ann@Example.com ", "web"}));
+        // The insert hit the unique natural_key, so no customer names this lead as its source
+        when(jdbcTemplate.batchUpdate(any(String.class), any(SqlParameterSource[].class))).thenReturn(new int[]{0});
+        doAnswer(invocation -> {
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong(1)).thenReturn(50L);
+            when(row.getString(2)).thenReturn(Customer.naturalKeyOf("ann@example.com", null, null));
+            invocation.<RowCallbackHandler>getArgument(2).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(argThat((String sql) -> sql.contains("natural_key IN")),
+                any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(leadRepository.findAllById(anyCollection())).thenReturn(List.of(lead));
+        when(customerRepository.findBySourceLeadId(1L)).thenReturn(Optional.empty());
+        when(leadRepository.findConvertedCustomerIdById(1L)).thenReturn(Optional.of(50L));
+        when(customerRepository.findById(50L)).thenReturn(Optional.of(existing));
+
+        Optional<Customer> converted = conversionService.convert(1L);
+
+        assertEquals(50L, converted.orElseThrow().getId());
+        verify(jdbcTemplate).batchUpdate(argThat((String sql) -> sql.startsWith("UPDATE leads")),
+                argThat((SqlParameterSource[] links) -> links.length == 1
+                        && Long.valueOf(1L).equals(links[0].getValue("id"))
+                        && Long.valueOf(50L).equals(links[0].getValue("customerId"))));
+        // The existing customer's notes are left alone
+        verify(largeTextService).storeAll(LargeTextField.CUSTOMER_NOTES, Map.of());
+        verify(outboxService).leadChanged(eq(DomainEventType.LEAD_CONVERTED), eq(lead), eq(LeadStatus.CONTACTED));
+    }
+}
@@ -0,0 +1,85 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The backfill only counts leads older than the first live count, sets rather than adds its part, and runs once
+ */
+class LeadFunnelRollupBackfillTest {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private LeadFunnelRollupBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        backfill = new LeadFunnelRollupBackfill(jdbcTemplate, transactionManager);
+        when(jdbcTemplate.queryForObject(contains("EXISTS"), any(SqlParameterSource.class), eq(Boolean.class)))
+                .thenReturn(false);
+    }
+
+    @Test
+    void cutoffIsTheEarliestLiveCountNotTheStartOfItsDay() {
+        LocalDateTime firstCounted = LocalDateTime.of(2024, 5, 14, 10, 42, 7);
+        when(jdbcTemplate.queryForObject(contains("MIN(first_counted_at)"), any(SqlParameterSource.class),
+                eq(LocalDateTime.class))).thenReturn(firstCounted);
+
+        backfill.backfill();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), params.capture());
+        params.getAllValues().forEach(p -> assertEquals(firstCounted, p.getValue("cutoff")));
+        // A rerun or a second instance writes the same backfilled part instead of adding it again
+        sql.getAllValues().forEach(statement -> {
+            assertTrue(statement.contains("- lead_daily_rollups.backfilled_count + c.entered"));
+            assertTrue(statement.contains("backfilled_count = c.entered"));
+        });
+    }
+
+    @Test
+    void withoutLiveCountsEveryExistingLeadIsBackfilled() {
+        LocalDateTime before = LocalDateTime.now();
+
+        backfill.backfill();
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(anyString(), params.capture());
+        LocalDateTime cutoff = (LocalDateTime) params.getValue().getValue("cutoff");
+        assertFalse(cutoff.isBefore(before));
+    }
+
+    @Test
+    void doesNothingOnceBackfilled() {
+        when(jdbcTemplate.queryForObject(contains("EXISTS"), any(SqlParameterSource.class), eq(Boolean.class)))
+                .thenReturn(true);
+
+        backfill.backfill();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+}
@@ -0,0 +1,64 @@
+package com.crm.service;
+
+import com.crm.enums.LeadStatus;
+import com.crm.model.Lead;
+import com.crm.repository.LeadDailyRollupRepository;
+import com.crm.repository.LeadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Live counts are stamped with the lead timestamp the backfill cutoff is compared against
+ */
+class LeadFunnelServiceImplTest {
+
+    private LeadDailyRollupRepository rollupRepository;
+    private LeadFunnelServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(LeadDailyRollupRepository.class);
+        service = new LeadFunnelServiceImpl(rollupRepository, mock(LeadRepository.class));
+    }
+
+    @Test
+    void creationIsStampedWithTheCreatedDate() {
+        LocalDateTime created = LocalDateTime.of(2024, 5, 14, 10, 42, 7);
+        Lead lead = lead(LeadStatus.NEW, created, created);
+
+        service.recordCreated(lead);
+
+        verify(rollupRepository).increment(any(LocalDate.class), eq("Website Form"), anyLong(), eq("NEW"), eq(1L),
+                eq(created));
+    }
+
+    @Test
+    void transitionIsStampedWithTheUpdatedDate() {
+        LocalDateTime updated = LocalDateTime.of(2024, 5, 14, 11, 0, 0);
+        Lead lead = lead(LeadStatus.CONTACTED, updated.minusDays(3), updated);
+
+        service.recordTransition(lead, LeadStatus.CONTACTED);
+
+        verify(rollupRepository).increment(any(LocalDate.class), anyString(), anyLong(), eq("CONTACTED"), eq(1L),
+                eq(updated));
+    }
+
+    private static Lead lead(LeadStatus status, LocalDateTime created, LocalDateTime updated) {
+        Lead lead = new Lead();
+        lead.setSource("Website Form");
+        lead.setStatus(status);
+        lead.setCreatedDate(created);
+        lead.setUpdatedDate(updated);
+        return lead;
+    }
+}
@@ -0,0 +1,76 @@
+package com.crm.service;
+
+import com.crm.model.Lead;
+import com.crm.repository.LeadRepository;
+import com.crm.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The rescore writes changed scores only, guarded by version, without touching anything else
+ */
+class LeadRescoreJobTest {
+
+    private LeadRepository leadRepository;
+    private LeadScoringService leadScoringService;
+    private LeadRescoreJob job;
+
+    @BeforeEach
+    void setUp() {
+        leadRepository = mock(LeadRepository.class);
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        leadScoringService = mock(LeadScoringService.class);
+        job = new LeadRescoreJob(leadRepository, taskRepository, leadScoringService, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(job, "chunkSize", 10);
+        when(taskRepository.countTasksByLeadIds(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void writesOnlyChangedScoresGuardedByVersion() {
+        Lead unchanged = lead(1L, 30, 4L);
+        Lead changed = lead(2L, 30, 5L);
+        when(leadRepository.findByStatusInAfter(eq(0L), any(), any())).thenReturn(List.of(unchanged, changed));
+        when(leadScoringService.computeScore(eq(unchanged), anyLong(), anyLong(), any())).thenReturn(30);
+        when(leadScoringService.computeScore(eq(changed), anyLong(), anyLong(), any())).thenReturn(40);
+        when(leadRepository.updateScoreIfVersion(2L, 40, 5L)).thenReturn(1);
+
+        assertEquals(1, job.rescoreAll());
+
+        verify(leadRepository).updateScoreIfVersion(2L, 40, 5L);
+        verify(leadRepository, never()).updateScoreIfVersion(eq(1L), anyInt(), any());
+        verify(leadRepository, never()).save(any());
+    }
+
+    @Test
+    void leadEditedMeanwhileIsNotCounted() {
+        Lead lead = lead(3L, 10, 2L);
+        when(leadRepository.findByStatusInAfter(eq(0L), any(), any())).thenReturn(List.of(lead));
+        when(leadScoringService.computeScore(eq(lead), anyLong(), anyLong(), any())).thenReturn(25);
+        when(leadRepository.updateScoreIfVersion(3L, 25, 2L)).thenReturn(0);
+
+        assertEquals(0, job.rescoreAll());
+    }
+
+    private static Lead lead(Long id, int score, Long version) {
+        Lead lead = new Lead();
+        lead.setId(id);
+        lead.setScore(score);
+        lead.setVersion(version);
+        return lead;
+    }
+}
@@ -0,0 +1,118 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.event.DomainEventBus;
+import com.crm.event.DomainEventSink;
+import com.crm.model.OutboxEvent;
+import com.crm.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A sink failure keeps the events pending: the batch is retried singly and only the failing event is counted
+ */
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private DomainEventSink healthySink;
+    private DomainEventSink flakySink;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        healthySink = mock(DomainEventSink.class);
+        flakySink = mock(DomainEventSink.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        relay = new OutboxRelay(outboxEventRepository, new DomainEventBus(List.of(healthySink, flakySink)),
+                JsonMapper.builder().build(), transactionManager);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+    }
+
+    @Test
+    void deliveredBatchIsMarkedPublished() {
+        when(outboxEventRepository.lockUnpublished(10)).thenReturn(List.of(row(1L, 0), row(2L, 0)));
+
+        relay.relay();
+
+        verify(healthySink).onEvents(argThat(events -> events.size() == 2));
+        verify(flakySink).onEvents(argThat(events -> events.size() == 2));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository, never()).recordFailedAttempt(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void failingSinkLeavesOnlyTheFailingEventUnpublished() {
+        OutboxEvent good = row(1L, 0);
+        OutboxEvent poison = row(2L, 0);
+        when(outboxEventRepository.lockUnpublished(10)).thenReturn(List.of(good, poison));
+        when(outboxEventRepository.lockPending(1L)).thenReturn(Optional.of(good));
+        when(outboxEventRepository.lockPending(2L)).thenReturn(Optional.of(poison));
+        doThrow(new IllegalStateException("down")).when(flakySink)
+                .onEvents(argThat(events -> events.stream().anyMatch(event -> event.getId() == 2L)));
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any());
+        verify(outboxEventRepository, never()).markPublished(eq(List.of(2L)), any());
+        verify(outboxEventRepository).recordFailedAttempt(eq(2L), anyString(), eq(3), any());
+    }
+
+    @Test
+    void sinkFailureDoesNotStopTheOtherSinks() {
+        when(outboxEventRepository.lockUnpublished(10)).thenReturn(List.of(row(1L, 0)));
+        when(outboxEventRepository.lockPending(1L)).thenReturn(Optional.of(row(1L, 2)));
+        doThrow(new IllegalStateException("down")).when(healthySink).onEvents(anyList());
+
+        relay.relay();
+
+        verify(flakySink, times(2)).onEvents(anyList());
+        verify(outboxEventRepository).recordFailedAttempt(eq(1L), anyString(), eq(3), any());
+        verify(outboxEventRepository, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void unreadablePayloadIsMarkedFailedWithoutBlockingTheBatch() {
+        OutboxEvent broken = row(1L, 0);
+        broken.setPayload("{not json");
+        when(outboxEventRepository.lockUnpublished(10)).thenReturn(List.of(broken, row(2L, 0)));
+
+        relay.relay();
+
+        verify(outboxEventRepository).markFailed(eq(1L), any(), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(2L)), any());
+    }
+
+    private static OutboxEvent row(Long id, int attempts) {
+        OutboxEvent row = new OutboxEvent(DomainEventType.SALE_UPDATED, 10L + id, "{\"status\":\"NEW\"}");
+        row.setId(id);
+        row.setAttempts(attempts);
+        row.setCreatedAt(LocalDateTime.now());
+        return row;
+    }
+}
@@ -0,0 +1,36 @@
+package com.crm.service;
+
+import com.crm.enums.VersionedResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Collection fingerprints cover every table embedded in a list and avoid counting rows
+ */
+class ResourceVersionServiceImplTest {
+
+    @Test
+    void listsEmbeddingUsersIncludeTheUsersCounter() {
+        assertEquals(List.of("leads", "users"), ResourceVersionServiceImpl.collectionTables(VersionedResource.LEADS));
+        assertEquals(List.of("sales", "customers", "users"), ResourceVersionServiceImpl.collectionTables(VersionedResource.SALES));
+        assertEquals(List.of("tasks", "leads", "users"), ResourceVersionServiceImpl.collectionTables(VersionedResource.TASKS));
+        assertEquals(List.of("customers"), ResourceVersionServiceImpl.collectionTables(VersionedResource.CUSTOMERS));
+    }
+
+    @Test
+    void fingerprintIsOneStatementOfLookupsWithoutCounts() {
+        String sql = ResourceVersionServiceImpl.collectionQuery(List.of("sales", "users"));
+
+        assertEquals("SELECT COALESCE((SELECT changes FROM collection_versions WHERE table_name = 'sales'), 0), "
+                + "(SELECT MAX(updated_date) FROM sales), "
+                + "COALESCE((SELECT changes FROM collection_versions WHERE table_name = 'users'), 0)", sql);
+        assertFalse(sql.contains("COUNT("));
+        // users has no updated_date column
+        assertTrue(sql.endsWith("'users'), 0)"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Legacy double amounts are rounded half up to the currency's minor unit in keyset batches, and the
+ * derived revenue data is corrected only when something changed
+ */
+class SaleAmountMigrationTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private final Deque<List<Object[]>> batches = new ArrayDeque<>();
+    private final List<Long> batchStarts = new ArrayList<>();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private SaleRevenueBucketBackfill saleRevenueBucketBackfill;
+    private SaleForecastService saleForecastService;
+    private SaleAnalyticsService saleAnalyticsService;
+    private CollectionChangeService collectionChangeService;
+    private SaleAmountMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        saleRevenueBucketBackfill = mock(SaleRevenueBucketBackfill.class);
+        saleForecastService = mock(SaleForecastService.class);
+        saleAnalyticsService = mock(SaleAnalyticsService.class);
+        collectionChangeService = mock(CollectionChangeService.class);
+        migration = new SaleAmountMigration(jdbcTemplate, transactionManager, saleRevenueBucketBackfill,
+                saleForecastService, saleAnalyticsService, collectionChangeService);
+        ReflectionTestUtils.setField(migration, "batchSize", BATCH_SIZE);
+
+        legacyColumn(true);
+        doAnswer(invocation -> {
+            SqlParameterSource params = invocation.getArgument(1);
+            batchStarts.add((Long) params.getValue("afterId"));
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object[] row : batches.isEmpty() ? List.<Object[]>of() : batches.poll()) {
+                handler.processRow(row((long) row[0], (double) row[1], (String) row[2]));
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("amount_minor IS NULL"), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void legacyAmountsAreRoundedToTheCurrencysMinorUnit() {
+        batches.add(List.of(new Object[]{1L, 19.995, "USD"}, new Object[]{2L, 1234.5, "JPY"}));
+        batches.add(List.<Object[]>of(new Object[]{3L, 0.125, null}));
+
+        migration.migrate();
+
+        ArgumentCaptor<SqlParameterSource[]> updates = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), updates.capture());
+        List<SqlParameterSource> rows = new ArrayList<>();
+        updates.getAllValues().forEach(batch -> rows.addAll(List.of(batch)));
+        assertEquals(List.of(2000L, 1235L, 13L),
+                rows.stream().map(params -> params.getValue("amountMinor")).toList());
+    }
+
+    @Test
+    void batchesFollowTheLastIdUntilOneComesBackShort() {
+        batches.add(List.of(new Object[]{4L, 1.0, "USD"}, new Object[]{9L, 2.0, "USD"}));
+        batches.add(List.<Object[]>of(new Object[]{12L, 3.0, "USD"}));
+
+        migration.migrate();
+
+        assertEquals(List.of(0L, 9L), batchStarts);
+    }
+
+    @Test
+    void movedAmountsCorrectTheDerivedRevenueData() {
+        batches.add(List.<Object[]>of(new Object[]{5L, 10.0, "EUR"}));
+
+        migration.migrate();
+
+        verify(collectionChangeService).recordChange("sales");
+        verify(saleRevenueBucketBackfill).reconcile();
+        verify(saleForecastService).invalidate();
+        verify(saleAnalyticsService).refresh();
+    }
+
+    @Test
+    void filledCurrenciesAloneAlsoCorrectTheDerivedData() {
+        legacyColumn(false);
+        when(jdbcTemplate.update(contains("SET currency"), any(SqlParameterSource.class))).thenReturn(3);
+
+        migration.migrate();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(saleRevenueBucketBackfill).reconcile();
+    }
+
+    @Test
+    void rerunWithNothingLeftChangesNothing() {
+        migration.migrate();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verifyNoInteractions(collectionChangeService, saleRevenueBucketBackfill, saleForecastService,
+                saleAnalyticsService);
+    }
+
+    private void legacyColumn(boolean exists) {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), any(SqlParameterSource.class),
+                eq(Integer.class))).thenReturn(exists ? 1 : 0);
+    }
+
+    private static ResultSet row(long id, double amount, String currency) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getDouble(2)).thenReturn(amount);
+        when(rs.getString(3)).thenReturn(currency);
+        return rs;
+    }
+}
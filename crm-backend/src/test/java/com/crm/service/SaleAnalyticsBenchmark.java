@@ -0,0 +1,125 @@
+package com.crm.service;
+
+import com.crm.enums.SaleStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the columnar snapshot scan against the same aggregation over one object per sale,
+ * which is how the analytics were computed before the snapshot existed. The data is synthetic,
+ * so no database is needed:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.crm.service.SaleAnalyticsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaleAnalyticsBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 5 * 365;
+    private static final String[] CURRENCIES = {"USD", "USD", "USD", "EUR", "GBP"};
+
+    @Param({"100000", "1000000", "5000000"})
+    private int rows;
+
+    @Param({"none", "status", "salesRep", "month"})
+    private String groupBy;
+
+    private SaleAnalyticsServiceImpl service;
+    private List<SaleRow> saleRows;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<SaleStatus> statuses;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        SaleStatus[] allStatuses = SaleStatus.values();
+        SalesColumnarSnapshot.Builder builder = new SalesColumnarSnapshot.Builder(rows);
+        saleRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long amount = random.nextLong(100, 10_000_000);
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            SaleStatus status = allStatuses[random.nextInt(allStatuses.length)];
+            String currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            Long salesRepId = random.nextInt(20) == 0 ? null : (long) random.nextInt(1, 200);
+            Long customerId = (long) random.nextInt(1, 50_000);
+            builder.add(amount, date, status.ordinal(), currency, salesRepId, customerId);
+            saleRows.add(new SaleRow(amount, date, status, currency, salesRepId, customerId));
+        }
+        // Never connected to: the snapshot is installed up front, so refresh() is not reached
+        service = new SaleAnalyticsServiceImpl(new DriverManagerDataSource("jdbc:mysql://localhost/unused"));
+        service.useSnapshot(builder.build(LocalDateTime.now()));
+
+        fromDate = FIRST_DAY.plusDays(DAYS / 4);
+        toDate = FIRST_DAY.plusDays(DAYS - DAYS / 4);
+        statuses = List.of(SaleStatus.APPROVED, SaleStatus.COMPLETED);
+    }
+
+    @Benchmark
+    public Object columnarSnapshot() {
+        return service.query(fromDate, toDate, statuses, null, null, "USD", groupBy);
+    }
+
+    @Benchmark
+    public Object rowObjects() {
+        Map<Object, long[]> totals = new HashMap<>();
+        for (SaleRow row : saleRows) {
+            if (row.date.isBefore(fromDate) || row.date.isAfter(toDate)
+                    || !statuses.contains(row.status) || !"USD".equals(row.currency)) {
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(groupKey(row), key -> new long[2]);
+            total[0]++;
+            total[1] += row.amount;
+        }
+        return totals;
+    }
+
+    private Object groupKey(SaleRow row) {
+        return switch (groupBy) {
+            case "status" -> row.status;
+            case "salesRep" -> row.salesRepId != null ? row.salesRepId : 0L;
+            case "month" -> row.date.withDayOfMonth(1);
+            default -> "all";
+        };
+    }
+
+    private record SaleRow(long amount, LocalDate date, SaleStatus status, String currency,
+                           Long salesRepId, Long customerId) {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(SaleAnalyticsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
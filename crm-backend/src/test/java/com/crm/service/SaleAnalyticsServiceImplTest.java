@@ -0,0 +1,93 @@
+package com.crm.service;
+
+import com.crm.dto.RevenueTotal;
+import com.crm.dto.SaleAnalyticsResult;
+import com.crm.enums.SaleStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The per-worker scan sums every row range exactly once, whatever the number of groups
+ */
+class SaleAnalyticsServiceImplTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    // Several 65,536-row ranges, the last one partial, so workers take more than one range each
+    private static final int ROWS = 300_001;
+
+    private static SaleAnalyticsServiceImpl service;
+    private static long[] amounts;
+    private static LocalDate[] dates;
+    private static SaleStatus[] statuses;
+    private static Long[] customerIds;
+
+    @BeforeAll
+    static void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        SalesColumnarSnapshot.Builder builder = new SalesColumnarSnapshot.Builder(ROWS);
+        amounts = new long[ROWS];
+        dates = new LocalDate[ROWS];
+        statuses = new SaleStatus[ROWS];
+        customerIds = new Long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            amounts[i] = random.nextLong(1, 1_000_000);
+            dates[i] = FIRST_DAY.plusDays(random.nextInt(365));
+            statuses[i] = SaleStatus.values()[random.nextInt(SaleStatus.values().length)];
+            // Many customers, so the accumulator is large
+            customerIds[i] = random.nextInt(50) == 0 ? null : (long) random.nextInt(1, 40_000);
+            builder.add(amounts[i], dates[i], statuses[i].ordinal(), "USD", null, customerIds[i]);
+        }
+        // Never connected to: the snapshot is installed up front
+        service = new SaleAnalyticsServiceImpl(new DriverManagerDataSource("jdbc:mysql://localhost/unused"));
+        service.useSnapshot(builder.build(LocalDateTime.now()));
+    }
+
+    @Test
+    void totalsMatchARowByRowSum() {
+        SaleAnalyticsResult result = service.query(null, null, null, null, null, "USD", "none");
+
+        long expected = 0;
+        for (long amount : amounts) {
+            expected += amount;
+        }
+        assertEquals(ROWS, result.getMatchedRows());
+        assertEquals(BigDecimal.valueOf(expected, 2), result.getGroups().get(0).getAmount());
+    }
+
+    @Test
+    void customerGroupsMatchARowByRowSum() {
+        LocalDate from = FIRST_DAY.plusDays(30);
+        LocalDate to = FIRST_DAY.plusDays(200);
+        List<SaleStatus> wanted = List.of(SaleStatus.APPROVED, SaleStatus.COMPLETED);
+
+        SaleAnalyticsResult result = service.query(from, to, wanted, null, null, "USD", "customer");
+
+        Map<String, long[]> expected = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            if (dates[i].isBefore(from) || dates[i].isAfter(to) || !wanted.contains(statuses[i])) {
+                continue;
+            }
+            long[] total = expected.computeIfAbsent(customerIds[i] != null ? customerIds[i].toString() : "0",
+                    key -> new long[2]);
+            total[0]++;
+            total[1] += amounts[i];
+        }
+        assertEquals(expected.size(), result.getGroups().size());
+        for (RevenueTotal group : result.getGroups()) {
+            long[] total = expected.get(group.getKey());
+            assertEquals(total[0], group.getSaleCount(), group.getKey());
+            assertEquals(BigDecimal.valueOf(total[1], 2), group.getAmount(), group.getKey());
+        }
+    }
+}
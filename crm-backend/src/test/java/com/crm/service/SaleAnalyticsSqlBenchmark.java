@@ -0,0 +1,96 @@
+package com.crm.service;
+
+import com.crm.enums.SaleStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the snapshot scan with the GROUP BY the database would otherwise run, against a real
+ * sales table. Point it at a populated database with the JMH parameters, for example:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.crm.service.SaleAnalyticsSqlBenchmark \
+ *     -Dexec.args="-p jdbcUrl=jdbc:mysql://localhost:3306/crm_db -p user=root -p password=secret"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SaleAnalyticsSqlBenchmark {
+
+    private static final String GROUP_BY_MONTH =
+            "SELECT DATE_FORMAT(date, '%Y-%m-01') AS month_start, COUNT(*), SUM(amount_minor) FROM sales " +
+            "WHERE amount_minor IS NOT NULL AND date BETWEEN :fromDate AND :toDate " +
+            "AND status IN (:statuses) AND currency = :currency GROUP BY month_start";
+
+    @Param("jdbc:mysql://localhost:3306/crm_db")
+    private String jdbcUrl;
+
+    @Param("root")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    private SaleAnalyticsServiceImpl service;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private MapSqlParameterSource params;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<SaleStatus> statuses;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl, user, password);
+        service = new SaleAnalyticsServiceImpl(dataSource);
+        service.refresh();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        toDate = LocalDate.now();
+        fromDate = toDate.minusYears(1);
+        statuses = List.of(SaleStatus.APPROVED, SaleStatus.COMPLETED);
+        params = new MapSqlParameterSource()
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate)
+                .addValue("statuses", statuses.stream().map(Enum::name).toList())
+                .addValue("currency", "USD");
+    }
+
+    @Benchmark
+    public Object columnarSnapshot() {
+        return service.query(fromDate, toDate, statuses, null, null, "USD", "month");
+    }
+
+    @Benchmark
+    public Object sqlGroupBy() {
+        return jdbcTemplate.queryForList(GROUP_BY_MONTH, params);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(SaleAnalyticsSqlBenchmark.class.getSimpleName()).build()).run();
+    }
+}
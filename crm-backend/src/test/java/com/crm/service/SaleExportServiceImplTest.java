@@ -0,0 +1,129 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A large export is read with a portable positive fetch size and streamed without the heap growing with the row count
+ */
+class SaleExportServiceImplTest {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int ROWS = 2_000_000;
+    private static final int WARM_UP_ROWS = ROWS / 10;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private static final byte[] NOTES = "Renewal, \"priority\" account".getBytes(StandardCharsets.UTF_8);
+
+    // Driven by hand rather than through Mockito, which would record millions of invocations
+    private int fetchSize;
+    private int row;
+    private long heapAfterWarmUp;
+    private long heapAtEnd;
+
+    @Test
+    void streamsAMultiMillionRowExportInBoundedMemory() throws Exception {
+        SaleExportServiceImpl service = new SaleExportServiceImpl(dataSource(), FETCH_SIZE);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long exported = service.exportCsv(null, null, null, out);
+
+        assertEquals(ROWS, exported);
+        assertEquals(FETCH_SIZE, fetchSize);
+        assertTrue(out.bytes > (long) ROWS * 50, "every row reaches the response stream");
+        long growth = heapAtEnd - heapAfterWarmUp;
+        assertTrue(growth < MAX_HEAP_GROWTH, "heap grew by " + growth + " bytes while streaming");
+    }
+
+    private DataSource dataSource() {
+        ResultSet resultSet = proxy(ResultSet.class, (p, method, args) -> switch (method.getName()) {
+            case "next" -> {
+                if (row == WARM_UP_ROWS) {
+                    heapAfterWarmUp = usedHeap();
+                }
+                if (row == ROWS) {
+                    heapAtEnd = usedHeap();
+                    yield false;
+                }
+                row++;
+                yield true;
+            }
+            case "getLong" -> (int) args[0] == 1 ? (long) row : 123_456L;
+            case "getString" -> switch ((int) args[0]) {
+                case 2 -> "2024-03-01";
+                case 4 -> "CLOSED_WON";
+                case 6 -> "USD";
+                case 7 -> "42";
+                case 8 -> "Acme, Inc.";
+                case 9 -> "7";
+                default -> null;
+            };
+            case "getBytes" -> NOTES;
+            default -> defaultValue(method.getReturnType());
+        });
+        PreparedStatement statement = proxy(PreparedStatement.class, (p, method, args) -> switch (method.getName()) {
+            case "setFetchSize" -> {
+                fetchSize = (int) args[0];
+                yield null;
+            }
+            case "executeQuery" -> resultSet;
+            // Null parameters are typed through the metadata; Types.NULL is fine for a stub
+            case "getParameterMetaData" -> proxy(ParameterMetaData.class, (q, m, a) -> defaultValue(m.getReturnType()));
+            default -> defaultValue(method.getReturnType());
+        });
+        Connection connection = proxy(Connection.class, (p, method, args) ->
+                method.getName().equals("prepareStatement") ? statement : defaultValue(method.getReturnType()));
+        return proxy(DataSource.class, (p, method, args) ->
+                method.getName().equals("getConnection") ? connection : defaultValue(method.getReturnType()));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Only the days whose buckets disagree with the sales table are touched, one call each
+ */
+class SaleRevenueBucketBackfillTest {
+
+    private final SaleRevenueService saleRevenueService = mock(SaleRevenueService.class);
+    private final SaleRevenueBucketBackfill backfill = new SaleRevenueBucketBackfill(saleRevenueService);
+
+    @Test
+    void reconcilesOnlyTheDaysThatDisagree() {
+        LocalDate first = LocalDate.of(2023, 11, 2);
+        LocalDate second = LocalDate.of(2024, 2, 29);
+        when(saleRevenueService.findUnreconciledDays()).thenReturn(List.of(first, second));
+        when(saleRevenueService.reconcileDay(first)).thenReturn(3);
+        // Fixed meanwhile by a live write
+        when(saleRevenueService.reconcileDay(second)).thenReturn(0);
+
+        assertEquals(1, backfill.reconcile());
+
+        verify(saleRevenueService).findUnreconciledDays();
+        verify(saleRevenueService).reconcileDay(first);
+        verify(saleRevenueService).reconcileDay(second);
+        verifyNoMoreInteractions(saleRevenueService);
+    }
+
+    @Test
+    void matchingBucketsAreLeftAlone() {
+        when(saleRevenueService.findUnreconciledDays()).thenReturn(List.of());
+
+        assertEquals(0, backfill.reconcile());
+
+        verify(saleRevenueService, never()).reconcileDay(any());
+    }
+}
@@ -0,0 +1,82 @@
+package com.crm.service;
+
+import com.crm.repository.SaleRevenueBucketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reconciling a day locks its buckets first and applies only the difference, through the live upsert
+ */
+class SaleRevenueServiceImplTest {
+
+    // A Wednesday, so the week and month buckets start on other days
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 15);
+
+    private SaleRevenueBucketRepository bucketRepository;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private SaleRevenueServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        bucketRepository = mock(SaleRevenueBucketRepository.class);
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        // Never connected to: statements go through the mocked template
+        service = new SaleRevenueServiceImpl(bucketRepository, new DriverManagerDataSource("jdbc:mysql://localhost/unused"));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void appliesTheDifferenceToDayWeekAndMonthBucketsAfterLockingTheDay() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(4L);
+        when(row.getLong(2)).thenReturn(0L);
+        when(row.getString(3)).thenReturn("COMPLETED");
+        when(row.getString(4)).thenReturn("USD");
+        when(row.getLong(5)).thenReturn(2L);
+        when(row.getLong(6)).thenReturn(150_000L);
+        when(jdbcTemplate.query(contains("UNION ALL"), anyMap(), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(2).mapRow(row, 0)));
+
+        assertEquals(1, service.reconcileDay(DAY));
+
+        InOrder order = inOrder(jdbcTemplate, bucketRepository);
+        order.verify(jdbcTemplate).queryForList(contains("FOR UPDATE"), eq(Map.of("day", DAY)), eq(Long.class));
+        order.verify(jdbcTemplate).query(contains("UNION ALL"), eq(Map.of("day", DAY)), any(RowMapper.class));
+        order.verify(bucketRepository).increment("DAY", DAY, 4L, 0L, "COMPLETED", "USD", 2L, 150_000L);
+        order.verify(bucketRepository).increment("WEEK", LocalDate.of(2024, 5, 13), 4L, 0L, "COMPLETED", "USD", 2L, 150_000L);
+        order.verify(bucketRepository).increment("MONTH", LocalDate.of(2024, 5, 1), 4L, 0L, "COMPLETED", "USD", 2L, 150_000L);
+    }
+
+    @Test
+    void dayThatMatchesLeavesTheBucketsAlone() {
+        when(jdbcTemplate.query(contains("UNION ALL"), anyMap(), any(RowMapper.class))).thenReturn(List.of());
+
+        assertEquals(0, service.reconcileDay(DAY));
+
+        verify(bucketRepository, never()).increment(anyString(), any(), anyLong(), anyLong(), anyString(), anyString(),
+                anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,107 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = flight.execute("stats", () -> {
+            calls.incrementAndGet();
+            return source;
+        });
+        CompletableFuture<Integer> second = flight.execute("stats", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(-1);
+        });
+        source.complete(42);
+
+        assertEquals(1, calls.get());
+        assertEquals(42, first.get());
+        assertEquals(42, second.get());
+    }
+
+    @Test
+    void differentKeysRunSeparately() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+
+        assertEquals(1, flight.execute("a", () -> CompletableFuture.completedFuture(1)).get());
+        assertEquals(2, flight.execute("b", () -> CompletableFuture.completedFuture(2)).get());
+    }
+
+    @Test
+    void reusesSuccessWithinTtl() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+        AtomicInteger calls = new AtomicInteger();
+
+        flight.execute("stats", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).get();
+        int reused = flight.execute("stats", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).get();
+
+        assertEquals(1, reused);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void recomputesOnceCompletedWithoutTtl() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        AtomicInteger calls = new AtomicInteger();
+
+        flight.execute("stats", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).get();
+        int recomputed = flight.execute("stats", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).get();
+
+        assertEquals(2, recomputed);
+    }
+
+    @Test
+    void failuresAreNotReused() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+
+        CompletableFuture<Integer> failed = flight.execute("stats",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("database down")));
+        CompletableFuture<Integer> retried = flight.execute("stats", () -> CompletableFuture.completedFuture(7));
+
+        ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertEquals(7, retried.get());
+    }
+
+    @Test
+    void supplierExceptionFailsTheFuture() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(60_000);
+
+        CompletableFuture<Integer> result = flight.execute("stats", () -> {
+            throw new IllegalArgumentException("bad query");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertTrue(error.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheOthersRunning() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(0);
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = flight.execute("stats", () -> source);
+        CompletableFuture<Integer> second = flight.execute("stats", () -> source);
+        first.cancel(true);
+        source.complete(5);
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals(5, second.get());
+    }
+}
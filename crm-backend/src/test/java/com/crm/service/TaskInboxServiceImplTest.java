@@ -0,0 +1,170 @@
+package com.crm.service;
+
+import com.crm.dto.TaskInbox;
+import com.crm.dto.TaskInboxItem;
+import com.crm.enums.DomainEventType;
+import com.crm.enums.TaskStatus;
+import com.crm.model.OutboxEvent;
+import com.crm.model.Task;
+import com.crm.model.User;
+import com.crm.repository.OutboxEventRepository;
+import com.crm.repository.TaskRepository;
+import com.crm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A cursor returns only what changed after it, falls back to the full inbox when it is no longer
+ * tracked, and a long poll is answered by the next change
+ */
+class TaskInboxServiceImplTest {
+
+    private static final int MAX_ITEMS = 3;
+    private static final long ALICE = 1L;
+    private static final long BOB = 2L;
+
+    private TaskRepository taskRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private TaskInboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(taskRepository.findInboxTasks(anyLong(), any())).thenReturn(List.of());
+        service = new TaskInboxServiceImpl(taskRepository, userRepository, outboxEventRepository,
+                MAX_ITEMS, 100, 30_000, 0);
+    }
+
+    @Test
+    void cursorReturnsOnlyLaterChanges() {
+        when(taskRepository.findInboxTasks(eq(ALICE), any())).thenReturn(List.of(task(10L, ALICE, 1L)));
+        TaskInbox first = inbox(ALICE, null);
+        assertTrue(first.isFull());
+        assertEquals(List.of(10L), taskIds(first));
+
+        service.taskSaved(task(11L, ALICE, 1L), null);
+        TaskInbox delta = inbox(ALICE, first.getCursor());
+
+        assertFalse(delta.isFull());
+        assertEquals(List.of(11L), taskIds(delta));
+        assertTrue(delta.getRemovedTaskIds().isEmpty());
+        // Nothing changed after the new cursor
+        assertTrue(taskIds(inbox(ALICE, delta.getCursor())).isEmpty());
+    }
+
+    @Test
+    void reassignedTaskLeavesTheOldInboxAndEntersTheNewOne() {
+        long aliceCursor = inbox(ALICE, null).getCursor();
+        long bobCursor = inbox(BOB, null).getCursor();
+
+        service.taskSaved(task(12L, BOB, 2L), ALICE);
+
+        assertEquals(List.of(12L), inbox(ALICE, aliceCursor).getRemovedTaskIds());
+        assertEquals(List.of(12L), taskIds(inbox(BOB, bobCursor)));
+    }
+
+    @Test
+    void olderVersionCommittedLateDoesNotReplaceANewerOne() {
+        long cursor = inbox(ALICE, null).getCursor();
+
+        service.taskSaved(task(13L, ALICE, 5L), null);
+        service.taskSaved(task(13L, ALICE, 4L), null);
+
+        List<TaskInboxItem> items = inbox(ALICE, cursor).getItems();
+        assertEquals(1, items.size());
+        assertEquals(5L, items.get(0).getVersion());
+    }
+
+    @Test
+    void cursorOlderThanTheTrackedChangesGetsTheWholeInbox() {
+        long cursor = inbox(ALICE, null).getCursor();
+        // Twice as many removals as are tracked push the floor past the cursor
+        for (long id = 20; id < 20 + 2 * MAX_ITEMS; id++) {
+            service.taskSaved(task(id, ALICE, 1L), null);
+            service.taskSaved(task(id, BOB, 2L), ALICE);
+        }
+
+        assertTrue(inbox(ALICE, cursor).isFull());
+        // A cursor this instance never issued is treated the same way
+        assertTrue(inbox(ALICE, Long.MAX_VALUE).isFull());
+    }
+
+    @Test
+    void longPollIsAnsweredByTheNextChange() throws Exception {
+        long cursor = inbox(ALICE, null).getCursor();
+        CompletableFuture<TaskInbox> waiting = service.getInbox(ALICE, cursor, 10_000);
+        assertFalse(waiting.isDone());
+
+        service.taskSaved(task(14L, ALICE, 1L), null);
+
+        assertEquals(List.of(14L), taskIds(waiting.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void writesFromOtherInstancesArriveThroughTheOutbox() {
+        when(outboxEventRepository.findMaxId()).thenReturn(100L);
+        service.syncFromOutbox();
+        long cursor = inbox(ALICE, null).getCursor();
+        Task written = task(15L, ALICE, 1L);
+        when(outboxEventRepository.findByAggregateTypeAfter(eq(100L), eq("TASK"), any()))
+                .thenReturn(List.of(event(101L, 15L)));
+        when(taskRepository.findAllById(any())).thenReturn(List.of(written));
+
+        service.syncFromOutbox();
+
+        assertEquals(List.of(15L), taskIds(inbox(ALICE, cursor)));
+        // The tail moved past the event, so the next sync does not reload the task
+        when(outboxEventRepository.findByAggregateTypeAfter(eq(101L), eq("TASK"), any())).thenReturn(List.of());
+        service.syncFromOutbox();
+        verify(taskRepository, times(1)).findAllById(any());
+    }
+
+    private TaskInbox inbox(long userId, Long since) {
+        return service.getInbox(userId, since, 0).join();
+    }
+
+    private static List<Long> taskIds(TaskInbox inbox) {
+        List<Long> ids = new ArrayList<>();
+        inbox.getItems().forEach(item -> ids.add(item.getTaskId()));
+        return ids;
+    }
+
+    private static Task task(Long id, Long assigneeId, Long version) {
+        User assignee = new User();
+        assignee.setId(assigneeId);
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setStatus(TaskStatus.PENDING);
+        task.setAssignedTo(assignee);
+        task.setVersion(version);
+        return task;
+    }
+
+    private static OutboxEvent event(Long id, Long taskId) {
+        OutboxEvent event = new OutboxEvent(DomainEventType.TASK_UPDATED, taskId, "{}");
+        event.setId(id);
+        event.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        return event;
+    }
+}
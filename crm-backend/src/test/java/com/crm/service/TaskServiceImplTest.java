@@ -0,0 +1,83 @@
+package com.crm.service;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.TaskStatus;
+import com.crm.exceptionhandler.PreconditionFailedException;
+import com.crm.model.Task;
+import com.crm.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * If-Match status changes report the status they replaced
+ */
+class TaskServiceImplTest {
+
+    private TaskRepository taskRepository;
+    private OutboxService outboxService;
+    private TaskServiceImpl taskService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        taskRepository = mock(TaskRepository.class);
+        outboxService = mock(OutboxService.class);
+        taskService = new TaskServiceImpl(2000, transactionManager);
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskService, "outboxService", outboxService);
+        ReflectionTestUtils.setField(taskService, "leadScoringService", mock(LeadScoringService.class));
+        ReflectionTestUtils.setField(taskService, "taskInboxService", mock(TaskInboxService.class));
+        ReflectionTestUtils.setField(taskService, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void updateStatusWithIfMatchReportsPreviousStatus() {
+        Task saved = task(TaskStatus.COMPLETED, 4L);
+        when(taskRepository.lockStatus(1L)).thenReturn(Optional.of("PENDING"));
+        when(taskRepository.updateStatusIfVersion(eq(1L), eq(TaskStatus.COMPLETED), eq(3L), any())).thenReturn(1);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(saved));
+
+        assertSame(saved, taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, 3L).join());
+
+        verify(outboxService).taskChanged(DomainEventType.TASK_STATUS_CHANGED, saved, TaskStatus.PENDING);
+    }
+
+    @Test
+    void updateStatusWithStaleIfMatchIsRejected() {
+        when(taskRepository.lockStatus(1L)).thenReturn(Optional.of("PENDING"));
+        when(taskRepository.updateStatusIfVersion(eq(1L), any(), eq(3L), any())).thenReturn(0);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(TaskStatus.PENDING, 4L)));
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, 3L).join());
+
+        assertInstanceOf(PreconditionFailedException.class, thrown.getCause());
+        verifyNoInteractions(outboxService);
+    }
+
+    private static Task task(TaskStatus status, Long version) {
+        Task task = new Task();
+        task.setId(1L);
+        task.setStatus(status);
+        task.setVersion(version);
+        return task;
+    }
+}
@@ -0,0 +1,168 @@
+package com.crm.service.impl;
+
+import com.crm.enums.DomainEventType;
+import com.crm.enums.LeadStatus;
+import com.crm.exceptionhandler.PreconditionFailedException;
+import com.crm.model.Lead;
+import com.crm.repository.LeadRepository;
+import com.crm.service.LeadConversionService;
+import com.crm.service.LeadFunnelService;
+import com.crm.service.LeadScoringService;
+import com.crm.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * If-Match handling of lead updates: stale versions are rejected, and only real changes are recorded
+ */
+class LeadServiceImplTest {
+
+    private LeadRepository leadRepository;
+    private LeadScoringService leadScoringService;
+    private LeadFunnelService leadFunnelService;
+    private OutboxService outboxService;
+    private LeadServiceImpl leadService;
+
+    @BeforeEach
+    void setUp() {
+        leadRepository = mock(LeadRepository.class);
+        leadFunnelService = mock(LeadFunnelService.class);
+        outboxService = mock(OutboxService.class);
+        leadScoringService = mock(LeadScoringService.class);
+        leadService = new LeadServiceImpl(leadRepository, leadScoringService,
+                mock(LeadConversionService.class), leadFunnelService, outboxService);
+        when(leadRepository.save(any(Lead.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(leadRepository.saveAndFlush(any(Lead.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void updateLeadRejectsStaleVersion() {
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(lead(1L, LeadStatus.NEW, 3L)));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> leadService.updateLead(1L, lead(null, LeadStatus.CONTACTED, null), 2L));
+
+        verify(leadRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(outboxService, leadFunnelService);
+    }
+
+    @Test
+    void updateLeadWithCurrentVersionRecordsStatusChange() {
+        Lead existing = lead(1L, LeadStatus.NEW, 3L);
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        Optional<Lead> updated = leadService.updateLead(1L, lead(null, LeadStatus.CONTACTED, null), 3L);
+
+        assertTrue(updated.isPresent());
+        assertEquals(LeadStatus.CONTACTED, updated.get().getStatus());
+        verify(leadFunnelService).recordTransition(existing, LeadStatus.CONTACTED);
+        verify(outboxService).leadChanged(DomainEventType.LEAD_STATUS_CHANGED, existing, LeadStatus.NEW);
+    }
+
+    @Test
+    void updateStatusWithIfMatchRecordsPreviousStatus() {
+        Lead current = lead(1L, LeadStatus.CONTACTED, 4L);
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "NEW", null}));
+        // CONTACTED scores 15 status points more than NEW
+        when(leadRepository.transitionIfVersion(eq(1L), eq(LeadStatus.CONTACTED), eq(15), eq(3L), any())).thenReturn(1);
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        Optional<Lead> updated = leadService.updateStatus(1L, LeadStatus.CONTACTED, 3L);
+
+        assertSame(current, updated.orElseThrow());
+        verify(leadFunnelService).recordTransition(current, LeadStatus.CONTACTED);
+        verify(outboxService).leadChanged(DomainEventType.LEAD_STATUS_CHANGED, current, LeadStatus.NEW);
+        // One guarded UPDATE writes status and score; the lead is not saved again
+        verify(leadRepository, never()).save(any());
+        verifyNoInteractions(leadScoringService);
+    }
+
+    @Test
+    void closingWithIfMatchZeroesScoreInTheSameStatement() {
+        Lead current = lead(1L, LeadStatus.LOST, 4L);
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "CONTACTED", null}));
+        when(leadRepository.closeIfVersion(eq(1L), eq(LeadStatus.LOST), eq(3L), any())).thenReturn(1);
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        leadService.updateStatus(1L, LeadStatus.LOST, 3L);
+
+        verify(leadRepository, never()).transitionIfVersion(any(), any(), anyInt(), any(), any());
+        verify(leadRepository, never()).save(any());
+        verify(outboxService).leadChanged(DomainEventType.LEAD_STATUS_CHANGED, current, LeadStatus.CONTACTED);
+    }
+
+    @Test
+    void reopeningWithIfMatchWritesTheFullScore() {
+        Lead closed = lead(1L, LeadStatus.LOST, 3L);
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "LOST", null}));
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(closed));
+        when(leadScoringService.scoreAs(closed, LeadStatus.NEW)).thenReturn(57);
+        when(leadRepository.transitionIfVersion(eq(1L), eq(LeadStatus.NEW), eq(57), eq(3L), any())).thenReturn(1);
+
+        leadService.updateStatus(1L, LeadStatus.NEW, 3L);
+
+        verify(leadRepository).transitionIfVersion(eq(1L), eq(LeadStatus.NEW), eq(57), eq(3L), any());
+        verify(outboxService).leadChanged(DomainEventType.LEAD_STATUS_CHANGED, closed, LeadStatus.LOST);
+    }
+
+    @Test
+    void updateStatusWithStaleIfMatchIsRejected() {
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "NEW", null}));
+        when(leadRepository.transitionIfVersion(eq(1L), any(), anyInt(), anyLong(), any())).thenReturn(0);
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(lead(1L, LeadStatus.NEW, 4L)));
+
+        assertThrows(PreconditionFailedException.class, () -> leadService.updateStatus(1L, LeadStatus.CONTACTED, 3L));
+
+        verifyNoInteractions(outboxService, leadFunnelService);
+    }
+
+    @Test
+    void updateStatusToCurrentStatusIsNoOp() {
+        Lead current = lead(1L, LeadStatus.NEW, 3L);
+        when(leadRepository.lockStates(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "NEW", null}));
+        // The guarded UPDATE matches no row when the status is already set
+        when(leadRepository.transitionIfVersion(eq(1L), eq(LeadStatus.NEW), eq(0), eq(3L), any())).thenReturn(0);
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        Optional<Lead> updated = leadService.updateStatus(1L, LeadStatus.NEW, 3L);
+
+        assertSame(current, updated.orElseThrow());
+        assertEquals(3L, current.getVersion());
+        verify(leadRepository, never()).save(any());
+        verifyNoInteractions(outboxService, leadFunnelService);
+    }
+
+    @Test
+    void updateStatusWithIfMatchOnMissingLeadIsEmpty() {
+        when(leadRepository.lockStates(List.of(9L))).thenReturn(List.of());
+        when(leadRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(leadService.updateStatus(9L, LeadStatus.CONTACTED, 1L).isEmpty());
+    }
+
+    private static Lead lead(Long id, LeadStatus status, Long version) {
+        Lead lead = new Lead();
+        lead.setId(id);
+        lead.setName("Lead " + id);
+        lead.setStatus(status);
+        lead.setVersion(version);
+        return lead;
+    }
+}
@@ -104,8 +104,15 @@ const CustomerList = () => {
     }
   };
 
-  const handleEdit = (customer) => {
-    setEditingCustomer(customer);
+  const handleEdit = async (customer) => {
+    // The list omits notes, so edit the full record to avoid clearing them on save
+    try {
+      const response = await customerAPI.getById(customer.id);
+      setEditingCustomer(response.data);
+    } catch (error) {
+      console.error('Error loading customer:', error);
+      setEditingCustomer(customer);
+    }
     setShowForm(true);
   };
 
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { getCurrentUser,getFullName, getDisplayName } from '../utils/auth';
-import { customerAPI, leadAPI, taskAPI, saleAPI } from '../services/api';
+import { customerAPI, leadAPI, taskAPI, saleAPI, dashboardAPI } from '../services/api';
 import './Dashboard.css';
 
 const Dashboard = () => {
@@ -101,6 +101,71 @@ const Dashboard = () => {
     loadDashboardData();
   }, []);
 
+  // Apply pushed deltas instead of polling; resync once after a reconnect in case deltas were missed
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') {
+      return undefined;
+    }
+    const stream = dashboardAPI.openStream();
+    let disconnected = false;
+
+    stream.onopen = () => {
+      if (disconnected) {
+        disconnected = false;
+        loadDashboardData();
+      }
+    };
+    stream.onerror = () => {
+      disconnected = true;
+    };
+    stream.addEventListener('delta', (message) => {
+      const delta = JSON.parse(message.data);
+      setStats((current) => applyDelta(current, delta));
+      const activity = toActivity(delta);
+      if (activity) {
+        setRecentActivities((current) => [activity, ...current].slice(0, 5));
+      }
+    });
+
+    return () => stream.close();
+  }, []);
+
+  const applyDelta = (current, delta) => {
+    const counter = { LEAD: 'leads', TASK: 'tasks', SALE: 'sales' }[delta.aggregateType];
+    let change = 0;
+    if (delta.type.endsWith('_CREATED')) change = 1;
+    if (delta.type.endsWith('_DELETED')) change = -1;
+    if (!counter || change === 0) {
+      return current;
+    }
+    const next = { ...current, [counter]: Math.max(0, current[counter] + change) };
+    next.conversionRate = Math.round((next.sales / Math.max(next.leads, 1)) * 100);
+    return next;
+  };
+
+  const toActivity = (delta) => {
+    const payload = delta.payload || {};
+    // Deltas of other users' records arrive without details; they only move the counters
+    if (Object.keys(payload).length === 0) {
+      return null;
+    }
+    const base = { id: `delta-${delta.id}`, time: 'just now' };
+    switch (delta.type) {
+      case 'TASK_CREATED':
+        return { ...base, type: 'task', title: 'New Task Assigned', description: payload.title, icon: 'fa-tasks', color: 'warning' };
+      case 'LEAD_CREATED':
+        return { ...base, type: 'lead', title: 'New Lead Added', description: payload.name, icon: 'fa-bullseye', color: 'success' };
+      case 'LEAD_STATUS_CHANGED':
+        return { ...base, type: 'lead', title: 'Lead Status Changed', description: `${payload.name}: ${payload.status}`, icon: 'fa-bullseye', color: 'info' };
+      case 'LEAD_CONVERTED':
+        return { ...base, type: 'lead', title: 'Lead Converted', description: `${payload.name} converted to customer`, icon: 'fa-check-circle', color: 'success' };
+      case 'SALE_CREATED':
+        return { ...base, type: 'sale', title: 'New Sale', description: `${payload.amount} ${payload.currency}`, icon: 'fa-chart-line', color: 'info' };
+      default:
+        return null;
+    }
+  };
+
   const loadDashboardData = async () => {
     try {
       setLoading(true);
@@ -116,7 +181,7 @@ const Dashboard = () => {
       const customers = customersRes.data.length || dummyStats.customers;
       const leads = leadsRes.data.length || dummyStats.leads;
       const tasks = tasksRes.data.length || dummyStats.tasks;
-      const sales = salesRes.data.length || dummyStats.sales;
+      const sales = salesRes.data.totalElements || dummyStats.sales;
 
       setStats({
         customers,
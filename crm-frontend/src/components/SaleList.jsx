@@ -3,11 +3,16 @@ import { saleAPI } from '../services/api';
 import SaleForm from './SaleForm';
 import './SaleList.css'; // We'll create this CSS file
 
+const PAGE_SIZE = 20;
+
 const SaleList = () => {
   const [sales, setSales] = useState([]);
   const [loading, setLoading] = useState(true);
   const [showForm, setShowForm] = useState(false);
   const [error, setError] = useState(null);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(1);
+  const [totalElements, setTotalElements] = useState(0);
 
   // Dummy data for demonstration
   const dummySales = [
@@ -46,20 +51,31 @@ const SaleList = () => {
   ];
 
   useEffect(() => {
-    loadSales();
-  }, []);
+    loadSales(page);
+  }, [page]);
 
-  const loadSales = async () => {
+  const loadSales = async (pageNumber = page) => {
     try {
       setLoading(true);
       setError(null);
       // Try to load real data first, fallback to dummy data
-      const response = await saleAPI.getAll();
-      setSales(response.data.length > 0 ? response.data : dummySales);
+      const response = await saleAPI.getAll({ page: pageNumber, size: PAGE_SIZE });
+      const content = response.data.content || [];
+      if (content.length === 0 && pageNumber === 0) {
+        setSales(dummySales);
+        setTotalPages(1);
+        setTotalElements(dummySales.length);
+      } else {
+        setSales(content);
+        setTotalPages(Math.max(response.data.totalPages || 1, 1));
+        setTotalElements(response.data.totalElements ?? content.length);
+      }
     } catch (error) {
       console.error('Error loading sales:', error);
       setError('Failed to load sales data. Showing demo data.');
       setSales(dummySales); // Fallback to dummy data
+      setTotalPages(1);
+      setTotalElements(dummySales.length);
     } finally {
       setLoading(false);
     }
@@ -154,7 +170,7 @@ const SaleList = () => {
             <i className="fas fa-list"></i>
           </div>
           <div className="stat-content">
-            <h3>{sales.length}</h3>
+            <h3>{totalElements}</h3>
             <p>Total Sales</p>
           </div>
         </div>
@@ -273,6 +289,30 @@ const SaleList = () => {
                 </tbody>
               </table>
             </div>
+            {/* Pagination */}
+            {totalPages > 1 && (
+              <div className="table-pagination">
+                <button
+                  className="btn btn-outline-secondary btn-sm"
+                  disabled={page === 0}
+                  onClick={() => setPage(page - 1)}
+                >
+                  <i className="fas fa-chevron-left me-1"></i>
+                  Previous
+                </button>
+                <span className="page-info text-muted">
+                  Page {page + 1} of {totalPages}
+                </span>
+                <button
+                  className="btn btn-outline-secondary btn-sm"
+                  disabled={page >= totalPages - 1}
+                  onClick={() => setPage(page + 1)}
+                >
+                  Next
+                  <i className="fas fa-chevron-right ms-1"></i>
+                </button>
+              </div>
+            )}
           </div>
         </div>
       )}
@@ -316,6 +316,12 @@ export const dashboardAPI = {
   getRecentActivities: () => api.get('/dashboard/recent-activities'),
   getSalesChart: (period) => api.get('/dashboard/sales-chart', { params: { period } }),
   getLeadConversion: () => api.get('/dashboard/lead-conversion'),
+  // EventSource cannot send an Authorization header, so the token travels as a query parameter
+  openStream: () => {
+    const token = getToken();
+    const query = token ? `?access_token=${encodeURIComponent(token)}` : '';
+    return new EventSource(`${API_BASE_URL}/stream/dashboard${query}`);
+  },
 };
 
 export const checkPermission = (endpoint) => {